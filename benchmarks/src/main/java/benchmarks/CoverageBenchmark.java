@@ -0,0 +1,62 @@
+package benchmarks;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import sim.space.Area;
+import sim.space.cell.smallcell.SmallCell;
+
+/**
+ * Computing the coverage of a small cell by its radius, in turn for each of
+ * the small cells of the area. The small cells already cover their points, thus
+ * the benchmark measures finding the points in the radius and looking them up
+ * in the coverage kept, which is what dominates upon setup as well.
+ *
+ * @author Xenofon Vasilakos xvas@aueb.gr
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class CoverageBenchmark {
+
+    @Param({"dense", "sparse"})
+    public String index;
+
+    @Param({"50", "150"})
+    public int radius;
+
+    private Area _area;
+    private List<SmallCell> _scs;
+    private int _next;
+
+    @Setup
+    public void setup() {
+        SteppedSimulation sim = Fixtures.simulation(
+                "space.area.index", index,
+                "space.sc.radious.mean", String.valueOf(radius),
+                "space.mu.group.size", "1");
+        _area = sim.getTheArea();
+        _scs = new ArrayList<>(sim.smallCells());
+    }
+
+    @Benchmark
+    public void updtCoverageByRadius() {
+        SmallCell sc = _scs.get(_next);
+        _next = (_next + 1) % _scs.size();
+        _area.updtCoverageByRadius(sc);
+    }
+}
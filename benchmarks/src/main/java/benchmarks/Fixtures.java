@@ -0,0 +1,251 @@
+package benchmarks;
+
+import app.arguments.MainArguments;
+import app.properties.Preprocessor;
+import exceptions.CriticalFailureException;
+import java.io.File;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.PrintStream;
+import java.io.PrintWriter;
+import java.nio.file.FileVisitResult;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.SimpleFileVisitor;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.util.Random;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+import sim.Scenario;
+import sim.ScenariosFactory;
+import sim.run.SimulationBaseRunner;
+import utils.DebugTool;
+
+/**
+ * Builds the simulations benchmarked out of a small synthetic trace.
+ *
+ * The trace is written once per JVM in a temporary directory: a documents file
+ * of {@link #DOCS} documents of 1 to 20 chunks with Zipf-like popularity, and a
+ * workload file of {@link #RECORDS} requests drawn from the same popularity.
+ * The scenario reads the default properties of the simulator, with the trace,
+ * a clock that never expires, no periodic garbage collection and mobile users
+ * moving by transition probabilities over randomly placed small cells. Each
+ * benchmark overrides the properties it varies on a copy of that scenario.
+ * The debugging output of the caching models, set up by the simulator
+ * application, is discarded.
+ * The temporary directory, along with the results and binary workloads written
+ * in it, is deleted when the JVM exits.
+ *
+ * The default properties are looked up in directory
+ * files/sim/core/default_properties under the path of system property
+ * epms.home, which defaults to the parent of the working directory if it is
+ * the benchmarks directory and to the working directory otherwise.
+ *
+ * @author Xenofon Vasilakos xvas@aueb.gr
+ */
+public final class Fixtures {
+
+    public static final int DOCS = 1000;
+    public static final int RECORDS = 20000;
+    private static final long TRACE_SEED = 1;
+
+    private static File _docsFile;
+    private static File _workloadFile;
+    private static Scenario _template;
+
+    private Fixtures() {
+    }
+
+    /**
+     * @return the documents file of the synthetic trace.
+     */
+    public static synchronized File docsFile() {
+        template();
+        return _docsFile;
+    }
+
+    /**
+     * @return the workload file of the synthetic trace.
+     */
+    public static synchronized File workloadFile() {
+        template();
+        return _workloadFile;
+    }
+
+    /**
+     * @param overrides pairs of property names and values set on a copy of the
+     * scenario of the benchmarks.
+     * @return the scenario
+     */
+    public static synchronized Scenario scenario(String... overrides) {
+        try {
+            Scenario s = Scenario.replicate(template());
+            for (int i = 0; i + 1 < overrides.length; i += 2) {
+                s.setProperty(overrides[i], overrides[i + 1]);
+            }
+            return s;
+        } catch (Exception ex) {
+            throw new CriticalFailureException(ex);
+        }
+    }
+
+    /**
+     * Creates the simulation of the scenario with the overrides, without
+     * running it.
+     *
+     * @param overrides pairs of property names and values.
+     * @return the simulation
+     */
+    public static SteppedSimulation simulation(String... overrides) {
+        return (SteppedSimulation) SimulationBaseRunner.newSimulation(scenario(overrides));
+    }
+
+    private static Scenario template() {
+        if (_template != null) {
+            return _template;
+        }
+        Logger.getLogger("").setLevel(Level.WARNING);
+        DebugTool.printer = new PrintStream(new OutputStream() {
+            @Override
+            public void write(int b) {
+            }
+
+            @Override
+            public void write(byte[] b, int off, int len) {
+            }
+        });
+        try {
+            File dir = Files.createTempDirectory("epms-bench").toFile();
+            deleteOnExit(dir);
+            File docsDir = new File(dir, "docs");
+            File workloadDir = new File(dir, "workload");
+            docsDir.mkdirs();
+            workloadDir.mkdirs();
+            _docsFile = new File(docsDir, "synthetic.csv");
+            _workloadFile = new File(workloadDir, "synthetic.csv");
+            writeTrace(_docsFile, _workloadFile);
+
+            File props = new File(dir, "benchmarks.ini");
+            try (PrintWriter out = new PrintWriter(props, "UTF-8")) {
+                out.println("include " + defaultProperties().getCanonicalPath());
+                out.println("simulation.run.class=" + SteppedSimulation.class.getName());
+                out.println("simulation.clock.type=sim.time.SimpleClock");
+                out.println("simulation.clock.gc_period=-1");
+                out.println("simulation.progress_update=1");
+                out.println("space.area.x=1000");
+                out.println("space.area.y=1000");
+                out.println("space.sc.init=RANDOM");
+                out.println("space.sc.num=16");
+                out.println("space.sc.radious.mean=150");
+                out.println("space.sc.radious.stdev=0");
+                out.println("space.sc.warmup_period=50");
+                out.println("space.sc.buffer.size=250MB");
+                out.println("space.mu.group.size=1000");
+                out.println("space.mu.dmd.trace.docs_path=" + docsDir.getCanonicalPath());
+                out.println("space.mu.dmd.trace.workload_path=" + workloadDir.getCanonicalPath());
+                out.println("space.mu.dmd.trace.files=" + _workloadFile.getName());
+                out.println("space.mu.dmd.trace.limit=0");
+                out.println("stats.outputdir=" + new File(dir, "results").getCanonicalPath());
+                out.println("stats.print.transient=false");
+            }
+
+            Preprocessor preprocessed = Preprocessor.process(props.getCanonicalPath());
+            ScenariosFactory.init(preprocessed, new MainArguments());
+            _template = ScenariosFactory.consumeNextSetup();
+            return _template;
+        } catch (Exception ex) {
+            throw new CriticalFailureException(ex);
+        }
+    }
+
+    /**
+     * Deletes the directory and all of its contents when the JVM exits.
+     */
+    private static void deleteOnExit(final File dir) {
+        Runtime.getRuntime().addShutdownHook(new Thread("delete " + dir) {
+            @Override
+            public void run() {
+                try {
+                    Files.walkFileTree(dir.toPath(), new SimpleFileVisitor<Path>() {
+                        @Override
+                        public FileVisitResult visitFile(Path file, BasicFileAttributes attrs) throws IOException {
+                            Files.delete(file);
+                            return FileVisitResult.CONTINUE;
+                        }
+
+                        @Override
+                        public FileVisitResult postVisitDirectory(Path d, IOException ex) throws IOException {
+                            if (ex != null) {
+                                throw ex;
+                            }
+                            Files.delete(d);
+                            return FileVisitResult.CONTINUE;
+                        }
+                    });
+                } catch (IOException ex) {
+                    System.err.println("Could not delete " + dir + ": " + ex);
+                }
+            }
+        });
+    }
+
+    private static File defaultProperties() throws IOException {
+        String home = System.getProperty("epms.home");
+        if (home == null) {
+            File cwd = new File(".").getCanonicalFile();
+            home = cwd.getName().equals("benchmarks") ? cwd.getParent() : cwd.getPath();
+        }
+        File master = new File(home, "files/sim/core/default_properties/master.ini");
+        if (!master.isFile()) {
+            throw new IOException("Default properties not found at " + master
+                    + "; set system property epms.home to the root of the simulator");
+        }
+        return master;
+    }
+
+    /**
+     * Writes the documents and the workload of the synthetic trace. The
+     * document of rank r is requested in proportion to 1/r.
+     */
+    private static void writeTrace(File docsFile, File workloadFile) throws IOException {
+        Random rand = new Random(TRACE_SEED);
+        long chunkSize = 125000L * 20;// the default chunk size, i.e. 20Mb
+        long[] sizes = new long[DOCS + 1];
+        double[] cumulative = new double[DOCS + 1];
+        for (int rank = 1; rank <= DOCS; rank++) {
+            sizes[rank] = chunkSize * (1 + rand.nextInt(20));
+            cumulative[rank] = cumulative[rank - 1] + 1.0 / rank;
+        }
+
+        int[] requests = new int[DOCS + 1];
+        int[] ids = new int[RECORDS];
+        for (int i = 0; i < RECORDS; i++) {
+            double u = rand.nextDouble() * cumulative[DOCS];
+            int lo = 1, hi = DOCS;
+            while (lo < hi) {
+                int mid = (lo + hi) >>> 1;
+                if (cumulative[mid] < u) {
+                    lo = mid + 1;
+                } else {
+                    hi = mid;
+                }
+            }
+            ids[i] = lo;
+            requests[lo]++;
+        }
+
+        try (PrintWriter out = new PrintWriter(docsFile, "UTF-8")) {
+            for (int rank = 1; rank <= DOCS; rank++) {
+                out.println(rank + ", " + Math.max(1, requests[rank]) + ", " + sizes[rank] + ", 1");
+            }
+        }
+        try (PrintWriter out = new PrintWriter(workloadFile, "UTF-8")) {
+            out.println("$RECS_NUM=" + RECORDS);
+            double time = 0;
+            for (int i = 0; i < RECORDS; i++) {
+                time += 1 + rand.nextInt(10);
+                out.println(time + ", " + ids[i] + ", " + sizes[ids[i]]);
+            }
+        }
+    }
+}
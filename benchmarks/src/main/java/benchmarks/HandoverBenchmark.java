@@ -0,0 +1,73 @@
+package benchmarks;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import sim.space.cell.CellRegistry;
+import sim.space.cell.smallcell.SmallCell;
+import sim.space.users.mobile.MobileGroup;
+
+/**
+ * Looking up the probability of a handover by
+ * {@link CellRegistry#handoverProbability} for each pair of neighboring small
+ * cells in turn, after the handovers of some rounds have been recorded.
+ *
+ * @author Xenofon Vasilakos xvas@aueb.gr
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class HandoverBenchmark {
+
+    @Param({"1000", "10000"})
+    public int mus;
+
+    private CellRegistry _registry;
+    private MobileGroup _group;
+    private SmallCell[] _srcs;
+    private SmallCell[] _dests;
+    private int _next;
+
+    @Setup
+    public void setup() throws Throwable {
+        SteppedSimulation sim = Fixtures.simulation("space.mu.group.size", String.valueOf(mus));
+        sim.warmUp();
+        for (int i = 0; i < 20; i++) {
+            sim.move();
+        }
+        _registry = sim.getCellRegistry();
+        _group = sim.mobileUsers().get(0).getUserGroup();
+
+        List<SmallCell> srcs = new ArrayList<>();
+        List<SmallCell> dests = new ArrayList<>();
+        for (SmallCell nxtSC : sim.smallCells()) {
+            for (SmallCell nxtNeighbor : nxtSC.neighbors()) {
+                srcs.add(nxtSC);
+                dests.add(nxtNeighbor);
+            }
+        }
+        _srcs = srcs.toArray(new SmallCell[srcs.size()]);
+        _dests = dests.toArray(new SmallCell[dests.size()]);
+    }
+
+    @Benchmark
+    public double handoverProbability() {
+        int i = _next;
+        _next = (_next + 1) % _srcs.length;
+        return _registry.handoverProbability(_group, _srcs[i], _dests[i]);
+    }
+}
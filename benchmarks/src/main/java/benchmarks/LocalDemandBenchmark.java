@@ -0,0 +1,92 @@
+package benchmarks;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import sim.content.ContentDocument;
+import sim.content.request.DocumentRequest;
+import sim.space.cell.demand_registry.LocalDemand;
+import sim.space.cell.smallcell.SmallCell;
+import sim.space.users.StationaryUser;
+import traces.dmdtrace.TraceWorkloadRecord;
+
+/**
+ * Registering and deregistering the local demand of a user by
+ * {@link LocalDemand#registerLclDmdForW} and
+ * {@link LocalDemand#deregisterLclDmdForW}, as done upon each handover, in a
+ * small cell in which the given number of requests by other users is already
+ * registered. The cost per operation should not depend on the demand
+ * registered.
+ *
+ * The users registering are stationary users of the cell with one request
+ * each, for documents drawn uniformly from the trace, so that the registered
+ * demand does not depend on moving mobile users around.
+ *
+ * @author Xenofon Vasilakos xvas@aueb.gr
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class LocalDemandBenchmark {
+
+    private static final int USERS = 1000;
+
+    @Param({"1000", "10000", "100000"})
+    public int demand;
+
+    private LocalDemand _dmd;
+    private StationaryUser[] _users;
+    private int _next;
+
+    @Setup
+    public void setup() throws Throwable {
+        SteppedSimulation sim = Fixtures.simulation(
+                "space.mu.group.size", "1",
+                "space.sc.num", "1");
+        SmallCell sc = sim.smallCells().iterator().next();
+        _dmd = sc.getDmdLclForW();
+
+        List<ContentDocument> docs = new ArrayList<>(sim.getTrcLoader().getDocuments().values());
+        Random rand = new Random(1);
+        for (int i = 0; i < demand; i++) {
+            _dmd.registerLclDmdForW(user(sim, sc, "registered_" + i, docs, rand), 1);
+        }
+        _users = new StationaryUser[USERS];
+        for (int i = 0; i < USERS; i++) {
+            _users[i] = user(sim, sc, "benchmarked_" + i, docs, rand);
+        }
+    }
+
+    private static StationaryUser user(SteppedSimulation sim, SmallCell sc, String id,
+            List<ContentDocument> docs, Random rand) throws Throwable {
+        StationaryUser user = new StationaryUser(id, sim, sim.simTime(), sc, sim.macrocell(),
+                sim.getCachingStrategies());
+        ContentDocument doc = docs.get(rand.nextInt(docs.size()));
+        user.addRequest(new DocumentRequest(
+                new TraceWorkloadRecord(sim, doc.sizeInBytes(), doc.getID(), 0), user));
+        return user;
+    }
+
+    @Benchmark
+    public void registerDeregister() {
+        StationaryUser user = _users[_next];
+        _next = (_next + 1) % _users.length;
+        _dmd.registerLclDmdForW(user, 1);
+        _dmd.deregisterLclDmdForW(user, 1);
+    }
+}
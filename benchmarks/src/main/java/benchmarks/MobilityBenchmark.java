@@ -0,0 +1,45 @@
+package benchmarks;
+
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Moving the mobile users, one operation being a round in which every mobile
+ * user moves once by {@link sim.space.users.mobile.MobileUser#moveRelatively}.
+ *
+ * @author Xenofon Vasilakos xvas@aueb.gr
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class MobilityBenchmark {
+
+    @Param({"1000", "10000"})
+    public int mus;
+
+    private SteppedSimulation _sim;
+
+    @Setup
+    public void setup() throws Throwable {
+        _sim = Fixtures.simulation("space.mu.group.size", String.valueOf(mus));
+        _sim.warmUp();
+    }
+
+    @Benchmark
+    public void moveRelatively() throws Throwable {
+        _sim.move();
+    }
+}
@@ -0,0 +1,206 @@
+package benchmarks;
+
+import caching.base.no_price.AbstractGainRplc;
+import java.util.AbstractQueue;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Random;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import sim.content.Chunk;
+import sim.content.request.DocumentRequest;
+import sim.space.cell.demand_registry.PCDemand;
+import sim.space.cell.smallcell.SmallCell;
+import sim.space.users.mobile.MobileUser;
+
+/**
+ * Cache replacement by {@link AbstractGainRplc} in a small cell of which all
+ * the mobile users are cachers, i.e. they register their proactive caching
+ * demand and take cache decisions in the cell for the document they request.
+ * The buffer of the cell fits a fraction of the documents requested, thus cache
+ * decisions evict.
+ *
+ * Benchmarks cacheDecision and updtCachedChunksOrderedByGain first update the
+ * demand registered by the next cacher, with a new probability, as done upon
+ * each handover; benchmark optForEviction proposes the chunks to evict for a
+ * chunk not cached, out of the cached chunks as ordered after the setup.
+ *
+ * @author Xenofon Vasilakos xvas@aueb.gr
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class ReplacementBenchmark {
+
+    @Param({"1000", "10000"})
+    public int cachers;
+
+    private SteppedSimulation _sim;
+    private AbstractGainRplc _policy;
+    private SmallCell _sc;
+    private PCDemand _dmd;
+
+    private List<MobileUser> _mus;
+    private List<DocumentRequest> _requests;
+    private double[] _probs;
+    private int _next;
+    private final Set<Chunk> _rplcd = new HashSet<>();
+
+    private List<Chunk> _notCached;
+    private int _nextNotCached;
+    private OrderedSnapshot _ordered;
+
+    @Setup
+    public void setup() throws Throwable {
+        _sim = Fixtures.simulation(
+                "space.mu.group.size", String.valueOf(cachers),
+                "space.sc.num", "1",
+                "space.sc.buffer.size", "500MB",
+                "caching.policies", "caching.rplc.mingain.EMC_R");
+        _sim.warmUp();
+
+        _policy = (AbstractGainRplc) _sim.getCachingStrategies().get(0);
+        _sc = _sim.smallCells().iterator().next();
+        _dmd = _sc.getDmdPC(_policy);
+        _sc.updtCachedChunksOrderedByGain(_policy);
+
+        Random rand = new Random(1);
+        _probs = new double[1 << 12];
+        for (int i = 0; i < _probs.length; i++) {
+            _probs[i] = rand.nextDouble();
+        }
+
+        _mus = new ArrayList<>();
+        _requests = new ArrayList<>();
+        for (MobileUser nxtMU : _sim.mobileUsers()) {
+            if (nxtMU.getRequests().isEmpty()) {
+                continue;
+            }
+            DocumentRequest request = nxtMU.getRequests().iterator().next();
+            _mus.add(nxtMU);
+            _requests.add(request);
+            _dmd.registerUpdtInfoPC(request.referredContentDocument().chunks(), nxtMU, nextProb());
+        }
+        for (int i = 0; i < _mus.size(); i++) {
+            cacheDecision();
+        }
+        _sc.updtCachedChunksOrderedByGain(_policy);
+
+        Set<Chunk> cached = _sc.cachedChunksUnmodifiable(_policy);
+        Set<Chunk> notCached = new HashSet<>();
+        for (DocumentRequest nxtRequest : _requests) {
+            for (Chunk nxtChunk : nxtRequest.referredContentDocument().chunks()) {
+                if (!cached.contains(nxtChunk)) {
+                    notCached.add(nxtChunk);
+                }
+            }
+        }
+        _notCached = new ArrayList<>(notCached);
+        Collections.shuffle(_notCached, rand);
+
+        List<Chunk> ordered = new ArrayList<>(cached);
+        Collections.sort(ordered, _policy.evictionPriorityComparator(_sc));
+        _ordered = new OrderedSnapshot(ordered);
+    }
+
+    private double nextProb() {
+        return _probs[_next++ & (_probs.length - 1)];
+    }
+
+    /**
+     * Updates the demand registered by the next cacher.
+     *
+     * @return the index of the cacher
+     */
+    private int reregisterNext() {
+        int i = _next % _mus.size();
+        MobileUser mu = _mus.get(i);
+        DocumentRequest request = _requests.get(i);
+        _dmd.deregisterUpdtInfoPC(mu, request);
+        _dmd.registerUpdtInfoPC(request.referredContentDocument().chunks(), mu, nextProb());
+        return i;
+    }
+
+    @Benchmark
+    public int cacheDecision() throws Throwable {
+        int i = reregisterNext();
+        _rplcd.clear();
+        return _policy.cacheDecision(_sim, _mus.get(i),
+                _requests.get(i).referredContentDocument().chunks(),
+                _sc, _sc, _rplcd, _sc.getCachedChunksOrderedByGain(_policy));
+    }
+
+    @Benchmark
+    public void updtCachedChunksOrderedByGain() {
+        reregisterNext();
+        _sc.updtCachedChunksOrderedByGain(_policy);
+    }
+
+    @Benchmark
+    public Set<Chunk> optForEviction() throws Throwable {
+        Chunk chunk = _notCached.get(_nextNotCached);
+        _nextNotCached = (_nextNotCached + 1) % _notCached.size();
+        _ordered.rewind();
+        return _policy.optForEviction(_sc, chunk, _ordered);
+    }
+
+    /**
+     * A read-only queue of chunks in a fixed order, which is polled from its
+     * start again after rewinding it.
+     */
+    private static final class OrderedSnapshot extends AbstractQueue<Chunk> {
+
+        private final List<Chunk> _chunks;
+        private int _head;
+
+        OrderedSnapshot(List<Chunk> chunks) {
+            _chunks = chunks;
+        }
+
+        void rewind() {
+            _head = 0;
+        }
+
+        @Override
+        public boolean offer(Chunk chunk) {
+            throw new UnsupportedOperationException();
+        }
+
+        @Override
+        public Chunk poll() {
+            return _head < _chunks.size() ? _chunks.get(_head++) : null;
+        }
+
+        @Override
+        public Chunk peek() {
+            return _head < _chunks.size() ? _chunks.get(_head) : null;
+        }
+
+        @Override
+        public int size() {
+            return _chunks.size() - _head;
+        }
+
+        @Override
+        public Iterator<Chunk> iterator() {
+            return Collections.unmodifiableList(_chunks.subList(_head, _chunks.size())).iterator();
+        }
+    }
+}
@@ -0,0 +1,65 @@
+package benchmarks;
+
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * The per round cost of the simulation, with one or five caching models.
+ *
+ * Benchmark consumeTry measures the consumption of the mobile users, i.e. a
+ * call to {@link sim.content.request.DocumentRequest#consumeTry} per request
+ * and caching model, replacing the requests fully consumed. Benchmark
+ * runRound measures whole rounds, i.e. moving, consuming, refreshing the
+ * eviction queues and taking the cache decisions.
+ *
+ * @author Xenofon Vasilakos xvas@aueb.gr
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class RoundBenchmark {
+
+    private static final String ONE_MODEL = "caching.rplc.mingain.EMC_R";
+    private static final String FIVE_MODELS = "caching.rplc.mingain.EMPC_R, caching.rplc.mingain.EMC_R, "
+            + "caching.incremental.EMC, caching.incremental.Naive, caching.MaxPop";
+
+    @Param({"1000", "10000"})
+    public int mus;
+
+    @Param({"1", "5"})
+    public int models;
+
+    private SteppedSimulation _sim;
+
+    @Setup
+    public void setup() throws Throwable {
+        _sim = Fixtures.simulation(
+                "space.mu.group.size", String.valueOf(mus),
+                "caching.policies", models == 1 ? ONE_MODEL : FIVE_MODELS);
+        _sim.warmUp();
+        _sim.rounds(20);
+    }
+
+    @Benchmark
+    public int consumeTry() throws Throwable {
+        return _sim.consume();
+    }
+
+    @Benchmark
+    public void runRound() throws Throwable {
+        _sim.rounds(1);
+    }
+}
@@ -0,0 +1,71 @@
+package benchmarks;
+
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import statistics.StatisticException;
+import statistics.Statistics;
+
+/**
+ * Recording values of statistics by {@link Statistics#addValuesForTime}, both
+ * by the id and by the title of the statistic, for all the statistics in turn
+ * and for times within a bounded window, as recorded per round.
+ *
+ * @author Xenofon Vasilakos xvas@aueb.gr
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class StatisticsBenchmark {
+
+    private static final int TIMES = 1000;
+
+    @Param({"10", "100"})
+    public int titles;
+
+    private Statistics _stats;
+    private String[] _titles;
+    private int[] _ids;
+    private int _next;
+
+    @Setup
+    public void setup() {
+        _stats = new Statistics(null);
+        _titles = new String[titles];
+        _ids = new int[titles];
+        for (int i = 0; i < titles; i++) {
+            _titles[i] = "stat_" + i;
+            _ids[i] = _stats.addTitle(_titles[i]);
+        }
+    }
+
+    private int nextTime() {
+        return (_next / titles) % TIMES;
+    }
+
+    @Benchmark
+    public void addValuesForTimeById() throws StatisticException {
+        int i = _next % titles;
+        _stats.addValuesForTime(nextTime(), _ids[i], i);
+        _next++;
+    }
+
+    @Benchmark
+    public void addValuesForTimeByTitle() throws StatisticException {
+        int i = _next % titles;
+        _stats.addValuesForTime(nextTime(), _titles[i], i);
+        _next++;
+    }
+}
@@ -0,0 +1,97 @@
+package benchmarks;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+import sim.Scenario;
+import sim.run.caching.MobProbSimulation;
+import sim.space.users.mobile.MobileUser;
+
+/**
+ * A simulation run round by round by the benchmarks rather than by its own
+ * thread, so that the state reached after the warmup period or after some
+ * rounds can be benchmarked.
+ *
+ * @author Xenofon Vasilakos xvas@aueb.gr
+ */
+public class SteppedSimulation extends MobProbSimulation {
+
+    private static final long serialVersionUID = 1L;
+
+    public SteppedSimulation(Scenario s) {
+        super(s);
+    }
+
+    /**
+     * Runs the warmup period, after which the mobile users have loaded their
+     * first requests.
+     *
+     * @throws Throwable
+     */
+    public void warmUp() throws Throwable {
+        while (checkWarmupDoInitialization(getTrcLoader())) {
+            clock.tick();
+        }
+    }
+
+    /**
+     * Runs the given number of rounds after the warmup period.
+     *
+     * @param rounds
+     * @throws Throwable
+     */
+    public void rounds(int rounds) throws Throwable {
+        for (int i = 0; i < rounds; i++) {
+            runRound();
+        }
+    }
+
+    /**
+     * Ticks the clock and moves each mobile user, without the consumption and
+     * the cache decisions of the round.
+     *
+     * @throws Throwable
+     */
+    public void move() throws Throwable {
+        clock.tick();
+        _haveExitedPrevCell.clear();
+        _haveHandedOver.clear();
+        for (MobileUser nxtMU : musByID.values()) {
+            nxtMU.moveRelatively(false, false);
+        }
+    }
+
+    /**
+     * Lets each mobile user consume for one time unit and replaces its fully
+     * consumed requests with requests loaded from the workload, as done upon
+     * exiting a cell.
+     *
+     * @return the number of requests replaced
+     * @throws Throwable
+     */
+    public int consume() throws Throwable {
+        int replaced = 0;
+        for (MobileUser nxtMU : musByID.values()) {
+            nxtMU.consumeDataTry(1);
+            if (nxtMU.clearCompletedRequests() > 0) {
+                replaced += updtLoadWorkloadRequests(nxtMU, _dmdTrcReqsLoadedPerUser);
+            }
+        }
+        return replaced;
+    }
+
+    /**
+     * @return the mobile users in the order of their IDs.
+     */
+    public List<MobileUser> mobileUsers() {
+        List<MobileUser> mus = new ArrayList<>(musByID.values());
+        Collections.sort(mus, new Comparator<MobileUser>() {
+            @Override
+            public int compare(MobileUser t1, MobileUser t2) {
+                return t1.getID().compareTo(t2.getID());
+            }
+        });
+        return mus;
+    }
+}
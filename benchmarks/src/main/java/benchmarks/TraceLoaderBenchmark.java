@@ -0,0 +1,72 @@
+package benchmarks;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.Collections;
+import java.util.SortedMap;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import traces.dmdtrace.BinaryWorkload;
+import traces.dmdtrace.TraceLoader;
+import traces.dmdtrace.TraceWorkloadRecord;
+
+/**
+ * Loading records from the workload of the synthetic trace, either from the
+ * text workload file or from its binary sibling. The workload is reopened from
+ * its start once all of its records are loaded, as done by the simulations.
+ *
+ * @author Xenofon Vasilakos xvas@aueb.gr
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class TraceLoaderBenchmark {
+
+    @Param({"text", "binary"})
+    public String format;
+
+    @Param({"1", "100"})
+    public int records;
+
+    private TraceLoader _loader;
+
+    @Setup
+    public void setup() throws IOException {
+        SteppedSimulation sim = Fixtures.simulation("space.mu.group.size", "1");
+
+        File workload = Fixtures.workloadFile();
+        if (format.equals("binary")) {
+            BinaryWorkload.convert(workload);
+        } else {
+            BinaryWorkload.siblingOf(workload).delete();
+        }
+        _loader = new TraceLoader(sim,
+                Collections.singletonList(Fixtures.docsFile().getPath()),
+                Collections.singletonList(workload.getPath()),
+                "-1", 0, false, false);
+    }
+
+    @TearDown
+    public void tearDown() {
+        _loader.close();
+    }
+
+    @Benchmark
+    public SortedMap<Double, TraceWorkloadRecord> loadFromWorkload() throws Exception {
+        return _loader.loadFromWorkload(records);
+    }
+}
@@ -1,122 +1,133 @@
 package app;
 
+import exceptions.CriticalFailureException;
 import java.io.File;
-import java.util.HashMap;
-import java.util.List;
-import java.util.Map;
-import java.util.concurrent.locks.Lock;
-import java.util.concurrent.locks.ReadWriteLock;
-import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.Objects;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.FutureTask;
 import java.util.logging.Level;
 import java.util.logging.Logger;
-import sim.ISimulationMember;
-import sim.content.ContentDocument;
+import sim.run.SimulationBaseRunner;
+import traces.dmdtrace.DocumentCatalog;
 
 /**
  * Resources that are common between different different simulations.
  *
- * Careful, synchronized sharing of document resources for the sake of memory
- * usage.
+ * Document catalogs are shared between simulations for the sake of memory
+ * usage. Each catalog is built once by the first simulation asking for it and
+ * is immutable afterwards, thus simulations read it without any locking.
+ * Simulations asking for a catalog that is still being built wait only for
+ * that catalog.
  *
  * @author xvas
  */
 public class CachedTraceDocuments {
 
-    private final ReadWriteLock _lock;
-    private final Lock _writeLock;
-
     private final Logger _logger;
 
-    private final Map<File, Map<String, ContentDocument>> _documentsPerTrcFile;
-    private final Map<File, List<Long>> _documentsMeta;
+    private final ConcurrentMap<Key, FutureTask<DocumentCatalog>> _catalogs;
 
     public CachedTraceDocuments() {
         this._logger = Logger.getLogger(CachedTraceDocuments.class.getName());
-        this._lock = new ReentrantReadWriteLock();
-        this._writeLock = _lock.writeLock();
-
-        this._documentsPerTrcFile = new HashMap<>(5);
-        this._documentsMeta = new HashMap<>(5);
-    }
-
-    public void acquireWriteLock() {
-        _writeLock.lock();
-    }
-
-    public void releaseWriteLock() {
-        _writeLock.unlock();
+        this._catalogs = new ConcurrentHashMap<>(5);
     }
 
     /**
-     * @param f
-     * @param id
-     * @param sm
-     * @return the the ContentDocument to which the specified id is mapped, or
-     * null if underlying map contains no mapping for the id
+     * @param docFile the documents file of the trace
+     * @param overrideSize if non-negative, it overrides the size of every
+     * document
+     * @param sim the simulation asking for the catalog. If the catalog is not
+     * built yet, it is built by and bound to this simulation.
+     * @return the shared catalog of documents of the file
      */
-    public synchronized ContentDocument getDocument(File f, String id, ISimulationMember sm) {
-        ContentDocument doc;
-        Map<String, ContentDocument> documents = _documentsPerTrcFile.get(f);
-        if (documents == null) {
-            return null;
+    public DocumentCatalog catalogOf(File docFile, final long overrideSize,
+            final SimulationBaseRunner sim) {
+        final Key key = new Key(docFile, overrideSize, sim.chunkSizeInBytes());
+
+        FutureTask<DocumentCatalog> task = _catalogs.get(key);
+        if (task == null) {
+            FutureTask<DocumentCatalog> newTask = new FutureTask<>(new Callable<DocumentCatalog>() {
+                @Override
+                public DocumentCatalog call() {
+                    return DocumentCatalog.build(key._docFile, overrideSize, sim);
+                }
+            });
+            task = _catalogs.putIfAbsent(key, newTask);
+            if (task == null) {
+                task = newTask;
+                task.run();
+                return published(task);
+            }
         }
 
-        doc = documents.get(id);
-        return doc;
+        DocumentCatalog catalog = published(task);
+        _logger.log(Level.INFO,
+                "Loaded {0} cross-sim cached content documents from file {1}",
+                new Object[]{catalog.size(), docFile.getAbsolutePath()});
+        return catalog;
     }
 
-    public synchronized void addDocument(File f, String theID, ContentDocument theDoc, ISimulationMember sm) {
-        Map<String, ContentDocument> documents = _documentsPerTrcFile.get(f);
-        if (documents != null) {
-            if (documents.put(theID, theDoc) != null) {
-                _logger.log(Level.WARNING,
-                        "Document is already considered: {0}", theDoc.toString());
-            } else {
-//xxx                sm.getSim().getStatsHandle().updtSCCmpt6(-1, "MEMSAVED");
-            }
-        } else {
-            documents = new HashMap<>(440);
-            documents.put(theID, theDoc);
-//            StatsHandling statsHandle = sm.getSim().getStatsHandle();
-            _documentsPerTrcFile.put(f, documents);
+    private DocumentCatalog published(FutureTask<DocumentCatalog> task) {
+        try {
+            return task.get();
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+            throw new CriticalFailureException(ex);
+        } catch (ExecutionException ex) {
+            _catalogs.values().remove(task);
+            throw new CriticalFailureException(ex.getCause());
         }
     }
 
-    public synchronized boolean contains(File f, String id) {
-        return _documentsPerTrcFile.containsKey(f) && _documentsPerTrcFile.get(f).containsKey(id);
-    }
-
-    public synchronized boolean contains(File f) {
-        return _documentsPerTrcFile.containsKey(f);
+    public boolean contains(File f) {
+        for (Key nxt : _catalogs.keySet()) {
+            if (nxt._docFile.equals(f)) {
+                return true;
+            }
+        }
+        return false;
     }
 
-    public synchronized Map<String, ContentDocument> getDocumentsOfTrace(
-            File f, ISimulationMember sm) {
-        Map<String, ContentDocument> docs = _documentsPerTrcFile.get(f);
-        if (docs != null) {
-            _logger.log(Level.INFO,
-                    "Loaded {0} cross-sim cached content documents from file {1}",
-                    new Object[]{docs.size(), f.getAbsolutePath()});
+    /**
+     * Catalogs depend on the documents file, the size overriding and the chunk
+     * size used for splitting documents.
+     */
+    private static final class Key {
 
+        private final File _docFile;
+        private final long _overrideSize;
+        private final long _chunkSize;
 
-            
+        Key(File docFile, long overrideSize, long chunkSize) {
+            _docFile = docFile;
+            _overrideSize = overrideSize;
+            _chunkSize = chunkSize;
         }
-        return docs;
-    }
 
-    public synchronized void removeDocumentsOfTrace(File f) {
-        _documentsPerTrcFile.remove(f);
-        _documentsMeta.remove(f);
-    }
-
-    /**
-     * @return the _documentsMeta
-     */
-    public List<Long> getDocumentsMeta(File f) {
-        return _documentsMeta.get(f);
-    }
+        @Override
+        public int hashCode() {
+            int hash = 7;
+            hash = 53 * hash + Objects.hashCode(_docFile);
+            hash = 53 * hash + (int) (_overrideSize ^ (_overrideSize >>> 32));
+            hash = 53 * hash + (int) (_chunkSize ^ (_chunkSize >>> 32));
+            return hash;
+        }
 
-    public void addDocumentsMeta(File docFile, List<Long> meta) {
-        _documentsMeta.put(docFile, meta);
+        @Override
+        public boolean equals(Object obj) {
+            if (this == obj) {
+                return true;
+            }
+            if (obj == null || getClass() != obj.getClass()) {
+                return false;
+            }
+            final Key other = (Key) obj;
+            return _overrideSize == other._overrideSize
+                    && _chunkSize == other._chunkSize
+                    && Objects.equals(_docFile, other._docFile);
+        }
     }
 }
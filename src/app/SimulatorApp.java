@@ -13,15 +13,13 @@ import java.io.FileReader;
 import java.io.FileWriter;
 import java.io.IOException;
 import java.io.PrintStream;
-import java.util.Comparator;
-import java.util.SortedMap;
-import java.util.TreeMap;
 import java.util.logging.Level;
 import java.util.logging.Logger;
 import sim.Scenario;
 import sim.ScenariosFactory;
 import sim.run.SimulationBaseRunner;
-import utilities.Couple;
+import sim.run.SimulationScheduler;
+import statistics.output.ResultsWriter;
 import utils.CommonFunctions;
 import utils.DebugTool;
 
@@ -38,12 +36,7 @@ public final class SimulatorApp {
     public static Preprocessor _preprocessedProps;
     public static MainArguments _mainArgs;
 
-    private final static SortedMap<Thread, SimulationBaseRunner> _simWorkersMap = new TreeMap<>(new Comparator<Thread>() {
-        @Override
-        public int compare(Thread t1, Thread t2) {
-            return t1.getName().compareTo(t2.getName());
-        }
-    });
+    private static volatile SimulationScheduler _scheduler;
 
     private static void exitByFail(String msg, Exception ex, int exitVal) {
         LOG.log(Level.SEVERE, SimulatorApp.class.getSimpleName() + ": exit by failure (" + exitVal + ")" + msg, ex);
@@ -70,12 +63,14 @@ public final class SimulatorApp {
         Runtime.getRuntime().addShutdownHook(new Thread() {
             @Override
             public void run() {
-                for (Thread nxtSimThrd : _simWorkersMap.keySet()) {
-                    if (nxtSimThrd.isAlive()) {
-                        _simWorkersMap.get(nxtSimThrd).runFinish();
-                        nxtSimThrd.interrupt();
+                SimulationScheduler scheduler = _scheduler;
+                if (scheduler != null) {
+                    for (SimulationBaseRunner nxtSim : scheduler.runningSimulations()) {
+                        nxtSim.runFinish();
                     }
+                    scheduler.shutdownNow();
                 }
+                ResultsWriter.shutdown();
 
                 DebugTool.close();
             }
@@ -109,9 +104,11 @@ public final class SimulatorApp {
                     Level.INFO, "{0} simulation scenario{1} initialized\n",
                     new Object[]{num, num > 1 ? "s" : ""}
             );
-            ByteArrayOutputStream baos = new ByteArrayOutputStream();
-            ScenariosFactory.printScenarios(new PrintStream(baos));
-            LOG.log(Level.CONFIG, "{0}\n", baos.toString());
+            if (LOG.isLoggable(Level.CONFIG)) {// scenarios are created only to be printed
+                ByteArrayOutputStream baos = new ByteArrayOutputStream();
+                ScenariosFactory.printScenarios(new PrintStream(baos));
+                LOG.log(Level.CONFIG, "{0}\n", baos.toString());
+            }
         } catch (CriticalFailureException | NotIntiliazedException ex) {
             exitByFail("\"ScenariosFactory FAILED!", ex, -30);
         }
@@ -120,33 +117,23 @@ public final class SimulatorApp {
         initStatsDir();
         DebugTool.init();
 
-        //<editor-fold defaultstate="collapsed" desc="spawn simulation thread for each scenario">
+        //<editor-fold defaultstate="collapsed" desc="run scenarios on the pool of simulation workers">
+        _scheduler = new SimulationScheduler(_mainArgs.getMaxConcurrentWorkers());
         Scenario nxtScenario;
         try {
             while ((nxtScenario = ScenariosFactory.consumeNextSetup()) != null) {
-                try {
-                    Couple<Thread, SimulationBaseRunner> launched = SimulationBaseRunner.launchSimulationThread(nxtScenario);
-                    _simWorkersMap.put(launched.getFirst(), launched.getSecond());
-
-                    LOG.log(
-                            Level.INFO, launched.getFirst().getName() + " thread for scenario {0} launched.\n",
-                            nxtScenario.getIDStr()
-                    );
-
-                    LOG.log(
-                            Level.FINEST, "Details:\n{0}\n", nxtScenario.toString()
-                    );
-
-                } catch (CriticalFailureException crex) {
-                    LOG.log(
-                            Level.SEVERE, "Simulation failed for scenario setup:\n"
-                            + nxtScenario.toString(), crex
-                    );
-                }
+                _scheduler.submit(nxtScenario);
+                LOG.log(
+                        Level.FINEST, "Scenario {0} queued. Details:\n{1}\n",
+                        new Object[]{nxtScenario.getIDStr(), nxtScenario.toString()}
+                );
             }//while
         } catch (NotIntiliazedException ex) {
             exitByFail("Simulator application  terminates unsuccessfully.\n", ex, -40);
         }
+        _scheduler.start();
+        _scheduler.awaitAll();
+        ResultsWriter.shutdown();
         //</editor-fold>
 
         LOG.exiting(SimulatorApp.class.getCanonicalName(), "main");
@@ -104,10 +104,14 @@ public class MainArguments {
         VERBOSE("--verbose", "-v"),
         PROPERTIES_FULL_PATH("--properties_full_path", "-pp"),
         PARALLEL("--parallel", "-p"),
+        SCENARIOS("--scenarios", "-s"),
+        RESUME("--resume", "-r"),
         D("-d", "--default"),
         V("-v", "--verbose"),
         PP("-pp", "--properties_full_path"),
-        P("-p", "--parallel");
+        P("-p", "--parallel"),
+        S("-s", "--scenarios"),
+        R("-r", "--resume");
         private final String flag;
         private final String alternative;
 
@@ -174,10 +178,16 @@ public class MainArguments {
 
     private String propertiesPath;
     private int parallelSimsNum;
+    private long scenariosFrom;
+    private long scenariosTo;
+    private boolean resume;
 
     private void defaults() {
         propertiesPath = Defaults.DEFAULT_PROPS_MASTER__INI_PATH;
         parallelSimsNum = Defaults.PARALLEL;
+        scenariosFrom = 0;
+        scenariosTo = -1;
+        resume = false;
     }
 
     /**
@@ -218,14 +228,30 @@ public class MainArguments {
                 }
                 //</editor-fold>
             } else if (Flag.PARALLEL.equals(nxtArg) || Flag.P.equals(nxtArg)) {
-                //<editor-fold defaultstate="collapsed" desc="handle properties input path">
+                //<editor-fold defaultstate="collapsed" desc="handle number of parallel simulations">
                 if (i < args.length) {
-                    loaded.parallelSimsNum = Integer.valueOf(args[i++]);
+                    try {
+                        loaded.parallelSimsNum = Integer.parseInt(args[i++]);
+                    } catch (NumberFormatException nfe) {
+                        throw new WrongOrImproperArgumentException("Argument \"" + nxtArg
+                                + "\" requires an integer; use 0 for as many as the available processors");
+                    }
                 } else {
-                    String msg = "Argument \"" + nxtArg + "\" requires a path to a file";
+                    String msg = "Argument \"" + nxtArg + "\" requires the number of parallel simulations";
+                    throw new WrongOrImproperArgumentException(msg);
+                }
+                //</editor-fold>
+            } else if (Flag.SCENARIOS.equals(nxtArg) || Flag.S.equals(nxtArg)) {
+                //<editor-fold defaultstate="collapsed" desc="handle range of scenario indices">
+                if (i < args.length) {
+                    loaded.loadScenariosRange(nxtArg, args[i++]);
+                } else {
+                    String msg = "Argument \"" + nxtArg + "\" requires a range of scenario indices";
                     throw new WrongOrImproperArgumentException(msg);
                 }
                 //</editor-fold>
+            } else if (Flag.RESUME.equals(nxtArg) || Flag.R.equals(nxtArg)) {
+                loaded.resume = true;
             } else {
                 //<editor-fold defaultstate="collapsed" desc="Handle single letter options">
                 for (j = 1;
@@ -252,6 +278,30 @@ public class MainArguments {
     }
     private static final Logger LOG = Logger.getLogger(MainArguments.class.getName());
 
+    /**
+     * Parses a range of scenario indices in the form FROM:TO, where FROM is
+     * inclusive, TO is exclusive and either may be omitted.
+     */
+    private void loadScenariosRange(String nxtArg, String range) throws WrongOrImproperArgumentException {
+        String msg = "Argument \"" + nxtArg + "\" requires a range of scenario indices FROM:TO, "
+                + "with FROM inclusive, TO exclusive and 0 <= FROM <= TO; got \"" + range + "\"";
+        int sep = range.indexOf(':');
+        if (sep < 0) {
+            throw new WrongOrImproperArgumentException(msg);
+        }
+        String from = range.substring(0, sep).trim();
+        String to = range.substring(sep + 1).trim();
+        try {
+            scenariosFrom = from.isEmpty() ? 0 : Long.parseLong(from);
+            scenariosTo = to.isEmpty() ? -1 : Long.parseLong(to);
+        } catch (NumberFormatException nfe) {
+            throw new WrongOrImproperArgumentException(msg);
+        }
+        if (scenariosFrom < 0 || (scenariosTo >= 0 && scenariosTo < scenariosFrom)) {
+            throw new WrongOrImproperArgumentException(msg);
+        }
+    }
+
     @Override
     public String toString() {
         StringBuilder toReturn = new StringBuilder();
@@ -294,7 +344,38 @@ public class MainArguments {
         return (new File(this.propertiesPath)).getParent();
     }
 
+    /**
+     * @return the number of scenarios simulated concurrently. A non-positive
+     * value passed with {@link Flag#PARALLEL} stands for the number of
+     * available processors.
+     */
     public int getMaxConcurrentWorkers() {
-        return this.parallelSimsNum;
+        return this.parallelSimsNum > 0
+                ? this.parallelSimsNum : Runtime.getRuntime().availableProcessors();
+    }
+
+    /**
+     * @return the index of the first scenario to simulate, inclusive. Scenario
+     * indices are given by {@link sim.ScenariosFactory}; the same index stands
+     * for the same scenario in every process loading the same properties.
+     */
+    public long getScenariosFrom() {
+        return this.scenariosFrom;
+    }
+
+    /**
+     * @return the index after the last scenario to simulate, or a negative
+     * value for all scenarios after {@link #getScenariosFrom()}.
+     */
+    public long getScenariosTo() {
+        return this.scenariosTo;
+    }
+
+    /**
+     * @return true if scenarios are to be resumed from their latest
+     * checkpoint, if any.
+     */
+    public boolean isResume() {
+        return this.resume;
     }
 }
@@ -67,6 +67,64 @@ public enum Simulation implements IProperty {
         }
     }
 
+    public enum Checkpoint implements IProperty {
+
+        PERIOD("simulation.checkpoint.period", TooltipMsgs.CHECKPOINT__PERIOD),
+        DIR("simulation.checkpoint.dir", TooltipMsgs.CHECKPOINT__DIR);
+
+        private final String _propertyName;
+        private final String _tooltip;
+
+        private Checkpoint(String _propTitle, String tooltip) {
+            _propertyName = _propTitle;
+            _tooltip = tooltip;
+        }
+
+        @Override
+        public String toString() {
+            return _propertyName + ": " + toolTip();
+        }
+
+        @Override
+        public String toolTip() {
+            return _tooltip;
+        }
+
+        @Override
+        public String propertyName() {
+            return _propertyName;
+        }
+    }
+
+    public enum Parallel implements IProperty {
+
+        ROUND_THREADS("simulation.parallel.round_threads", TooltipMsgs.PARALLEL__ROUND_THREADS),
+        SETUP_THREADS("simulation.parallel.setup_threads", TooltipMsgs.PARALLEL__SETUP_THREADS);
+
+        private final String _propertyName;
+        private final String _tooltip;
+
+        private Parallel(String _propTitle, String tooltip) {
+            _propertyName = _propTitle;
+            _tooltip = tooltip;
+        }
+
+        @Override
+        public String toString() {
+            return _propertyName + ": " + toolTip();
+        }
+
+        @Override
+        public String toolTip() {
+            return _tooltip;
+        }
+
+        @Override
+        public String propertyName() {
+            return _propertyName;
+        }
+    }
+
 }
 
 class TooltipMsgs {
@@ -94,4 +152,18 @@ class TooltipMsgs {
             + " Setting to 0 implies invocation after completing every simulation."
             + " Negative values disable the use of System.gc(), which leaves the JVM"
             + " decide upon the right gc invocation time on its own.";
+    public static final String CHECKPOINT__PERIOD
+            = "Period (in simulation time units) of checkpoints of simulations that"
+            + " support resuming. Zero or negative values disable checkpoints.";
+    public static final String CHECKPOINT__DIR
+            = "Directory where the latest checkpoint of each scenario is kept.";
+    public static final String PARALLEL__ROUND_THREADS
+            = "Threads consuming the requests of the mobile users of each round."
+            + " Mobile users connected to different small cells consume in parallel,"
+            + " with the same results as with one thread. Zero uses all the available"
+            + " processors; one consumes sequentially.";
+    public static final String PARALLEL__SETUP_THREADS
+            = "Threads computing the coverage and the neighborhoods of the small cells"
+            + " upon setup, with the same results as with one thread. Zero uses all"
+            + " the available processors.";
 }
@@ -8,6 +8,9 @@ public enum Space implements IProperty {
 
     AREA__X("space.area.x", "tooltip TBD"),
     AREA__Y("space.area.y", "tooltip TBD"),
+    AREA__INDEX("space.area.index", "Defines how points and coverage of the area are kept: "
+            + "\"dense\" for an array with every point of the area, or \"sparse\" for "
+            + "an index of small cell coverage with points created upon first use."),
     //////////////////// SMALLER CELLS  ////////////////////////////
     SC__NUM("space.sc.num", "tooltip TBD"),
     SC__RADIUS__MEAN("space.sc.radious.mean", "tooltip TBD"),
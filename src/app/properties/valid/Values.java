@@ -95,6 +95,9 @@ public final class Values {
     ////////////////////////////////////////////////////////////////////////////////////
     public static final String BY_MAX_TIME = "by_max_time";
     ////////////////////////////////////////////////////////////////////////////////////
+    public static final String DENSE = "dense";
+    public static final String SPARSE = "sparse";
+    ////////////////////////////////////////////////////////////////////////////////////
     public static final String LOCATION = "location";
     public static final String LOCATION__PLUS__GROUP = "location+group";
     public static final String PER_MU__PLUS__CENTRIFY = "per_mu+centrify";
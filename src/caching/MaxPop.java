@@ -14,6 +14,8 @@ import traces.dmdtrace.TraceLoader;
  */
 public final class MaxPop extends AbstractCachingModel {
 
+    private static final long serialVersionUID = 1L;
+
     private static final MaxPop singleton = new MaxPop();
 
     /**
@@ -13,12 +13,12 @@ import java.util.Set;
 import sim.content.Chunk;
 import sim.content.request.DocumentRequest;
 import sim.space.cell.demand_registry.PCDemand;
+import sim.space.cell.smallcell.AssessmentCache;
 import sim.space.cell.smallcell.ITimeBuffer;
 import sim.space.cell.smallcell.SmallCell;
 import sim.space.users.CachingUser;
 import sim.space.users.StationaryUser;
 import sim.space.users.mobile.MobileUser;
-import utilities.Couple;
 
 /**
  * A utility class with methods for:
@@ -69,30 +69,42 @@ public abstract class Utils {
         return itemsTotallyRmvd;
     }
 
+    /**
+     * Proposes the least recently accessed chunks for eviction, until there is
+     * enough free space in the buffer for the item requesting to be cached.
+     *
+     * @param lruBuffer
+     * @param item
+     * @return the chunks proposed for eviction, or an empty set if there can
+     * not be enough space for the item.
+     */
     public static Set<Chunk> optForEvictionLRUAccess(ITimeBuffer lruBuffer, Chunk item) {
+        return optForEviction(lruBuffer.inAccessOrder(), lruBuffer.availableSpaceInBytes(), item);
+    }
 
+    /**
+     * Proposes the least recently cached chunks for eviction, until there is
+     * enough free space in the buffer for the item requesting to be cached.
+     *
+     * @param lrcBuffer
+     * @param item
+     * @return the chunks proposed for eviction, or an empty set if there can
+     * not be enough space for the item.
+     */
+    public static Set<Chunk> optForEvictionLRCached(ITimeBuffer lrcBuffer, Chunk item) {
+        return optForEviction(lrcBuffer.inCacheOrder(), lrcBuffer.availableSpaceInBytes(), item);
+    }
+
+    private static Set<Chunk> optForEviction(Iterable<Chunk> evictionOrder, long freeSpace, Chunk item) {
         long minSpaceRequired = item.sizeInBytes();
-        long freeSpace = lruBuffer.availableSpaceInBytes();
 
         Set<Chunk> optToEvict = new HashSet<>();
-
-        Couple<Integer, Set<Chunk>> leastRecentlyAccessed = lruBuffer.getLeastRecentlyAccessed();
-        if (leastRecentlyAccessed == null) {
-            return new HashSet<>();
+        Iterator<Chunk> iter = evictionOrder.iterator();
+        while (iter.hasNext() && freeSpace < minSpaceRequired) {
+            Chunk nxtItem = iter.next();
+            optToEvict.add(nxtItem);
+            freeSpace += nxtItem.sizeInBytes();
         }
-        Set<Chunk> lRUAccessedSet = new HashSet(leastRecentlyAccessed.getSecond());
-        do {
-            Iterator<Chunk> lruIter = lRUAccessedSet.iterator();
-
-            while (lruIter.hasNext() && freeSpace < minSpaceRequired) {
-                Chunk nxtItem = lruIter.next();
-                optToEvict.add(nxtItem);
-                freeSpace += nxtItem.sizeInBytes();
-            }
-
-            leastRecentlyAccessed = lruBuffer.getLeastRecentlyAccessed();
-            lRUAccessedSet = new HashSet(leastRecentlyAccessed.getSecond());
-        } while (!lRUAccessedSet.isEmpty() && freeSpace < minSpaceRequired);
 
         if (freeSpace < minSpaceRequired) {
             return new HashSet<>();// return an empty set. Cannot find enought space
@@ -101,7 +113,6 @@ public abstract class Utils {
         return optToEvict;
     }
 
-   
     public static final boolean isSpaceAvail(AbstractCachingModel cacheModel, SmallCell sc, long size) {
         return sc.buffAvailable(cacheModel) >= size;
     }
@@ -136,15 +147,49 @@ public abstract class Utils {
 //        double prob = nfo != null ? nfo.sumTransProbs() / nfo.cachingUsers().size() : 0;
 //        return prob * gainOfTransferSC(item, sc);
 //    }
+    /**
+     * The assessment is memoised per small cell and policy, and recomputed
+     * only if the proactive caching demand of the cell has changed since.
+     *
+     * @param theChunk
+     * @param sc
+     * @param emc
+     * @return the delay gain of the chunk weighted by the aggregate
+     * probability of the mobiles requesting it.
+     */
     public static double assessEMC(Chunk theChunk, SmallCell sc, IEMC emc) {
+        AssessmentCache memo = sc.assessments((AbstractCachingModel) emc, false);
+        double assessment = memo.lookup(theChunk);
+        if (!Double.isNaN(assessment)) {
+            return assessment;
+        }
+
         PCDemand.RegistrationInfo nfo = sc.dmdRegInfoPC(theChunk, (AbstractCachingModel) emc);
         double Q = nfo != null ? nfo.sumTransProbs() : 0.0;
 
-        double assessment = Q * theChunk.gainOfTransferSCCacheHit();
-        return assessment;
+        assessment = Q * theChunk.gainOfTransferSCCacheHit();
+        return memo.memoise(theChunk, assessment);
     }
 
+    /**
+     * The assessment is memoised per small cell and policy, and recomputed
+     * only if the proactive caching demand, the popularity information or the
+     * local demand of the cell have changed since.
+     *
+     * @param theChunk
+     * @param sc
+     * @param iemc
+     * @return the delay gain of the chunk weighted by the aggregate
+     * probability of the mobiles requesting it and its popularity.
+     */
     public static double assessEMPC(Chunk theChunk, SmallCell sc, IEMPC iemc) {
+        AssessmentCache memo = sc.assessments((AbstractCachingModel) iemc, true);
+        if (memo != null) {
+            double memoised = memo.lookup(theChunk);
+            if (!Double.isNaN(memoised)) {
+                return memoised;
+            }
+        }
 
         PCDemand.RegistrationInfo nfo = sc.dmdRegInfoPC(theChunk, (AbstractCachingModel) iemc);
         double Q = nfo != null ? nfo.sumTransProbs() : 0.0;
@@ -171,7 +216,7 @@ public abstract class Utils {
 //            )
 //      );
 //</editor-fold>
-        return assessment;
+        return memo == null ? assessment : memo.memoise(theChunk, assessment);
     }
 
     public static double assessEPCWithPop(CachingUser cu, Chunk item, SmallCell sc,
@@ -1,5 +1,9 @@
 package caching.base;
 
+import java.io.InvalidObjectException;
+import java.io.ObjectStreamException;
+import java.io.Serializable;
+import java.lang.reflect.InvocationTargetException;
 import sim.space.cell.smallcell.BufferBase;
 
 /**
@@ -8,7 +12,9 @@ import sim.space.cell.smallcell.BufferBase;
  *
  * @author Xenofon Vasilakos xvas@aueb.gr
  */
-public abstract class AbstractCachingModel {
+public abstract class AbstractCachingModel implements Serializable {
+
+    private static final long serialVersionUID = 1L;
 
     
     
@@ -44,4 +50,25 @@ public abstract class AbstractCachingModel {
         return toString().substring(8);
     }
 
+    /**
+     * Models are singletons, thus a deserialized model resolves to the
+     * instance of its class; models of classes that do not declare an
+     * instance() method resolve to themselves.
+     *
+     * @return the instance of the class of the model.
+     * @throws ObjectStreamException
+     */
+    protected Object readResolve() throws ObjectStreamException {
+        try {
+            return getClass().getDeclaredMethod("instance").invoke(null);
+        } catch (NoSuchMethodException ex) {
+            return this;
+        } catch (IllegalAccessException | InvocationTargetException ex) {
+            InvalidObjectException invalid = new InvalidObjectException(
+                    "No instance of caching model " + toString());
+            invalid.initCause(ex);
+            throw invalid;
+        }
+    }
+
 }
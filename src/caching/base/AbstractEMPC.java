@@ -7,4 +7,6 @@ import caching.interfaces.rplc.IGainNoRplc;
  */
 public abstract class AbstractEMPC extends AbstractPricing implements IGainNoRplc, IPop {
 
+    private static final long serialVersionUID = 1L;
+
 }
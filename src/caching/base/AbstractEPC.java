@@ -14,6 +14,8 @@ import sim.space.users.CachingUser;
  */
 public abstract class AbstractEPC extends AbstractPricing {
 
+    private static final long serialVersionUID = 1L;
+
     /**
      * @param chnk the chunk to be assessed
      * @param cu the requesting/caching user
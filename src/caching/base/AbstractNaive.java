@@ -9,6 +9,8 @@ import sim.space.cell.smallcell.PricedBuffer;
  */
 public abstract class AbstractNaive extends AbstractCachingModel {
 
+    private static final long serialVersionUID = 1L;
+
       
     public static Class bufferType() {
         return PricedBuffer.class;//giati? dioti mallon ayto ftaiei
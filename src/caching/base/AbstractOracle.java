@@ -6,4 +6,6 @@ package caching.base;
  */
 abstract public class AbstractOracle extends AbstractCachingModel {
 
+    private static final long serialVersionUID = 1L;
+
 }
@@ -12,6 +12,8 @@ import sim.space.cell.smallcell.SmallCell;
  */
 public abstract class AbstractPop extends AbstractPricing implements IPop {
 
+    private static final long serialVersionUID = 1L;
+
     public AbstractPop() {
     }
 
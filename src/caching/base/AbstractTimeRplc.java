@@ -0,0 +1,62 @@
+package caching.base;
+
+import caching.Utils;
+import caching.interfaces.rplc.ILRURplc;
+import java.util.Collection;
+import java.util.Set;
+import sim.content.Chunk;
+import sim.run.SimulationBaseRunner;
+import sim.space.cell.smallcell.ITimeBuffer;
+import sim.space.cell.smallcell.SmallCell;
+import sim.space.cell.smallcell.TimeBuffer;
+import sim.space.users.CachingUser;
+
+/**
+ * A common ancestor for classic replacement policies that evict the cached
+ * items in an order of time kept by a TimeBuffer, regardless of any gain
+ * assessment. The items requested are cached in the same way as for the
+ * methods of IGainRplc, thus these policies serve as baselines for the latter.
+ *
+ * @author Xenofon Vasilakos xvas@aueb.gr
+ */
+public abstract class AbstractTimeRplc extends AbstractCachingModel implements ILRURplc {
+
+    private static final long serialVersionUID = 1L;
+
+    public static Class bufferType() {
+        return TimeBuffer.class;
+    }
+
+    @Override
+    public int cacheDecision(SimulationBaseRunner sim, CachingUser cu,
+            Collection<Chunk> requestChunks, SmallCell hostSC,
+            SmallCell targetSC, Set<Chunk> chunksRplcd) throws Throwable {
+
+        ITimeBuffer buffer = (ITimeBuffer) targetSC.getBuffer(this);
+
+        int totalSizeCached = 0;
+        for (Chunk nxtChunk : requestChunks) {
+            if (targetSC.isCached(this, nxtChunk)) {
+                targetSC.addCacher(cu, this, nxtChunk);
+                continue;
+            }// otherwise, it may need to evict:
+
+            if (!Utils.isSpaceAvail(this, targetSC, nxtChunk.sizeInBytes())) {
+                Set<Chunk> opt4Eviction = optForEviction(buffer, nxtChunk);
+                if (opt4Eviction.isEmpty()) {
+                    continue;//cannot add this item
+                }
+
+                for (Chunk items2evict : opt4Eviction) {
+                    targetSC.bufferForceEvict(this, items2evict);
+                }
+                chunksRplcd.addAll(opt4Eviction);
+            }
+
+            targetSC.cacheItem(cu, this, nxtChunk);
+            totalSizeCached += nxtChunk.sizeInBytes();
+        }
+        return totalSizeCached;
+    }
+
+}
@@ -7,7 +7,7 @@ import exceptions.CriticalFailureException;
 import java.util.Collection;
 import java.util.Comparator;
 import java.util.HashSet;
-import java.util.PriorityQueue;
+import java.util.Queue;
 import java.util.Set;
 import sim.run.SimulationBaseRunner;
 import sim.content.Chunk;
@@ -23,10 +23,17 @@ import statistics.handlers.iterative.sc.cmpt6.UnonymousCompute6;
  */
 public abstract class AbstractGainRplc extends AbstractCachingModel implements IGainRplc, IPop {
 
+    private static final long serialVersionUID = 1L;
+
     protected double assessDiff(Chunk a, Chunk b, SmallCell sc) throws Throwable {
         return assess(a, sc) / a.sizeInMBs() - assess(b, sc) / b.sizeInMBs();
     }
 
+    @Override
+    public double evictionPriority(Chunk item, SmallCell sc) throws Throwable {
+        return assess(item, sc) / item.sizeInMBs();
+    }
+
     @Override
     public Comparator<Chunk> evictionPriorityComparator(final SmallCell sc) throws CriticalFailureException {
         return new Comparator<Chunk>() {
@@ -47,7 +54,7 @@ public abstract class AbstractGainRplc extends AbstractCachingModel implements I
     public int cacheDecision(SimulationBaseRunner sim, CachingUser cu,
             Collection<Chunk> requestChunks, SmallCell hostSC,
             SmallCell targetSC, Set<Chunk> chunksRplcd,
-            PriorityQueue<Chunk> cachedOrderByGain) throws Throwable {
+            Queue<Chunk> cachedOrderByGain) throws Throwable {
 
         // helps to skip some checking, e.g. for cosequent chunks of the same content with same assement. 
         // -10 means last one succeeded
@@ -102,7 +109,7 @@ public abstract class AbstractGainRplc extends AbstractCachingModel implements I
 
     @Override
     public Set<Chunk> optForEviction(SmallCell sc, Chunk chunk,
-            PriorityQueue<Chunk> orderedCached) throws Throwable {
+            Queue<Chunk> orderedCached) throws Throwable {
 //see "kanonas"      
         double aggrEvictGain = 0.0, aggrEvictSize = 0.0;
         double maxThshld = assess(chunk, sc) / chunk.sizeInMBs();
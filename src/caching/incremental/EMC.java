@@ -25,6 +25,8 @@ import utils.DebugTool;
  */
 public class EMC extends caching.incremental.EPC implements IEMC {
 
+    private static final long serialVersionUID = 1L;
+
     private static EMC singleton = new EMC();
 
      
@@ -25,6 +25,8 @@ import sim.space.util.DistanceComparator;
 @Deprecated
 public final class EMC_inversivelyHandoverTime extends caching.incremental.EMC {
 
+    private static final long serialVersionUID = 1L;
+
     private static EMC_inversivelyHandoverTime singleton = new EMC_inversivelyHandoverTime();
 
     /**
@@ -17,6 +17,8 @@ import sim.space.users.CachingUser;
  */
 public final class EMPC extends AbstractEMPC implements IIncrementalAggregate, IEMPC {
 
+    private static final long serialVersionUID = 1L;
+
     private static EMPC singleton = new EMPC();
 
     /**
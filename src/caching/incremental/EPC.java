@@ -23,6 +23,8 @@ import sim.space.users.CachingUser;
  */
 public class EPC extends AbstractEPC implements IIncremental, IGainNoRplc {
 
+    private static final long serialVersionUID = 1L;
+
     private static EPC singleton = new EPC();
 
     /**
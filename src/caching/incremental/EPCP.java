@@ -19,6 +19,8 @@ import sim.space.users.CachingUser;
  */
 public final class EPCP extends AbstractEMPC implements IIncremental {
 
+    private static final long serialVersionUID = 1L;
+
     private static final EPCP singleton = new EPCP();
 
     /**
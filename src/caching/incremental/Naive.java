@@ -15,6 +15,8 @@ import sim.space.users.CachingUser;
  */
 public class Naive extends AbstractNaive implements IGainNoRplc, IIncrementalBase {
 
+    private static final long serialVersionUID = 1L;
+
     private static final Naive SINGLETON = new Naive();
 
     public static Naive instance() {
@@ -19,6 +19,8 @@ import sim.space.users.CachingUser;
  */
 public final class NaiveLess extends Naive {
 
+    private static final long serialVersionUID = 1L;
+
     private static final NaiveLess SINGLETON = new NaiveLess();
 
     public static NaiveLess instance() {
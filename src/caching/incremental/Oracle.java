@@ -18,6 +18,8 @@ import sim.space.users.CachingUser;
  */
 public final class Oracle extends AbstractOracle implements IIncrementalBase {
 
+    private static final long serialVersionUID = 1L;
+
     private static final Oracle singleton = new Oracle();
 
     public static Oracle instance() {
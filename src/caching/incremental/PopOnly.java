@@ -20,6 +20,8 @@ import sim.space.users.CachingUser;
  */
 public final class PopOnly extends AbstractPop implements IIncrementalAggregate, IGainNoRplc {
 
+    private static final long serialVersionUID = 1L;
+
     private static final PopOnly singleton = new PopOnly();
 
     public static PopOnly instance() {
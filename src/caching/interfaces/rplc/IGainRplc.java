@@ -3,7 +3,7 @@ package caching.interfaces.rplc;
 import exceptions.CriticalFailureException;
 import java.util.Collection;
 import java.util.Comparator;
-import java.util.PriorityQueue;
+import java.util.Queue;
 import java.util.Set;
 import sim.run.SimulationBaseRunner;
 import sim.content.Chunk;
@@ -42,11 +42,12 @@ public interface IGainRplc extends IRplcBase {
      *
      * @param sc
      * @param chunk
-     * @param orderedCached
+     * @param orderedCached the cached items, polled in ascending order of
+     * eviction priority
      * @return the set of evicted items
      *
      */
-    public Set<Chunk> optForEviction(SmallCell sc, Chunk chunk, PriorityQueue<Chunk> orderedCached) throws Throwable;
+    public Set<Chunk> optForEviction(SmallCell sc, Chunk chunk, Queue<Chunk> orderedCached) throws Throwable;
 
     /**
      * Takes cache decisions for a small cell regarding the request by mobile
@@ -65,8 +66,19 @@ public interface IGainRplc extends IRplcBase {
      * @return the int
      *
      */
-    public int cacheDecision(SimulationBaseRunner sim, CachingUser mu, Collection<Chunk> requestChunks, SmallCell hostSC, SmallCell targetSC, Set<Chunk> chunksRplcd, PriorityQueue<Chunk> cachedOrderByGain) throws Throwable;
+    public int cacheDecision(SimulationBaseRunner sim, CachingUser mu, Collection<Chunk> requestChunks, SmallCell hostSC, SmallCell targetSC, Set<Chunk> chunksRplcd, Queue<Chunk> cachedOrderByGain) throws Throwable;
 
     public Comparator<Chunk> evictionPriorityComparator(final SmallCell sc) throws CriticalFailureException;
 
+    /**
+     * The eviction priority of a cached item, i.e. its assessed gain over its
+     * size. Items of lower priority are evicted first; the ordering agrees with
+     * {@link #evictionPriorityComparator(sim.space.cell.smallcell.SmallCell)}.
+     *
+     * @param item
+     * @param sc
+     * @return
+     */
+    public double evictionPriority(Chunk item, SmallCell sc) throws Throwable;
+
 }
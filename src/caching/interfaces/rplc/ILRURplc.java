@@ -1,19 +1,20 @@
 package caching.interfaces.rplc;
 
+import java.util.Collection;
 import java.util.Set;
 import sim.content.Chunk;
+import sim.run.SimulationBaseRunner;
 import sim.space.cell.smallcell.ITimeBuffer;
 import sim.space.cell.smallcell.SmallCell;
 import sim.space.users.CachingUser;
 
 /**
- * Do not use until checking functionality
- *
- * Base interface for methods using LRU cache replacement.
+ * Base interface for methods using time based cache replacement, such as
+ * least recently used (LRU) or least recently cached (LRC). Methods of this
+ * type use buffers implementing ITimeBuffer.
  *
  * @author xvas
  */
-@Deprecated
 public interface ILRURplc extends IRplcBase {
 
     /**
@@ -27,12 +28,18 @@ public interface ILRURplc extends IRplcBase {
     public Set<Chunk> optForEviction(ITimeBuffer evictionBuffer, Chunk item) throws Throwable;
 
     /**
+     * Takes cache decisions for a small cell regarding the request by mobile
+     * user mu that is currently hosted at small cell hostSC.
      *
-     * @param mu
-     * @param sc
-     * @return the items replaced
+     * @param sim
+     * @param mu the mobile user.
+     * @param requestChunks
+     * @param hostSC
+     * @param targetSC
+     * @param chunksRplcd filled in with the items replaced
+     * @return the total size of the items cached
      * @throws Throwable
      */
-    public Set<Chunk> cacheDecision(CachingUser mu, SmallCell sc) throws Throwable;
+    public int cacheDecision(SimulationBaseRunner sim, CachingUser mu, Collection<Chunk> requestChunks, SmallCell hostSC, SmallCell targetSC, Set<Chunk> chunksRplcd) throws Throwable;
 
 }
@@ -15,6 +15,8 @@ import sim.content.Chunk;
  */
 public class EMC_R extends caching.base.no_price.AbstractGainRplc implements IEMC {
 
+    private static final long serialVersionUID = 1L;
+
     private static final EMC_R SINGLETON = new EMC_R();
 
     public static EMC_R instance() {
@@ -15,6 +15,8 @@ import sim.space.cell.smallcell.SmallCell;
  */
 public class EMPC_R extends caching.base.no_price.AbstractGainRplc implements IEMPC {
 
+    private static final long serialVersionUID = 1L;
+
     private static final EMPC_R SINGLETON = new EMPC_R();
 
     public static EMPC_R instance() {
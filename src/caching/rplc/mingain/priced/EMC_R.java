@@ -9,7 +9,7 @@ import exceptions.CriticalFailureException;
 import java.util.Collection;
 import java.util.Comparator;
 import java.util.HashSet;
-import java.util.PriorityQueue;
+import java.util.Queue;
 import java.util.Set;
 import sim.run.SimulationBaseRunner;
 import sim.content.Chunk;
@@ -31,6 +31,8 @@ import sim.space.users.CachingUser;
  */
 public class EMC_R extends AbstractPricing implements IGainRplc, IEMC {
 
+    private static final long serialVersionUID = 1L;
+
     private static final AbstractCachingModel singelton = new EMC_R();
 
     public static AbstractCachingModel instance() {
@@ -56,6 +58,11 @@ public class EMC_R extends AbstractPricing implements IGainRplc, IEMC {
         return assess(a, sc) / a.sizeInMBs() - assess(b, sc) / b.sizeInMBs();
     }
 
+    @Override
+    public double evictionPriority(Chunk item, SmallCell sc) throws Throwable {
+        return assess(item, sc) / item.sizeInMBs();
+    }
+
     @Override
     public Comparator<Chunk> evictionPriorityComparator(final SmallCell sc) throws CriticalFailureException {
         return new Comparator<Chunk>() {
@@ -76,7 +83,7 @@ public class EMC_R extends AbstractPricing implements IGainRplc, IEMC {
     public int cacheDecision(SimulationBaseRunner sim, CachingUser mu,
             Collection<Chunk> requestChunks, SmallCell hostSC,
             SmallCell targetSC, Set<Chunk> chunksRplcd,
-            PriorityQueue<Chunk> cachedOrderByGain) throws Throwable {
+            Queue<Chunk> cachedOrderByGain) throws Throwable {
 
         int totalSizeCached = 0;
         for (Chunk nxtItem : requestChunks) {
@@ -125,7 +132,7 @@ public class EMC_R extends AbstractPricing implements IGainRplc, IEMC {
     }
 
     @Override
-    public Set<Chunk> optForEviction(SmallCell sc, Chunk chunk, PriorityQueue<Chunk> orderedCached) throws Throwable {
+    public Set<Chunk> optForEviction(SmallCell sc, Chunk chunk, Queue<Chunk> orderedCached) throws Throwable {
 //see "kanonas"      
         double aggrEvictGain = 0.0, aggrEvictSize = 0.0;
         double maxThshld = assess(chunk, sc) / chunk.sizeInMBs();
@@ -8,7 +8,7 @@ import exceptions.CriticalFailureException;
 import java.util.Collection;
 import java.util.Comparator;
 import java.util.HashSet;
-import java.util.PriorityQueue;
+import java.util.Queue;
 import java.util.Set;
 import sim.run.SimulationBaseRunner;
 import sim.content.Chunk;
@@ -28,6 +28,8 @@ import statistics.handlers.iterative.sc.cmpt6.UnonymousCompute6;
  */
 public class EMPC_R extends AbstractCachingModel implements IGainRplc, IEMPC {
 
+    private static final long serialVersionUID = 1L;
+
     private static final AbstractCachingModel singelton = new EMPC_R();
 
     public static AbstractCachingModel instance() {
@@ -47,6 +49,11 @@ public class EMPC_R extends AbstractCachingModel implements IGainRplc, IEMPC {
         return Utils.assessEMPC(item, sc, this);
     }
 
+    @Override
+    public double evictionPriority(Chunk item, SmallCell sc) throws Throwable {
+        return assess(item, sc) / item.sizeInMBs();
+    }
+
     @Override
     public Comparator<Chunk> evictionPriorityComparator(final SmallCell sc) throws CriticalFailureException {
         return new Comparator<Chunk>() {
@@ -75,7 +82,7 @@ public class EMPC_R extends AbstractCachingModel implements IGainRplc, IEMPC {
     public int cacheDecision(SimulationBaseRunner sim, CachingUser mu,
             Collection<Chunk> requestChunks, SmallCell hostSC,
             SmallCell targetSC, Set<Chunk> chunksRplcd,
-            PriorityQueue<Chunk> cachedOrderByGain) throws Throwable {
+            Queue<Chunk> cachedOrderByGain) throws Throwable {
 
         int totalSizeCached = 0;
         for (Chunk nxtItem : requestChunks) {
@@ -128,7 +135,7 @@ public class EMPC_R extends AbstractCachingModel implements IGainRplc, IEMPC {
     }
 
     @Override
-    public Set<Chunk> optForEviction(SmallCell sc, Chunk chunk, PriorityQueue<Chunk> orderedCached) throws Throwable {
+    public Set<Chunk> optForEviction(SmallCell sc, Chunk chunk, Queue<Chunk> orderedCached) throws Throwable {
 //see "kanonas"      
         double aggrEvictGain = 0.0, aggrEvictSize = 0.0;
         double maxThshld = assess(chunk, sc) / chunk.sizeInMBs();
@@ -1,7 +1,7 @@
 package caching.rplc.mingain.priced.lock_replacements;
 
 import java.util.HashSet;
-import java.util.PriorityQueue;
+import java.util.Queue;
 import java.util.Set;
 import sim.content.Chunk;
 import sim.space.cell.demand_registry.PCDemand;
@@ -30,6 +30,8 @@ import sim.space.util.DistanceComparator;
 @Deprecated
 public final class EMPC_R extends caching.rplc.mingain.priced.EMPC_R {
 
+    private static final long serialVersionUID = 1L;
+
     public enum LockReplacements {
 
         LOCK0_1(0.1),
@@ -119,7 +121,7 @@ public final class EMPC_R extends caching.rplc.mingain.priced.EMPC_R {
      */
     @Override
     public Set<Chunk> optForEviction(SmallCell sc, Chunk item,
-            PriorityQueue<Chunk> orderedCached) throws Throwable {
+            Queue<Chunk> orderedCached) throws Throwable {
         //see "kanonas"        
         double aggrEvictGain = 0.0, aggrEvictSize = 0.0;
         double maxGainThshld = assess(item, sc) / item.sizeInMBs();
@@ -1,7 +1,7 @@
 package caching.rplc.mingain.priced.tuned_timened;
 
 import java.util.HashSet;
-import java.util.PriorityQueue;
+import java.util.Queue;
 import java.util.Set;
 import sim.content.Chunk;
 import sim.space.cell.demand_registry.PCDemand;
@@ -21,6 +21,8 @@ import sim.space.cell.smallcell.SmallCell;
  */
 public abstract class AbstractEMPC_R_Tunned extends caching.rplc.mingain.priced.EMPC_R {
 
+    private static final long serialVersionUID = 1L;
+
     AbstractEMPC_R_Tunned() {
     }
 
@@ -36,7 +38,7 @@ public abstract class AbstractEMPC_R_Tunned extends caching.rplc.mingain.priced.
      */
     @Override
     public Set<Chunk> optForEviction(SmallCell sc, Chunk item,
-            PriorityQueue<Chunk> cachedOrderByGain) throws Throwable {
+            Queue<Chunk> cachedOrderByGain) throws Throwable {
 
 //        //appendLog("Selecting items to evict.. ", sc, this);
         //see "kanonas"       
@@ -22,6 +22,8 @@ import sim.space.util.DistanceComparator;
  */
 public final class EMPC_R_Tunned_b extends AbstractEMPC_R_Tunned {
 
+    private static final long serialVersionUID = 1L;
+
     private static final AbstractCachingModel singelton = new EMPC_R_Tunned_b();
 
     public static AbstractCachingModel instance() {
@@ -0,0 +1,39 @@
+package caching.rplc.recency;
+
+import caching.Utils;
+import caching.base.AbstractTimeRplc;
+import java.util.Set;
+import sim.content.Chunk;
+import sim.space.cell.smallcell.ITimeBuffer;
+
+/**
+ * Proactive caching with least recently cached (LRC) cache replacement, i.e.
+ * evicting the items that were cached first, regardless of their
+ * consumption.
+ *
+ * @author Xenofon Vasilakos xvas@aueb.gr
+ */
+public class LRC extends AbstractTimeRplc {
+
+    private static final long serialVersionUID = 1L;
+
+    private static final LRC SINGLETON = new LRC();
+
+    public static LRC instance() {
+        return SINGLETON;
+    }
+
+    public LRC() {
+    }
+
+    @Override
+    public String nickName() {
+        return "LRC";
+    }
+
+    @Override
+    public Set<Chunk> optForEviction(ITimeBuffer evictionBuffer, Chunk item) {
+        return Utils.optForEvictionLRCached(evictionBuffer, item);
+    }
+
+}
@@ -0,0 +1,39 @@
+package caching.rplc.recency;
+
+import caching.Utils;
+import caching.base.AbstractTimeRplc;
+import java.util.Set;
+import sim.content.Chunk;
+import sim.space.cell.smallcell.ITimeBuffer;
+
+/**
+ * Proactive caching with least recently used (LRU) cache replacement, i.e.
+ * evicting the cached items that were least recently consumed from the cache,
+ * or cached if not consumed since.
+ *
+ * @author Xenofon Vasilakos xvas@aueb.gr
+ */
+public class LRU extends AbstractTimeRplc {
+
+    private static final long serialVersionUID = 1L;
+
+    private static final LRU SINGLETON = new LRU();
+
+    public static LRU instance() {
+        return SINGLETON;
+    }
+
+    public LRU() {
+    }
+
+    @Override
+    public String nickName() {
+        return "LRU";
+    }
+
+    @Override
+    public Set<Chunk> optForEviction(ITimeBuffer evictionBuffer, Chunk item) {
+        return Utils.optForEvictionLRUAccess(evictionBuffer, item);
+    }
+
+}
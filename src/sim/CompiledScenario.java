@@ -0,0 +1,203 @@
+package sim;
+
+import app.properties.Caching;
+import app.properties.Cost;
+import app.properties.Space;
+import app.properties.StatsProperty;
+import app.properties.valid.Values;
+import exceptions.InvalidOrUnsupportedException;
+import java.io.Serializable;
+
+/**
+ * An immutable, typed snapshot of the properties of a scenario which are read
+ * by the mobile users, the cells, the contents and the simulation rounds.
+ *
+ * The properties are resolved once from the scenario when the simulation is
+ * created, so that the paths run per round, per mobile user or per request
+ * read fields rather than looking up properties by name. The properties of
+ * the scenario remain available by name via {@link Scenario} for setting up
+ * the simulation and for reporting.
+ *
+ * @author Xenofon Vasilakos xvas@aueb.gr
+ */
+public final class CompiledScenario implements Serializable {
+
+    private static final long serialVersionUID = 1L;
+
+    /**
+     * The values of property {@link Space#MU__SHUFFLE}.
+     */
+    public enum MUShuffle {
+        NEVER, UPON_CREATION, ALWAYS
+    }
+
+    private final boolean _softUsers;
+    private final MUShuffle _muShuffle;
+    private final double _muMobilityAccuracy;
+
+    private final String _scNeighborhood;
+    private final boolean _scSelfNeighborsAllowed;
+    private final double _scInitHandoverDuration;
+    private final double _scInitResidenceDuration;
+    private final int _stationaryReqsRate;
+    private final int _stationaryReqsStdev;
+
+    private final int _rplcDynamicMaxBound;
+    private final int _rplcReadjustmentPeriod;
+
+    private final String _transferCostOnMissType;
+    private final double _hopCountMean;
+    private final double _hopCountStdev;
+    private final double _hopCost;
+    private final double _mcMDU;
+    private final double _wirelessHopCostSC;
+    private final double _wirelessHopCostMC;
+    private final double _cdnServed;
+
+    private final int _statsMinTime;
+
+    CompiledScenario(Scenario s) throws InvalidOrUnsupportedException {
+        _softUsers = Boolean.parseBoolean(s.stringProperty(Space.MU__ISSOFT, false));
+        _muShuffle = muShuffleOf(s.stringProperty(Space.MU__SHUFFLE, false));
+        _muMobilityAccuracy = s.doubleProperty(Space.MU__MOBILITYACCURACY);
+
+        _scNeighborhood = s.stringProperty(Space.SC__NEIGHBORHOOD, false);
+        _scSelfNeighborsAllowed = s.isTrue(Space.SC__NEIGHBORHOOD__ALLOW_SELF)
+                || _scNeighborhood.equalsIgnoreCase(Values.ALL_PLUS_SELF)
+                || _scNeighborhood.equalsIgnoreCase(Values.TRACE);
+        _scInitHandoverDuration = s.doubleProperty(Space.SC__INIT_DURATION__HANDOVER);
+        _scInitResidenceDuration = s.doubleProperty(Space.SC__INIT_DURATION__RESIDENCE);
+        _stationaryReqsRate = s.intProperty(Space.SC__DMD__TRACE__STATIONARY_REQUESTS__RATE);
+        _stationaryReqsStdev = s.intProperty(Space.SC__DMD__TRACE__STATIONARY_REQUESTS__STDEV);
+
+        _rplcDynamicMaxBound = s.intProperty(
+                Caching.CACHING__RPLC__MINGAIN__SUM__HEURISTIC__TIME__DYNAMIC_MAX_BOUND);
+        _rplcReadjustmentPeriod = s.intProperty(
+                Caching.CACHING__RPLC__MINGAIN__SUM__HEURISTIC__TIME__DYNAMIC__READJUSTMENT_PERIOD);
+
+        _transferCostOnMissType = s.stringProperty(Cost.Transfer.TRANSFER_COST_ON_MISS__TYPE, false);
+        _hopCountMean = s.doubleProperty(Cost.Transfer.TRANSFER__PROPAGATION__HOP_COUNT__MEAN);
+        _hopCountStdev = s.doubleProperty(Cost.Transfer.TRANSFER__PROPAGATION__HOP_COUNT__STD);
+        _hopCost = s.doubleProperty(Cost.Transfer.TRANSFER__HOP_COST);
+        _mcMDU = s.doubleProperty(Cost.Transfer.MC__MDU);
+        _wirelessHopCostSC = s.doubleProperty(Cost.Transfer.COST__TRANSFER__WIRELESS_HOP_COST__SC);
+        _wirelessHopCostMC = s.doubleProperty(Cost.Transfer.COST__TRANSFER__WIRELESS_HOP_COST__MC);
+        _cdnServed = s.doubleProperty(Space.MU__DMD__TRACE__DOCS__CDN_SERVED);
+
+        _statsMinTime = s.intProperty(StatsProperty.STATS__MIN_TIME);
+    }
+
+    /**
+     * @param value
+     * @return the value, or null if not supported, in which case shuffling
+     * fails upon first use as before.
+     */
+    private static MUShuffle muShuffleOf(String value) {
+        switch (value) {
+            case Values.NEVER:
+                return MUShuffle.NEVER;
+            case Values.UPON_CREATION:
+                return MUShuffle.UPON_CREATION;
+            case Values.ALWAYS:
+                return MUShuffle.ALWAYS;
+            default:
+                return null;
+        }
+    }
+
+    public boolean isSoftUsers() {
+        return _softUsers;
+    }
+
+    /**
+     * @return the shuffling of mobile users, or null if the value of the
+     * property is not supported.
+     */
+    public MUShuffle getMUShuffle() {
+        return _muShuffle;
+    }
+
+    public double getMUMobilityAccuracy() {
+        return _muMobilityAccuracy;
+    }
+
+    public String getSCNeighborhood() {
+        return _scNeighborhood;
+    }
+
+    /**
+     * @return true if property {@link Space#SC__NEIGHBORHOOD__ALLOW_SELF} is
+     * set or the neighborhood type implies that small cells neighbor
+     * themselves.
+     */
+    public boolean isSCSelfNeighborsAllowed() {
+        return _scSelfNeighborsAllowed;
+    }
+
+    public double getSCInitHandoverDuration() {
+        return _scInitHandoverDuration;
+    }
+
+    public double getSCInitResidenceDuration() {
+        return _scInitResidenceDuration;
+    }
+
+    public int getStationaryReqsRate() {
+        return _stationaryReqsRate;
+    }
+
+    public int getStationaryReqsStdev() {
+        return _stationaryReqsStdev;
+    }
+
+    public boolean stationaryRequestsUsed() {
+        return _stationaryReqsRate > 0;
+    }
+
+    public int getRplcDynamicMaxBound() {
+        return _rplcDynamicMaxBound;
+    }
+
+    public int getRplcReadjustmentPeriod() {
+        return _rplcReadjustmentPeriod;
+    }
+
+    public String getTransferCostOnMissType() {
+        return _transferCostOnMissType;
+    }
+
+    public double getHopCountMean() {
+        return _hopCountMean;
+    }
+
+    public double getHopCountStdev() {
+        return _hopCountStdev;
+    }
+
+    public double getHopCost() {
+        return _hopCost;
+    }
+
+    public double getMcMDU() {
+        return _mcMDU;
+    }
+
+    public double getWirelessHopCostSC() {
+        return _wirelessHopCostSC;
+    }
+
+    public double getWirelessHopCostMC() {
+        return _wirelessHopCostMC;
+    }
+
+    /**
+     * @return the percentage of the most popular documents served by the CDN.
+     */
+    public double getCDNServed() {
+        return _cdnServed;
+    }
+
+    public int getStatsMinTime() {
+        return _statsMinTime;
+    }
+}
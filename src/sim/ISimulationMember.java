@@ -1,5 +1,6 @@
 package sim;
 
+import java.io.Serializable;
 import sim.run.SimulationBaseRunner;
 import sim.space.cell.CellRegistry;
 
@@ -9,7 +10,7 @@ import sim.space.cell.CellRegistry;
  *
  * @author xvas
  */
-public interface ISimulationMember {
+public interface ISimulationMember extends Serializable {
 
    public int simTime();
    public String simTimeStr();
@@ -20,13 +20,17 @@ import exceptions.InvalidOrUnsupportedException;
 import exceptions.ScenarioSetupException;
 import java.io.File;
 import java.io.IOException;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
 import java.io.PrintStream;
+import java.io.Serializable;
 import java.lang.reflect.Constructor;
 import java.lang.reflect.InvocationTargetException;
 import java.util.ArrayList;
 import java.util.Collection;
 import java.util.Collections;
 import java.util.Comparator;
+import java.util.EnumMap;
 import java.util.HashMap;
 import java.util.Iterator;
 import java.util.List;
@@ -43,12 +47,15 @@ import sim.time.AbstractClock;
 import utils.CommonFunctions;
 import utilities.Couple;
 import utils.random.RandomGeneratorWrapper;
+import utils.random.RandomStream;
 
 /**
  *
  * @author xvas
  */
-public class Scenario implements Comparable<Scenario> {
+public class Scenario implements Comparable<Scenario>, Serializable {
+
+    private static final long serialVersionUID = 1L;
 
     public static final Object NONE = new Object();
 
@@ -98,8 +105,8 @@ public class Scenario implements Comparable<Scenario> {
  different property values in a single setup used to create different
  scenarios running in parallel.
      */
-    private final SortedSet<Couple<String, String>> _replicationProperties;
-    private final Logger LOG;
+    private transient SortedSet<Couple<String, String>> _replicationProperties;
+    private transient Logger LOG;
 
     {// initilization block shared by all constructors
         _customProps = new HashMap<>(10, 0.25f);
@@ -119,7 +126,11 @@ public class Scenario implements Comparable<Scenario> {
     private final int _id;
     private final String _idStr;
     private static int idGen = 0;
-    private RandomGeneratorWrapper randGen;
+    /**
+     * Generators per stream of random numbers, created upon first use.
+     */
+    private final Map<RandomStream, RandomGeneratorWrapper> randGens
+            = new EnumMap<>(RandomStream.class);
 
     public static final Scenario replicate(Scenario original) throws ScenarioSetupException {
         ++original._replicationCount;
@@ -146,13 +157,7 @@ public class Scenario implements Comparable<Scenario> {
      * replicate()
      */
     protected Scenario() {
-        this._replicationProperties = new TreeSet<>(new Comparator<Couple>() {
-
-            @Override
-            public int compare(Couple t1, Couple t2) {
-                return t1.compareToFirst(t2);
-            }
-        });
+        this._replicationProperties = newReplicationProperties();
         _replicationCount = 0;
         _level = 0;
 
@@ -162,12 +167,26 @@ public class Scenario implements Comparable<Scenario> {
     }
 
     private Scenario(Scenario original) throws ScenarioSetupException {
-        this._replicationProperties = new TreeSet<>(new Comparator<Couple>() {
-            @Override
-            public int compare(Couple t1, Couple t2) {
-                return t1.compareToFirst(t2);
-            }
-        });
+        this(original, ++idGen,
+                original._idStr + (original._level + 1 < 10 ? ".0" : ".") + (original._level + 1));
+    }
+
+    /**
+     * Constructor for scenarios enumerated out of a base scenario, which is
+     * copied. The id is given by the enumeration rather than by the order of
+     * creation, so that it does not depend on which or how many of the
+     * scenarios are created.
+     *
+     * @param base
+     * @param id
+     * @throws ScenarioSetupException
+     */
+    Scenario(Scenario base, int id) throws ScenarioSetupException {
+        this(base, id, String.valueOf(id));
+    }
+
+    private Scenario(Scenario original, int id, String idStr) throws ScenarioSetupException {
+        this._replicationProperties = newReplicationProperties();
 
         this._strProps.putAll(original._strProps);
         this._customProps.putAll(original._customProps);
@@ -184,9 +203,39 @@ public class Scenario implements Comparable<Scenario> {
         _replicationCount = 0;
         _level = original._level + 1;
 
-        _id = ++idGen;
+        _id = id;
+        LOG = CommonFunctions.getLoggerFor(Scenario.class, "scenarioID=" + _id);
+        _idStr = idStr;
+    }
+
+    private static SortedSet<Couple<String, String>> newReplicationProperties() {
+        return new TreeSet<>(new Comparator<Couple>() {
+            @Override
+            public int compare(Couple t1, Couple t2) {
+                return t1.compareToFirst(t2);
+            }
+        });
+    }
+
+    /**
+     * Replication properties are written as pairs of strings.
+     */
+    private void writeObject(ObjectOutputStream out) throws IOException {
+        out.defaultWriteObject();
+        out.writeInt(_replicationProperties.size());
+        for (Couple<String, String> nxt : _replicationProperties) {
+            out.writeObject(nxt.getFirst());
+            out.writeObject(nxt.getSecond());
+        }
+    }
+
+    private void readObject(ObjectInputStream in) throws IOException, ClassNotFoundException {
+        in.defaultReadObject();
+        _replicationProperties = newReplicationProperties();
+        for (int i = in.readInt(); i > 0; i--) {
+            _replicationProperties.add(new Couple<>((String) in.readObject(), (String) in.readObject()));
+        }
         LOG = CommonFunctions.getLoggerFor(Scenario.class, "scenarioID=" + _id);
-        _idStr = original._idStr + (_level < 10 ? ".0" : ".") + _level;
     }
 
     private RuntimeException onPropertyFail(String propertyName, String typeSearched) {
@@ -782,6 +831,18 @@ public class Scenario implements Comparable<Scenario> {
     }
     ////// custom properties /////
 
+    /**
+     * Resolves the properties read while simulating this scenario into a
+     * typed snapshot; see {@link CompiledScenario}.
+     *
+     * @return the snapshot of the properties of this scenario.
+     * @throws InvalidOrUnsupportedException if a property has a value not
+     * supported.
+     */
+    public CompiledScenario compile() throws InvalidOrUnsupportedException {
+        return new CompiledScenario(this);
+    }
+
     public MacroCell initMC(sim.run.SimulationBaseRunner simulation, Area area) throws CriticalFailureException {
         try {
             MacroCell macro = MacroCell.createMacrocell(simulation, area);
@@ -793,16 +854,32 @@ public class Scenario implements Comparable<Scenario> {
         }
     }
 
+    /**
+     * Same as getRandomGenerator(RandomStream.GENERAL).
+     *
+     * @return the generator of the general stream of random numbers
+     */
     public RandomGeneratorWrapper getRandomGenerator() {
+        return getRandomGenerator(RandomStream.GENERAL);
+    }
+
+    /**
+     * @param stream
+     * @return the generator of the stream of random numbers, which is derived
+     * from the seed of this scenario.
+     */
+    public RandomGeneratorWrapper getRandomGenerator(RandomStream stream) {
+        RandomGeneratorWrapper randGen = randGens.get(stream);
         if (randGen == null) {
             try {
-                randGen = new RandomGeneratorWrapper(seed());
+                randGen = new RandomGeneratorWrapper(seed(), stream);
             } catch (RuntimeException ex) {
                 throw new InconsistencyException("seed property not defined or not retrieved from"
                         + " properties file. Make sure the properties file is loaded *and*"
                         + " parsed before using any method that invokes the random generator",
                         ex);
             }
+            randGens.put(stream, randGen);
         }
         return randGen;
     }
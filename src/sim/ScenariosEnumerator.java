@@ -0,0 +1,110 @@
+package sim;
+
+import app.properties.Preprocessor;
+import exceptions.InvalidOrUnsupportedException;
+import exceptions.ScenarioSetupException;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Enumerates the scenarios of all the combinations of the property values
+ * loaded, without creating them in advance.
+ *
+ * Properties with a single value are set once to a base scenario. Each
+ * combination of the values of the multi-valued properties is identified by
+ * its index in a mixed radix numbering, in which the first multi-valued
+ * property is the most significant digit. Thus the index of a scenario fully
+ * defines it, and a scenario is created by copying the base scenario and
+ * setting the values given by the digits of its index.
+ *
+ * @author Xenofon Vasilakos xvas@aueb.gr
+ */
+final class ScenariosEnumerator {
+
+    private final Scenario _base;
+    private final String[] _names;
+    private final String[][] _values;
+    private final long _size;
+
+    /**
+     * Each value loaded is set once to a copy of the base scenario, so that
+     * improper values fail here rather than upon creating some scenario.
+     *
+     * @param preprocessed
+     * @throws ScenarioSetupException
+     * @throws InvalidOrUnsupportedException
+     */
+    ScenariosEnumerator(Preprocessor preprocessed)
+            throws ScenarioSetupException, InvalidOrUnsupportedException {
+        _base = new Scenario();
+        List<String> names = new ArrayList<>();
+        List<String[]> values = new ArrayList<>();
+        long size = 1;
+
+        for (String nxtPropName : preprocessed.getPropertyNames()) {
+            List<String> valuesList = preprocessed.getValues(nxtPropName).getFirst();
+            switch (valuesList.size()) {
+                case 0:
+                    throw new ScenarioSetupException("No value for property: " + nxtPropName);
+                case 1: // case of only one value: does not spawn sub-scenarios
+                    _base.setProperty(nxtPropName, valuesList.get(0).trim());
+                    break;
+                default:
+                    String[] trimmed = new String[valuesList.size()];
+                    for (int i = 0; i < trimmed.length; i++) {
+                        trimmed[i] = valuesList.get(i).trim();
+                    }
+                    names.add(nxtPropName);
+                    values.add(trimmed);
+                    size *= trimmed.length;
+                    if (size > Integer.MAX_VALUE) {
+                        throw new ScenarioSetupException("Too many combinations of property values; "
+                                + "at most " + Integer.MAX_VALUE + " scenarios are supported.");
+                    }
+            }
+        }
+
+        _names = names.toArray(new String[names.size()]);
+        _values = values.toArray(new String[values.size()][]);
+        _size = size;
+
+        Scenario probe = new Scenario(_base, 0);
+        for (int i = 0; i < _names.length; i++) {
+            for (String nxtValue : _values[i]) {
+                probe.setProperty(_names[i], nxtValue);
+            }
+        }
+    }
+
+    /**
+     * @return the number of scenarios.
+     */
+    long size() {
+        return _size;
+    }
+
+    /**
+     * @param index in [0, size())
+     * @return a new scenario for the combination of property values at the
+     * index, with an id equal to the index plus one.
+     * @throws ScenarioSetupException
+     * @throws InvalidOrUnsupportedException
+     */
+    Scenario scenarioAt(long index) throws ScenarioSetupException, InvalidOrUnsupportedException {
+        if (index < 0 || index >= _size) {
+            throw new IndexOutOfBoundsException("No scenario at index " + index + " of " + _size);
+        }
+
+        Scenario scenario = new Scenario(_base, (int) index + 1);
+        long rest = index;
+        for (int i = _names.length - 1; i >= 0; i--) {
+            String[] nxtValues = _values[i];
+            String value = nxtValues[(int) (rest % nxtValues.length)];
+            rest /= nxtValues.length;
+
+            scenario.setProperty(_names[i], value);
+            scenario.addReplicationProperty(_names[i], value);
+        }
+        return scenario;
+    }
+}
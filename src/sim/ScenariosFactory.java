@@ -3,21 +3,15 @@ package sim;
 import app.arguments.MainArguments;
 import app.properties.Preprocessor;
 import exceptions.CriticalFailureException;
-import exceptions.InconsistencyException;
 import exceptions.InvalidOrUnsupportedException;
 import exceptions.NotIntiliazedException;
 import exceptions.ScenarioSetupException;
 import java.io.PrintStream;
-import java.util.ArrayList;
 import java.util.Collections;
-import java.util.Iterator;
-import java.util.List;
-import java.util.Set;
 import java.util.SortedSet;
 import java.util.TreeSet;
 import java.util.logging.Level;
 import java.util.logging.Logger;
-import utilities.Couple;
 
 /**
  * Each properties value combination gives another scenario setPropertyup
@@ -26,9 +20,19 @@ import utilities.Couple;
  */
 public final class ScenariosFactory {
 
-    private static SortedSet<Scenario> _setups;
+    /**
+     * Scenarios are created upon consumption, in order of index.
+     */
+    private static ScenariosEnumerator _enumerator;
+    /**
+     * The index of the next scenario to consume.
+     */
+    private static long _nextIdx;
+    /**
+     * The index after the last scenario to consume.
+     */
+    private static long _toIdx;
     private static boolean initialized = false;
-    private static int maxAllowedConcurrentWorkers;
     private static final Object concurentAccessLock = new Object();
     private static Preprocessor preprocessedProperties;
     private static int _initialSetupsSize;
@@ -74,72 +78,72 @@ public final class ScenariosFactory {
             }
 
             ScenariosFactory.preprocessedProperties = preprocessed;
-            maxAllowedConcurrentWorkers = argsBean.getMaxConcurrentWorkers();
 
             //<editor-fold defaultstate="collapsed" desc="different scenario setups">
             try {
-                List<Scenario> listOfSetups = new ArrayList<>(); // will contain result setups
-                List<Scenario> tmpList = new ArrayList<>(); // temporary list for computational reasons
-                listOfSetups.add(new Scenario());
-                Set<String> propertyNames = preprocessed.getPropertyNames();
-
-                for (String nxtPropName : propertyNames) {
-                    Couple<List<String>, String> valuesOfNxtProp = preprocessed.getValues(nxtPropName);
-                    List<String> valuesList = valuesOfNxtProp.getFirst();
-                    while (!listOfSetups.isEmpty()) {
-                        Scenario headScenario = listOfSetups.remove(0);// take the head of the list
-
-                        switch (valuesList.size()) {
-                            case 0:
-                                throw new ScenarioSetupException("No value for property: " + nxtPropName);
-                            case 1: // case of only one value: does not spawn sub-scenarios
-                                String tokTrimed = valuesList.get(0).trim();
-                                headScenario.setProperty(nxtPropName, tokTrimed);
-                                tmpList.add(headScenario);
-                                break;
-                            default: // if multiple values provided, then replacate scenario for each value
-                                List<Scenario> replicaSetups = Scenario.replicate(headScenario, valuesList, nxtPropName);
-                                tmpList.addAll(replicaSetups);
-                        }
-                    }
-                    listOfSetups.addAll(tmpList);
-                    tmpList.clear();
-                }
-                _setups = new TreeSet(listOfSetups);
-            } catch (ScenarioSetupException | InvalidOrUnsupportedException | InconsistencyException ex) {
+                _enumerator = new ScenariosEnumerator(preprocessed);
+            } catch (ScenarioSetupException | InvalidOrUnsupportedException ex) {
                 throw new CriticalFailureException(ex);
             }
+
+            long size = _enumerator.size();
+            _nextIdx = Math.min(argsBean.getScenariosFrom(), size);
+            _toIdx = argsBean.getScenariosTo() < 0
+                    ? size : Math.min(argsBean.getScenariosTo(), size);
+            if (_toIdx < _nextIdx) {
+                _toIdx = _nextIdx;
+            }
+            if (_toIdx - _nextIdx < size) {
+                LOG.log(Level.INFO, "Scenarios in [{0}, {1}) out of {2} are considered.\n",
+                        new Object[]{_nextIdx, _toIdx, size});
+            }
             //</editor-fold>
 
-            _initialSetupsSize = _setups.size();
+            _initialSetupsSize = (int) (_toIdx - _nextIdx);
             return (initialized = true);
         }
     }
     private static final Logger LOG = Logger.getLogger(ScenariosFactory.class.getName());
 
     /**
-     * Thread-safe
+     * Thread-safe. Scenarios are created upon consumption.
      *
-     * @return
+     * @return the next scenario, or null if all scenarios are consumed.
      * @throws exceptions.NotIntiliazedException
      */
     public static Scenario consumeNextSetup() throws NotIntiliazedException {
         synchronized (concurentAccessLock) {
             checkInitStatus();
-            if (!_setups.isEmpty()) {
-                Scenario first = _setups.first();
-                _setups.remove(first);
-                return first;
+            if (_nextIdx < _toIdx) {
+                return scenarioAt(_nextIdx++);
             } else {
                 return null;
             }
         }
     }
 
+    private static Scenario scenarioAt(long idx) {
+        try {
+            return _enumerator.scenarioAt(idx);
+        } catch (ScenarioSetupException | InvalidOrUnsupportedException ex) {
+            throw new CriticalFailureException(ex);
+        }
+    }
+
+    /**
+     * Note that all unconsumed scenarios are created upon each call.
+     *
+     * @return the scenarios not consumed yet.
+     * @throws NotIntiliazedException
+     */
     public static SortedSet<Scenario> unconsumedScenarios() throws NotIntiliazedException {
         synchronized (concurentAccessLock) {
             checkInitStatus();
-            return Collections.unmodifiableSortedSet(_setups);
+            SortedSet<Scenario> unconsumed = new TreeSet<>();
+            for (long idx = _nextIdx; idx < _toIdx; idx++) {
+                unconsumed.add(scenarioAt(idx));
+            }
+            return Collections.unmodifiableSortedSet(unconsumed);
         }
     }
 
@@ -153,7 +157,7 @@ public final class ScenariosFactory {
     public static int consumedScenariosNum() throws NotIntiliazedException {
         synchronized (concurentAccessLock) {
             checkInitStatus();
-            return _initialSetupsSize - _setups.size();
+            return (int) (_initialSetupsSize - (_toIdx - _nextIdx));
         }
     }
 
@@ -174,14 +178,7 @@ public final class ScenariosFactory {
     public static int unconsumedScenariosNum() throws NotIntiliazedException {
         synchronized (concurentAccessLock) {
             checkInitStatus();
-            return _setups.size();
-        }
-    }
-
-    public static int getMaxAllowedConcurrentWorkers() throws NotIntiliazedException {
-        synchronized (concurentAccessLock) {
-            checkInitStatus();
-            return maxAllowedConcurrentWorkers;
+            return (int) (_toIdx - _nextIdx);
         }
     }
 
@@ -192,16 +189,22 @@ public final class ScenariosFactory {
         }
     }
 
+    /**
+     * Prints the scenarios not consumed yet, creating one at a time.
+     *
+     * @param pout
+     */
     public static void printScenarios(PrintStream pout) {
         synchronized (concurentAccessLock) {
-            pout.printf("The following %d pscenario setups are concidered:\n", _setups.size());
+            int size = (int) (_toIdx - _nextIdx);
+            pout.printf("The following %d pscenario setups are concidered:\n", size);
             int count = 0;
-            for (Iterator<Scenario> it = _setups.iterator(); it.hasNext();) {
-                Scenario simSetup = it.next();
+            for (long idx = _nextIdx; idx < _toIdx; idx++) {
+                Scenario simSetup = scenarioAt(idx);
                 pout.println(
                         String.format(
                                 "%d out of  %d; family id= %d; setup id= %s  ",
-                                ++count, _setups.size(), simSetup.setupSignatureHash(), simSetup.getIDStr()
+                                ++count, size, simSetup.setupSignatureHash(), simSetup.getIDStr()
                         )
                 );
                 simSetup.print(pout);
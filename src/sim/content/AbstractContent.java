@@ -3,9 +3,11 @@ package sim.content;
 import app.properties.Cost;
 import app.properties.valid.Values;
 import java.util.Objects;
+import sim.CompiledScenario;
 import sim.ISimulationMember;
 import sim.run.SimulationBaseRunner;
 import sim.space.cell.CellRegistry;
+import utils.random.RandomStream;
 
 /**
  *
@@ -13,6 +15,8 @@ import sim.space.cell.CellRegistry;
  */
 public abstract class AbstractContent implements IContent, ISimulationMember {
 
+    private static final long serialVersionUID = 1L;
+
     private final String _id;
     private final long _sizeBytes;
     private final SimulationBaseRunner<?> _sim;
@@ -36,24 +40,23 @@ public abstract class AbstractContent implements IContent, ISimulationMember {
         _id = id;
         _sim = sim;
 
-        _remoteCostType = getSimulation().getScenario().stringProperty(Cost.Transfer.TRANSFER_COST_ON_MISS__TYPE, false);
+        CompiledScenario compiled = getSimulation().getCompiledScenario();
+        _remoteCostType = compiled.getTransferCostOnMissType();
 
-        double hopMean = getSimulation().getScenario().doubleProperty(Cost.Transfer.TRANSFER__PROPAGATION__HOP_COUNT__MEAN);
-        double hopStdev = getSimulation().getScenario().doubleProperty(Cost.Transfer.TRANSFER__PROPAGATION__HOP_COUNT__STD);
+        double hopMean = compiled.getHopCountMean();
+        double hopStdev = compiled.getHopCountStdev();
         redefineRemoteTransferAndMCCost(hopMean, hopStdev); // call again if CDN exists after creating all documents
 
         if (_remoteCostType.equalsIgnoreCase(Values.MONETARY)) {
 
             _costOfSCWireless = 0.0;
 
-            _costOfMCWireless = getSimulation().getScenario().doubleProperty(Cost.Transfer.MC__MDU);
+            _costOfMCWireless = compiled.getMcMDU();
         } else if (_remoteCostType.equalsIgnoreCase(Values.PROPAGATION_DELAY__PLUS__MC_WIRELESS)) {
 
-            _costOfSCWireless = getSimulation().getScenario().doubleProperty(
-                    Cost.Transfer.COST__TRANSFER__WIRELESS_HOP_COST__SC);
+            _costOfSCWireless = compiled.getWirelessHopCostSC();
 
-            _costOfMCWireless = getSimulation().getScenario().doubleProperty(
-                    Cost.Transfer.COST__TRANSFER__WIRELESS_HOP_COST__MC);
+            _costOfMCWireless = compiled.getWirelessHopCostMC();
         } else {
             throw new UnsupportedOperationException(
                     "Unknown value \"" + _remoteCostType + "\""
@@ -205,11 +208,10 @@ public abstract class AbstractContent implements IContent, ISimulationMember {
             return;
         }
         if (_remoteCostType.equalsIgnoreCase(Values.PROPAGATION_DELAY__PLUS__MC_WIRELESS)) {
-            double ratio = getSimulation().getRandomGenerator().getGaussian(
+            double ratio = getSimulation().getRandomGenerator(RandomStream.WORKLOAD).getGaussian(
                     hopMean, hopStdev
             );
-            _costOfRmtTransfer = ratio * getSimulation().getScenario()
-                    .doubleProperty(Cost.Transfer.TRANSFER__HOP_COST);
+            _costOfRmtTransfer = ratio * getSimulation().getCompiledScenario().getHopCost();
 
             return;
         }
@@ -7,6 +7,8 @@ import utils.ISynopsisString;
  */
 public class Chunk extends AbstractContent implements ISynopsisString {
 
+    private static final long serialVersionUID = 1L;
+
     private final long _sequenceNum;
     private final ContentDocument _referedTraceDocument;
 
@@ -0,0 +1,74 @@
+package sim.content;
+
+import java.io.Serializable;
+import java.util.AbstractList;
+import java.util.RandomAccess;
+
+/**
+ * Read-only list of the chunks of a document with sequence numbers in
+ * [firstSeq, lastSeq], in ascending order of sequence number. The range refers
+ * to the array of chunks of the document rather than copying the chunks, thus
+ * it takes constant space regardless of the number of chunks in the range.
+ *
+ * @author Xenofon Vasilakos xvas@aueb.gr
+ */
+public final class ChunkRange extends AbstractList<Chunk> implements RandomAccess, Serializable {
+
+    private static final long serialVersionUID = 1L;
+
+    private static final Chunk[] NO_CHUNKS = new Chunk[0];
+    private static final ChunkRange EMPTY = new ChunkRange(NO_CHUNKS, 1, 0);
+
+    /**
+     * The chunk with sequence number s is at index s - 1.
+     */
+    private final Chunk[] _chunks;
+    private final int _firstSeq;
+    private final int _lastSeq;
+
+    /**
+     * @param chunks the chunks of the document
+     * @param firstSeq
+     * @param lastSeq
+     */
+    ChunkRange(Chunk[] chunks, int firstSeq, int lastSeq) {
+        _chunks = chunks;
+        _firstSeq = firstSeq;
+        _lastSeq = lastSeq;
+    }
+
+    /**
+     * @return a range of no chunks.
+     */
+    public static ChunkRange empty() {
+        return EMPTY;
+    }
+
+    /**
+     * @return the sequence number of the first chunk in the range.
+     */
+    public int firstSeq() {
+        return _firstSeq;
+    }
+
+    /**
+     * @return the sequence number of the last chunk in the range, which is
+     * less than the first one if the range is empty.
+     */
+    public int lastSeq() {
+        return _lastSeq;
+    }
+
+    @Override
+    public Chunk get(int i) {
+        if (i < 0 || i >= size()) {
+            throw new IndexOutOfBoundsException("Index: " + i + ", size: " + size());
+        }
+        return _chunks[_firstSeq - 1 + i];
+    }
+
+    @Override
+    public int size() {
+        return Math.max(0, _lastSeq - _firstSeq + 1);
+    }
+}
@@ -0,0 +1,161 @@
+package sim.content;
+
+import java.io.Serializable;
+import java.util.AbstractList;
+import java.util.AbstractMap;
+import java.util.AbstractSet;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.Set;
+import java.util.SortedMap;
+
+/**
+ * Read-only sorted map view of the chunks of a document mapped to their
+ * sequence numbers. Chunks are kept in a plain array, where the chunk with
+ * sequence number s is at index s - 1, instead of a map entry per chunk.
+ *
+ * @author Xenofon Vasilakos xvas@aueb.gr
+ */
+final class ChunkSequence extends AbstractMap<Long, Chunk> implements SortedMap<Long, Chunk>, Serializable {
+
+    private static final long serialVersionUID = 1L;
+
+    private final Chunk[] _chunks;
+    /**
+     * The view covers indexes in [_from, _to) of _chunks.
+     */
+    private final int _from;
+    private final int _to;
+
+    ChunkSequence(Chunk[] chunks) {
+        this(chunks, 0, chunks.length);
+    }
+
+    private ChunkSequence(Chunk[] chunks, int from, int to) {
+        _chunks = chunks;
+        _from = from;
+        _to = Math.max(from, to);
+    }
+
+    /**
+     * @return the index of the sequence number clamped in [_from, _to]
+     */
+    private int clampedIdx(long seqNum) {
+        long idx = seqNum - 1;
+        return (int) Math.max(_from, Math.min(_to, idx));
+    }
+
+    @Override
+    public Comparator<? super Long> comparator() {
+        return null; // natural ordering
+    }
+
+    @Override
+    public SortedMap<Long, Chunk> subMap(Long fromKey, Long toKey) {
+        if (fromKey > toKey) {
+            throw new IllegalArgumentException("fromKey > toKey");
+        }
+        return new ChunkSequence(_chunks, clampedIdx(fromKey), clampedIdx(toKey));
+    }
+
+    @Override
+    public SortedMap<Long, Chunk> headMap(Long toKey) {
+        return new ChunkSequence(_chunks, _from, clampedIdx(toKey));
+    }
+
+    @Override
+    public SortedMap<Long, Chunk> tailMap(Long fromKey) {
+        return new ChunkSequence(_chunks, clampedIdx(fromKey), _to);
+    }
+
+    @Override
+    public Long firstKey() {
+        if (_from == _to) {
+            throw new NoSuchElementException();
+        }
+        return (long) _from + 1;
+    }
+
+    @Override
+    public Long lastKey() {
+        if (_from == _to) {
+            throw new NoSuchElementException();
+        }
+        return (long) _to;
+    }
+
+    @Override
+    public int size() {
+        return _to - _from;
+    }
+
+    @Override
+    public boolean containsKey(Object key) {
+        if (!(key instanceof Long)) {
+            return false;
+        }
+        long idx = (Long) key - 1;
+        return idx >= _from && idx < _to;
+    }
+
+    @Override
+    public Chunk get(Object key) {
+        if (!(key instanceof Long)) {
+            return null;
+        }
+        long idx = (Long) key - 1;
+        return idx >= _from && idx < _to ? _chunks[(int) idx] : null;
+    }
+
+    @Override
+    public Collection<Chunk> values() {
+        return new AbstractList<Chunk>() {
+            @Override
+            public Chunk get(int i) {
+                if (i < 0 || i >= size()) {
+                    throw new IndexOutOfBoundsException("Index: " + i + ", Size: " + size());
+                }
+                return _chunks[_from + i];
+            }
+
+            @Override
+            public int size() {
+                return _to - _from;
+            }
+        };
+    }
+
+    @Override
+    public Set<Map.Entry<Long, Chunk>> entrySet() {
+        return new AbstractSet<Map.Entry<Long, Chunk>>() {
+            @Override
+            public Iterator<Map.Entry<Long, Chunk>> iterator() {
+                return new Iterator<Map.Entry<Long, Chunk>>() {
+                    private int _nxt = _from;
+
+                    @Override
+                    public boolean hasNext() {
+                        return _nxt < _to;
+                    }
+
+                    @Override
+                    public Map.Entry<Long, Chunk> next() {
+                        if (!hasNext()) {
+                            throw new NoSuchElementException();
+                        }
+                        int idx = _nxt++;
+                        return new AbstractMap.SimpleImmutableEntry<>((long) idx + 1, _chunks[idx]);
+                    }
+                };
+            }
+
+            @Override
+            public int size() {
+                return _to - _from;
+            }
+        };
+    }
+}
@@ -1,10 +1,8 @@
 package sim.content;
 
 import java.util.Collection;
-import java.util.Collections;
 import java.util.Iterator;
 import java.util.SortedMap;
-import java.util.TreeMap;
 import java.util.logging.Level;
 import utils.ISynopsisString;
 import sim.run.SimulationBaseRunner;
@@ -14,20 +12,30 @@ import sim.run.SimulationBaseRunner;
  */
 public class ContentDocument extends AbstractContent implements Comparable<ContentDocument>, ISynopsisString {
 
+    private static final long serialVersionUID = 1L;
+
     private final int _totalNumberOfRequests;
     private final int _appType;
+    /**
+     * The chunk with sequence number s is at index s - 1.
+     */
+    private final Chunk[] _chunks;
+    /**
+     * Read-only view over the chunks of the document, in ascending order of
+     * sequence number.
+     */
     private final SortedMap<Long, Chunk> _chunksInSequence;
 
     public ContentDocument(String id, SimulationBaseRunner sim, long sizeInBytes,
             int totalRequests, int appType) {
         super(id, sim, sizeInBytes);
 
-        SortedMap tmpChunksInSequence = new TreeMap();
         long chunkSizeInBytes = sim.chunkSizeInBytes();
 
         int numOfCompleteChunks = (int) (sizeInBytes() / chunkSizeInBytes);
         int remainderChunkSize = (int) (sizeInBytes() % chunkSizeInBytes);
         int totalChunks = numOfCompleteChunks + (remainderChunkSize > 0 ? 1 : 0);
+        Chunk[] chunks = new Chunk[totalChunks];
 
         //<editor-fold defaultstate="collapsed" desc="logging">
         java.util.logging.Logger.getLogger(getClass().getCanonicalName()).
@@ -37,7 +45,7 @@ public class ContentDocument extends AbstractContent implements Comparable<Conte
         long seqNum = 0;
         while (seqNum < numOfCompleteChunks) {
             Chunk requestedChunk = new Chunk(this, chunkSizeInBytes, ++seqNum);
-            tmpChunksInSequence.put(seqNum, requestedChunk);
+            chunks[(int) seqNum - 1] = requestedChunk;
             //<editor-fold defaultstate="collapsed" desc="logging">
             if (0.25 * numOfCompleteChunks % seqNum == 0) {
                 java.util.logging.Logger.getLogger(getClass().getCanonicalName()).
@@ -47,7 +55,7 @@ public class ContentDocument extends AbstractContent implements Comparable<Conte
         }
         if (remainderChunkSize > 0) {// the left-over chunk..
             Chunk requestedChunk = new Chunk(this, remainderChunkSize, ++seqNum);
-            tmpChunksInSequence.put(seqNum, requestedChunk);
+            chunks[(int) seqNum - 1] = requestedChunk;
             //<editor-fold defaultstate="collapsed" desc="logging">
             java.util.logging.Logger.getLogger(getClass().getCanonicalName()).
                     log(Level.FINEST, "100%.. Chunking process completed! Remainder chunk size: {0}MB", requestedChunk.sizeInMBs());
@@ -56,7 +64,8 @@ public class ContentDocument extends AbstractContent implements Comparable<Conte
         _totalNumberOfRequests = totalRequests;
         _appType = appType;
 
-        this._chunksInSequence = Collections.unmodifiableSortedMap(tmpChunksInSequence);
+        this._chunks = chunks;
+        this._chunksInSequence = new ChunkSequence(chunks);
     }
 
     @Override
@@ -105,24 +114,44 @@ public class ContentDocument extends AbstractContent implements Comparable<Conte
     }
 
     public final SortedMap<Long, Chunk> getChunksInSequence() {
-        return Collections.unmodifiableSortedMap(_chunksInSequence);
+        return _chunksInSequence;
     }
 
     /**
      * @return chunks that are iterated in ascending order of sequence number
      */
     public Collection<Chunk> chunks() {
-        return Collections.unmodifiableCollection(_chunksInSequence.values());
+        return _chunksInSequence.values();
     }
 
     public Collection<Chunk> chunksFromSeqNum(long seqNum) {
-        return Collections.unmodifiableCollection(_chunksInSequence.headMap(seqNum).values());
+        return _chunksInSequence.headMap(seqNum).values();
     }
 
     public Chunk getChunkWithSequenceNum(long seqNum) {
         return _chunksInSequence.get(seqNum);
     }
 
+    /**
+     * @param firstSeq
+     * @param lastSeq
+     * @return the chunks with sequence numbers in [firstSeq, lastSeq], clamped
+     * to the sequence numbers of this document.
+     */
+    public ChunkRange chunkRange(long firstSeq, long lastSeq) {
+        int first = (int) Math.max(1, firstSeq);
+        int last = (int) Math.min(_chunks.length, lastSeq);
+        return first > last ? ChunkRange.empty() : new ChunkRange(_chunks, first, last);
+    }
+
+    /**
+     * @param idx
+     * @return the chunk with sequence number idx + 1
+     */
+    public Chunk getChunkAt(int idx) {
+        return _chunks[idx];
+    }
+
     public int totalNumberOfChunks() {
         return _chunksInSequence.size();
     }
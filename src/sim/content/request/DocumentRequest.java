@@ -1,20 +1,20 @@
 package sim.content.request;
 
-import app.properties.Space;
 import caching.base.AbstractCachingModel;
 import caching.incremental.Oracle;
+import java.util.BitSet;
 import java.util.Collections;
 import java.util.HashMap;
 import java.util.ArrayList;
-import java.util.Collection;
-import java.util.HashSet;
-import java.util.Iterator;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
 import java.util.SortedMap;
 import utils.ISynopsisString;
 import sim.content.Chunk;
+import sim.content.ChunkRange;
+import sim.content.ContentDocument;
+import sim.space.cell.smallcell.ITimeBuffer;
 import sim.space.cell.smallcell.SmallCell;
 import sim.space.users.CachingUser;
 import sim.space.users.StationaryUser;
@@ -29,6 +29,8 @@ import traces.dmdtrace.TraceWorkloadRecord;
  */
 public class DocumentRequest extends TraceWorkloadRecord implements ISynopsisString, IRequest {
 
+    private static final long serialVersionUID = 1L;
+
     /**
      * The simulation time of request. This is not the same as the time loaded
      * from the trace workload.
@@ -36,7 +38,11 @@ public class DocumentRequest extends TraceWorkloadRecord implements ISynopsisStr
     protected final int _issuedAtSimTime; // either a stationary small cell user or a mobile user
     protected int _uncompletedPolicies;
     protected final CachingUser _requesterUser; // either a stationary small cell user or a mobile user
-    protected final Map<AbstractCachingModel, List<Chunk>> _unconsumedChunksInSequence;
+    /**
+     * Per caching model, the chunks not consumed yet: the bit at index i is set
+     * iff the chunk with sequence number i + 1 is not consumed.
+     */
+    protected final Map<AbstractCachingModel, BitSet> _unconsumedChunksInSequence;
     protected final Map<AbstractCachingModel, Integer> _completitionTimes;
     protected final Map<AbstractCachingModel, List<Chunk>> _chunksConsumedHistoryFromMCWhileConnectedToSC;
     private final Map<AbstractCachingModel, List<Chunk>> _consumedHistoryFromMCwSCDiscon;
@@ -45,6 +51,10 @@ public class DocumentRequest extends TraceWorkloadRecord implements ISynopsisStr
     protected final Map<AbstractCachingModel, List<Chunk>> _chunksHitsHistoryFromSC;
 
     private boolean _consumeReady;
+    /**
+     * If soft, the user never consumes from the macro cell.
+     */
+    private final boolean _isSoftUser;
 
 //    List<RequestedChunk> _consumedChunksInSequence = null;
     public DocumentRequest(TraceWorkloadRecord workloadRecord, CachingUser requesterUser) {
@@ -56,7 +66,7 @@ public class DocumentRequest extends TraceWorkloadRecord implements ISynopsisStr
 
         _requesterUser = requesterUser;
 
-        _unconsumedChunksInSequence = new HashMap<>(7);//new TreeMap(referredContentDocument().getChunksInSequence());
+        _unconsumedChunksInSequence = new HashMap<>(7);
         _completitionTimes = new HashMap<>(50);
         _chunksConsumedHistoryFromMCWhileConnectedToSC = new HashMap<>(50);
         _consumedHistoryFromMCwSCDiscon = new HashMap<>(5);
@@ -64,11 +74,15 @@ public class DocumentRequest extends TraceWorkloadRecord implements ISynopsisStr
         _chunksHitsHistoryFromSC = new HashMap<>(25);
         _chunksConsumedHistoryFromBH = new HashMap<>(25);
 
-        Collection<Chunk> chunksInSequence = referredContentDocument().getChunksInSequence().values();
+        _isSoftUser = getSimulation().getCompiledScenario().isSoftUsers();
+
+        int chunksNum = referredContentDocument().totalNumberOfChunks();
 
         _uncompletedPolicies = getSimulation().getCachingStrategies().size();
         for (AbstractCachingModel model : getSimulation().getCachingStrategies()) {
-            _unconsumedChunksInSequence.put(model, new ArrayList<>(chunksInSequence));
+            BitSet unconsumed = new BitSet(chunksNum);
+            unconsumed.set(0, chunksNum);
+            _unconsumedChunksInSequence.put(model, unconsumed);
             _completitionTimes.put(model, -1);
             _chunksConsumedHistoryFromMCWhileConnectedToSC.put(model, new ArrayList<Chunk>());
             _consumedHistoryFromMCwSCDiscon.put(model, new ArrayList<Chunk>());
@@ -154,28 +168,44 @@ public class DocumentRequest extends TraceWorkloadRecord implements ISynopsisStr
     }
 
     @Override
-    public List<Chunk> predictChunks2Request(
+    public ChunkRange predictChunks2Request(
             AbstractCachingModel model, double handoverProb,
             boolean isSoftMU, double expectedHandoffDuration,
             double conf95HandoffDur, double expectedResidenceDuration,
             double conf95ResidenceDur, int mcRateSliceBytes,
             int bhRateSliceBytes, int scRateSliceBytes) {
 
-        if (isSoftMU) {
-            return new ArrayList<>(referredContentDocument().getChunksInSequence().values());
-        }
-
-        List<Chunk> chunks = new ArrayList<>();// keep insertion order in returned 
+        return predictChunks2Request(model, predictWindow(
+                isSoftMU, expectedHandoffDuration, conf95HandoffDur,
+                expectedResidenceDuration, conf95ResidenceDur,
+                mcRateSliceBytes, bhRateSliceBytes, scRateSliceBytes));
+    }
 
-//////////////////////        
-//        if (predictChunksZeroProb(chunks, handoverProb)) {
-//            return chunks;//skip fast
-//        }
-//////////////////////   
-        List<Chunk> unconsumed = _unconsumedChunksInSequence.get(model);
+    /**
+     * Predicts the part of the chunks to request which is the same for all
+     * caching policies, i.e. how far past the first unconsumed chunk the
+     * prediction starts and how many chunks it spans. The chunks predicted for
+     * a policy are then found via
+     * {@link #predictChunks2Request(AbstractCachingModel, ChunkWindow)}.
+     *
+     * @param isSoftMU
+     * @param expectedHandoffDuration
+     * @param conf95HandoffDur
+     * @param expectedResidenceDuration
+     * @param conf95ResidenceDur
+     * @param mcRateSliceBytes
+     * @param bhRateSliceBytes
+     * @param scRateSliceBytes
+     * @return
+     */
+    public ChunkWindow predictWindow(
+            boolean isSoftMU, double expectedHandoffDuration,
+            double conf95HandoffDur, double expectedResidenceDuration,
+            double conf95ResidenceDur, int mcRateSliceBytes,
+            int bhRateSliceBytes, int scRateSliceBytes) {
 
-        if (unconsumed.isEmpty()) {//early skip if possible
-            return new ArrayList<>();//return empty in this case
+        if (isSoftMU) {
+            return ChunkWindow.ALL;
         }
 
         double chunkSizeInBytes = getSimulation().chunkSizeInBytes();
@@ -185,7 +215,7 @@ public class DocumentRequest extends TraceWorkloadRecord implements ISynopsisStr
         long consumedFromMCDuringHandoff, consumedFromMCDuringHandoffConf;
         consumedFromMCDuringHandoff = consumedFromMCDuringHandoffConf = 0;
 
-        if (!isSoftMU && _consumeReady) {
+        if (_consumeReady) {
             /* If soft ussr, never consume from macro cell.
              * If not consume-ready yet, then it will start consuming only after
              * entering the first cell
@@ -202,67 +232,80 @@ public class DocumentRequest extends TraceWorkloadRecord implements ISynopsisStr
         long consumableChunksDuringSCConnection
                 = Math.round((expectedResidenceDuration + 2 * conf95ResidenceDur) * scRateSliceBytes / chunkSizeInBytes);
 
-        long firstChunkSequenceNum
-                = unconsumed.get(0).getSequenceNum()// first unconsumed chunk in sequence
-                + consumedFromMCDuringHandoff
-                - consumedFromMCDuringHandoffConf;// conf interval
-        firstChunkSequenceNum = Math.max(1, firstChunkSequenceNum);// to prohibit meaningless negative sequences
+        long cachableChunks = Math.min(
+                cachableChunksDuringHandoff,
+                consumableChunksDuringSCConnection
+        );
 
-        SortedMap<Long, Chunk> chunksInSequence = referredContentDocument().getChunksInSequence();
+        return new ChunkWindow(
+                consumedFromMCDuringHandoff - consumedFromMCDuringHandoffConf,// conf interval
+                cachableChunks);
+    }
 
-//////////////////////                
-//        if (predictChunksContentTooSmall(chunksInSequence.lastKey(), 
-//                firstChunkSequenceNum, chunksInSequence, handoverProb, chunks)) {
-//            return chunks;
-//        }
-        if (chunksInSequence.lastKey() <= firstChunkSequenceNum) {
-            return new ArrayList<>();//return empty in this case
+    /**
+     * @param model
+     * @param window the prediction shared by all caching policies
+     * @return the range of the chunks predicted for the caching policy, which
+     * starts from the window past the first chunk not yet consumed for the
+     * policy.
+     */
+    public ChunkRange predictChunks2Request(AbstractCachingModel model, ChunkWindow window) {
+        ContentDocument doc = referredContentDocument();
+        if (window == ChunkWindow.ALL) {
+            return doc.chunkRange(1, doc.totalNumberOfChunks());
+        }
+
+        BitSet unconsumed = _unconsumedChunksInSequence.get(model);
 
+        if (unconsumed.isEmpty()) {//early skip if possible
+            return ChunkRange.empty();
         }
 
-        long cachableChunks = Math.min(
-                cachableChunksDuringHandoff,
-                consumableChunksDuringSCConnection
-        );
+        long firstChunkSequenceNum
+                = unconsumed.nextSetBit(0) + 1// first unconsumed chunk in sequence
+                + window._shift;
+        firstChunkSequenceNum = Math.max(1, firstChunkSequenceNum);// to prohibit meaningless negative sequences
+
+        long lastSeq = doc.totalNumberOfChunks();
+        if (lastSeq <= firstChunkSequenceNum) {
+            return ChunkRange.empty();
+        }
 
         long lastValidSeq = Math.min(
-                chunksInSequence.lastKey(),
-                firstChunkSequenceNum + cachableChunks
+                lastSeq,
+                firstChunkSequenceNum + window._cachableChunks
         );
-        for (long seqNum = firstChunkSequenceNum;
-                seqNum <= lastValidSeq;
-                seqNum++) {
-            Chunk chunk = chunksInSequence.get(seqNum);
+        return doc.chunkRange(firstChunkSequenceNum, lastValidSeq);
+    }
 
-            chunks.add(chunk);
-        }
+    /**
+     * The prediction of the chunks to request which is the same for all
+     * caching policies; see
+     * {@link #predictWindow(boolean, double, double, double, double, int, int, int)}.
+     */
+    public static final class ChunkWindow {
 
-//        //yyy
-//        getSim().getStatsHandle().updtSCCmpt6(consumedFromMCDuringHandoff,
-//                new UnonymousCompute6(
-//                        new UnonymousCompute6.WellKnownTitle("consumedMCHandoff"))
-//        );
-//        //yyy
-//        getSim().getStatsHandle().updtSCCmpt6(consumedFromMCDuringHandoffConf,
-//                new UnonymousCompute6(
-//                        new UnonymousCompute6.WellKnownTitle("consumedMCHandoffConf"))
-//        );
-//
-//        //yyy
-//        getSim().getStatsHandle().updtSCCmpt6(cachableChunks,
-//                new UnonymousCompute6(
-//                        new UnonymousCompute6.WellKnownTitle("cachableChunks"))
-//        );
-//
-//        //yyy
-//        getSim().getStatsHandle().updtSCCmpt6(firstChunkSequenceNum,
-//                new UnonymousCompute6(
-//                        new UnonymousCompute6.WellKnownTitle("firstChunkSequenceNum"))
-//        );
-        return chunks;
+        /**
+         * All the chunks of the document, as predicted for soft users.
+         */
+        private static final ChunkWindow ALL = new ChunkWindow(0, 0);
+
+        /**
+         * Chunks past the first unconsumed chunk the prediction starts from.
+         */
+        private final long _shift;
+        /**
+         * Chunks past the first predicted chunk the prediction ends at.
+         */
+        private final long _cachableChunks;
+
+        private ChunkWindow(long shift, long cachableChunks) {
+            _shift = shift;
+            _cachableChunks = cachableChunks;
+        }
     }
 
-    public List<Chunk> predictChunks2Request(boolean deb,
+    public ChunkRange predictChunks2Request(boolean deb,
             AbstractCachingModel model, double handoverProb,
             double expectedHandoffDuration,
             double conf95HandoffDur, double expectedResidenceDuration,
@@ -270,17 +313,16 @@ public class DocumentRequest extends TraceWorkloadRecord implements ISynopsisStr
             int bhRateSliceBytes, int scRateSliceBytes) {
 
         //DebugUtils.printer.print("\n\n****\n\n");
-        List<Chunk> chunks = new ArrayList<>();// keep insertion order in returned 
 
 //////////////////////        
 //        if (predictChunksZeroProb(chunks, handoverProb)) {
 //            return chunks;//skip fast
 //        }
 //////////////////////   
-        List<Chunk> unconsumed = _unconsumedChunksInSequence.get(model);
+        BitSet unconsumed = _unconsumedChunksInSequence.get(model);
 
         if (unconsumed.isEmpty()) {//early skip if possible
-            return new ArrayList<>();//return empty in this case
+            return ChunkRange.empty();
         }
 
         double chunkSizeInBytes = getSimulation().chunkSizeInBytes();
@@ -305,20 +347,21 @@ public class DocumentRequest extends TraceWorkloadRecord implements ISynopsisStr
                 = Math.round((expectedResidenceDuration + 2 * conf95ResidenceDur) * scRateSliceBytes / chunkSizeInBytes);
 
         long firstChunkSequenceNum
-                = unconsumed.get(0).getSequenceNum()// first unconsumed chunk in sequence
+                = unconsumed.nextSetBit(0) + 1// first unconsumed chunk in sequence
                 + consumedFromMCDuringHandoff
                 - consumedFromMCDuringHandoffConf;// conf interval
         firstChunkSequenceNum = Math.max(1, firstChunkSequenceNum);// to prohibit meaningless negative sequences
 
-        SortedMap<Long, Chunk> chunksInSequence = referredContentDocument().getChunksInSequence();
+        ContentDocument doc = referredContentDocument();
+        long lastSeq = doc.totalNumberOfChunks();
 
 //////////////////////                
 //        if (predictChunksContentTooSmall(chunksInSequence.lastKey(), 
 //                firstChunkSequenceNum, chunksInSequence, handoverProb, chunks)) {
 //            return chunks;
 //        }
-        if (chunksInSequence.lastKey() <= firstChunkSequenceNum) {
-            return new ArrayList<>();//return empty in this case
+        if (lastSeq <= firstChunkSequenceNum) {
+            return ChunkRange.empty();
         }
 
         long cachableChunks = Math.min(
@@ -327,15 +370,10 @@ public class DocumentRequest extends TraceWorkloadRecord implements ISynopsisStr
         );
 
         long lastValidSeq = Math.min(
-                chunksInSequence.lastKey(),
+                lastSeq,
                 firstChunkSequenceNum + cachableChunks
         );
-        for (long seqNum = firstChunkSequenceNum;
-                seqNum <= lastValidSeq;
-                seqNum++) {
-            Chunk chunk = chunksInSequence.get(seqNum);
-            chunks.add(chunk);
-        }
+        ChunkRange chunks = doc.chunkRange(firstChunkSequenceNum, lastValidSeq);
 
 //        //yyy
 //        getSim().getStatsHandle().updtSCCmpt6(consumedFromMCDuringHandoff,
@@ -421,8 +459,7 @@ public class DocumentRequest extends TraceWorkloadRecord implements ISynopsisStr
     @Override
     public void consumeChunksRemainderFromMC(AbstractCachingModel model, double mcRateSlice,
             Map<AbstractCachingModel, List<Chunk>> fillInWithDownloadedFromMC) {
-        Map<AbstractCachingModel, List<Chunk>> consumeRemainderFromMC = consumeRemainderFromMC(model);
-        mergeAndSeparatePerpolicy(fillInWithDownloadedFromMC, consumeRemainderFromMC);
+        consumeRemainderFromMC(model, fillInWithDownloadedFromMC);
     }
 
     @Override
@@ -439,18 +476,8 @@ public class DocumentRequest extends TraceWorkloadRecord implements ISynopsisStr
 
         if (!userConnected) {
             return;
-//                maxBudget = Math.round(mcRateSlice / chunkSizeInBytes);
-//                for (AbstractCachingModel model : getSim().getCachingPolicies()) {
-//                    Map<AbstractCachingModel, List<Chunk>> consumedMCwSCDiscon
-//                            = consumeFromMCwSCDiscon(model, maxBudget);
-//                    mergeToFirstMap(fillInWithDownloadedFromMC, consumedMCwSCDiscon);
-//                }
-
         } else {// in this case, downloads from all reasources, with this *priority*: 
 
-            Map<AbstractCachingModel, Set<Chunk>> hitsNowInCachePerModel
-                    = new HashMap<>(5);
-
             for (AbstractCachingModel model : getSimulation().getCachingStrategies()) {
 
                 long maxBudget = (long) Math.ceil(sizeInChunks());
@@ -460,19 +487,16 @@ public class DocumentRequest extends TraceWorkloadRecord implements ISynopsisStr
                  * First, consumeTry from the cache
                  *
                  */
-                Map<AbstractCachingModel, Set<Chunk>> hits
-                        = tryHitsFromCachePerModel(model, maxBudget);
-                hitsNowInCachePerModel.putAll(hits);
-                merge2(fillInWithCacheHits, hitsNowInCachePerModel);
+                int hitsNum = tryHitsFromCachePerModel(model, maxBudget,
+                        fillInFor(fillInWithCacheHits, model));
 
                 /**
                  * ***************************
                  * Second, from backhaul whatever not hit
                  *
                  */
-                Map<AbstractCachingModel, Set<Chunk>> consumedNowFromBH
-                        = consumeCacheMissedFromBH(model, maxBudget, hitsNowInCachePerModel);
-                merge2(fillInWithDownloadedFromBH, consumedNowFromBH);
+                consumeCacheMissedFromBH(model, maxBudget, hitsNum,
+                        fillInFor(fillInWithDownloadedFromBH, model));
 
             }
         }
@@ -502,9 +526,6 @@ public class DocumentRequest extends TraceWorkloadRecord implements ISynopsisStr
             double minSCorBHRateSlice, Map<AbstractCachingModel, List<Chunk>> fillInWithDownloadedFromBH,
             Map<AbstractCachingModel, List<Chunk>> fillInWithMissedPerPolicy) {
 
-        Boolean isSoft = Boolean.parseBoolean(getSimulation().getScenario().stringProperty(Space.MU__ISSOFT, false));
-        // if soft, then the macro IS never used
-
         if (!_consumeReady) {
             return;
         }
@@ -516,19 +537,15 @@ public class DocumentRequest extends TraceWorkloadRecord implements ISynopsisStr
         long maxBudget;
 
         if (!userConnected) {
-            if (!isSoft) {
+            if (!_isSoftUser) {
                 maxBudget = Math.round(mcRateSlice / chunkSizeInBytes);
                 for (AbstractCachingModel model : getSimulation().getCachingStrategies()) {
-                    Map<AbstractCachingModel, List<Chunk>> consumedMCwSCDiscon
-                            = consumeFromMCwSCDiscon(model, maxBudget);
-                    mergeToFirstMap(fillInWithDownloadedFromMC, consumedMCwSCDiscon);
+                    consumeFromMCwSCDiscon(model, maxBudget,
+                            fillInFor(fillInWithDownloadedFromMC, model));
                 }
             }
         } else {// in this case, downloads from all reasources, with this *priority*: 
 
-            Map<AbstractCachingModel, Set<Chunk>> hitsNowInCachePerPolicy
-                    = new HashMap<>(5);
-
             maxBudget = Math.round(scRateSlice / chunkSizeInBytes);
             for (AbstractCachingModel model : getSimulation().getCachingStrategies()) {
 
@@ -542,10 +559,8 @@ public class DocumentRequest extends TraceWorkloadRecord implements ISynopsisStr
                  * First, consumeTry from the cache
                  *
                  */
-                Map<AbstractCachingModel, Set<Chunk>> hits
-                        = tryHitsFromCachePerModel(model, maxBudget);
-                hitsNowInCachePerPolicy.putAll(hits);
-                merge2(fillInWithCacheHits, hitsNowInCachePerPolicy);
+                int hitsNum = tryHitsFromCachePerModel(model, maxBudget,
+                        fillInFor(fillInWithCacheHits, model));
 
                 /**
                  * ***************************
@@ -553,19 +568,19 @@ public class DocumentRequest extends TraceWorkloadRecord implements ISynopsisStr
                  *
                  */
                 maxBudget = Math.round(minSCorBHRateSlice / chunkSizeInBytes);
-                Map<AbstractCachingModel, Set<Chunk>> consumedNowFromBH
-                        = consumeCacheMissedFromBH(model, maxBudget, hitsNowInCachePerPolicy);
-                merge2(fillInWithDownloadedFromBH, consumedNowFromBH);
+                consumeCacheMissedFromBH(model, maxBudget, hitsNum,
+                        fillInFor(fillInWithDownloadedFromBH, model));
 
                 /**
                  * ******************************
                  * Third and last, consumeTry from the macro
                  *
                  */
-                if (!(_requesterUser instanceof StationaryUser) && !isSoft) {
+                if (!(_requesterUser instanceof StationaryUser) && !_isSoftUser) {
                     // stationaries do not consume from the macrocell
                     maxBudget = Math.round(mcRateSlice / chunkSizeInBytes);
-                    mergeToFirstMap(fillInWithDownloadedFromMC, consumeFromMCwSCCon(model, maxBudget));
+                    consumeFromMCwSCCon(model, maxBudget,
+                            fillInFor(fillInWithDownloadedFromMC, model));
                 }
             }
         }
@@ -580,251 +595,206 @@ public class DocumentRequest extends TraceWorkloadRecord implements ISynopsisStr
     }
 
     /**
-     *
-     * maxBudget the max number of chunks that can be downloaded from the cache
-     * fillWithMissedByModel for some polices, some chunks may be missed. These
-     * chunks must be considered for download by the BH or the MC
-     *
-     * @return the consumed chunks from the cache
+     * @param fillIn
+     * @param model
+     * @return the list mapped to the model, which is added if missing.
      */
-    private Map<AbstractCachingModel, Set<Chunk>> tryHitsFromCachePerModel(
-            AbstractCachingModel model, long maxBudget) {
-        Map<AbstractCachingModel, Set<Chunk>> currentHitsInCachePerModel = new HashMap<>(5);
+    protected static List<Chunk> fillInFor(Map<AbstractCachingModel, List<Chunk>> fillIn,
+            AbstractCachingModel model) {
+        List<Chunk> chunks = fillIn.get(model);
+        if (chunks == null) {
+            fillIn.put(model, (chunks = new ArrayList<>()));
+        }
+        return chunks;
+    }
 
-        List<Chunk> unconsumed = _unconsumedChunksInSequence.get(model);
+    /**
+     * @param idx
+     * @return the chunk with sequence number idx + 1
+     */
+    protected final Chunk chunkAt(int idx) {
+        return referredContentDocument().getChunkAt(idx);
+    }
+
+    /**
+     * Records the completion time for the model if all chunks are consumed.
+     *
+     * @param model
+     * @param unconsumed
+     */
+    protected final void checkCompleted(AbstractCachingModel model, BitSet unconsumed) {
         if (unconsumed.isEmpty()) {
             if (_completitionTimes.get(model) == -1) {
                 _completitionTimes.put(model, simTime());
                 _uncompletedPolicies--;
             }
-            return currentHitsInCachePerModel;
+        }
+    }
+
+    /**
+     *
+     * maxBudget the max number of chunks that can be downloaded from the cache
+     *
+     * @param fillInWithHits the chunks hit in the cache are added here
+     * @return the number of chunks consumed from the cache
+     */
+    private int tryHitsFromCachePerModel(
+            AbstractCachingModel model, long maxBudget, List<Chunk> fillInWithHits) {
+
+        BitSet unconsumed = _unconsumedChunksInSequence.get(model);
+        if (unconsumed.isEmpty()) {
+            checkCompleted(model, unconsumed);
+            return 0;
         }
 
         long budgetForModel = maxBudget;
+        int hitsNum = 0;
 
-        Set<Chunk> currentChunkHits;
-        currentHitsInCachePerModel.put(model, currentChunkHits = new HashSet<>());
         List<Chunk> historyChunkHits = _chunksHitsHistoryFromSC.get(model);
 
-        Iterator<Chunk> unconsumedIt = unconsumed.iterator(); // in ascending order of keys
-
         SmallCell hostSC = _requesterUser.getCurrentlyConnectedSC();
         Set<Chunk> cachedChunks = hostSC.cachedChunksUnmodifiable(model);
-        while (unconsumedIt.hasNext() && budgetForModel > 0) {
-            Chunk chunkConsumed = unconsumedIt.next();
-
-            if (model instanceof Oracle) {
-                // if so, try to cache before consuming
-                if (cacheForOracle(
-                        hostSC,// in this case the target sc is the hosting
-                        chunkConsumed)) {
-                    unconsumedIt.remove();
-                    /* While being connected, only in this case the chunk is not 
-                     * already consumed either from the BH nor from MC */
-                    budgetForModel--;
-                    historyChunkHits.add(chunkConsumed);
-                    currentChunkHits.add(chunkConsumed);
-                }
-                continue;
-            }
-
-            if (cachedChunks.contains(chunkConsumed)) {
-                unconsumedIt.remove();
+        ITimeBuffer timeBuffer = hostSC.timeBuffer(model);
+        boolean isOracle = model instanceof Oracle;
+        // in ascending order of sequence numbers
+        for (int idx = unconsumed.nextSetBit(0);
+                idx >= 0 && budgetForModel > 0;
+                idx = unconsumed.nextSetBit(idx + 1)) {
+            Chunk chunkConsumed = chunkAt(idx);
+
+            boolean hit = isOracle
+                    // if so, try to cache before consuming; the target sc is the hosting
+                    ? cacheForOracle(hostSC, chunkConsumed)
+                    : cachedChunks.contains(chunkConsumed);
+            if (hit) {
+                unconsumed.clear(idx);
                 /* While being connected, only in this case the chunk is not 
                      * already consumed either from the BH nor from MC */
                 budgetForModel--;
+                hitsNum++;
                 historyChunkHits.add(chunkConsumed);
-                currentChunkHits.add(chunkConsumed);
-            }
-        }
-
-        if (unconsumed.isEmpty()) {
-            if (_completitionTimes.get(model) == -1) {
-                _completitionTimes.put(model, simTime());
-                _uncompletedPolicies--;
+                fillInWithHits.add(chunkConsumed);
+                if (timeBuffer != null) {
+                    timeBuffer.updtAccessTime(chunkConsumed);
+                }
             }
         }
 
-        return currentHitsInCachePerModel;
+        checkCompleted(model, unconsumed);
+        return hitsNum;
     }
 
-    private Map<AbstractCachingModel, Set<Chunk>> consumeCacheMissedFromBH(
+    private void consumeCacheMissedFromBH(
             AbstractCachingModel model,
-            long maxbudget,
-            Map<AbstractCachingModel, Set<Chunk>> hitsNumMap) {
+            long maxbudget, int hitsNum,
+            List<Chunk> fillInWithBH) {
 
-        Map<AbstractCachingModel, Set<Chunk>> bhCurrentConsumptionPerModel = new HashMap<>(5);
-
-        Set<Chunk> bhCurrentConsumption;
-        bhCurrentConsumptionPerModel.put(model, bhCurrentConsumption = new HashSet<>());
         List<Chunk> bhHistoryConsumption = _chunksConsumedHistoryFromBH.get(model);
 
-        List<Chunk> unconsumed = _unconsumedChunksInSequence.get(model);
+        BitSet unconsumed = _unconsumedChunksInSequence.get(model);
         if (unconsumed.isEmpty()) {
-            if (_completitionTimes.get(model) == -1) {
-                _completitionTimes.put(model, simTime());
-                _uncompletedPolicies--;
-            }
-            return bhCurrentConsumptionPerModel;
+            checkCompleted(model, unconsumed);
+            return;
         }
 
         // each model has its own budget, i.e. if you have 10 slots in the
         // sc wireless and you have 4 hits in the cache, then you have
         // consumed 4 slots in the wireless. Thus, now you can use only 
         // six slots for this model.
-        int hitsNum = hitsNumMap.get(model).size();
         long budgetForModel = maxbudget - hitsNum;
 
-        Iterator<Chunk> unconsumedIt = unconsumed.iterator(); // in ascending order of keys
-
         Set<Chunk> cachedChunks = _requesterUser.getCurrentlyConnectedSC().cachedChunksUnmodifiable(model);
-        while (unconsumedIt.hasNext() && budgetForModel > 0) {
-            Chunk chunkConsumed = unconsumedIt.next();
+        for (int idx = unconsumed.nextSetBit(0);
+                idx >= 0 && budgetForModel > 0;
+                idx = unconsumed.nextSetBit(idx + 1)) {
+            Chunk chunkConsumed = chunkAt(idx);
             if (cachedChunks.contains(chunkConsumed)) {
                 // if already in the cache, let be consumed in the future from there
                 continue;
             }
 
-            unconsumedIt.remove();
+            unconsumed.clear(idx);
             budgetForModel--;
             bhHistoryConsumption.add(chunkConsumed);
-            bhCurrentConsumption.add(chunkConsumed);
-        }
-
-        if (unconsumed.isEmpty()) {
-            if (_completitionTimes.get(model) == -1) {
-                _completitionTimes.put(model, simTime());
-                _uncompletedPolicies--;
-            }
+            fillInWithBH.add(chunkConsumed);
         }
 
-        return bhCurrentConsumptionPerModel;
+        checkCompleted(model, unconsumed);
     }
 
-    protected Map<AbstractCachingModel, List<Chunk>> consumeFromMCwSCCon(
-            AbstractCachingModel model, long policyBudget) {
-
-        Map<AbstractCachingModel, List<Chunk>> mcCurrentConsumptionPerPolicy = new HashMap<>(5);
+    protected void consumeFromMCwSCCon(
+            AbstractCachingModel model, long policyBudget, List<Chunk> fillInWithMC) {
 
         long budgetForPolicy = policyBudget;
 
-        List<Chunk> mcCurrentConsumption;
-        mcCurrentConsumptionPerPolicy.put(model, mcCurrentConsumption = new ArrayList<>());
         List<Chunk> mcHistoryConsumption = _chunksConsumedHistoryFromMCWhileConnectedToSC.get(model);
 
-        List<Chunk> unconsumed = _unconsumedChunksInSequence.get(model);
+        BitSet unconsumed = _unconsumedChunksInSequence.get(model);
         if (unconsumed.isEmpty()) {
-            if (_completitionTimes.get(model) == -1) {
-                _completitionTimes.put(model, simTime());
-                _uncompletedPolicies--;
-            }
-            return mcCurrentConsumptionPerPolicy;
-
+            checkCompleted(model, unconsumed);
+            return;
         }
-        Iterator<Chunk> unconsumedIt = unconsumed.iterator(); // in ascending order of keys
 
         Set<Chunk> cachedChunks = _requesterUser.getCurrentlyConnectedSC().cachedChunksUnmodifiable(model);
-        while (unconsumedIt.hasNext() && budgetForPolicy > 0) {
-            Chunk chunkConsumed = unconsumedIt.next();
+        for (int idx = unconsumed.nextSetBit(0);
+                idx >= 0 && budgetForPolicy > 0;
+                idx = unconsumed.nextSetBit(idx + 1)) {
+            Chunk chunkConsumed = chunkAt(idx);
             if (cachedChunks.contains(chunkConsumed)) {
                 // if already in the cache, let be consumed in the future from there
                 continue;
             }
 
-            unconsumedIt.remove();
+            unconsumed.clear(idx);
             budgetForPolicy--;
             mcHistoryConsumption.add(chunkConsumed);
-            mcCurrentConsumption.add(chunkConsumed);
+            fillInWithMC.add(chunkConsumed);
         }
 
-        if (unconsumed.isEmpty()) {
-            if (_completitionTimes.get(model) == -1) {
-                _completitionTimes.put(model, simTime());
-                _uncompletedPolicies--;
-            }
-        }
-
-        return mcCurrentConsumptionPerPolicy;
+        checkCompleted(model, unconsumed);
     }
 
-    protected Map<AbstractCachingModel, List<Chunk>> consumeFromMCwSCDiscon(
-            AbstractCachingModel model, long budget) {
-
-        Map<AbstractCachingModel, List<Chunk>> toReturn = new HashMap<>(5);
+    protected void consumeFromMCwSCDiscon(
+            AbstractCachingModel model, long budget, List<Chunk> fillInWithMC) {
 
         long policyBudget = budget;
 
-        List<Chunk> nowDownloadedChunks;
-        toReturn.put(model, nowDownloadedChunks = new ArrayList<>());
         List<Chunk> consumedHistoryByPolicy = _consumedHistoryFromMCwSCDiscon.get(model);
 
-        List<Chunk> unconsumed = _unconsumedChunksInSequence.get(model);
-        if (unconsumed.isEmpty()) {
-            if (_completitionTimes.get(model) == -1) {
-                _completitionTimes.put(model, simTime());
-                _uncompletedPolicies--;
-            }
-            return toReturn;
-        }
-        Iterator<Chunk> unconsumedIt = unconsumed.iterator(); // in ascending order of keys
-
-        while (unconsumedIt.hasNext() && policyBudget-- > 0) {
-            Chunk chunkConsumed = unconsumedIt.next();
-            unconsumedIt.remove();
+        BitSet unconsumed = _unconsumedChunksInSequence.get(model);
+        for (int idx = unconsumed.nextSetBit(0);
+                idx >= 0 && policyBudget-- > 0;
+                idx = unconsumed.nextSetBit(idx + 1)) {
+            Chunk chunkConsumed = chunkAt(idx);
+            unconsumed.clear(idx);
 
             consumedHistoryByPolicy.add(chunkConsumed);
-            nowDownloadedChunks.add(chunkConsumed);
-        }
-
-        if (unconsumed.isEmpty()) {
-            if (_completitionTimes.get(model) == -1) {
-                _completitionTimes.put(model, simTime());
-                _uncompletedPolicies--;
-            }
+            fillInWithMC.add(chunkConsumed);
         }
 
-        return toReturn;
+        checkCompleted(model, unconsumed);
     }
 
-    protected Map<AbstractCachingModel, List<Chunk>>
-            consumeRemainderFromMC(AbstractCachingModel model) {
-
-        Map<AbstractCachingModel, List<Chunk>> toReturn = new HashMap<>(5);
-
-        long policyBudget = Long.MAX_VALUE;
+    protected void consumeRemainderFromMC(AbstractCachingModel model,
+            Map<AbstractCachingModel, List<Chunk>> fillInWithMC) {
 
-        List<Chunk> nowDownloadedChunks = new ArrayList<>();
-        List<Chunk> consumedHistoryByPolicy = _chunksConsumedHistoryFromMCAfterExitingSC.get(model);
-
-        List<Chunk> unconsumed = _unconsumedChunksInSequence.get(model);
+        BitSet unconsumed = _unconsumedChunksInSequence.get(model);
         if (unconsumed.isEmpty()) {
-            if (_completitionTimes.get(model) == -1) {
-                _completitionTimes.put(model, simTime());
-                _uncompletedPolicies--;
-            }
-            return toReturn;
+            checkCompleted(model, unconsumed);
+            return;
         }
-        Iterator<Chunk> unconsumedIt = unconsumed.iterator(); // in ascending order of keys
 
-        while (unconsumedIt.hasNext() && policyBudget-- > 0) {
-
-            Chunk chunkConsumed = unconsumedIt.next();
-            unconsumedIt.remove();
+        List<Chunk> consumedHistoryByPolicy = _chunksConsumedHistoryFromMCAfterExitingSC.get(model);
+        List<Chunk> nowDownloadedChunks = fillInFor(fillInWithMC, model);
+        for (int idx = unconsumed.nextSetBit(0); idx >= 0; idx = unconsumed.nextSetBit(idx + 1)) {
+            Chunk chunkConsumed = chunkAt(idx);
 
             consumedHistoryByPolicy.add(chunkConsumed);
             nowDownloadedChunks.add(chunkConsumed);
         }
+        unconsumed.clear();
 
-        toReturn.put(model, nowDownloadedChunks);
-
-        if (unconsumed.isEmpty()) {
-            if (_completitionTimes.get(model) == -1) {
-                _completitionTimes.put(model, simTime());
-                _uncompletedPolicies--;
-            }
-        }
-
-        return toReturn;
+        checkCompleted(model, unconsumed);
     }
 
     /**
@@ -881,56 +851,6 @@ public class DocumentRequest extends TraceWorkloadRecord implements ISynopsisStr
         return Collections.unmodifiableList(_chunksConsumedHistoryFromBH.get(model));
     }
 
-    /**
-     * Merges the value entries in the second to the value entries in the first
-     *
-     * firstMap secondMap
-     */
-    protected final void mergeToFirstMap(
-            Map<AbstractCachingModel, List<Chunk>> firstMap,
-            Map<AbstractCachingModel, List<Chunk>> secondMap) {
-        for (Map.Entry<AbstractCachingModel, List<Chunk>> entry : secondMap.entrySet()) {
-            AbstractCachingModel model = entry.getKey();
-            Collection<Chunk> chunksInSecond = entry.getValue();
-
-            List<Chunk> chunksInFirst = firstMap.get(model);
-            if (chunksInFirst == null) {
-                firstMap.put(model, (chunksInFirst = new ArrayList<>()));
-            }
-            chunksInFirst.addAll(chunksInSecond);
-        }
-    }
-
-    protected final void mergeAndSeparatePerpolicy(
-            Map<AbstractCachingModel, List<Chunk>> firstMap,
-            Map<AbstractCachingModel, List<Chunk>> secondMap) {
-        for (Map.Entry<AbstractCachingModel, List<Chunk>> entry : secondMap.entrySet()) {
-            AbstractCachingModel model = entry.getKey();
-            Collection<Chunk> chunksInSecond = entry.getValue();
-
-            List<Chunk> chunksInFirst = firstMap.get(model);
-            if (chunksInFirst == null) {
-                firstMap.put(model, (chunksInFirst = new ArrayList<>()));
-            }
-            chunksInFirst.addAll(chunksInSecond);
-
-        }
-    }
-
-    protected final void merge2(Map<AbstractCachingModel, List<Chunk>> firstMap,
-            Map<AbstractCachingModel, Set<Chunk>> secondMap) {
-        for (Map.Entry<AbstractCachingModel, Set<Chunk>> entry : secondMap.entrySet()) {
-            AbstractCachingModel model = entry.getKey();
-            Collection<Chunk> chunksInSecond = entry.getValue();
-
-            List<Chunk> chunksInFirst = firstMap.get(model);
-            if (chunksInFirst == null) {
-                firstMap.put(model, (chunksInFirst = new ArrayList<>()));
-            }
-            chunksInFirst.addAll(chunksInSecond);
-        }
-    }
-
     public boolean isFullyConsumed() {
         return _uncompletedPolicies == 0;
     }
@@ -947,12 +867,18 @@ public class DocumentRequest extends TraceWorkloadRecord implements ISynopsisStr
     }
 
     /**
-     * model
+     * @param model
      *
-     * @return
+     * @return the chunks not consumed yet for the model, in ascending order of
+     * sequence numbers. The list returned is a copy.
      */
     public List<Chunk> getUnconsumedChunksInSequence(AbstractCachingModel model) {
-        return _unconsumedChunksInSequence.get(model);
+        BitSet unconsumed = _unconsumedChunksInSequence.get(model);
+        List<Chunk> chunks = new ArrayList<>(unconsumed.cardinality());
+        for (int idx = unconsumed.nextSetBit(0); idx >= 0; idx = unconsumed.nextSetBit(idx + 1)) {
+            chunks.add(chunkAt(idx));
+        }
+        return chunks;
     }
 
     /**
@@ -970,8 +896,12 @@ public class DocumentRequest extends TraceWorkloadRecord implements ISynopsisStr
     }
 
     public List<Chunk> getChunksConsumedOverall(AbstractCachingModel model) {
-        List<Chunk> tmp = new ArrayList(referredContentDocument().chunks());
-        tmp.removeAll(getUnconsumedChunksInSequence(model));
+        BitSet unconsumed = _unconsumedChunksInSequence.get(model);
+        int chunksNum = referredContentDocument().totalNumberOfChunks();
+        List<Chunk> tmp = new ArrayList<>(chunksNum - unconsumed.cardinality());
+        for (int idx = unconsumed.nextClearBit(0); idx < chunksNum; idx = unconsumed.nextClearBit(idx + 1)) {
+            tmp.add(chunkAt(idx));
+        }
 
         return tmp;
     }
@@ -4,6 +4,7 @@ import caching.base.AbstractCachingModel;
 import java.util.List;
 import java.util.Map;
 import sim.content.Chunk;
+import sim.content.ChunkRange;
 import sim.space.users.User;
 
 /**
@@ -24,9 +25,10 @@ public interface IRequest {
      * @param mcRateSliceBytes
      * @param bhRateSliceBytes
      * @param scRateSliceBytes
-     * @return
+     * @return the range of the chunks predicted, in ascending order of
+     * sequence number.
      */
-    public List<Chunk> predictChunks2Request(
+    public ChunkRange predictChunks2Request(
             AbstractCachingModel policy, double handoverProb, boolean isSoft, double expectedHandoffDuration, double conf95HandoffDur, double expectedResidenceDuration, double conf95ResidenceDur, int mcRateSliceBytes, int bhRateSliceBytes, int scRateSliceBytes);
 
     /**
@@ -1,13 +1,13 @@
 package sim.content.request;
 
 import caching.base.AbstractCachingModel;
-import java.util.HashMap;
-import java.util.ArrayList;
-import java.util.Iterator;
+import java.util.BitSet;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
 import sim.content.Chunk;
+import sim.space.cell.smallcell.ITimeBuffer;
+import sim.space.cell.smallcell.SmallCell;
 import sim.space.users.CachingUser;
 import traces.dmdtrace.TraceWorkloadRecord;
 
@@ -16,6 +16,8 @@ import traces.dmdtrace.TraceWorkloadRecord;
  */
 public class StreamingRequest extends DocumentRequest {
 
+    private static final long serialVersionUID = 1L;
+
     public StreamingRequest(TraceWorkloadRecord workloadRecord, CachingUser requesterUser) {
         super(workloadRecord, requesterUser);
     }
@@ -36,7 +38,8 @@ public class StreamingRequest extends DocumentRequest {
         if (!userConnected) {
             maxBudget = Math.round(mcRateSlice / chunkSizeInBytes);
             for (AbstractCachingModel policy : getSimulation().getCachingStrategies()) {
-                mergeToFirstMap(fillInWithDownloadedFromMC, super.consumeFromMCwSCDiscon(policy, maxBudget));
+                super.consumeFromMCwSCDiscon(policy, maxBudget,
+                        fillInFor(fillInWithDownloadedFromMC, policy));
             }
         } else {// in this case, downloads from all reasources, with this *priority*: 
             for (AbstractCachingModel policy : getSimulation().getCachingStrategies()) {
@@ -49,24 +52,21 @@ public class StreamingRequest extends DocumentRequest {
                     
 // First, consumeTry from the cache
                     maxBudget = Math.round(scRateSlice / chunkSizeInBytes);
-                    Map<AbstractCachingModel, List<Chunk>> hitsInCachePerPolicy
-                            = tryStreamingFromCachePerPolicy(policy, maxBudget);
-                    mergeToFirstMap(fillInWithCacheHits, hitsInCachePerPolicy);
+                    int hitsNum = tryStreamingFromCachePerPolicy(policy, maxBudget,
+                            fillInFor(fillInWithCacheHits, policy));
 
 // Second, from backhaul  
                     maxBudget = Math.round(minSCorBHRateSlice / chunkSizeInBytes);
-                    mergeToFirstMap(fillInWithDownloadedFromBH,
-                            streamCacheMissedFromBH(
-                                    policy,
-                                    maxBudget,
-                                    hitsInCachePerPolicy
-                            ));
+                    streamCacheMissedFromBH(
+                            policy,
+                            maxBudget,
+                            hitsNum,
+                            fillInFor(fillInWithDownloadedFromBH, policy));
                 }
 // Third and last, consumeTry from the macro
                 maxBudget = Math.round(mcRateSlice / chunkSizeInBytes);
-                mergeToFirstMap(fillInWithDownloadedFromMC, super.consumeFromMCwSCCon(policy,
-                        maxBudget)
-                );
+                super.consumeFromMCwSCCon(policy, maxBudget,
+                        fillInFor(fillInWithDownloadedFromMC, policy));
             }
         }
 
@@ -76,104 +76,82 @@ public class StreamingRequest extends DocumentRequest {
      *
      *  maxBudget the max number of chunks that can be downloaded from the
      * cache
-     *  fillWithMissedByPolicy for some polices, some chunks may be
-     * missed. These chunks must be considered for download by the BH or the MC
-     * @return the consumed chunks from the cache
+     * @param fillInWithHits the chunks hit in the cache are added here
+     * @return the number of chunks consumed from the cache
      */
-    private Map<AbstractCachingModel, List<Chunk>> tryStreamingFromCachePerPolicy(
+    private int tryStreamingFromCachePerPolicy(
             AbstractCachingModel policy,
-            long maxBudget) {
-        Map<AbstractCachingModel, List<Chunk>> currentHitsInCachePerPolicy = new HashMap<>(5);
+            long maxBudget, List<Chunk> fillInWithHits) {
 
-        List<Chunk> unconsumed = _unconsumedChunksInSequence.get(policy);
+        BitSet unconsumed = _unconsumedChunksInSequence.get(policy);
         if (unconsumed.isEmpty()) {
-            if (_completitionTimes.get(policy) == -1) {
-                _completitionTimes.put(policy, simTime());
-                _uncompletedPolicies--;
-            }
-            return currentHitsInCachePerPolicy;
+            checkCompleted(policy, unconsumed);
+            return 0;
         }
 
         long budgetForPolicy = maxBudget;
+        int hitsNum = 0;
 
-        ArrayList<Chunk> currentChunkHits;
-        currentHitsInCachePerPolicy.put(policy, currentChunkHits = new ArrayList<>());
         List<Chunk> historyChunkHits = _chunksHitsHistoryFromSC.get(policy);
 
-        Iterator<Chunk> unconsumedIt = unconsumed.iterator(); // in ascending order of keys
-        Set<Chunk> cachedChunks = _requesterUser.getCurrentlyConnectedSC().cachedChunksUnmodifiable(policy);
-        while (unconsumedIt.hasNext() && budgetForPolicy-- > 0) {
-            Chunk chunkConsumed = unconsumedIt.next();
+        SmallCell hostSC = _requesterUser.getCurrentlyConnectedSC();
+        Set<Chunk> cachedChunks = hostSC.cachedChunksUnmodifiable(policy);
+        ITimeBuffer timeBuffer = hostSC.timeBuffer(policy);
+        // in ascending order of sequence numbers
+        for (int idx = unconsumed.nextSetBit(0);
+                idx >= 0 && budgetForPolicy-- > 0;
+                idx = unconsumed.nextSetBit(idx + 1)) {
+            Chunk chunkConsumed = chunkAt(idx);
             if (!cachedChunks.contains(chunkConsumed)) {
                 // bandwidth got wasted
                 // if not in the cache, skip
                 continue;
             }
-            unconsumedIt.remove();
+            unconsumed.clear(idx);
             /* While being connected, only in this case the chunk is not 
                      * already consumed either from the BH nor from MC */
+            hitsNum++;
             historyChunkHits.add(chunkConsumed);
-            currentChunkHits.add(chunkConsumed);
-
-
-        }
-
-
-        if (unconsumed.isEmpty()) {
-            if (_completitionTimes.get(policy) == -1) {
-                _completitionTimes.put(policy, simTime());
-                _uncompletedPolicies--;
+            fillInWithHits.add(chunkConsumed);
+            if (timeBuffer != null) {
+                timeBuffer.updtAccessTime(chunkConsumed);
             }
         }
 
-        return currentHitsInCachePerPolicy;
+        checkCompleted(policy, unconsumed);
+        return hitsNum;
     }
 
-    private Map<AbstractCachingModel, List<Chunk>> streamCacheMissedFromBH(
+    private void streamCacheMissedFromBH(
             AbstractCachingModel policy,
-            long maxbudget, Map<AbstractCachingModel, List<Chunk>> cacheHitsPerPolicy
+            long maxbudget, int hitsNum, List<Chunk> fillInWithBH
     ) {
 
-        Map<AbstractCachingModel, List<Chunk>> bhCurrentConsumptionPerPolicy = new HashMap<>(5);
-
-        List<Chunk> bhCurrentConsumption;
-        bhCurrentConsumptionPerPolicy.put(policy, bhCurrentConsumption = new ArrayList<>());
         List<Chunk> bhHistororyConsumption = _chunksConsumedHistoryFromBH.get(policy);
 
-        List<Chunk> unconsumed = _unconsumedChunksInSequence.get(policy);
+        BitSet unconsumed = _unconsumedChunksInSequence.get(policy);
         if (unconsumed.isEmpty()) {
-            if (_completitionTimes.get(policy) == -1) {
-                _completitionTimes.put(policy, simTime());
-                _uncompletedPolicies--;
-            }
-            return bhCurrentConsumptionPerPolicy;
+            checkCompleted(policy, unconsumed);
+            return;
         }
 
         // each policy has its own budget, i.e. if you have 10 slots in the
         // sc wireless and you have 4 hits in the cache, then you have
         // consumed 4 slots in the wireless. Thus, now you can use only 
         // six slots for this policy.
-        List<Chunk> hitChunks = cacheHitsPerPolicy.get(policy);
-        int hitsNum = hitChunks == null ? 0 : hitChunks.size();
         long budgetForPolicy = maxbudget - hitsNum;
 
-        
-        Iterator<Chunk> unconsumedIt = getUnconsumedChunksInSequence(policy).iterator(); // in ascending order of keys
-        while (unconsumedIt.hasNext() && budgetForPolicy-- > 0) {
-            Chunk chunkConsumed = unconsumedIt.next();
+        for (int idx = unconsumed.nextSetBit(0);
+                idx >= 0 && budgetForPolicy-- > 0;
+                idx = unconsumed.nextSetBit(idx + 1)) {
+            Chunk chunkConsumed = chunkAt(idx);
 
-            unconsumedIt.remove();
+            unconsumed.clear(idx);
             bhHistororyConsumption.add(chunkConsumed);
-            bhCurrentConsumption.add(chunkConsumed);
+            fillInWithBH.add(chunkConsumed);
         }
 
-        if (unconsumed.isEmpty()) {
-            if (_completitionTimes.get(policy) == -1) {
-                _completitionTimes.put(policy, simTime());
-                _uncompletedPolicies--;
-            }
-        }
-        return bhCurrentConsumptionPerPolicy;
+        checkCompleted(policy, unconsumed);
     }
 
 }
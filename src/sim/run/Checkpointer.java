@@ -0,0 +1,241 @@
+package sim.run;
+
+import app.properties.Simulation;
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InvalidObjectException;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+import sim.Scenario;
+import statistics.output.Printer;
+import statistics.output.ResultsWriter;
+
+/**
+ * Keeps the latest checkpoint of a simulation and restores simulations from
+ * their latest checkpoint.
+ *
+ * A checkpoint is the serialized state of the simulation between two rounds,
+ * i.e. the clock, the mobile users, the cells with their buffers and demand
+ * registries, the statistics, the positions of the traces read and the states
+ * of the random generators. The state is serialized by the simulation thread,
+ * whereas the checkpoint file is written by the {@link ResultsWriter} after
+ * the results printed up to the checkpoint, so that the lengths of the
+ * outputs recorded in the checkpoint match the state of the simulation.
+ *
+ * Only the latest checkpoint of each scenario is kept, in a file named after
+ * the id and the setup signature of the scenario. A checkpoint file is written
+ * under a temporary name and then renamed, thus a crash while writing leaves
+ * the previous checkpoint intact.
+ *
+ * @author Xenofon Vasilakos xvas@aueb.gr
+ */
+final class Checkpointer {
+
+    private static final Logger LOG = Logger.getLogger(Checkpointer.class.getName());
+
+    private static final int MAGIC = 0x53434B50; // "SCKP"
+    private static final int VERSION = 1;
+
+    private final SimulationBaseRunner<?> _sim;
+    private final int _period;
+    private final File _file;
+    private int _nextTime;
+    /**
+     * True while a checkpoint is queued for writing; a checkpoint due
+     * meanwhile is skipped rather than queued behind it.
+     */
+    private final AtomicBoolean _pending = new AtomicBoolean();
+
+    Checkpointer(SimulationBaseRunner<?> sim) {
+        _sim = sim;
+        _period = sim.getScenario().intProperty(Simulation.Checkpoint.PERIOD);
+        _file = fileOf(sim.getScenario());
+        _nextTime = sim.simTime() + _period;
+    }
+
+    private static File fileOf(Scenario scenario) {
+        File dir = new File(scenario.stringProperty(Simulation.Checkpoint.DIR, true));
+        return new File(dir, "scenario_" + scenario.getIDStr()
+                + "_" + scenario.setupSignatureHash() + ".ckpt");
+    }
+
+    /**
+     * Takes a checkpoint if the checkpoint period has elapsed since the last
+     * one. Failures are logged and do not affect the simulation.
+     */
+    void checkpointIfDue() {
+        if (_period <= 0 || _sim.simTime() < _nextTime) {
+            return;
+        }
+        _nextTime = _sim.simTime() + _period;
+
+        if (!_pending.compareAndSet(false, true)) {
+            LOG.log(Level.WARNING, "Checkpoint of simulation {0} at time {1} skipped; "
+                    + "the previous checkpoint is still being written.",
+                    new Object[]{_sim.getID(), _sim.simTime()});
+            return;
+        }
+
+        final byte[] state;
+        try {
+            state = serialize();
+        } catch (IOException | RuntimeException ex) {
+            _pending.set(false);
+            LOG.log(Level.SEVERE, "Cannot checkpoint simulation " + _sim.getID()
+                    + " at time " + _sim.simTime(), ex);
+            return;
+        }
+
+        final int simTime = _sim.simTime();
+        final List<Printer> printers = _sim.getStatsHandle().printers();
+        ResultsWriter.instance().execute(new Runnable() {
+            @Override
+            public void run() {
+                try {
+                    write(simTime, printers, state);
+                } catch (IOException ex) {
+                    LOG.log(Level.SEVERE, "Cannot write checkpoint " + _file
+                            + " of simulation " + _sim.getID(), ex);
+                } finally {
+                    _pending.set(false);
+                }
+            }
+        });
+    }
+
+    private byte[] serialize() throws IOException {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream(1 << 20);
+        try (ObjectOutputStream out = new CheckpointOutputStream(bytes, _sim)) {
+            out.writeObject(_sim);
+        }
+        return bytes.toByteArray();
+    }
+
+    /**
+     * Runs on the thread of the results writer.
+     */
+    private void write(int simTime, List<Printer> printers, byte[] state) throws IOException {
+        File dir = _file.getParentFile();
+        if (dir != null) {
+            dir.mkdirs();
+        }
+        File tmp = new File(_file.getPath() + ".tmp");
+        Scenario scenario = _sim.getScenario();
+        try (DataOutputStream out = new DataOutputStream(
+                new BufferedOutputStream(new FileOutputStream(tmp), 1 << 16))) {
+            out.writeInt(MAGIC);
+            out.writeInt(VERSION);
+            out.writeInt(scenario.setupSignatureHash());
+            out.writeInt(scenario.seed());
+            out.writeInt(simTime);
+            out.writeInt(printers.size());
+            for (Printer nxt : printers) {
+                out.writeLong(nxt.length());
+            }
+            out.writeInt(state.length);
+            out.write(state);
+        }
+        Files.move(tmp.toPath(), _file.toPath(),
+                StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        LOG.log(Level.FINE, "Checkpoint of simulation {0} at time {1} written to {2}",
+                new Object[]{_sim.getID(), simTime, _file});
+    }
+
+    /**
+     * Restores the simulation of the scenario from its latest checkpoint. The
+     * outputs of the simulation are truncated to their lengths at the
+     * checkpoint, and the traces are reopened at the positions read.
+     *
+     * @param scenario
+     * @return the simulation restored, or null if there is no checkpoint for
+     * the scenario or it cannot be restored, in which case the scenario must
+     * be simulated from the beginning.
+     */
+    static SimulationBaseRunner<?> resume(Scenario scenario) {
+        File file = fileOf(scenario);
+        if (!file.isFile()) {
+            return null;
+        }
+
+        try (DataInputStream in = new DataInputStream(
+                new BufferedInputStream(new FileInputStream(file), 1 << 16))) {
+            if (in.readInt() != MAGIC || in.readInt() != VERSION) {
+                throw new InvalidObjectException("Not a checkpoint of a supported version");
+            }
+            if (in.readInt() != scenario.setupSignatureHash() || in.readInt() != scenario.seed()) {
+                LOG.log(Level.WARNING, "Checkpoint {0} is not of scenario {1}; "
+                        + "the scenario is simulated from the beginning.",
+                        new Object[]{file, scenario.getIDStr()});
+                return null;
+            }
+            int simTime = in.readInt();
+            long[] lengths = new long[in.readInt()];
+            for (int i = 0; i < lengths.length; i++) {
+                lengths[i] = in.readLong();
+            }
+            byte[] state = new byte[in.readInt()];
+            in.readFully(state);
+
+            SimulationBaseRunner<?> sim;
+            try (ObjectInputStream objIn = new ObjectInputStream(new ByteArrayInputStream(state))) {
+                sim = (SimulationBaseRunner<?>) objIn.readObject();
+            }
+
+            List<Printer> printers = sim.getStatsHandle().printers();
+            if (printers.size() != lengths.length) {
+                throw new InvalidObjectException("Checkpoint records " + lengths.length
+                        + " outputs instead of " + printers.size());
+            }
+            for (int i = 0; i < lengths.length; i++) {
+                printers.get(i).reopen(lengths[i]);
+            }
+            sim.resume();
+
+            LOG.log(Level.INFO, "Scenario {0} resumed at time {1} from checkpoint {2}",
+                    new Object[]{scenario.getIDStr(), simTime, file});
+            return sim;
+        } catch (IOException | ClassNotFoundException | RuntimeException ex) {
+            LOG.log(Level.WARNING, "Cannot resume scenario " + scenario.getIDStr()
+                    + " from checkpoint " + file + "; the scenario is simulated from the beginning.", ex);
+            return null;
+        }
+    }
+
+    /**
+     * Objects of a simulation may refer to other simulations, e.g. the
+     * documents of a trace are shared by all simulations using it and refer to
+     * the simulation which loaded them. Such references are replaced by the
+     * simulation checkpointed, so that a checkpoint has its own copy of the
+     * documents and no other simulation.
+     */
+    private static final class CheckpointOutputStream extends ObjectOutputStream {
+
+        private final SimulationBaseRunner<?> _sim;
+
+        private CheckpointOutputStream(OutputStream out, SimulationBaseRunner<?> sim) throws IOException {
+            super(out);
+            _sim = sim;
+            enableReplaceObject(true);
+        }
+
+        @Override
+        protected Object replaceObject(Object obj) {
+            return obj instanceof SimulationBaseRunner ? _sim : obj;
+        }
+    }
+}
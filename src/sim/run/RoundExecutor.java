@@ -0,0 +1,204 @@
+package sim.run;
+
+import app.properties.Simulation;
+import caching.base.AbstractCachingModel;
+import caching.incremental.Oracle;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+import sim.space.cell.smallcell.SmallCell;
+import sim.space.users.mobile.MobileUser;
+
+/**
+ * Runs the moves and the consumptions of the mobile users of a simulation
+ * round, either sequentially or with the consumptions partitioned by small
+ * cell and run in parallel.
+ *
+ * Moving a mobile user mutates state shared by all mobile users, i.e. the
+ * users connected to the cells, the transition and residence statistics of the
+ * cell registry, the handover counts and the mobility random stream; thus
+ * mobile users are always moved sequentially in the order of the round.
+ * Consuming, on the other hand, mutates only the requests of the mobile user
+ * and the access times of the buffers of the small cell it is connected to,
+ * and reads no state that moves mutate other than the connection of the
+ * mobile user itself. Hence, once all mobile users are moved, the consumptions
+ * of the users connected to different small cells are independent, and the
+ * consumptions of the users connected to the same small cell are run in the
+ * order of the round, which yields the very same results as the sequential
+ * mode.
+ *
+ * Oracle caches upon consumption, therefore simulations using it are always
+ * run sequentially.
+ *
+ * @author Xenofon Vasilakos xvas@aueb.gr
+ */
+public final class RoundExecutor {
+
+    private static final Logger LOG = Logger.getLogger(RoundExecutor.class.getName());
+
+    /**
+     * Rounds with fewer mobile users are run sequentially, as the cost of
+     * partitioning outweighs the gain.
+     */
+    private static final int MIN_PARALLEL_MUS = 64;
+    /**
+     * Mobile users not connected to any small cell share nothing upon
+     * consuming, thus they are split in partitions of up to this size.
+     */
+    private static final int DISCONNECTED_PARTITION_SIZE = 256;
+
+    /**
+     * A step of a mobile user in a round, i.e. its move or its consumption.
+     *
+     * @param <M> the type of the mobile users
+     */
+    public interface Step<M extends MobileUser> {
+
+        void apply(M mu) throws Throwable;
+    }
+
+    /**
+     * Null when running sequentially.
+     */
+    private final ForkJoinPool _pool;
+
+    RoundExecutor(SimulationBaseRunner<?> sim) {
+        int threads = sim.getScenario().intProperty(Simulation.Parallel.ROUND_THREADS);
+        if (threads == 0) {
+            threads = Runtime.getRuntime().availableProcessors();
+        }
+        if (threads > 1) {
+            for (AbstractCachingModel model : sim.getCachingStrategies()) {
+                if (model instanceof Oracle) {
+                    LOG.log(Level.WARNING, "Simulation {0} runs its rounds sequentially, "
+                            + "as {1} caches upon consumption.",
+                            new Object[]{sim.getID(), model});
+                    threads = 1;
+                    break;
+                }
+            }
+        }
+        _pool = threads > 1 ? new ForkJoinPool(threads) : null;
+    }
+
+    /**
+     * Moves and then lets consume each mobile user.
+     *
+     * @param <M> the type of the mobile users
+     * @param mus the mobile users in the order of the round
+     * @param move
+     * @param consume
+     * @throws Throwable the failure of the first mobile user in the order of
+     * the round that fails to move or to consume.
+     */
+    <M extends MobileUser> void run(Collection<? extends M> mus,
+            Step<? super M> move, Step<? super M> consume) throws Throwable {
+        if (_pool == null || mus.size() < MIN_PARALLEL_MUS) {
+            for (M nxtMU : mus) {
+                move.apply(nxtMU);
+                consume.apply(nxtMU);
+            }
+            return;
+        }
+
+        for (M nxtMU : mus) {
+            move.apply(nxtMU);
+        }
+
+        final List<Partition<M>> partitions = partition(new ArrayList<M>(mus), consume);
+        _pool.invoke(new RecursiveAction() {
+            @Override
+            protected void compute() {
+                invokeAll(partitions);
+            }
+        });
+
+        Partition<M> failed = null;
+        for (Partition<M> nxt : partitions) {
+            if (nxt._failure != null
+                    && (failed == null || nxt._failedAt < failed._failedAt)) {
+                failed = nxt;
+            }
+        }
+        if (failed != null) {
+            throw failed._failure;
+        }
+    }
+
+    private static <M extends MobileUser> List<Partition<M>> partition(
+            List<? extends M> mus, Step<? super M> consume) {
+        Map<SmallCell, Partition<M>> perSC = new HashMap<>();
+        List<Partition<M>> partitions = new ArrayList<>();
+        Partition<M> disconnected = null;
+
+        for (int i = 0; i < mus.size(); i++) {
+            SmallCell sc = mus.get(i).getCurrentlyConnectedSC();
+            Partition<M> partition;
+            if (sc == null) {
+                if (disconnected == null
+                        || disconnected._idxs.size() == DISCONNECTED_PARTITION_SIZE) {
+                    disconnected = new Partition<>(mus, consume);
+                    partitions.add(disconnected);
+                }
+                partition = disconnected;
+            } else {
+                partition = perSC.get(sc);
+                if (partition == null) {
+                    perSC.put(sc, partition = new Partition<>(mus, consume));
+                    partitions.add(partition);
+                }
+            }
+            partition._idxs.add(i);
+        }
+        return partitions;
+    }
+
+    /**
+     * Shuts down the threads of the executor, if any.
+     */
+    void shutdown() {
+        if (_pool != null) {
+            _pool.shutdown();
+        }
+    }
+
+    /**
+     * The consumptions of mobile users in the order of the round, which stop
+     * upon the first failure.
+     */
+    private static final class Partition<M extends MobileUser> extends RecursiveAction {
+
+        private static final long serialVersionUID = 1L;
+
+        private final List<? extends M> _mus;
+        private final Step<? super M> _consume;
+        private final List<Integer> _idxs = new ArrayList<>();
+
+        private int _failedAt = -1;
+        private Throwable _failure;
+
+        private Partition(List<? extends M> mus, Step<? super M> consume) {
+            _mus = mus;
+            _consume = consume;
+        }
+
+        @Override
+        protected void compute() {
+            for (int idx : _idxs) {
+                try {
+                    _consume.apply(_mus.get(idx));
+                } catch (Throwable ex) {
+                    _failedAt = idx;
+                    _failure = ex;
+                    return;
+                }
+            }
+        }
+    }
+}
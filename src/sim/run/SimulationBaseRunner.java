@@ -1,5 +1,6 @@
 package sim.run;
 
+import sim.CompiledScenario;
 import sim.ISimulationMember;
 import sim.Scenario;
 import sim.run.stats.StatsHandling;
@@ -8,7 +9,6 @@ import static app.properties.Caching.CACHING__POLICIES__MAXPOP_CUTTER;
 import app.properties.Networking;
 import app.properties.Simulation;
 import app.properties.Space;
-import app.properties.StatsProperty;
 import app.properties.valid.Values;
 import static app.properties.valid.Values.DISCOVER;
 import caching.MaxPop;
@@ -19,6 +19,7 @@ import exceptions.InconsistencyException;
 import exceptions.InvalidOrUnsupportedException;
 import exceptions.WrongOrImproperArgumentException;
 import java.io.IOException;
+import java.io.ObjectInputStream;
 import java.lang.reflect.Constructor;
 import java.lang.reflect.InvocationTargetException;
 import java.util.ArrayList;
@@ -47,11 +48,12 @@ import statistics.handlers.iterative.sc.cmpt6.UnonymousCompute6;
 import sim.content.ContentDocument;
 import sim.space.users.mobile.MobileGroupsRegistry;
 import sim.space.users.mobile.MobileUser;
+import sim.space.util.CellTasks;
 import traces.dmdtrace.TraceLoader;
 import traces.dmdtrace.TraceWorkloadRecord;
-import utilities.Couple;
 import utils.CommonFunctions;
 import utils.random.RandomGeneratorWrapper;
+import utils.random.RandomStream;
 
 /**
  *
@@ -60,12 +62,22 @@ import utils.random.RandomGeneratorWrapper;
  */
 public abstract class SimulationBaseRunner<M extends MobileUser> implements Runnable, ISimulationMember {
 
+    private static final long serialVersionUID = 1L;
+
     public static final ThreadGroup SIMULATION_WORKERS_GROUP = new ThreadGroup("Parallel Simulations");
     public static final Object NONE = new Object();
 
     protected static int _idGen = 0;
     protected final int _id = ++_idGen;
-    protected final Logger LOG = CommonFunctions.getLoggerFor(this);
+    protected transient Logger LOG = CommonFunctions.getLoggerFor(this);
+    /**
+     * True if the simulation is restored from a checkpoint, in which case it
+     * continues from the round after the checkpoint instead of initializing
+     * its run.
+     */
+    private transient boolean _resumed;
+    private transient Checkpointer _checkpointer;
+    private transient RoundExecutor _roundExecutor;
 
     protected static final Object CONCURRENT_LOCK = new Object();
 
@@ -75,6 +87,10 @@ public abstract class SimulationBaseRunner<M extends MobileUser> implements Runn
      * The parameters setup for this simulation.
      */
     protected final Scenario scenarioSetup;
+    /**
+     * The properties of the scenario read while simulating, resolved once.
+     */
+    protected final CompiledScenario _compiledScenario;
 
     protected final long _chunkSizeInBytes;
     protected final long _rateMCWlessInBytes;
@@ -162,18 +178,20 @@ public abstract class SimulationBaseRunner<M extends MobileUser> implements Runn
     public List<M> shuffledMUs() {
         ArrayList shuffled = new ArrayList(musByID.values());
 
-        switch (getScenario().stringProperty(Space.MU__SHUFFLE, false)) {
+        CompiledScenario.MUShuffle shuffle = _compiledScenario.getMUShuffle();
+        if (shuffle == null) {
+            throw new UnsupportedOperationException(
+                    getScenario().stringProperty(Space.MU__SHUFFLE, false) + " not supported for " + " property " + Space.MU__SHUFFLE
+            );
+        }
+        switch (shuffle) {
             //<editor-fold defaultstate="collapsed" desc="shuffle iff property imposed">
-            case Values.NEVER:
-            case Values.UPON_CREATION:
+            case NEVER:
+            case UPON_CREATION:
                 break; // do not shufle
-            case Values.ALWAYS:
-                Collections.shuffle(shuffled, getRandomGenerator().getMersenneTwister());
+            case ALWAYS:
+                getRandomGenerator(RandomStream.MOBILITY).shuffle(shuffled);
                 break;
-            default:
-                throw new UnsupportedOperationException(
-                        getScenario().stringProperty(Space.MU__SHUFFLE, false) + " not supported for " + " property " + Space.MU__SHUFFLE
-                );
         }
         //</editor-fold>
         return shuffled;
@@ -321,6 +339,11 @@ public abstract class SimulationBaseRunner<M extends MobileUser> implements Runn
      */
     protected SimulationBaseRunner(Scenario s) throws CriticalFailureException {
         scenarioSetup = s;
+        try {
+            _compiledScenario = s.compile();
+        } catch (InvalidOrUnsupportedException ex) {
+            throw new CriticalFailureException(ex);
+        }
         constructorInit(s);
 
         try {
@@ -496,7 +519,6 @@ public abstract class SimulationBaseRunner<M extends MobileUser> implements Runn
                             new Object[]{getID(), runningSimulations,
                                 SimulatorApp.getMainArgs().getMaxConcurrentWorkers()
                             });
-            CONCURRENT_LOCK.notifyAll();
         }
     }
 
@@ -507,6 +529,13 @@ public abstract class SimulationBaseRunner<M extends MobileUser> implements Runn
         return scenarioSetup;
     }
 
+    /**
+     * @return the properties of the scenario read while simulating.
+     */
+    public CompiledScenario getCompiledScenario() {
+        return _compiledScenario;
+    }
+
     /**
      * @return the theArea
      */
@@ -525,6 +554,15 @@ public abstract class SimulationBaseRunner<M extends MobileUser> implements Runn
         return getScenario().getRandomGenerator();
     }
 
+    /**
+     * @param stream
+     * @return the generator of the stream of random numbers of this
+     * simulation.
+     */
+    public RandomGeneratorWrapper getRandomGenerator(RandomStream stream) {
+        return getScenario().getRandomGenerator(stream);
+    }
+
     public MacroCell macrocell() {
         return this.getCellRegistry().getMacroCell();
     }
@@ -538,15 +576,14 @@ public abstract class SimulationBaseRunner<M extends MobileUser> implements Runn
     }
 
     /**
-     * Launches a sim worker-thread.
+     * Creates the simulation defined by the scenario setup, without running
+     * it.
      *
      * @param setup Set of parameters that define the scenario setup
-     * @return a reference to the _sim worker-thread that has just been started.
+     * @return the simulation
+     * @throws CriticalFailureException if the simulation cannot be created
      */
-    public static Couple<Thread, SimulationBaseRunner> launchSimulationThread(Scenario setup) {
-
-        waitMaxThreadsThreshold();
-
+    public static SimulationBaseRunner newSimulation(Scenario setup) throws CriticalFailureException {
         String classSimName = setup.stringProperty(Simulation.RUN__CLASS, false);
 
         Class simClass;
@@ -563,45 +600,119 @@ public abstract class SimulationBaseRunner<M extends MobileUser> implements Runn
             throw new CriticalFailureException(ex);
         }
 
-        SimulationBaseRunner simRnbl;
         try {
-            simRnbl = (SimulationBaseRunner) constructor.newInstance(setup);
+            return (SimulationBaseRunner) constructor.newInstance(setup);
         } catch (InstantiationException | IllegalAccessException | IllegalArgumentException | InvocationTargetException ex) {
             throw new CriticalFailureException(ex);
         }
+    }
 
-        String simID = classSimName + "#" + String.valueOf(simRnbl.getID());
-        Thread simThread = new Thread(SIMULATION_WORKERS_GROUP, simRnbl, simID);
-        simThread.start();
-
-        return new Couple<>(simThread, simRnbl);
+    /**
+     * Creates the simulation defined by the scenario setup without running it,
+     * or restores it from its latest checkpoint if the simulator is launched
+     * for resuming and such a checkpoint exists.
+     *
+     * @param setup Set of parameters that define the scenario setup
+     * @return the simulation
+     * @throws CriticalFailureException if the simulation cannot be created
+     */
+    public static SimulationBaseRunner newOrResumedSimulation(Scenario setup) throws CriticalFailureException {
+        if (SimulatorApp.getMainArgs().isResume()) {
+            SimulationBaseRunner resumed = Checkpointer.resume(setup);
+            if (resumed != null) {
+                return resumed;
+            }
+        }
+        return newSimulation(setup);
+    }
 
+    /**
+     * Prepares a simulation restored from a checkpoint for continuing its run.
+     *
+     * @throws IOException if the traces cannot be reopened.
+     */
+    void resume() throws IOException {
+        _resumed = true;
+        _idGen = Math.max(_idGen, _id);
+        if (_trcLoader != null) {
+            _trcLoader.reopen();
+        }
+        reopenTraces();
     }
 
     /**
-     * Wait while the maximum number of concurrently running working threads is
-     * reached.
+     * Reopens the traces read by the simulation at the positions read up to
+     * the checkpoint it is restored from. The trace of requests is reopened
+     * by {@link TraceLoader#reopen()}, thus by default there is nothing to do.
      *
-     * The maximum number of concurrently running worker-threads cannot not
-     * exceed the threshold defined in the main method arguments.
+     * @throws IOException
+     */
+    protected void reopenTraces() throws IOException {
+    }
+
+    /**
+     * @return true if the simulation is restored from a checkpoint.
+     */
+    protected boolean isResumed() {
+        return _resumed;
+    }
+
+    /**
+     * Checkpoints the simulation if the checkpoint period has elapsed since
+     * the last checkpoint. Must be invoked between rounds, after the results
+     * of the round are printed.
+     */
+    protected void checkpointIfDue() {
+        if (_checkpointer == null) {
+            _checkpointer = new Checkpointer(this);
+        }
+        _checkpointer.checkpointIfDue();
+    }
+
+    /**
+     * Moves and then lets consume each mobile user of the round, with the
+     * consumptions run in parallel if property
+     * {@link Simulation.Parallel#ROUND_THREADS} allows it. The results are the
+     * same either way; see {@link RoundExecutor}.
      *
+     * @param mus the mobile users in the order of the round
+     * @param move
+     * @param consume
+     * @throws Throwable
+     */
+    protected final void moveAndConsume(Collection<? extends M> mus,
+            RoundExecutor.Step<? super M> move,
+            RoundExecutor.Step<? super M> consume) throws Throwable {
+        if (_roundExecutor == null) {
+            _roundExecutor = new RoundExecutor(this);
+        }
+        _roundExecutor.run(mus, move, consume);
+    }
+
+    private void readObject(ObjectInputStream in) throws IOException, ClassNotFoundException {
+        in.defaultReadObject();
+        LOG = CommonFunctions.getLoggerFor(this);
+    }
+
+    /**
+     * Counts a simulation as running. The running simulations are bounded by
+     * the {@link SimulationScheduler} running them.
      */
-    protected static void waitMaxThreadsThreshold() {
-        //<editor-fold defaultstate="collapsed" desc="enforce max concurrent workers threshold">
+    static void incRunningSimulations() {
         synchronized (CONCURRENT_LOCK) {
-            int maxConcurrentWorkers = SimulatorApp.getMainArgs().getMaxConcurrentWorkers();
-            while (maxConcurrentWorkers <= runningSimulations) {
-                try {
-                    CONCURRENT_LOCK.wait();
-                } catch (InterruptedException ex) {
-                    throw new CriticalFailureException(
-                            "Concurency lock for not exceeding the maximum number of workers was interrupted unxpectedly", ex);
-                }
-            }
             runningSimulations++;
         }
     }
 
+    /**
+     * Stops counting a simulation that failed before running.
+     */
+    static void decRunningSimulations() {
+        synchronized (CONCURRENT_LOCK) {
+            runningSimulations--;
+        }
+    }
+
     public MobileGroupsRegistry getGroupsRegistry() {
         return _musGrpsRegistry;
     }
@@ -684,7 +795,7 @@ public abstract class SimulationBaseRunner<M extends MobileUser> implements Runn
     }
 
     public boolean stationaryRequestsUsed() {
-        return getScenario().intProperty(Space.SC__DMD__TRACE__STATIONARY_REQUESTS__RATE) > 0;
+        return _compiledScenario.stationaryRequestsUsed();
     }
 
     /**
@@ -703,25 +814,35 @@ public abstract class SimulationBaseRunner<M extends MobileUser> implements Runn
             Collection<AbstractCachingModel> cachingPolicies);
 
     protected void initCellNeighborhood(CellRegistry reg, Scenario setup) {
-        theNeighborhoodType = setup.stringProperty(app.properties.Space.SC__NEIGHBORHOOD, false);
+        theNeighborhoodType = _compiledScenario.getSCNeighborhood();
+        final List<SmallCell> scs = new ArrayList<>(reg.getSmallCells());
         switch (theNeighborhoodType) {
             case Values.ALL:
-
-                for (SmallCell scI : reg.getSmallCells()) {
-                    for (SmallCell scJ : reg.getSmallCells()) {
-                        if (!scI.equals(scJ)) {
-                            scI.addNeighbor(scJ);
+                /*
+                 * Each small cell adds only to its own neighbors, thus the
+                 * neighborhoods are filled in parallel per small cell.
+                 */
+                CellTasks.forEach(setup, scs, new CellTasks.Task() {
+                    @Override
+                    public void apply(SmallCell scI) {
+                        for (SmallCell scJ : scs) {
+                            if (!scI.equals(scJ)) {
+                                scI.addNeighbor(scJ);
+                            }
                         }
                     }
-                }
+                });
                 break;
 
             case Values.ALL_PLUS_SELF:
-                for (SmallCell scI : reg.getSmallCells()) {
-                    for (SmallCell scJ : reg.getSmallCells()) {
-                        scI.addNeighbor(scJ);
+                CellTasks.forEach(setup, scs, new CellTasks.Task() {
+                    @Override
+                    public void apply(SmallCell scI) {
+                        for (SmallCell scJ : scs) {
+                            scI.addNeighbor(scJ);
+                        }
                     }
-                }
+                });
                 break;
 
             case Values.TRACE:
@@ -827,8 +948,7 @@ public abstract class SimulationBaseRunner<M extends MobileUser> implements Runn
             }
 
             getSimulation().getStatsHandle().updtSCCmpt6(newAddedReqs,
-                    new UnonymousCompute6(
-                            new UnonymousCompute6.WellKnownTitle("newAddedReqs[firstTime]"))
+                    UnonymousCompute6.WellKnownTitle.NEW_ADDED_REQS_FIRST_TIME
             );
             return true;
         } else {
@@ -867,7 +987,7 @@ public abstract class SimulationBaseRunner<M extends MobileUser> implements Runn
 
         // checkSimEnded if needed
         if (!cachingModels.contains(caching.rplc.mingain.priced.tuned_timened.EMPC_R_Tunned_a.instance())
-                || simTime() <= getSimulation().getScenario().intProperty(StatsProperty.STATS__MIN_TIME)) {
+                || simTime() <= _compiledScenario.getStatsMinTime()) {
             return;
         }
 
@@ -903,37 +1023,29 @@ public abstract class SimulationBaseRunner<M extends MobileUser> implements Runn
             double f_c2 = epcLCnoRplcState.getGainC2();
 
             getStatsHandle().updtSCCmpt6(a,
-                    new UnonymousCompute6(
-                            UnonymousCompute6.WellKnownTitle.GOLDEN_RATIO_A)
+                    UnonymousCompute6.WellKnownTitle.GOLDEN_RATIO_A
             );
             getStatsHandle().updtSCCmpt6(c1,
-                    new UnonymousCompute6(
-                            UnonymousCompute6.WellKnownTitle.GOLDEN_RATIO_C1)
+                    UnonymousCompute6.WellKnownTitle.GOLDEN_RATIO_C1
             );
             getStatsHandle().updtSCCmpt6(c2,
-                    new UnonymousCompute6(
-                            UnonymousCompute6.WellKnownTitle.GOLDEN_RATIO_C2)
+                    UnonymousCompute6.WellKnownTitle.GOLDEN_RATIO_C2
             );
             getStatsHandle().updtSCCmpt6(b,
-                    new UnonymousCompute6(
-                            UnonymousCompute6.WellKnownTitle.GOLDEN_RATIO_B)
+                    UnonymousCompute6.WellKnownTitle.GOLDEN_RATIO_B
             );
 
             getStatsHandle().updtSCCmpt6(f_a,
-                    new UnonymousCompute6(
-                            UnonymousCompute6.WellKnownTitle.GOLDEN_RATIO_F_A)
+                    UnonymousCompute6.WellKnownTitle.GOLDEN_RATIO_F_A
             );
             getStatsHandle().updtSCCmpt6(f_c1,
-                    new UnonymousCompute6(
-                            UnonymousCompute6.WellKnownTitle.GOLDEN_RATIO_F_C1)
+                    UnonymousCompute6.WellKnownTitle.GOLDEN_RATIO_F_C1
             );
             getStatsHandle().updtSCCmpt6(f_c2,
-                    new UnonymousCompute6(
-                            UnonymousCompute6.WellKnownTitle.GOLDEN_RATIO_F_C2)
+                    UnonymousCompute6.WellKnownTitle.GOLDEN_RATIO_F_C2
             );
             getStatsHandle().updtSCCmpt6(f_b,
-                    new UnonymousCompute6(
-                            UnonymousCompute6.WellKnownTitle.GOLDEN_RATIO_F_B)
+                    UnonymousCompute6.WellKnownTitle.GOLDEN_RATIO_F_B
             );
 
             if (f_c1 < f_c2) {// then the maximum must lie on [c1, b], so assign a = c1.
@@ -1000,6 +1112,9 @@ public abstract class SimulationBaseRunner<M extends MobileUser> implements Runn
     }
 
     public void runFinish() {
+        if (_roundExecutor != null) {
+            _roundExecutor.shutdown();
+        }
 
         for (AbstractCachingModel policy : getCachingStrategies()) {
             for (SmallCell sc : _cellRegistry.getSmallCells()) {
@@ -1021,6 +1136,7 @@ public abstract class SimulationBaseRunner<M extends MobileUser> implements Runn
         } catch (StatisticException ex) {
             LOG.log(Level.SEVERE, "Unsuccessful effort to print results.", ex);
         }
+        getStatsHandle().awaitPrinted();
         decreaseRunningSimulations();
     }
 
@@ -1091,7 +1207,7 @@ public abstract class SimulationBaseRunner<M extends MobileUser> implements Runn
     }
 
     public Area initArea() throws CriticalFailureException {
-        Area tmpArea = new Area(this,
+        Area tmpArea = Area.create(this,
                 scenarioSetup.intProperty(Space.AREA__Y),
                 scenarioSetup.intProperty(Space.AREA__X));
 
@@ -0,0 +1,398 @@
+package sim.run;
+
+import app.properties.Simulation;
+import app.properties.Space;
+import exceptions.CriticalFailureException;
+import exceptions.NotIntiliazedException;
+import java.lang.management.ManagementFactory;
+import java.lang.management.MemoryMXBean;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executors;
+import java.util.concurrent.FutureTask;
+import java.util.concurrent.PriorityBlockingQueue;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+import sim.Scenario;
+import sim.ScenariosFactory;
+
+/**
+ * Runs simulation scenarios on a fixed pool of worker threads.
+ *
+ * Scenarios waiting for a worker are ordered by their estimated cost, with the
+ * most costly ones started first, so that long scenarios do not end up running
+ * alone at the end of a batch. Each scenario is tracked by a future which
+ * completes with a {@link Report} of the wall-clock time and the peak heap
+ * used while the scenario was running.
+ *
+ * The workers start once a few scenarios per worker are queued, or upon
+ * {@link #start()}. From then on, submitting more scenarios blocks while that
+ * many are queued, so that scenarios are created while others run rather than
+ * all upfront.
+ *
+ * @author Xenofon Vasilakos xvas@aueb.gr
+ */
+public final class SimulationScheduler {
+
+    private static final Logger LOG = Logger.getLogger(SimulationScheduler.class.getName());
+
+    /**
+     * How often the heap in use is sampled for the peak heap reported per
+     * scenario.
+     */
+    private static final long HEAP_SAMPLING_PERIOD_MSEC = 500;
+    /**
+     * Scenarios waiting per worker, once the workers are started.
+     */
+    private static final int QUEUED_PER_WORKER = 4;
+
+    private final ThreadPoolExecutor _workers;
+    private final ScheduledExecutorService _heapSampler;
+    private final MemoryMXBean _memory;
+    private final Set<ScenarioTask> _running;
+    private final int _windowSize;
+    private final Semaphore _window;
+    private final Object _startLock = new Object();
+    private final AtomicLong _submitOrder;
+    private final AtomicInteger _failed;
+    private final AtomicLong _totalMsec;
+    private final AtomicLong _peakHeap;
+    private boolean _started;
+
+    /**
+     * @param workers the number of scenarios run concurrently
+     */
+    public SimulationScheduler(int workers) {
+        final AtomicInteger workerNum = new AtomicInteger();
+        _workers = new ThreadPoolExecutor(workers, workers, 0L, TimeUnit.MILLISECONDS,
+                new PriorityBlockingQueue<Runnable>(),
+                new ThreadFactory() {
+            @Override
+            public Thread newThread(Runnable r) {
+                return new Thread(SimulationBaseRunner.SIMULATION_WORKERS_GROUP, r,
+                        "simulation-worker-" + workerNum.incrementAndGet());
+            }
+        });
+
+        _memory = ManagementFactory.getMemoryMXBean();
+        _running = Collections.newSetFromMap(new ConcurrentHashMap<ScenarioTask, Boolean>());
+        _windowSize = workers * (1 + QUEUED_PER_WORKER);
+        _window = new Semaphore(_windowSize);
+        _submitOrder = new AtomicLong();
+        _failed = new AtomicInteger();
+        _totalMsec = new AtomicLong();
+        _peakHeap = new AtomicLong();
+
+        _heapSampler = Executors.newSingleThreadScheduledExecutor(new ThreadFactory() {
+            @Override
+            public Thread newThread(Runnable r) {
+                Thread t = new Thread(r, "simulation-heap-sampler");
+                t.setDaemon(true);
+                return t;
+            }
+        });
+        _heapSampler.scheduleAtFixedRate(new Runnable() {
+            @Override
+            public void run() {
+                long used = _memory.getHeapMemoryUsage().getUsed();
+                for (ScenarioTask nxt : _running) {
+                    nxt.sampleHeap(used);
+                }
+            }
+        }, HEAP_SAMPLING_PERIOD_MSEC, HEAP_SAMPLING_PERIOD_MSEC, TimeUnit.MILLISECONDS);
+
+        LOG.log(Level.INFO, "Scenarios run on a pool of {0} workers.", workers);
+    }
+
+    /**
+     * Estimates the cost of running a scenario as the product of the area size,
+     * the number of mobile users and the length of the workload, i.e. the
+     * simulated time or the number of requests, depending on the clock. Any
+     * factor that cannot be estimated from the scenario is taken as 1.
+     *
+     * @param scenario
+     * @return the estimated cost, only meaningful for comparing scenarios.
+     */
+    public static double estimatedCost(Scenario scenario) {
+        double area = 1;
+        try {
+            area = Math.max(1.0, (double) scenario.intProperty(Space.AREA__X) * scenario.intProperty(Space.AREA__Y));
+        } catch (RuntimeException ex) {
+            // unknown; keep the neutral factor
+        }
+
+        double mus = 1;
+        try {
+            double sum = 0;
+            for (Integer nxtSize : scenario.listOfIntegersProperty(Space.MU__GROUP__SIZE)) {
+                sum += nxtSize;
+            }
+            mus = Math.max(1.0, sum);
+        } catch (RuntimeException ex) {
+            // unknown; keep the neutral factor
+        }
+
+        double length = 1;
+        try {
+            String clock = scenario.stringProperty(Simulation.Clock.TYPE, false);
+            if (clock != null && clock.toLowerCase().contains("req")) {
+                length = Math.max(1.0, scenario.intProperty(Simulation.Clock.MAX_REQ_NUM));
+            } else {
+                length = Math.max(1.0, scenario.intProperty(Simulation.Clock.MAX_TIME));
+            }
+        } catch (RuntimeException ex) {
+            // unknown; keep the neutral factor
+        }
+
+        return area * mus * length;
+    }
+
+    /**
+     * Queues the scenario to run as soon as a worker is available and no more
+     * costly scenario is waiting. Scenarios submitted before the workers start
+     * are all ordered by cost before any of them runs; afterwards, the call
+     * blocks while the queue is full.
+     *
+     * @param scenario
+     * @return the future of the scenario
+     * @throws InterruptedException if interrupted while the queue is full.
+     */
+    public FutureTask<Report> submit(Scenario scenario) throws InterruptedException {
+        ScenarioTask task = new ScenarioTask(scenario, estimatedCost(scenario), _submitOrder.getAndIncrement());
+        synchronized (_startLock) {
+            if (!_started) {
+                _workers.getQueue().add(task);
+                if (_workers.getQueue().size() >= _windowSize) {
+                    start();
+                }
+                return task;
+            }
+        }
+        _window.acquire();
+        task._windowed = true;
+        _workers.execute(task);
+        return task;
+    }
+
+    /**
+     * Starts the workers, which take the queued scenarios in order of cost.
+     */
+    public void start() {
+        synchronized (_startLock) {
+            _started = true;
+            _workers.prestartAllCoreThreads();
+        }
+    }
+
+    /**
+     * @return the simulations running at the time of the call.
+     */
+    public List<SimulationBaseRunner> runningSimulations() {
+        List<SimulationBaseRunner> sims = new ArrayList<>();
+        for (ScenarioTask nxt : _running) {
+            SimulationBaseRunner sim = nxt._sim;
+            if (sim != null) {
+                sims.add(sim);
+            }
+        }
+        return sims;
+    }
+
+    /**
+     * Interrupts the running simulations and drops the queued ones.
+     */
+    public void shutdownNow() {
+        _workers.shutdownNow();
+        _heapSampler.shutdownNow();
+    }
+
+    /**
+     * Stops accepting scenarios and waits for the submitted ones to finish.
+     * Each scenario is accounted for upon completion, thus its report is not
+     * kept afterwards.
+     *
+     * @return the number of scenarios that failed.
+     * @throws InterruptedException
+     */
+    public int awaitAll() throws InterruptedException {
+        start();
+        _workers.shutdown();
+        _workers.awaitTermination(Long.MAX_VALUE, TimeUnit.DAYS);
+        _heapSampler.shutdownNow();
+
+        LOG.log(Level.INFO, "{0} scenarios run ({1} failed); aggregate wall-clock time {2} sec; "
+                + "peak heap in use {3} MB.",
+                new Object[]{_submitOrder.get(), _failed.get(), _totalMsec.get() / 1000.0,
+                    _peakHeap.get() / (1024 * 1024)});
+        return _failed.get();
+    }
+
+    private void accountFor(ScenarioTask task) {
+        try {
+            Report report = task.get();
+            _totalMsec.addAndGet(report.wallClockMsec());
+            long peak;
+            do {
+                peak = _peakHeap.get();
+            } while (report.peakHeapBytes() > peak && !_peakHeap.compareAndSet(peak, report.peakHeapBytes()));
+        } catch (ExecutionException ex) {
+            _failed.incrementAndGet();
+            LOG.log(Level.SEVERE, "Simulation failed for scenario setup:\n"
+                    + task._scenario.toString(), ex.getCause());
+        } catch (InterruptedException | CancellationException ex) {
+            _failed.incrementAndGet();
+        }
+    }
+
+    /**
+     * Wall-clock time and peak heap of a scenario run. As scenarios run
+     * concurrently, the peak heap is the one of the whole JVM while the
+     * scenario was running.
+     */
+    public static final class Report {
+
+        private final Scenario _scenario;
+        private final int _simID;
+        private final long _wallClockMsec;
+        private final long _peakHeapBytes;
+
+        private Report(Scenario scenario, int simID, long wallClockMsec, long peakHeapBytes) {
+            _scenario = scenario;
+            _simID = simID;
+            _wallClockMsec = wallClockMsec;
+            _peakHeapBytes = peakHeapBytes;
+        }
+
+        public Scenario scenario() {
+            return _scenario;
+        }
+
+        public int simID() {
+            return _simID;
+        }
+
+        public long wallClockMsec() {
+            return _wallClockMsec;
+        }
+
+        public long peakHeapBytes() {
+            return _peakHeapBytes;
+        }
+
+        @Override
+        public String toString() {
+            return "scenario " + _scenario.getIDStr() + " (simulation " + _simID + "): "
+                    + _wallClockMsec / 1000.0 + " sec wall-clock, peak heap in use "
+                    + _peakHeapBytes / (1024 * 1024) + " MB";
+        }
+    }
+
+    /**
+     * Ordered so that more costly scenarios come first, and scenarios of equal
+     * cost in the order they were submitted.
+     */
+    private final class ScenarioTask extends FutureTask<Report> implements Comparable<ScenarioTask> {
+
+        private final Scenario _scenario;
+        private final double _cost;
+        private final long _order;
+        private volatile SimulationBaseRunner _sim;
+        private final AtomicLong _peakHeap = new AtomicLong();
+        /**
+         * Whether the task holds a place in the queue window.
+         */
+        private volatile boolean _windowed;
+
+        private ScenarioTask(final Scenario scenario, double cost, long order) {
+            super(new Callable<Report>() {
+                @Override
+                public Report call() throws Exception {
+                    throw new IllegalStateException("Replaced by ScenarioTask.run()");
+                }
+            });
+            _scenario = scenario;
+            _cost = cost;
+            _order = order;
+        }
+
+        private void sampleHeap(long used) {
+            long peak;
+            do {
+                peak = _peakHeap.get();
+            } while (used > peak && !_peakHeap.compareAndSet(peak, used));
+        }
+
+        @Override
+        public void run() {
+            if (isDone()) {
+                return;
+            }
+
+            Thread worker = Thread.currentThread();
+            String workerName = worker.getName();
+            long start = System.nanoTime();
+            sampleHeap(_memory.getHeapMemoryUsage().getUsed());
+            _running.add(this);
+            try {
+                SimulationBaseRunner.incRunningSimulations();
+                SimulationBaseRunner sim;
+                try {
+                    sim = SimulationBaseRunner.newOrResumedSimulation(_scenario);
+                } catch (RuntimeException ex) {
+                    SimulationBaseRunner.decRunningSimulations();
+                    throw ex;
+                }
+                _sim = sim;
+                worker.setName(sim.getClass().getName() + "#" + sim.getID());
+                LOG.log(Level.INFO, "{0} thread for scenario {1} launched; estimated cost {2}.\n",
+                        new Object[]{worker.getName(), _scenario.getIDStr(), _cost});
+
+                sim.run();
+
+                sampleHeap(_memory.getHeapMemoryUsage().getUsed());
+                Report report = new Report(_scenario, sim.getID(),
+                        TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start), _peakHeap.get());
+                LOG.log(Level.INFO, "Completed {0}", report);
+                set(report);
+            } catch (Throwable ex) {
+                setException(ex instanceof CriticalFailureException ? ex : new CriticalFailureException(ex));
+            } finally {
+                _running.remove(this);
+                _sim = null;
+                worker.setName(workerName);
+                try {
+                    ScenariosFactory.incCompletedScenarios();
+                } catch (NotIntiliazedException | RuntimeException ex) {
+                    // scenarios not created through the factory
+                }
+            }
+        }
+
+        @Override
+        protected void done() {
+            accountFor(this);
+            if (_windowed) {
+                _window.release();
+            }
+        }
+
+        @Override
+        public int compareTo(ScenarioTask other) {
+            int byCost = Double.compare(other._cost, _cost);
+            return byCost != 0 ? byCost : Long.compare(_order, other._order);
+        }
+    }
+}
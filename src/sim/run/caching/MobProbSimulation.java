@@ -1,5 +1,6 @@
 package sim.run.caching;
 
+import sim.run.RoundExecutor;
 import sim.run.SimulationBaseRunner;
 import sim.Scenario;
 import app.properties.Space;
@@ -24,12 +25,15 @@ import sim.space.users.mobile.MUBuilder;
 import sim.space.users.mobile.MobileGroup;
 import sim.space.users.mobile.MobileGroupsRegistry;
 import statistics.handlers.iterative.sc.cmpt6.UnonymousCompute6;
+import utils.random.RandomStream;
 
 /**
  *
  * @author Xenofon Vasilakos xvas@aueb.gr
  */
-public final class MobProbSimulation extends SimulationBaseRunner<MobileUser> {
+public class MobProbSimulation extends SimulationBaseRunner<MobileUser> {
+
+    private static final long serialVersionUID = 1L;
 
     public MobProbSimulation(Scenario s) {
         super(s);
@@ -104,7 +108,7 @@ public final class MobProbSimulation extends SimulationBaseRunner<MobileUser> {
 
                 String tmp;
                 if (itemRndIDRange > 1) {
-                    tmp = String.valueOf(getRandomGenerator().randIntInRange(1, itemRndIDRange));
+                    tmp = String.valueOf(getRandomGenerator(RandomStream.WORKLOAD).randIntInRange(1, itemRndIDRange));
                 } else {
                     tmp = nxtMuID;
                 }
@@ -139,90 +143,7 @@ public final class MobProbSimulation extends SimulationBaseRunner<MobileUser> {
              */
             WHILE_THREAD_NOT_INTERUPTED:
             while (!Thread.currentThread().isInterrupted()) {
-                clock.tick();
-
-//////////////////////////////////////////////////                
-//yyy                runGoldenRatioSearchEMPCLC();
-//////////////////////////////////////////////////
-                if (stationaryRequestsUsed()) {/*
-                     * Concume data and keep gain stats for stationary users
-                     */
-                    for (SmallCell nxtSC : smallCells()) {
-                        StationaryUser nxtSU = nxtSC.getStationaryUsr();
-                        nxtSC.updtLclDmdByStationary(false);
-                        nxtSU.consumeDataTry(1);
-                        nxtSU.tryCacheRecentFromBH();// try to cache whatever not already in the cache that you just downloaded.
-                    }
-                }
-
-/////////////////////////////////////
-                List<MobileUser> shuffldMUs = shuffledMUs();
-                _haveExitedPrevCell.clear();
-                getStatsHandle().resetHandoverscount();
-
-                for (MobileUser nxtMU : shuffldMUs) {
-                    nxtMU.moveRelatively(false, false);
-                    if (nxtMU.isSoftUser()) {
-                        nxtMU.consumeTryAllAtOnceFromSC();
-                    } else {
-                        nxtMU.consumeDataTry(1);// consume in one simulation time step
-                    }
-                }// for all all MUs
-
-                getStatsHandle().statHandoversCount();
-/////////////////////////////////////
-
-                for (AbstractCachingModel nxtPolicy : cachingModels) {/*
-                     * update priority queues of cached chunks for each
-                     * IGainRplc replacement policy, in every small cell.
-                     */
-                    if (!(nxtPolicy instanceof IGainRplc)) {
-                        continue;
-                    }
-                    IGainRplc gainRplcPolicy = (IGainRplc) nxtPolicy;
-                    for (SmallCell sc : smallCells()) {
-                        sc.updtCachedChunksOrderedByGain(gainRplcPolicy);
-                    }
-                }
-
-///////////////////////////////////////////////// 
-                int clearedReqs = 0;
-                int newAddedReqs = 0;
-                for (MobileUser nxtMU : _haveExitedPrevCell) {
-                    SmallCell lastSCForCacheDecisions = nxtMU.getLastSCForCacheDecisions();
-                    if (lastSCForCacheDecisions != null) {
-                        getStatsHandle().updtPerformanceStats(nxtMU);
-                        // cancel past PC decisions
-                        nxtMU.cancelAndDeregisterPCOrders();
-                    }
-
-                    if (usesTraceOfRequests()) {
-                        if (nxtMU.isSoftUser()) {
-                            clearedReqs += nxtMU.clearAllRequests();
-                        }
-                        clearedReqs += nxtMU.clearCompletedRequests();
-                        newAddedReqs += updtLoadWorkloadRequests(nxtMU, _dmdTrcReqsLoadedPerUser);
-                    }
-
-                    // finaly take caching decisions
-                    nxtMU.cacheDescisionsPerformRegisterPC(nxtMU.getLastKnownConnectedSC());
-                }
-
-                getSimulation().getStatsHandle().updtSCCmpt6(clearedReqs,
-                        new UnonymousCompute6(
-                                new UnonymousCompute6.WellKnownTitle("ClearedReqs"))
-                );
-                getSimulation().getStatsHandle().updtSCCmpt6(newAddedReqs,
-                        new UnonymousCompute6(
-                                new UnonymousCompute6.WellKnownTitle("newAddedReqs"))
-                );
-
-////////////////////////////////////////////////////
-                boolean roundCommited = runUpdtStats4SimRound();
-                if (roundCommited) {
-                    getStatsHandle().appendTransient(false);
-                    getStatsHandle().checkFlushTransient(false);
-                }
+                runRound();
             }// while simulation continues// while simulation continues// while simulation continues// while simulation continues// while simulation continues// while simulation continues// while simulation continues// while simulation continues
 
         } catch (NormalSimulationEndException simEndEx) {
@@ -241,4 +162,104 @@ public final class MobProbSimulation extends SimulationBaseRunner<MobileUser> {
         }
     }
 
+    /**
+     * Runs one round after the warmup period: ticks the clock, moves the
+     * mobile users and lets them consume, refreshes the eviction queues of the
+     * replacement policies and takes the cache decisions of the mobile users
+     * which exited their previous cell.
+     *
+     * @throws Throwable
+     */
+    protected void runRound() throws Throwable {
+        clock.tick();
+
+//////////////////////////////////////////////////                
+//yyy                runGoldenRatioSearchEMPCLC();
+//////////////////////////////////////////////////
+        if (stationaryRequestsUsed()) {/*
+             * Concume data and keep gain stats for stationary users
+             */
+            for (SmallCell nxtSC : smallCells()) {
+                StationaryUser nxtSU = nxtSC.getStationaryUsr();
+                nxtSC.updtLclDmdByStationary(false);
+                nxtSU.consumeDataTry(1);
+                nxtSU.tryCacheRecentFromBH();// try to cache whatever not already in the cache that you just downloaded.
+            }
+        }
+
+/////////////////////////////////////
+        List<MobileUser> shuffldMUs = shuffledMUs();
+        _haveExitedPrevCell.clear();
+        getStatsHandle().resetHandoverscount();
+
+        moveAndConsume(shuffldMUs, new RoundExecutor.Step<MobileUser>() {
+            @Override
+            public void apply(MobileUser nxtMU) throws Throwable {
+                nxtMU.moveRelatively(false, false);
+            }
+        }, new RoundExecutor.Step<MobileUser>() {
+            @Override
+            public void apply(MobileUser nxtMU) throws Throwable {
+                if (nxtMU.isSoftUser()) {
+                    nxtMU.consumeTryAllAtOnceFromSC();
+                } else {
+                    nxtMU.consumeDataTry(1);// consume in one simulation time step
+                }
+            }
+        });// for all all MUs
+
+        getStatsHandle().statHandoversCount();
+/////////////////////////////////////
+
+        for (AbstractCachingModel nxtPolicy : cachingModels) {/*
+             * update priority queues of cached chunks for each
+             * IGainRplc replacement policy, in every small cell.
+             */
+            if (!(nxtPolicy instanceof IGainRplc)) {
+                continue;
+            }
+            IGainRplc gainRplcPolicy = (IGainRplc) nxtPolicy;
+            for (SmallCell sc : smallCells()) {
+                sc.updtCachedChunksOrderedByGain(gainRplcPolicy);
+            }
+        }
+
+///////////////////////////////////////////////// 
+        int clearedReqs = 0;
+        int newAddedReqs = 0;
+        for (MobileUser nxtMU : _haveExitedPrevCell) {
+            SmallCell lastSCForCacheDecisions = nxtMU.getLastSCForCacheDecisions();
+            if (lastSCForCacheDecisions != null) {
+                getStatsHandle().updtPerformanceStats(nxtMU);
+                // cancel past PC decisions
+                nxtMU.cancelAndDeregisterPCOrders();
+            }
+
+            if (usesTraceOfRequests()) {
+                if (nxtMU.isSoftUser()) {
+                    clearedReqs += nxtMU.clearAllRequests();
+                }
+                clearedReqs += nxtMU.clearCompletedRequests();
+                newAddedReqs += updtLoadWorkloadRequests(nxtMU, _dmdTrcReqsLoadedPerUser);
+            }
+
+            // finaly take caching decisions
+            nxtMU.cacheDescisionsPerformRegisterPC(nxtMU.getLastKnownConnectedSC());
+        }
+
+        getSimulation().getStatsHandle().updtSCCmpt6(clearedReqs,
+                UnonymousCompute6.WellKnownTitle.CLEARED_REQS
+        );
+        getSimulation().getStatsHandle().updtSCCmpt6(newAddedReqs,
+                UnonymousCompute6.WellKnownTitle.NEW_ADDED_REQS
+        );
+
+////////////////////////////////////////////////////
+        boolean roundCommited = runUpdtStats4SimRound();
+        if (roundCommited) {
+            getStatsHandle().appendTransient(false);
+            getStatsHandle().checkFlushTransient(false);
+        }
+    }
+
 }
@@ -1,5 +1,6 @@
 package sim.run.caching;
 
+import sim.run.RoundExecutor;
 import sim.run.SimulationBaseRunner;
 import sim.Scenario;
 import app.properties.Space;
@@ -12,15 +13,13 @@ import exceptions.InvalidOrUnsupportedException;
 import exceptions.TraceEndedException;
 import exceptions.WrongOrImproperArgumentException;
 import java.io.File;
-import java.io.FileReader;
 import java.io.IOException;
+import java.io.ObjectOutputStream;
 import java.util.ArrayList;
 import java.util.Collection;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
-import java.util.NoSuchElementException;
-import java.util.Scanner;
 import java.util.SortedMap;
 import java.util.logging.Level;
 import java.util.logging.Logger;
@@ -38,6 +37,7 @@ import sim.space.users.mobile.TraceMUBuilder;
 import statistics.StatisticException;
 import statistics.handlers.iterative.sc.cmpt6.UnonymousCompute6;
 import traces.area.Cells;
+import traces.mobtrace.MobilityTraceReader;
 import utilities.Couple;
 
 /**
@@ -46,10 +46,10 @@ import utilities.Couple;
  */
 public final class TraceKolnSimulation extends SimulationBaseRunner<TraceMU> {
 
+    private static final long serialVersionUID = 1L;
+
     private String muTracePath;
-    private Scanner muTraceScan;
-    private String mobTrcLine;
-    private String mobTrcCSVSep = " ";// default set to " "
+    private transient MobilityTraceReader muTrace;
 
     private static final Logger LOG = Logger.getLogger(TraceKolnSimulation.class.getName());
 
@@ -76,6 +76,20 @@ public final class TraceKolnSimulation extends SimulationBaseRunner<TraceMU> {
      */
     private int simRound;
     private int linesReadFromMob;
+    /**
+     * The records read from the mobility trace up to the last checkpoint,
+     * which a resumed simulation skips.
+     */
+    private long mobTrcRecsRead;
+    /**
+     * The mobile users per ID interned by the mobility trace reader.
+     */
+    private final List<TraceMU> musByTrcIdx = new ArrayList<>();
+    /**
+     * The simulation time of the previous round.
+     */
+    private int trackClockTime;
+    private boolean mobTraceFinished;
 
     public TraceKolnSimulation(Scenario s) {
         super(s);
@@ -86,24 +100,11 @@ public final class TraceKolnSimulation extends SimulationBaseRunner<TraceMU> {
     protected void constructorInit(Scenario scenario) {
         muTracePath = scenario.stringProperty(Space.MU__TRACE, true);
         try {
-            muTraceScan = new Scanner(new FileReader(muTracePath));
-
-            while (muTraceScan.hasNextLine()) {
-                mobTrcLine = muTraceScan.nextLine();
-                linesReadFromMob++;
-
-                if (mobTrcLine.startsWith("#")) {
-                    if (mobTrcLine.toUpperCase().startsWith("#SEP=")) {
-                        mobTrcCSVSep = mobTrcLine.substring(5);
-                        LOG.log(Level.INFO, "Mobility trace uses separator=\"{0}\"", mobTrcCSVSep);
-                    }
-
-                    mobTraceEarlyEndingCheck();
-                } else {
-                    break;
-                }
+            muTrace = new MobilityTraceReader(new File(muTracePath), 3, true);
+            if (!muTrace.next()) {
+                throw new TraceEndedException("The mobility trace has ended too early.");
             }
-        } catch (IOException | TraceEndedException | NoSuchElementException e) {
+        } catch (IOException | TraceEndedException e) {
             throw new CriticalFailureException("On attempt to load from file: "
                     + "\""
                     + muTracePath
@@ -136,7 +137,7 @@ public final class TraceKolnSimulation extends SimulationBaseRunner<TraceMU> {
         areaLengthX = maxX - minX;
         areaLengthY = maxY - minY;
 
-        Area areaTmp = new Area(this, areaLengthY, areaLengthX);
+        Area areaTmp = Area.create(this, areaLengthY, areaLengthX);
         LOG.log(Level.INFO, "{0}: {1}x{2} area; number of points={3}\n",
                 new Object[]{
                     simTime(),
@@ -168,15 +169,11 @@ public final class TraceKolnSimulation extends SimulationBaseRunner<TraceMU> {
 
         batchOfMUsOfCurrRound = new ArrayList<>();
 
-        //System.err.println("** last read: " + mobTrcLine);
-        while (muTraceScan.hasNextLine()) {
-            mobTrcLine = muTraceScan.nextLine();
+        while (muTrace.next()) {
             linesReadFromMob++;
 
-            String[] csv = mobTrcLine.split(mobTrcCSVSep);
-
             //[0]: time
-            int time = Integer.parseInt(csv[0]);
+            int time = muTrace.time();
 
             if (time > this.timeForNextBatch) {
                 this.timeForNextBatch = time + roundDuration;
@@ -186,35 +183,33 @@ public final class TraceKolnSimulation extends SimulationBaseRunner<TraceMU> {
             //else...
 
             //[1] mu id
-            String parsedID = csv[1];
+            int parsedMU = muTrace.mu();
 
             //[2] x
-            int x = (int) Double.parseDouble(csv[2]) - minX; // -minX so as to be relative to area dimensions
+            int x = (int) muTrace.value(0) - minX; // -minX so as to be relative to area dimensions
 
             //[3] y
-            int y = (int) Double.parseDouble(csv[3]) - minY; // -minY so as to be relative to area dimensions
+            int y = (int) muTrace.value(1) - minY; // -minY so as to be relative to area dimensions
 
             //[4] speed
-            double speed = Math.ceil(Double.parseDouble(csv[4]));
+            double speed = Math.ceil(muTrace.value(2));
 
-            TraceMU newMU;
-            if (!musByID.containsKey(parsedID)) {
+            TraceMU newMU = parsedMU < musByTrcIdx.size() ? musByTrcIdx.get(parsedMU) : null;
+            if (newMU == null) {
                 //if new mobile ID, create a new mobile user
 
-                newMU = createMU(parsedID, x, y, speed, time);
+                newMU = createMU(parsedMU, x, y, speed, time);
 
                 if (usesTraceOfRequests()) {
                     int newAddedReqs = updtLoadWorkloadRequests(newMU, _dmdTrcReqsLoadedPerUser);
 
                     getSimulation().getStatsHandle().updtSCCmpt6(newAddedReqs,
-                            new UnonymousCompute6(
-                                    new UnonymousCompute6.WellKnownTitle("newAddedReqs[firstTime]"))
+                            UnonymousCompute6.WellKnownTitle.NEW_ADDED_REQS_FIRST_TIME
                     );
                 }
             } else {
                 //if a known mobile ID, state its dx, dy so as to move the mobile user
 
-                newMU = musByID.get(parsedID);
                 newMU.setSpeed(speed);
 
                 int dt = time - newMU.getTraceTime();
@@ -277,7 +272,8 @@ public final class TraceKolnSimulation extends SimulationBaseRunner<TraceMU> {
     }
 
     private TraceMU createMU(
-            String muID, int x, int y, double speed, int traceTime) {
+            int trcIdx, int x, int y, double speed, int traceTime) {
+        String muID = muTrace.id(trcIdx);
 
         TraceMUBuilder nxtMUBuilder = new TraceMUBuilder(
                 this, mobileGroup, new Point(x, y),
@@ -297,6 +293,10 @@ public final class TraceKolnSimulation extends SimulationBaseRunner<TraceMU> {
         String id = mu.getID();
 
         musByID.put(id, mu);
+        while (musByTrcIdx.size() <= trcIdx) {
+            musByTrcIdx.add(null);
+        }
+        musByTrcIdx.set(trcIdx, mu);
 
         mu.setDX(0);//dx is zero when created
         mu.setDY(0);//dy is zero when created
@@ -312,81 +312,78 @@ public final class TraceKolnSimulation extends SimulationBaseRunner<TraceMU> {
 
         try {
 
-            //<editor-fold defaultstate="collapsed" desc="init simulation clock time">
-
-            /*
-             * To be called to read first line of data from the trace in order to
-             * initilize the simulation clock time.
-             */
-            String[] csv = mobTrcLine.split(mobTrcCSVSep);
+            if (!isResumed()) { // a resumed simulation continues from the round after its checkpoint
+                //<editor-fold defaultstate="collapsed" desc="init simulation clock time">
 
+                /*
+                 * To be called to read first line of data from the trace in order to
+                 * initilize the simulation clock time.
+                 */
 //[0]: time
-            int time = Integer.parseInt(csv[0]);
-            clock.tick(time);
+                int time = muTrace.time();
+                clock.tick(time);
 
 //[1] mu id
-            String parsedID = csv[1];
+                int parsedMU = muTrace.mu();
 
 //[2] x
-            int x = (int) Double.parseDouble(csv[2]) - minX; // -minX so as to be relative to area dimensions
+                int x = (int) muTrace.value(0) - minX; // -minX so as to be relative to area dimensions
 
 //[3] y
-            int y = (int) Double.parseDouble(csv[3]) - minY; // -minY so as to be relative to area dimensions
+                int y = (int) muTrace.value(1) - minY; // -minY so as to be relative to area dimensions
 
 //[4] speed
-            double speed = Math.ceil(Double.parseDouble(csv[4]));
+                double speed = Math.ceil(muTrace.value(2));
 
-            TraceMU newMU = createMU(parsedID, x, y, speed, time);
+                TraceMU newMU = createMU(parsedMU, x, y, speed, time);
 
-            if (usesTraceOfRequests()) {
-                int newAddedReqs = updtLoadWorkloadRequests(newMU, _dmdTrcReqsLoadedPerUser);
+                if (usesTraceOfRequests()) {
+                    int newAddedReqs = updtLoadWorkloadRequests(newMU, _dmdTrcReqsLoadedPerUser);
 
-                getSimulation().getStatsHandle().updtSCCmpt6(newAddedReqs,
-                        new UnonymousCompute6(
-                                new UnonymousCompute6.WellKnownTitle("newAddedReqs[firstTime]"))
-                );
-            }
+                    getSimulation().getStatsHandle().updtSCCmpt6(newAddedReqs,
+                            UnonymousCompute6.WellKnownTitle.NEW_ADDED_REQS_FIRST_TIME
+                    );
+                }
 //</editor-fold>
 
-            if (!muTraceScan.hasNextLine()) {
-                muTraceScan.close();
-                String trcEndStr = "The mobility trace has ended too early:"
-                        + "\""
-                        + muTracePath
-                        + "\"";
-                throw new TraceEndedException(trcEndStr);
-            }
+                if (!muTrace.next()) {
+                    muTrace.close();
+                    String trcEndStr = "The mobility trace has ended too early:"
+                            + "\""
+                            + muTracePath
+                            + "\"";
+                    throw new TraceEndedException(trcEndStr);
+                }
 
-            //<editor-fold defaultstate="collapsed" desc="init stationaries' demand">
-            try {
-                if (stationaryRequestsUsed()) {
-                    for (SmallCell nxtSC : getCellRegistry().getSmallCells()) {
-                        nxtSC.initLclDmdStationary();
-                        nxtSC.updtLclDmdByStationary(true);
+                //<editor-fold defaultstate="collapsed" desc="init stationaries' demand">
+                try {
+                    if (stationaryRequestsUsed()) {
+                        for (SmallCell nxtSC : getCellRegistry().getSmallCells()) {
+                            nxtSC.initLclDmdStationary();
+                            nxtSC.updtLclDmdByStationary(true);
+                        }
                     }
+                } catch (InvalidOrUnsupportedException |
+                        InconsistencyException ex) {
+                    throw new CriticalFailureException(ex);
                 }
-            } catch (InvalidOrUnsupportedException |
-                    InconsistencyException ex) {
-                throw new CriticalFailureException(ex);
-            }
 //</editor-fold>
 
-            // usefull for stationary ammount of data concumption 
-            int trackClockTime = simTime();
+                // usefull for stationary ammount of data concumption 
+                trackClockTime = simTime();
 
-            /* 
-             * Load next line and extract the simulation time, 
-             * which will be used as a threshold for loading the next batch 
-             * of trace lines.
-             */
-            mobTrcLine = muTraceScan.nextLine();
-            csv = mobTrcLine.split(mobTrcCSVSep);
-            timeForNextBatch = Integer.parseInt(csv[0]) + roundDuration;
+                /* 
+                 * Load next line and extract the simulation time, 
+                 * which will be used as a threshold for loading the next batch 
+                 * of trace lines.
+                 */
+                timeForNextBatch = muTrace.time() + roundDuration;
 
-            simRound = 0; // used for logging. See also var roundDuration.
-            linesReadFromMob = 0;
+                simRound = 0; // used for logging. See also var roundDuration.
+                linesReadFromMob = 0;
 
-            boolean mobTraceFinished = false;
+                mobTraceFinished = false;
+            }
 
             WHILE_THREAD_NOT_INTERUPTED:
             while (!Thread.currentThread().isInterrupted()) {
@@ -419,19 +416,27 @@ public final class TraceKolnSimulation extends SimulationBaseRunner<TraceMU> {
                 _haveExitedPrevCell.clear();
                 _haveHandedOver.clear();
                 getStatsHandle().resetHandoverscount();
-                for (TraceMU nxtMU : batchOfMUsOfCurrRound) {
-                    if (nxtMU.getSpeed() > 0.0) {
-                        nxtMU.moveRelatively(); // otherwise avoid expensive call to moveRelatively() if possible
+                moveAndConsume(batchOfMUsOfCurrRound,
+                        new RoundExecutor.Step<TraceMU>() {
+                    @Override
+                    public void apply(TraceMU nxtMU) throws Throwable {
+                        if (nxtMU.getSpeed() > 0.0) {
+                            nxtMU.moveRelatively(); // otherwise avoid expensive call to moveRelatively() if possible
+                        }
                     }
-                    if (nxtMU.isSoftUser()) {
-                        nxtMU.consumeTryAllAtOnceFromSC();
-                    } else {
-                        nxtMU.consumeDataTry(
-                                // consume based on time span since last move for user
-                                nxtMU.getdTraceTime()
-                        );
+                }, new RoundExecutor.Step<TraceMU>() {
+                    @Override
+                    public void apply(TraceMU nxtMU) throws Throwable {
+                        if (nxtMU.isSoftUser()) {
+                            nxtMU.consumeTryAllAtOnceFromSC();
+                        } else {
+                            nxtMU.consumeDataTry(
+                                    // consume based on time span since last move for user
+                                    nxtMU.getdTraceTime()
+                            );
+                        }
                     }
-                }// for all all MUs
+                });// for all all MUs
 
                 getStatsHandle().statHandoversCount();
 /////////////////////////////////////
@@ -476,12 +481,10 @@ public final class TraceKolnSimulation extends SimulationBaseRunner<TraceMU> {
                     nxtMU.cacheDescisionsPerformRegisterPC(nxtMU.getLastKnownConnectedSC());
                 }
                 getStatsHandle().updtSCCmpt6(clearedReqs,
-                        new UnonymousCompute6(
-                                new UnonymousCompute6.WellKnownTitle("ClearedReqs"))
+                        UnonymousCompute6.WellKnownTitle.CLEARED_REQS
                 );
                 getStatsHandle().updtSCCmpt6(newAddedReqs,
-                        new UnonymousCompute6(
-                                new UnonymousCompute6.WellKnownTitle("NewReqs"))
+                        UnonymousCompute6.WellKnownTitle.NEW_REQS
                 );
 
                 ////////////////////////////////////////////////////
@@ -497,6 +500,7 @@ public final class TraceKolnSimulation extends SimulationBaseRunner<TraceMU> {
 
                 getStatsHandle().appendTransient(false);
                 getStatsHandle().checkFlushTransient(false);
+                checkpointIfDue();
 
             }// while simulation continues// while simulation continues// while simulation continues// while simulation continues// while simulation continues// while simulation continues// while simulation continues// while simulation continues// while simulation continues// while simulation continues// while simulation continues// while simulation continues// while simulation continues// while simulation continues// while simulation continues// while simulation continues// while simulation continues// while simulation continues// while simulation continues// while simulation continues// while simulation continues// while simulation continues// while simulation continues// while simulation continues// while simulation continues// while simulation continues// while simulation continues// while simulation continues// while simulation continues// while simulation continues// while simulation continues// while simulation continues
 
@@ -541,10 +545,17 @@ public final class TraceKolnSimulation extends SimulationBaseRunner<TraceMU> {
         }
     }
 
-    private void mobTraceEarlyEndingCheck() throws TraceEndedException {
-        if (!muTraceScan.hasNextLine()) {
-            muTraceScan.close();
-            throw new TraceEndedException("The mobility trace has ended too early.");
+    private void writeObject(ObjectOutputStream out) throws IOException {
+        mobTrcRecsRead = muTrace.position();
+        out.defaultWriteObject();
+    }
+
+    @Override
+    protected void reopenTraces() throws IOException {
+        muTrace = new MobilityTraceReader(new File(muTracePath), 3, true);
+        if (muTrace.skip(mobTrcRecsRead) != mobTrcRecsRead) {
+            throw new IOException("The mobility trace has fewer records than read up to the checkpoint: \""
+                    + muTracePath + "\"");
         }
     }
 
@@ -552,7 +563,7 @@ public final class TraceKolnSimulation extends SimulationBaseRunner<TraceMU> {
     public void runFinish() {
         super.runFinish();
         _trcLoader.close();
-        muTraceScan.close();
+        muTrace.close();
     }
 
 }
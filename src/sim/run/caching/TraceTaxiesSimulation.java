@@ -1,5 +1,6 @@
 package sim.run.caching;
 
+import sim.run.RoundExecutor;
 import sim.run.SimulationBaseRunner;
 import sim.Scenario;
 import app.properties.Space;
@@ -12,14 +13,15 @@ import exceptions.ScenarioSetupException;
 import exceptions.TraceEndedException;
 import exceptions.WrongOrImproperArgumentException;
 import java.io.BufferedReader;
+import java.io.File;
 import java.io.FileReader;
 import java.io.IOException;
+import java.io.ObjectOutputStream;
 import java.util.ArrayList;
 import java.util.Collection;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
-import java.util.Scanner;
 import java.util.SortedMap;
 import java.util.SortedSet;
 import java.util.TreeSet;
@@ -37,6 +39,7 @@ import sim.space.users.mobile.TraceMU;
 import sim.space.users.mobile.TraceMUBuilder;
 import statistics.StatisticException;
 import statistics.handlers.iterative.sc.cmpt6.UnonymousCompute6;
+import traces.mobtrace.MobilityTraceReader;
 
 /**
  *
@@ -44,9 +47,14 @@ import statistics.handlers.iterative.sc.cmpt6.UnonymousCompute6;
  */
 public final class TraceTaxiesSimulation extends SimulationBaseRunner<TraceMU> {
 
-    private Scanner muTraceIn;
-    private String mobTrcLine;
-    private String mobTrcCSVSep = " ";// default set to " "
+    private static final long serialVersionUID = 1L;
+
+    private transient MobilityTraceReader muTraceIn;
+    /**
+     * The records read from the mobility trace up to the last checkpoint,
+     * which a resumed simulation skips.
+     */
+    private long mobTrcRecsRead;
 
     private Map<String, TraceMU> muByID;
     /**
@@ -66,17 +74,12 @@ public final class TraceTaxiesSimulation extends SimulationBaseRunner<TraceMU> {
     protected void constructorInit(Scenario scenario) {
         String mutracePath = scenario.stringProperty(Space.MU__TRACE, true);
         try {
-            muTraceIn = new Scanner(new FileReader(mutracePath));
-            mobTrcLine = muTraceIn.nextLine();// init line
-            while (mobTrcLine.startsWith("#")) {
-                if (mobTrcLine.toUpperCase().startsWith("#SEP=")) {
-                    mobTrcCSVSep = mobTrcLine.substring(5);
-                    LOG.log(Level.INFO, "Mobility trace uses separator=\"{0}\"", mobTrcCSVSep);
-                }
-                mobTrcLine = muTraceIn.nextLine();// init line
+            muTraceIn = new MobilityTraceReader(new File(mutracePath), 2, true);
+            if (!muTraceIn.next()) {// init line
+                throw new TraceEndedException("The mobility trace is empty: \"" + mutracePath + "\"");
             }
-        } catch (IOException ioe) {
-            throw new CriticalFailureException(ioe);
+        } catch (IOException | TraceEndedException ex) {
+            throw new CriticalFailureException(ex);
         }
     }
 
@@ -87,29 +90,19 @@ public final class TraceTaxiesSimulation extends SimulationBaseRunner<TraceMU> {
 
         String trcEndStr = "The mobility trace has ended.";
 
-        while (mobTrcLine != null) {
-            String[] csv = mobTrcLine.split(mobTrcCSVSep);
-            if (csv[0].startsWith("#")) {
-                if (!muTraceIn.hasNextLine()) {
-                    muTraceIn.close();
-                    throw new TraceEndedException(trcEndStr);
-                }
-                mobTrcLine = muTraceIn.nextLine();
-                continue;
-            }
-
-            int time = Integer.parseInt(csv[0]);
-            String parsedMUID = csv[1];
-            double dxdt = Math.ceil(Double.parseDouble(csv[2]));
-            double dydt = Math.ceil(Double.parseDouble(csv[3]));
+        boolean hasRecord = true; // the current record of the reader
+        while (hasRecord) {
+            String parsedMUID = muTraceIn.id();
+            double dxdt = Math.ceil(muTraceIn.value(0));
+            double dydt = Math.ceil(muTraceIn.value(1));
 
             switched2moving = updateTraceMUNxtMU(parsedMUID, dxdt, dydt, switched2moving);
 
-            if (!muTraceIn.hasNextLine()) {
+            hasRecord = muTraceIn.next();
+            if (!hasRecord) {
                 muTraceIn.close();
                 throw new TraceEndedException(trcEndStr);
             }
-            mobTrcLine = muTraceIn.nextLine();
         }
 
         if (getStatsHandle() != null) {
@@ -312,9 +305,9 @@ public final class TraceTaxiesSimulation extends SimulationBaseRunner<TraceMU> {
                 }
 
                 if (lineCSV.toUpperCase().startsWith("#SEP=")) {
-                    sep = mobTrcLine.substring(5);
+                    sep = lineCSV.substring(5);
                     LOG.log(Level.INFO, "Metadata file for the mobility trace \"{0}\" uses separator=\"{1}\"",
-                            new Object[]{metaDataPath, mobTrcCSVSep});
+                            new Object[]{metaDataPath, sep});
                 }
 
                 if (lineCSV.startsWith("#")) {
@@ -389,36 +382,18 @@ public final class TraceTaxiesSimulation extends SimulationBaseRunner<TraceMU> {
             throws CriticalFailureException, InconsistencyException, NumberFormatException {
 
         String mutracePath = scenario.stringProperty(Space.MU__TRACE, true);
-        String lineCSV;
-        String sep = " ";
 
-        int musNum = 0;
         SortedSet<String> ids = new TreeSet<>();
-        try (BufferedReader bin = new BufferedReader(new FileReader(mutracePath))) {
-
-            while ((lineCSV = bin.readLine()) != null) {
-
-                if (lineCSV.toUpperCase().startsWith("#SEP=")) {
-                    sep = mobTrcLine.substring(5);
-                    LOG.log(Level.INFO, "Mobility trace \"{0}\" uses separator=\"{1}\"",
-                            new Object[]{mutracePath, mobTrcCSVSep});
-                }
-
-                if (lineCSV.startsWith("#")) {
-                    continue;
-                }
-
-                String[] csv = lineCSV.split(sep);
-                String nxtMuID = csv[1];
-
-                if (ids.add(nxtMuID)) {
-                    musNum++;
-                }
+        try (MobilityTraceReader bin = new MobilityTraceReader(new File(mutracePath), 0, true)) {
+            while (bin.next()) {
+                // only the distinct IDs are needed, which the reader interns
             }
+            ids.addAll(bin.ids());
         } catch (IOException ex) {
 //            LOG.log(Level.SEVERE, null, ex);
             throw new CriticalFailureException(ex);
         }
+        int musNum = ids.size();
 
         LOG.log(Level.INFO,
                 "Initializing MUs on the area:\n\t{0}/{1}", new Object[]{0, musNum});
@@ -531,24 +506,24 @@ public final class TraceTaxiesSimulation extends SimulationBaseRunner<TraceMU> {
                 _haveHandedOver.clear();
                 getStatsHandle().resetHandoverscount();
 
-                for (TraceMU nxtMU : shuffldMUs) {
-                    if (muImmobileByID.containsKey(nxtMU.getID())) {
+                moveAndConsume(shuffldMUs, new RoundExecutor.Step<TraceMU>() {
+                    @Override
+                    public void apply(TraceMU nxtMU) throws Throwable {
                         // avoid expensive call to moveRelatively() if possible
+                        if (!muImmobileByID.containsKey(nxtMU.getID())) {
+                            nxtMU.moveRelatively(false, false);
+                        }
+                    }
+                }, new RoundExecutor.Step<TraceMU>() {
+                    @Override
+                    public void apply(TraceMU nxtMU) throws Throwable {
                         if (nxtMU.isSoftUser()) {
                             nxtMU.consumeTryAllAtOnceFromSC();
                         } else {
                             nxtMU.consumeDataTry(1);// consume in one simulation time step
                         }
-                        continue;
-                    }
-                    nxtMU.moveRelatively(false, false);
-                    if (nxtMU.isSoftUser()) {
-                        nxtMU.consumeTryAllAtOnceFromSC();
-                    } else {
-                        nxtMU.consumeDataTry(1);// consume in one simulation time step
                     }
-
-                }// for all all MUs
+                });// for all all MUs
 
                 getStatsHandle().statHandoversCount();
 /////////////////////////////////////
@@ -593,12 +568,10 @@ public final class TraceTaxiesSimulation extends SimulationBaseRunner<TraceMU> {
                     nxtMU.cacheDescisionsPerformRegisterPC(nxtMU.getLastKnownConnectedSC());
                 }
                 getStatsHandle().updtSCCmpt6(clearedReqs,
-                        new UnonymousCompute6(
-                                new UnonymousCompute6.WellKnownTitle("ClearedReqs"))
+                        UnonymousCompute6.WellKnownTitle.CLEARED_REQS
                 );
                 getStatsHandle().updtSCCmpt6(newAddedReqs,
-                        new UnonymousCompute6(
-                                new UnonymousCompute6.WellKnownTitle("NewReqs"))
+                        UnonymousCompute6.WellKnownTitle.NEW_REQS
                 );
 
                 ////////////////////////////////////////////////////
@@ -606,6 +579,7 @@ public final class TraceTaxiesSimulation extends SimulationBaseRunner<TraceMU> {
                 if (roundCommited) {
                     getStatsHandle().appendTransient(false);
                     getStatsHandle().checkFlushTransient(false);
+                    checkpointIfDue();
                 }
             }// while simulation continues// while simulation continues// while simulation continues// while simulation continues// while simulation continues// while simulation continues// while simulation continues// while simulation continues// while simulation continues// while simulation continues// while simulation continues// while simulation continues// while simulation continues// while simulation continues// while simulation continues// while simulation continues
 
@@ -628,6 +602,21 @@ public final class TraceTaxiesSimulation extends SimulationBaseRunner<TraceMU> {
         }
     }
 
+    private void writeObject(ObjectOutputStream out) throws IOException {
+        mobTrcRecsRead = muTraceIn.position();
+        out.defaultWriteObject();
+    }
+
+    @Override
+    protected void reopenTraces() throws IOException {
+        String mutracePath = scenarioSetup.stringProperty(Space.MU__TRACE, true);
+        muTraceIn = new MobilityTraceReader(new File(mutracePath), 2, true);
+        if (muTraceIn.skip(mobTrcRecsRead) != mobTrcRecsRead) {
+            throw new IOException("The mobility trace has fewer records than read up to the checkpoint: \""
+                    + mutracePath + "\"");
+        }
+    }
+
     @Override
     public void runFinish() {
         super.runFinish();
@@ -9,6 +9,7 @@ import app.properties.StatsProperty;
 import app.properties.valid.Values;
 import caching.base.AbstractCachingModel;
 import exceptions.InvalidOrUnsupportedException;
+import java.io.Serializable;
 import java.lang.reflect.InvocationTargetException;
 import java.util.ArrayList;
 import java.util.Collection;
@@ -22,6 +23,8 @@ import java.util.logging.Logger;
 import sim.space.cell.smallcell.SmallCell;
 import statistics.StatisticException;
 import statistics.handlers.AbstractPerformanceStat;
+import statistics.handlers.BaseHandler;
+import statistics.handlers.ICompute;
 import statistics.handlers.ICompute0;
 import statistics.handlers.ICompute3;
 import statistics.handlers.ICompute4;
@@ -34,7 +37,9 @@ import utilities.CommonFunctions;
 /**
  * Internal organisation class. Groups sets of statistics handlers.
  */
-final class HandlersUsed {
+final class HandlersUsed implements Serializable {
+
+    private static final long serialVersionUID = 1L;
 
     /**
      * for updating statistics after iterating mobile users regardless if they
@@ -61,7 +66,10 @@ final class HandlersUsed {
     final Set<ICompute0> _handlers4Fixed_sc__cmpt0__no_model;
     List<SmallCell> _monitorSC; // the cell IDs to monitor specialy
     private final StatsHandling _statsHandlingOuter;
-    private final Logger _logger;
+    /**
+     * Used only while loading the handlers.
+     */
+    private transient Logger _logger;
 
     HandlersUsed(final StatsHandling outer) throws IllegalAccessException, ClassNotFoundException, RuntimeException, InstantiationException, InvalidOrUnsupportedException, NoSuchMethodException, IllegalArgumentException, InvocationTargetException, StatisticException {
         _statsHandlingOuter = outer;
@@ -113,7 +121,7 @@ final class HandlersUsed {
                     }
                     IComputePercent hndlr = (IComputePercent) newInstance;
                     initHdlSet.add(hndlr);
-                    _statsHandlingOuter._simStatististics.addTitle(hndlr.title());
+                    addTitle(hndlr);
                     _logger.log(Level.FINE, "Loaded new stats handler: {0}", newInstance.getClass().getCanonicalName());
             } //which
         } //for
@@ -142,9 +150,10 @@ final class HandlersUsed {
                         }
                         AbstractPerformanceStat hndlr = (AbstractPerformanceStat) iCompute2Object;
                         initHdlSet.add(hndlr);
-                        _statsHandlingOuter._simStatististics.addTitle(hndlr.title("MU"));
-                        _statsHandlingOuter._simStatististics.addTitle(hndlr.title("SU"));
-                        _statsHandlingOuter._simStatististics.addTitle(hndlr.title());
+                        hndlr.setTitleIDs(
+                                _statsHandlingOuter._simStatististics.addTitle(hndlr.title("MU")),
+                                _statsHandlingOuter._simStatististics.addTitle(hndlr.title("SU")));
+                        addTitle(hndlr);
                         _logger.log(Level.FINE, "Loaded new stats handler: {0}({1})", new String[]{iCompute2Object.getClass().getCanonicalName(), nxtCachingPolicy.toString()});
                     }
             } //which
@@ -189,7 +198,7 @@ final class HandlersUsed {
                     }
                     ICompute3 hndlr = (ICompute3) newInstance;
                     initHdlSet.add(hndlr);
-                    _statsHandlingOuter._simStatististics.addTitle(hndlr.title());
+                    addTitle(hndlr);
                     _logger.log(Level.FINE, "Loaded new stats handler: {0}({1})", new String[]{newInstance.getClass().getCanonicalName(), hndlr.title()});
             } //which
         } //for
@@ -214,7 +223,7 @@ final class HandlersUsed {
                             }
                             ICompute0 hndlr = (ICompute0) newInstance;
                             initHdlSet.add(hndlr);
-                            _statsHandlingOuter._simStatististics.addTitle(hndlr.title());
+                            addTitle(hndlr);
                             _logger.log(Level.FINE, "Loaded new stats handler: {0}(monitorSC={1})", new String[]{newInstance.getClass().getCanonicalName(), String.valueOf(nxtMonitorSC)});
                         }
                     }
@@ -240,7 +249,7 @@ final class HandlersUsed {
                         }
                         ICompute0 hndlr = (ICompute0) newInstance;
                         initHdlSet.add(hndlr);
-                        _statsHandlingOuter._simStatististics.addTitle(hndlr.title());
+                        addTitle(hndlr);
                         _logger.log(Level.FINE, "Loaded new stats handler: {0}(monitorSC={1})", new String[]{newInstance.getClass().getCanonicalName(), String.valueOf(nxtMonitorSC)});
                     }
             } //which
@@ -265,7 +274,7 @@ final class HandlersUsed {
                     }
                     ICompute4 hndlr = (ICompute4) newInstance;
                     initHdlSet.add(hndlr);
-                    _statsHandlingOuter._simStatististics.addTitle(hndlr.title());
+                    addTitle(hndlr);
                     _logger.log(Level.FINE, "Loaded new stats handler: {0}", newInstance.getClass().getCanonicalName());
             } //which
         } //for
@@ -289,7 +298,7 @@ final class HandlersUsed {
                         }
                         ComputeAllPoliciesImpl hndlr = (ComputeAllPoliciesImpl) newInstance;
                         initHdlSet.add(hndlr);
-                        _statsHandlingOuter._simStatististics.addTitle(hndlr.title());
+                        addTitle(hndlr);
                         _logger.log(Level.FINE, "Loaded new stats handler: {0}", newInstance.getClass().getCanonicalName());
                     }
             } //which
@@ -310,7 +319,7 @@ final class HandlersUsed {
                     for (AbstractCachingModel nxtCachePolicy : _statsHandlingOuter.theSim.getCachingStrategies()) {
                         UnonymousCompute5 hndlr = new UnonymousCompute5(nxtCachePolicy, nxtHandlerTitl);
                         initHdlSet.add(hndlr);
-                        _statsHandlingOuter._simStatististics.addTitle(hndlr.title());
+                        addTitle(hndlr);
                         _logger.log(Level.FINE, "Loaded new stats handler: {0}", hndlr.title());
                     }
             } //which
@@ -330,13 +339,22 @@ final class HandlersUsed {
                 default:
                     UnonymousCompute6 hndlr6 = new UnonymousCompute6(nxtHandlerTitl);
                     initHdlSet.add(hndlr6);
-                    _statsHandlingOuter._simStatististics.addTitle(hndlr6.title());
+                    addTitle(hndlr6);
                     _logger.log(Level.INFO, "Loaded new stats handler: {0}", hndlr6.title());
             } //which
         } //for
         return initHdlSet;
     }
 
+    /**
+     * Adds the title of the handler to the statistics of the simulation and
+     * keeps the id of the title in the handler.
+     */
+    private void addTitle(ICompute hndlr) {
+        ((BaseHandler) hndlr).setTitleID(
+                _statsHandlingOuter._simStatististics.addTitle(hndlr.title()));
+    }
+
     List<SmallCell> monitorSCs(StatsHandling sh) {
         List<Integer> cellIDs = sh.theSim.getScenario().listOfIntegersProperty(
                 StatsProperty.HANDLERS__FIXED_SC__MONITOR_SCS);
@@ -348,5 +366,4 @@ final class HandlersUsed {
 
         return cells;
     }
-
 }
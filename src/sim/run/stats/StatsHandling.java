@@ -13,10 +13,11 @@ import app.properties.StatsProperty;
 import exceptions.CriticalFailureException;
 import exceptions.InvalidOrUnsupportedException;
 import java.io.IOException;
+import java.io.ObjectInputStream;
 import java.lang.reflect.InvocationTargetException;
+import java.util.ArrayList;
 import java.util.Iterator;
-import java.util.LinkedList;
-import java.util.Queue;
+import java.util.List;
 import java.util.logging.Level;
 import java.util.logging.Logger;
 import sim.content.request.DocumentRequest;
@@ -26,12 +27,14 @@ import sim.space.users.CachingUser;
 import sim.space.users.mobile.MobileUser;
 import statistics.StatisticException;
 import statistics.Statistics;
+import statistics.handlers.ICompute;
 import statistics.handlers.ICompute0;
 import statistics.handlers.ICompute4;
 import statistics.handlers.iterative.sc.cmpt4.ComputeAllPoliciesImpl;
 import statistics.handlers.iterative.sc.cmpt5.UnonymousCompute5;
 import statistics.handlers.iterative.sc.cmpt6.UnonymousCompute6;
 import statistics.output.Printer;
+import statistics.output.ResultsWriter;
 import statistics.handlers.IComputePercent;
 import statistics.handlers.AbstractPerformanceStat;
 import statistics.handlers.iterative.sc.cmpt6.UnonymousCompute6.WellKnownTitle;
@@ -42,12 +45,14 @@ import utils.CommonFunctions;
  */
 public final class StatsHandling implements ISimulationMember {
 
-    private final Logger _logger;
+    private static final long serialVersionUID = 1L;
+
+    private transient Logger _logger;
 
     private final Printer _printer4Aggregates;
     private final Printer _printer4TransientAggregates;
     private final Printer _printer4Transient;
-    private final Queue<String> _resultsTransientQ;
+    private transient ResultsWriter _writer;
     private final boolean _printStddev;
     private final int _clockMaxTime;
     private final int theMinTime;
@@ -58,7 +63,6 @@ public final class StatsHandling implements ISimulationMember {
     private final int _printTransientFlushPeriod;
     private final int _aggregatesAvgPeriod;
     private int _statHandoversCount;
-    private boolean _isPrintingLocked = false;
     private final HandlersUsed _handlersUsed;
 
     protected final SimulationBaseRunner<?> theSim;
@@ -104,6 +108,7 @@ public final class StatsHandling implements ISimulationMember {
             confInterval = Statistics.ConfidenceInterval.find(_confIntervalZ);
             String currSimStatsDirPath = SimulatorApp.getResultFilesPath();
             this._simStatististics = new Statistics(sim);
+            this._writer = ResultsWriter.instance();
 
             //<editor-fold defaultstate="collapsed" desc="initialize printers for aggregated and transient results">
             if (_printAggregates) {
@@ -114,11 +119,9 @@ public final class StatsHandling implements ISimulationMember {
             if (_printTransient) {
                 this._printer4Transient = new Printer(sim, _scenarioSetup, currSimStatsDirPath, "trn", ".csv");
                 this._printer4TransientAggregates = new Printer(sim, _scenarioSetup, currSimStatsDirPath, "trnAgg", ".csv");
-                _resultsTransientQ = new LinkedList<>();
             } else {
                 this._printer4Transient = null;
                 this._printer4TransientAggregates = null;
-                this._resultsTransientQ = null;
             }
             //</editor-fold>
 
@@ -150,7 +153,7 @@ public final class StatsHandling implements ISimulationMember {
                 if (val == -1) {
                     continue;
                 }
-                _simStatististics.addValuesForTime(recordingTime, handler.title(), val);
+                _simStatististics.addValuesForTime(recordingTime, handler.titleID(), val);
             }
         } //</editor-fold>
         if (!_handlersUsed._handlers4Fixed_sc__cmpt0__no_model.isEmpty()) {
@@ -159,7 +162,7 @@ public final class StatsHandling implements ISimulationMember {
                 if (val == -1) {
                     continue;
                 }
-                _simStatististics.addValuesForTime(recordingTime, handler.title(), val);
+                _simStatististics.addValuesForTime(recordingTime, handler.titleID(), val);
             }
         } //</editor-fold>
     }
@@ -180,7 +183,7 @@ public final class StatsHandling implements ISimulationMember {
         while (stat_iter.hasNext()) {
             IComputePercent nxtHandler = stat_iter.next();
             _simStatististics.addValuesForTime(recordingTime,
-                    nxtHandler.title(),
+                    nxtHandler.titleID(),
                     nxtHandler.computePercent(theSim, mu, mu.getCurrentlyConnectedSC()
                     )
             );
@@ -225,12 +228,12 @@ public final class StatsHandling implements ISimulationMember {
 
                     // here for the refined category per user type
                     _simStatististics.addValuesForTime(recordingTime,
-                            nxtStat.title((cu instanceof MobileUser ? "MU" : "SU")),
+                            nxtStat.titleID(cu instanceof MobileUser),
                             value);
 
                     // here for the general category of all user types
                     _simStatististics.addValuesForTime(recordingTime,
-                            nxtStat.title(),
+                            nxtStat.titleID(),
                             value);
 
                 }
@@ -256,7 +259,7 @@ public final class StatsHandling implements ISimulationMember {
                     if (val == -1) {
                         continue;
                     }
-                    _simStatististics.addValuesForTime(recordingTime, handler.title(), val);
+                    _simStatististics.addValuesForTime(recordingTime, handler.titleID(), val);
                 }
             }
         } //</editor-fold>
@@ -281,7 +284,7 @@ public final class StatsHandling implements ISimulationMember {
                     if (val == -1) {
                         continue;
                     }
-                    _simStatististics.addValuesForTime(recordingTime, handler.title(), val);
+                    _simStatististics.addValuesForTime(recordingTime, handler.titleID(), val);
                 }
             }
         } //</editor-fold>
@@ -300,10 +303,20 @@ public final class StatsHandling implements ISimulationMember {
         }
         int recordingTime = statRecordingAvgPeriodTime();
         if (_handlersUsed._handlers4Iterative__sc__cmpt5.contains(stat)) {
-            _simStatististics.addValuesForTime(recordingTime, stat.title(), stat.compute5_6(d));
+            _simStatististics.addValuesForTime(recordingTime, titleID(stat), stat.compute5_6(d));
         }
     }
 
+    /**
+     * @param stat
+     * @return the id of the title of the handler, which is looked up only if
+     * the handler is not one of the handlers loaded.
+     */
+    private int titleID(ICompute stat) {
+        int id = stat.titleID();
+        return id >= 0 ? id : _simStatististics.titleID(stat.title());
+    }
+
     /**
      * Regards UnonymousCompute6 stats.
      *
@@ -316,7 +329,27 @@ public final class StatsHandling implements ISimulationMember {
         }
         int recordingTime = statRecordingAvgPeriodTime();
         try {
-            _simStatististics.addValuesForTime(recordingTime, stat.title(), stat.compute5_6(d));
+            _simStatististics.addValuesForTime(recordingTime, titleID(stat), stat.compute5_6(d));
+        } catch (StatisticException ex) {
+            _logger.log(Level.SEVERE, null, ex);
+        }
+    }
+
+    /**
+     * Regards UnonymousCompute6 stats with well known titles, for which no
+     * handler is needed.
+     *
+     * @param d
+     * @param title
+     */
+    public void updtSCCmpt6(double d, WellKnownTitle title) {
+        if (!isStatsMinTimeExceeded()) {
+            return;
+        }
+        int recordingTime = statRecordingAvgPeriodTime();
+        try {
+            _simStatististics.addValuesForTime(recordingTime,
+                    _simStatististics.titleID(title.getTtl()), d);
         } catch (StatisticException ex) {
             _logger.log(Level.SEVERE, null, ex);
         }
@@ -401,7 +434,8 @@ public final class StatsHandling implements ISimulationMember {
     }
 
     /**
-     * Spawns a thread that prints aggregated.
+     * Queues the aggregated results to be rendered and printed by the results
+     * writer, after which the output of aggregated results is closed.
      *
      * @throws StatisticException
      */
@@ -416,42 +450,32 @@ public final class StatsHandling implements ISimulationMember {
                     + "properties value.");
             return;
         }
-        Runnable runnable = new Runnable() {
+        final int maxTime = simTime();
+        final int minTime = (int) Math.max(theMinTime, 0.75 * maxTime);/*count ony the last 25% of results*/
+        _writer.execute(new Runnable() {
             @Override
             public void run() {
-                String aggregatedValues;
                 try {
-                    synchronized (_simStatististics) {
-                        while (_isPrintingLocked && !Thread.currentThread().isInterrupted()) {
-                            try {
-                                _simStatististics.wait();
-                            } catch (InterruptedException ex) {
-                                Thread.currentThread().interrupt();
-                            }
-                        }
-                        _isPrintingLocked = true;
-                        aggregatedValues = _simStatististics.resultsAggregated(_printMean,
-                                _printStddev,
-                                confInterval,
-                                (int) Math.max(theMinTime, 0.75 * simTime())/*count ony the last 25% of results*/,
-                                simTime(),
-                                true, false);
-                        _isPrintingLocked = false;
-                        _simStatististics.notifyAll();
-                    }
+                    _printer4Aggregates.print(_simStatististics.resultsAggregated(_printMean,
+                            _printStddev,
+                            confInterval,
+                            minTime,
+                            maxTime,
+                            true, false));
                 } catch (StatisticException | InvalidOrUnsupportedException ex) {
                     _logger.log(Level.SEVERE, null, ex);
                     throw new RuntimeException(ex);
+                } finally {
+                    _printer4Aggregates.close();
                 }
-                _printer4Aggregates.print(aggregatedValues);
-                _printer4Aggregates.close();
             }
-        };
-        new Thread(runnable).start();
+        });
     }
 
     /**
-     * Spawns a thread that prints results in incremental simTime sequence.
+     * Queues the results of the most recent simulation time to be printed by
+     * the results writer. Results are rendered upon invocation, as the
+     * statistics of the current recording period are still updated.
      *
      * @param flushClose close the stream after invocation.
      * @throws StatisticException
@@ -471,23 +495,7 @@ public final class StatsHandling implements ISimulationMember {
                             false, _printMean, _printStddev,
                             confInterval
                     );
-
-            //<editor-fold defaultstate="collapsed" desc="block if printing results">
-            synchronized (_simStatististics) {
-                while (_isPrintingLocked && !Thread.currentThread().isInterrupted()) {
-                    try {
-                        _simStatististics.wait();
-                    } catch (InterruptedException ex) {
-                        Thread.currentThread().interrupt();
-                    }
-                }
-
-                _isPrintingLocked = false;
-                _simStatististics.notifyAll();
-            }
-            //</editor-fold>
-
-            _resultsTransientQ.add(transientValues);
+            _writer.print(_printer4Transient, transientValues);
 
             String aggregatedValues;
             try {
@@ -503,11 +511,10 @@ public final class StatsHandling implements ISimulationMember {
 
             if (!flushClose) {
                 // so that it does not double print the results at the end of the transAggregated csv file.
-                _printer4TransientAggregates.print(aggregatedValues);
+                _writer.print(_printer4TransientAggregates, aggregatedValues);
             } else {
-                checkFlushTransient(true);
-                _printer4Transient.close();
-                _printer4TransientAggregates.close();
+                _writer.close(_printer4Transient);
+                _writer.close(_printer4TransientAggregates);
             }
         } catch (StatisticException ex) {
             _logger.log(Level.SEVERE, null, ex);
@@ -516,34 +523,42 @@ public final class StatsHandling implements ISimulationMember {
 
     }
 
+    /**
+     * Flushes the transient results printed so far once per flush period, or
+     * if forced to.
+     *
+     * @param force
+     */
     public void checkFlushTransient(boolean force) {
+        if (!_printTransient) {
+            return;
+        }
         if (simTime() % _printTransientFlushPeriod == 0 || force) {
-            Runnable runPrint = new Runnable() {
-                @Override
-                public void run() {
-                    synchronized (_simStatististics) {
-                        while (_isPrintingLocked && !Thread.currentThread().isInterrupted()) {
-                            try {
-                                _simStatististics.wait();
-                            } catch (InterruptedException ex) {
-                                Thread.currentThread().interrupt();
-                            }
-                        }
-                        _isPrintingLocked = true;
-                        for (String nxtResults : _resultsTransientQ) {
-                            _printer4Transient.print(nxtResults);
-                        }
-                        _resultsTransientQ.clear();
-
-                        _isPrintingLocked = false;
-                        _simStatististics.notifyAll();
-                    }
+            _writer.flush(_printer4Transient);
+        }
+    }
 
-                }
-            };
+    /**
+     * Waits until the results printed so far by this simulation are written,
+     * including the closing of outputs by {@link #prntAggregates()} and
+     * {@link #appendTransient(boolean)}.
+     */
+    public void awaitPrinted() {
+        _writer.awaitWritten();
+    }
 
-            new Thread(runPrint).start();
+    /**
+     * @return the printers in use, always in the same order for the same
+     * scenario.
+     */
+    public List<Printer> printers() {
+        List<Printer> printers = new ArrayList<>(3);
+        for (Printer nxt : new Printer[]{_printer4Aggregates, _printer4Transient, _printer4TransientAggregates}) {
+            if (nxt != null) {
+                printers.add(nxt);
+            }
         }
+        return printers;
     }
 
     public void incHandoverscount() {
@@ -555,7 +570,7 @@ public final class StatsHandling implements ISimulationMember {
     }
 
     public void statHandoversCount() throws StatisticException {
-        updtSCCmpt6(_statHandoversCount, new UnonymousCompute6("n_Handovers"));
+        updtSCCmpt6(_statHandoversCount, WellKnownTitle.N_HANDOVERS);
     }
 
     @Override
@@ -583,4 +598,10 @@ public final class StatsHandling implements ISimulationMember {
         return theSim.simCellRegistry();
     }
 
+    private void readObject(ObjectInputStream in) throws IOException, ClassNotFoundException {
+        in.defaultReadObject();
+        _logger = CommonFunctions.getLoggerFor(StatsHandling.class);
+        _writer = ResultsWriter.instance();
+    }
+
 }
@@ -1,11 +1,18 @@
 package sim.space;
 
+import app.properties.Space;
+import app.properties.valid.Values;
 import app.properties.valid.Values.StartPosition;
 import exceptions.InconsistencyException;
+import java.io.IOException;
+import java.io.ObjectInputStream;
+import java.io.Serializable;
+import java.util.ArrayList;
 import java.util.Collection;
 import java.util.Collections;
 import java.util.HashSet;
 import java.util.Iterator;
+import java.util.List;
 import java.util.Objects;
 import java.util.Set;
 import java.util.logging.Level;
@@ -14,9 +21,10 @@ import sim.ISimulationMember;
 import utils.ISynopsisString;
 import sim.space.cell.AbstractCell;
 import sim.space.cell.CellRegistry;
+import sim.space.cell.MacroCell;
 import sim.space.cell.smallcell.SmallCell;
 import sim.space.users.mobile.MobileUser;
-import sim.space.util.DistanceComparator;
+import sim.space.util.CellTasks;
 import utils.CommonFunctions;
 import utilities.Couple;
 
@@ -29,20 +37,27 @@ import utilities.Couple;
  */
 public class Area implements ISimulationMember, ISynopsisString {
 
+    private static final long serialVersionUID = 1L;
+
     public static final Object NONE = new Object();
 
-    private final Logger _logger;
+    private transient Logger _logger;
     /**
      * An array used to include the points that compose the area. The
      * coordinates start from upper left corner (0,0) and end up to lower right
      * corner of the are (maxX-1, MaxY-1).
      */
     private final Point[][] pointArray;
-    private final int lengthY;
-    private final int lengthX;
+    protected final int lengthY;
+    protected final int lengthX;
     private HashSet<AbstractCell> _scs;
     private HashSet<MobileUser> _mus;
     private final sim.run.SimulationBaseRunner simulation;
+    /**
+     * Small cells whose coverage is deferred, or null if the coverage of each
+     * small cell is computed upon adding it.
+     */
+    private transient List<SmallCell> _deferredCoverage;
 
     /**
      * The real area dimensions that is simulated.
@@ -50,19 +65,46 @@ public class Area implements ISimulationMember, ISynopsisString {
     private RealArea REAL_AREA;
 
     /**
-     * Simply creates an area of points, which is empty of cells and mobile
-     * users.
+     * Creates the area according to the area index type of the scenario, i.e.
+     * either a dense area of points or a {@link SparseArea}.
      *
-     * sim lengthY lengthX
+     * @param sim
+     * @param lengthY
+     * @param lengthX
+     * @return the area created
      */
-    public Area(sim.run.SimulationBaseRunner sim, int lengthY, int lengthX) {
+    public static Area create(sim.run.SimulationBaseRunner sim, int lengthY, int lengthX) {
+        String index = sim.getScenario().stringProperty(Space.AREA__INDEX, false);
+        if (Values.SPARSE.equalsIgnoreCase(index)) {
+            return new SparseArea(sim, lengthY, lengthX);
+        }
+        return new Area(sim, lengthY, lengthX);
+    }
+
+    /**
+     * Used by subclasses that keep the points of the area in a different
+     * structure than the dense array of points.
+     */
+    protected Area(sim.run.SimulationBaseRunner sim, int lengthY, int lengthX, boolean densePoints) {
         simulation = sim;
         _logger = CommonFunctions.getLoggerFor(this);
 
-        // point objects in array //  
         this.lengthY = lengthY;
         this.lengthX = lengthX;
-        pointArray = new Point[lengthY][lengthX];
+        pointArray = densePoints ? new Point[lengthY][lengthX] : null;
+
+        _scs = new HashSet<>();
+        _mus = new HashSet<>();
+    }
+
+    /**
+     * Simply creates an area of points, which is empty of cells and mobile
+     * users.
+     *
+     * sim lengthY lengthX
+     */
+    public Area(sim.run.SimulationBaseRunner sim, int lengthY, int lengthX) {
+        this(sim, lengthY, lengthX, true);
 
         int count = 0;
         int total = lengthX * lengthY;
@@ -74,7 +116,7 @@ public class Area implements ISimulationMember, ISynopsisString {
          * y getCoordinates are mapped  to  rows 
          * x getCoordinates are mapped  to  columns 
          */
-        for (int y = 0; y < pointArray.length; y++) {
+        for (int y = 0; y < lengthY; y++) {
             Point[] rowY = pointArray[y];
             for (int x = 0; x < rowY.length; x++) {
                 rowY[x] = new Point(x, y);
@@ -85,12 +127,6 @@ public class Area implements ISimulationMember, ISynopsisString {
             }
         }
 
-        // Cells //
-        _scs = new HashSet<>();
-
-        // Mobile Users //
-        _mus = new HashSet<>();
-
     }
 
     /**
@@ -117,59 +153,141 @@ public class Area implements ISimulationMember, ISynopsisString {
      * @return the point at coordinates (x,y)
      */
     public Point getPointAt(int x, int y) {
-        return getPointArray()[y][x];
+        return pointArray[y][x];
     }
 
     public Point getRandPoint() {
         int y = simulation.getRandomGenerator().randIntInRange(0, lengthY - 1);
         int x = simulation.getRandomGenerator().randIntInRange(0, lengthX - 1);
-        return getPointArray()[y][x];
+        return getPointAt(x, y);
     }
 
     public Point getRandPoint(int fromY, int toY, int fromX, int toX) {
         int y = simulation.getRandomGenerator().randIntInRange(fromY, toY - 1);
         int x = simulation.getRandomGenerator().randIntInRange(fromX, toX - 1);
-        return getPointArray()[y][x];
+        return getPointAt(x, y);
     }
 
     public void addSC(SmallCell sc) {
         _scs.add(sc);
     }
 
-    public final void updtCoverageByRadius(SmallCell sc) {
-        /* for each point geometrically in range, add the cell coverage to this point. 
-         */
-        Point cellCenter = sc.getCoordinates();
-        double cellRad = sc.getRadius();
+    /**
+     * Adds the coverage of the small cell to the points within its radius, or
+     * defers it if {@link #deferCoverage()} was called.
+     *
+     * @param sc
+     */
+    public void updtCoverageByRadius(SmallCell sc) {
+        if (_deferredCoverage != null) {
+            _deferredCoverage.add(sc);
+            return;
+        }
+        for (Point nxtPoint : pointsInRadius(sc)) {
+            nxtPoint.addCoverage(sc);
+            sc.addCoverage(nxtPoint);
+        }
+    }
 
-        /*
-         * To save computation simTime, find first the minimum x and y getCoordinates  in coverage based on the center and radius.
-         * Minimum x and y form a square out of which no point is covered surely. On the contrary,  most of the points in the square are
-         * covered, excluding the ones with euclidian distance from the center that is higher thatn the radius.
-         */
-        int min_y = Math.max(0, cellCenter.getY() - (int) cellRad);
-        int min_x = Math.max(0, cellCenter.getX() - (int) cellRad);
+    /**
+     * Defers the coverage of the small cells added hereafter until
+     * {@link #updtDeferredCoverage()}, so that the coverage of all the small
+     * cells created upon setup is computed at once.
+     *
+     * Areas that override {@link #updtCoverageByRadius(SmallCell)} may still
+     * compute the coverage of each small cell upon adding it.
+     */
+    public void deferCoverage() {
+        if (_deferredCoverage == null) {
+            _deferredCoverage = new ArrayList<>();
+        }
+    }
 
-        int max_y = Math.min(this.lengthY - 1, cellCenter.getY() + (int) cellRad);
-        int max_x = Math.min(this.lengthX - 1, cellCenter.getX() + (int) cellRad);
+    /**
+     * Computes the coverage deferred since {@link #deferCoverage()} and stops
+     * deferring.
+     *
+     * The points covered by each small cell are found and added to the
+     * coverage of the small cell in parallel per small cell; then each small
+     * cell is added to the points it covers in the order the small cells were
+     * added, thus the coverage is the same as if computed upon adding each
+     * small cell.
+     */
+    public void updtDeferredCoverage() {
+        List<SmallCell> scs = _deferredCoverage;
+        _deferredCoverage = null;
+        if (scs == null || scs.isEmpty()) {
+            return;
+        }
 
-        int y = min_y;//54
-        int x = min_x;//28
+        CellTasks.forEach(simulation.getScenario(), scs, new CellTasks.Task() {
+            @Override
+            public void apply(SmallCell sc) {
+                for (Point nxtPoint : pointsInRadius(sc)) {
+                    sc.addCoverage(nxtPoint);
+                }
+            }
+        });
+        for (SmallCell nxtSC : scs) {
+            for (Point nxtPoint : nxtSC.getCoverageArea()) {
+                nxtPoint.addCoverage(nxtSC);
+            }
+        }
+    }
 
-        while (y <= max_y) {
-            while (x <= max_x) {
-                Point candidate = pointArray[y][x];
-                double distance = DistanceComparator.euclidianDistance(candidate, cellCenter);
+    /**
+     * @param sc
+     * @return the points within the radius of the small cell, row by row.
+     */
+    private List<Point> pointsInRadius(SmallCell sc) {
+        Point cellCenter = sc.getCoordinates();
+        double cellRad = sc.getRadius();
+        int rad = (int) cellRad;
 
-                if (distance <= cellRad) {
-                    candidate.addCoverage(sc);
-                    sc.addCoverage(candidate);
-                }
-                x++;
+        int min_y = Math.max(0, cellCenter.getY() - rad);
+        int max_y = Math.min(this.lengthY - 1, cellCenter.getY() + rad);
+
+        List<Point> points = new ArrayList<>();
+        for (int y = min_y; y <= max_y; y++) {
+            int halfWidth = halfWidthInRadius(y - cellCenter.getY(), cellRad);
+            if (halfWidth < 0) {
+                continue;
             }
-            y++;
-            x = min_x;
+            int min_x = Math.max(0, cellCenter.getX() - halfWidth);
+            int max_x = Math.min(this.lengthX - 1, cellCenter.getX() + halfWidth);
+            for (int x = min_x; x <= max_x; x++) {
+                points.add(getPointAt(x, y));
+            }
+        }
+        return points;
+    }
+
+    /**
+     * The points of a row within the radius of a center form a single span
+     * around the center; finds its half width instead of checking the
+     * distance of each point of the row. The span is estimated once per row
+     * and then adjusted by comparing squared distances to the squared radius,
+     * so that it covers exactly the points within the radius.
+     *
+     * @param dy the vertical distance of the row from the center
+     * @param radius
+     * @return the half width of the span, or -1 if no point of the row is
+     * within the radius.
+     */
+    protected static int halfWidthInRadius(int dy, double radius) {
+        double radius2 = radius * radius;
+        long dy2 = (long) dy * dy;
+        if (dy2 > radius2) {
+            return -1;
+        }
+        int halfWidth = (int) Math.sqrt(radius2 - dy2);
+        while (dy2 + (long) (halfWidth + 1) * (halfWidth + 1) <= radius2) {
+            halfWidth++;
+        }
+        while (halfWidth >= 0 && dy2 + (long) halfWidth * halfWidth > radius2) {
+            halfWidth--;
         }
+        return halfWidth;
     }
 
     public final void addSCUpdateCoverageByRadius(Set<SmallCell> cells) {
@@ -186,6 +304,43 @@ public class Area implements ISimulationMember, ISynopsisString {
         }
     }
 
+    /**
+     * Adds all points of the area to the coverage of the macro cell.
+     *
+     * @param mc
+     */
+    public void addMacroCoverage(MacroCell mc) {
+        for (Point nxtPoint : getPoints()) {
+            mc.addCoverage(nxtPoint);
+        }
+        for (Point nxtPoint : mc.getCoverageArea()) {
+            nxtPoint.addCoverage(mc);
+        }
+    }
+
+    /**
+     * @param sc
+     * @return a randomly chosen point in the coverage of the small cell or
+     * null if the small cell covers no point.
+     */
+    public Point randomPointInCoverage(SmallCell sc) {
+        Set<Point> coverage = sc.getCoverageArea();
+        int size = coverage.size();
+        if (size == 0) {
+            return null;
+        }
+        int rnd = simulation.getRandomGenerator().randIntInRange(0, size - 1);
+        int i = 0;
+        for (Point nxt_point : coverage) {
+            if (i == rnd) {
+                return nxt_point;
+            }
+            i++;
+        }
+
+        throw new RuntimeException("Wrong random number generated: " + rnd); // if reached up to here and not returned..
+    }
+
     public Set<AbstractCell> cells() {
         return Collections.unmodifiableSet(_scs);
     }
@@ -203,6 +358,8 @@ public class Area implements ISimulationMember, ISynopsisString {
      * upper left corner of the area and ending at the lower right one) and x to
      * the column in the row y
      *
+     * Areas that do not keep a dense array of points return null.
+     *
      * @return
      */
     public Point[][] getPointArray() {
@@ -234,8 +391,8 @@ public class Area implements ISimulationMember, ISynopsisString {
         if (newY < 0) {
             if (loop) {
                 looped = true;
-                newY += pointArray.length;//  recall newY is negative due to mving direction
-                newY %= pointArray.length;//  recall newY is negative due to mving direction
+                newY += lengthY;//  recall newY is negative due to mving direction
+                newY %= lengthY;//  recall newY is negative due to mving direction
             } else {
                 return null;
             }
@@ -245,14 +402,14 @@ public class Area implements ISimulationMember, ISynopsisString {
         if (newX < 0) {
             if (loop) {
                 looped = true;
-                newX += pointArray[0].length; // first add to avoid out of bounds exception if using mod and then addition
-                newX %= pointArray[0].length;
+                newX += lengthX; // first add to avoid out of bounds exception if using mod and then addition
+                newX %= lengthX;
             } else {
                 return null;
             }
         }
 
-        return new Couple(pointArray[newY][newX], looped);
+        return new Couple(getPointAt(newX, newY), looped);
     }
 
     public Couple<Point, Boolean> northWest(boolean loop, Point pointOfReference) {
@@ -263,7 +420,7 @@ public class Area implements ISimulationMember, ISynopsisString {
             if (newY < 0) {
                 if (loop) {
                     looped = true;
-                    newY = pointArray[0].length + newY;// recall newY is negative
+                    newY = lengthX + newY;// recall newY is negative
                 } else {
                     return null;
                 }
@@ -274,14 +431,14 @@ public class Area implements ISimulationMember, ISynopsisString {
             if (newX < 0) {
                 if (loop) {
                     looped = true;
-                    newX = pointArray[0].length + newX;
+                    newX = lengthX + newX;
                 } else {
                     return null;
                 }
             }
         }
 
-        return new Couple(pointArray[newY][newX], looped);
+        return new Couple(getPointAt(newX, newY), looped);
     }
 
     public Couple<Point, Boolean> north(boolean loop, Point pointOfReference, double distance) {
@@ -297,14 +454,14 @@ public class Area implements ISimulationMember, ISynopsisString {
         if (newY < 0) {
             if (loop) {
                 looped = true;
-                newY += pointArray.length;// recall newY is negative due to mving direction
-                newY %= pointArray.length;// if movement caueses to exceed the area multiple times
+                newY += lengthY;// recall newY is negative due to mving direction
+                newY %= lengthY;// if movement caueses to exceed the area multiple times
             } else {
                 return null;
             }
         }
 
-        return new Couple(pointArray[newY][newX], looped);
+        return new Couple(getPointAt(newX, newY), looped);
     }
 
     public Couple<Point, Boolean> north(boolean loop, Point pointOfReference) {
@@ -313,12 +470,12 @@ public class Area implements ISimulationMember, ISynopsisString {
         if (newY < 0) {
             if (loop) {
                 looped = true;
-                newY += pointArray.length;// recall newY is negative due to mving direction when pointOfReference.getY()==0.
+                newY += lengthY;// recall newY is negative due to mving direction when pointOfReference.getY()==0.
             } else {
                 return null;
             }
         }
-        return new Couple(pointArray[newY][pointOfReference.getX()], looped);
+        return new Couple(getPointAt(pointOfReference.getX(), newY), looped);
     }
 
     public Couple<Point, Boolean> northEast(boolean loop, Point pointOfReference, double distance) {
@@ -333,24 +490,24 @@ public class Area implements ISimulationMember, ISynopsisString {
         if (newY < 0) {
             if (loop) {
                 looped = true;
-                newY += pointArray.length;// recall newY is negative
-                newY %= pointArray.length;// if movement caueses to exceed the area multiple times
+                newY += lengthY;// recall newY is negative
+                newY %= lengthY;// if movement caueses to exceed the area multiple times
             } else {
                 return null;
             }
         }
 
-        if (newX >= pointArray[0].length) {
+        if (newX >= lengthX) {
             if (loop) {
                 looped = true;
-                newX -= pointArray[0].length;
-                newY %= pointArray[0].length;// if movement caueses to exceed the area multiple times
+                newX -= lengthX;
+                newY %= lengthX;// if movement caueses to exceed the area multiple times
             } else {
                 return null;
             }
         }
 
-        return new Couple(pointArray[newY][newX], looped);
+        return new Couple(getPointAt(newX, newY), looped);
     }
 
     public Couple<Point, Boolean> northEast(boolean loop, Point pointOfReference) {
@@ -360,12 +517,12 @@ public class Area implements ISimulationMember, ISynopsisString {
         if (pointOfReference.getY() == 0) {
             if (loop) {
                 looped = true;
-                newY = pointArray.length - 1;
+                newY = lengthY - 1;
             } else {
                 return null;
             }
         }
-        if (newX == pointArray[0].length) {
+        if (newX == lengthX) {
             if (loop) {
                 looped = true;
                 newX = 0;
@@ -374,7 +531,7 @@ public class Area implements ISimulationMember, ISynopsisString {
             }
         }
 
-        return new Couple(pointArray[newY][newX], looped);
+        return new Couple(getPointAt(newX, newY), looped);
     }
 
     public Couple<Point, Boolean> west(boolean loop, Point pointOfReference, double distance) {
@@ -389,13 +546,13 @@ public class Area implements ISimulationMember, ISynopsisString {
         if (pointOfReference.getX() - distanceInt < 0) {
             if (loop) {
                 looped = true;
-                newX += pointArray[0].length; // first add to avoid out of bounds exception if using mod and then addition
-                newX %= pointArray[0].length;// if movement causes to exceed the area multiple times
+                newX += lengthX; // first add to avoid out of bounds exception if using mod and then addition
+                newX %= lengthX;// if movement causes to exceed the area multiple times
             } else {
                 return null;
             }
         }
-        return new Couple(pointArray[pointOfReference.getY()][newX], looped);
+        return new Couple(getPointAt(newX, pointOfReference.getY()), looped);
     }
 
     public Couple<Point, Boolean> west(boolean loop, Point pointOfReference) {
@@ -404,12 +561,12 @@ public class Area implements ISimulationMember, ISynopsisString {
         if (newX < 0) {
             if (loop) {
                 looped = true;
-                newX += pointArray[0].length;
+                newX += lengthX;
             } else {
                 return null;
             }
         }
-        return new Couple(pointArray[pointOfReference.getY()][newX], looped);
+        return new Couple(getPointAt(newX, pointOfReference.getY()), looped);
     }
 
     public Couple<Point, Boolean> east(boolean loop, Point pointOfReference, double distance) {
@@ -421,17 +578,17 @@ public class Area implements ISimulationMember, ISynopsisString {
         int distanceInt = (int) Math.ceil(distance);
         int newX = pointOfReference.getX() + distanceInt;
 
-        if (newX >= pointArray[0].length) {
+        if (newX >= lengthX) {
             if (loop) {
                 looped = true;
-                newX -= pointArray[0].length;
-                newX %= pointArray[0].length;// if movement caueses to exceed the area multiple times
+                newX -= lengthX;
+                newX %= lengthX;// if movement caueses to exceed the area multiple times
             } else {
                 return null;
             }
         }
 
-        return new Couple(pointArray[pointOfReference.getY()][newX], looped);
+        return new Couple(getPointAt(newX, pointOfReference.getY()), looped);
     }
 
     public Couple<Point, Boolean> east(boolean loop, Point pointOfReference) {
@@ -439,15 +596,15 @@ public class Area implements ISimulationMember, ISynopsisString {
 
         int newX = pointOfReference.getX() + 1;
 
-        if (newX == pointArray[0].length) {
+        if (newX == lengthX) {
             if (loop) {
                 looped = true;
-                newX -= pointArray[0].length;
+                newX -= lengthX;
             } else {
                 return null;
             }
         }
-        return new Couple(pointArray[pointOfReference.getY()][newX], looped);
+        return new Couple(getPointAt(newX, pointOfReference.getY()), looped);
     }
 
     public Couple<Point, Boolean> southWest(boolean loop, Point pointOfReference, double distance) {
@@ -459,11 +616,11 @@ public class Area implements ISimulationMember, ISynopsisString {
 
         int newY = pointOfReference.getY() + distanceInt, newX = pointOfReference.getX() - distanceInt;
 
-        if (newY >= pointArray.length) {
+        if (newY >= lengthY) {
             if (loop) {
                 looped = true;
-                newY -= pointArray.length; // first subtract to avoid out of bounds exception due ot negative values if using mod and then subtractions
-                newY %= pointArray.length;// if movement caueses to exceed the area multiple times
+                newY -= lengthY; // first subtract to avoid out of bounds exception due ot negative values if using mod and then subtractions
+                newY %= lengthY;// if movement caueses to exceed the area multiple times
             } else {
                 return null;
             }
@@ -471,14 +628,14 @@ public class Area implements ISimulationMember, ISynopsisString {
         if (newX < 0) {
             if (loop) {
                 looped = true;
-                newX += pointArray[0].length; // first add to avoid out of bounds exception if using mod and then addition
-                newX %= pointArray.length;// if movement caueses to exceed the area multiple times
+                newX += lengthX; // first add to avoid out of bounds exception if using mod and then addition
+                newX %= lengthY;// if movement caueses to exceed the area multiple times
             } else {
                 return null;
             }
         }
 
-        return new Couple(pointArray[newY][newX], looped);
+        return new Couple(getPointAt(newX, newY), looped);
 
     }
 
@@ -486,7 +643,7 @@ public class Area implements ISimulationMember, ISynopsisString {
         boolean looped = false;
         int newY = pointOfReference.getY() + 1, newX = pointOfReference.getX() - 1;
 
-        if (newY == pointArray.length) {
+        if (newY == lengthY) {
             if (loop) {
                 looped = true;
                 newY = 0;
@@ -497,12 +654,12 @@ public class Area implements ISimulationMember, ISynopsisString {
         if (pointOfReference.getX() - 1 < 0) {
             if (loop) {
                 looped = true;
-                newX = pointArray[0].length - 1;
+                newX = lengthX - 1;
             } else {
                 return null;
             }
         }
-        return new Couple(pointArray[newY][newX], looped);
+        return new Couple(getPointAt(newX, newY), looped);
     }
 
     public Couple<Point, Boolean> south(boolean loop, Point pointOfReference, double distance) {
@@ -515,24 +672,24 @@ public class Area implements ISimulationMember, ISynopsisString {
 
         int newY = pointOfReference.getY() + distanceInt;
 
-        if (newY >= pointArray.length) {
+        if (newY >= lengthY) {
             if (loop) {
                 looped = true;
-                newY -= pointArray.length; // first subtract to avoid out of bounds exception due ot negative values if using mod and then subtractions
-                newY %= pointArray.length;// if movement caueses to exceed the area multiple times
+                newY -= lengthY; // first subtract to avoid out of bounds exception due ot negative values if using mod and then subtractions
+                newY %= lengthY;// if movement caueses to exceed the area multiple times
             } else {
                 return null;
             }
         }
 
-        return new Couple(pointArray[newY][pointOfReference.getX()], looped);
+        return new Couple(getPointAt(pointOfReference.getX(), newY), looped);
     }
 
     public Couple<Point, Boolean> south(boolean loop, Point pointOfReference) {
         boolean looped = false;
         int newY = pointOfReference.getY() + 1;
 
-        if (newY == pointArray.length) {
+        if (newY == lengthY) {
             if (loop) {
                 looped = true;
                 newY = 0;
@@ -541,7 +698,7 @@ public class Area implements ISimulationMember, ISynopsisString {
             }
         }
 
-        return new Couple(pointArray[newY][pointOfReference.getX()], looped);
+        return new Couple(getPointAt(pointOfReference.getX(), newY), looped);
 
     }
 
@@ -554,27 +711,27 @@ public class Area implements ISimulationMember, ISynopsisString {
 
         int newY = pointOfReference.getY() + distanceInt, newX = pointOfReference.getX() + distanceInt;
 
-        if (newY >= pointArray.length) {
+        if (newY >= lengthY) {
             if (loop) {
                 looped = true;
-                newY -= pointArray.length; // first subtract to avoid out of bounds exception due ot negative values if using mod and then subtractions
-                newY %= pointArray.length;// if movement caueses to exceed the area multiple times
+                newY -= lengthY; // first subtract to avoid out of bounds exception due ot negative values if using mod and then subtractions
+                newY %= lengthY;// if movement caueses to exceed the area multiple times
             } else {
                 return null;
             }
         }
 
-        if (newX >= pointArray[0].length) {
+        if (newX >= lengthX) {
             if (loop) {
                 looped = true;
-                newX -= pointArray[0].length;
-                newX %= pointArray[0].length;// if movement caueses to exceed the area multiple times
+                newX -= lengthX;
+                newX %= lengthX;// if movement caueses to exceed the area multiple times
             } else {
                 return null;
             }
         }
 
-        return new Couple(pointArray[newY][newX], looped);
+        return new Couple(getPointAt(newX, newY), looped);
     }
 
     public Couple<Point, Boolean> southEast(boolean loop, Point pointOfReference) {
@@ -582,27 +739,27 @@ public class Area implements ISimulationMember, ISynopsisString {
 
         int newY = pointOfReference.getY() + 1, newX = pointOfReference.getX() + 1;
 
-        if (newY >= pointArray.length) {
+        if (newY >= lengthY) {
             if (loop) {
                 looped = true;
-                newY -= pointArray.length;
-                newY %= pointArray.length;// if movement caueses to exceed the area multiple times
+                newY -= lengthY;
+                newY %= lengthY;// if movement caueses to exceed the area multiple times
             } else {
                 return null;
             }
         }
 
-        if (newX >= pointArray[0].length) {
+        if (newX >= lengthX) {
             if (loop) {
                 looped = true;
-                newX -= pointArray[0].length;
-                newX %= pointArray[0].length;// if movement caueses to exceed the area multiple times
+                newX -= lengthX;
+                newX %= lengthX;// if movement caueses to exceed the area multiple times
             } else {
                 return null;
             }
         }
 
-        return new Couple(pointArray[pointOfReference.getY() + 1][pointOfReference.getX() + 1], looped);
+        return new Couple(getPointAt(pointOfReference.getX() + 1, pointOfReference.getY() + 1), looped);
     }
 
     public Point[][] neighboringPointsMatrix(boolean loopArea, Point referencePoint) {
@@ -894,7 +1051,9 @@ public class Area implements ISimulationMember, ISynopsisString {
     /**
      * The real area dimensions that is simulated.
      */
-    public final class RealArea {
+    public final class RealArea implements Serializable {
+
+        private static final long serialVersionUID = 1L;
 
         public final int minX;
         public final int minY;
@@ -910,4 +1069,8 @@ public class Area implements ISimulationMember, ISynopsisString {
 
     }
 
+    private void readObject(ObjectInputStream in) throws IOException, ClassNotFoundException {
+        in.defaultReadObject();
+        _logger = CommonFunctions.getLoggerFor(this);
+    }
 }
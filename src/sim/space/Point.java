@@ -1,6 +1,9 @@
 package sim.space;
 
 import exceptions.InconsistencyException;
+import java.io.IOException;
+import java.io.ObjectInputStream;
+import java.io.Serializable;
 import java.util.Collections;
 import java.util.HashSet;
 import java.util.PriorityQueue;
@@ -18,14 +21,20 @@ import utils.CommonFunctions;
  *
  * @author Xenofon Vasilakos xvas@aueb.gr
  */
-public final class Point implements sim.space.ISpaceMember, ISynopsisString {
+public final class Point implements sim.space.ISpaceMember, ISynopsisString, Serializable {
+    private static final long serialVersionUID = 1L;
+
   /**
    * A point for special usage (e.g to denote out of area range).
    */
    public static final Point NONE = new Point(-1, -1);
 
-   private final Set<User> _usersInPoint = new HashSet<>();
-   private final Set<SmallCell> _coveringSmallCells = new HashSet<>();
+   /**
+    * Both sets are created upon first use, as most points of an area never
+    * host a user and many are not covered by any small cell.
+    */
+   private Set<User> _usersInPoint;
+   private Set<SmallCell> _coveringSmallCells;
    private MacroCell coveringMacroCell;
    private final int y;
    private final int x;
@@ -68,6 +77,9 @@ public final class Point implements sim.space.ISpaceMember, ISynopsisString {
 
    public void addCoverage(AbstractCell cell) {
       if (cell instanceof SmallCell) {
+         if (_coveringSmallCells == null) {
+            _coveringSmallCells = new HashSet<>();
+         }
          _coveringSmallCells.add((SmallCell) cell);
       } else if (cell instanceof MacroCell) {
          coveringMacroCell = (MacroCell) cell;
@@ -78,7 +90,9 @@ public final class Point implements sim.space.ISpaceMember, ISynopsisString {
 
    public void removeCoverage(AbstractCell cell) throws Exception {
       if (cell instanceof SmallCell) {
-         _coveringSmallCells.remove((SmallCell) cell);
+         if (_coveringSmallCells != null) {
+            _coveringSmallCells.remove((SmallCell) cell);
+         }
       } else if (cell instanceof MacroCell) {
          if (coveringMacroCell.hashCode() == cell.hashCode()) {
             coveringMacroCell = null;
@@ -108,11 +122,14 @@ public final class Point implements sim.space.ISpaceMember, ISynopsisString {
    }
 
    public void addUser(User mu) {
+      if (_usersInPoint == null) {
+         _usersInPoint = new HashSet<>();
+      }
       _usersInPoint.add(mu);
    }
 
    public void removeUser(User mu) {
-      if (!_usersInPoint.remove(mu)) {
+      if (_usersInPoint == null || !_usersInPoint.remove(mu)) {
          throw new InconsistencyException(
                "Cannot remove " + mu.toSynopsisString()+ " from " + toSynopsisString()
                + " The mobile user appears not to be curently conected to this point, despite its current point being: "
@@ -121,11 +138,12 @@ public final class Point implements sim.space.ISpaceMember, ISynopsisString {
    }
 
    public Set<User> getUsers() {
-      return Collections.unmodifiableSet(_usersInPoint);
+      return _usersInPoint == null ? Collections.<User>emptySet()
+            : Collections.unmodifiableSet(_usersInPoint);
    }
 
    public boolean containsUsers(AbstractCell FC) {
-      return !_usersInPoint.isEmpty();
+      return _usersInPoint != null && !_usersInPoint.isEmpty();
    }
 
    @Override
@@ -136,7 +154,7 @@ public final class Point implements sim.space.ISpaceMember, ISynopsisString {
       toStr.append(getId());
       toStr.append("; hosting: ");
       toStr.append(CommonFunctions.toString("\n\t", getUsers()));
-      toStr.append(CommonFunctions.toString("\n\t", _coveringSmallCells));
+      toStr.append(CommonFunctions.toString("\n\t", getCoveringSCs()));
 
       toStr.append(">");
       return toStr.toString();
@@ -164,7 +182,8 @@ public final class Point implements sim.space.ISpaceMember, ISynopsisString {
     * @return an unmodifiable set of small cells that cover this point.
     */
    public Set<SmallCell> getCoveringSCs() {
-      return Collections.unmodifiableSet(_coveringSmallCells);
+      return _coveringSmallCells == null ? Collections.<SmallCell>emptySet()
+            : Collections.unmodifiableSet(_coveringSmallCells);
    }
 
    public MacroCell getCoveringMacroCell() {
@@ -177,7 +196,7 @@ public final class Point implements sim.space.ISpaceMember, ISynopsisString {
       }
 
       if (cell instanceof SmallCell) {
-         return _coveringSmallCells.contains((SmallCell) cell);
+         return _coveringSmallCells != null && _coveringSmallCells.contains((SmallCell) cell);
       }
       if (cell instanceof MacroCell) {
          return this.getCoveringMacroCell().equals((MacroCell) cell);
@@ -185,7 +204,7 @@ public final class Point implements sim.space.ISpaceMember, ISynopsisString {
 
       if (DistanceComparator.euclidianDistance(cell.getCoordinates(), this) < cell.getRadius()) {
          if (cell instanceof SmallCell) {
-            _coveringSmallCells.add((SmallCell) cell);
+            addCoverage(cell);
             return true;
          } else {
             coveringMacroCell = (MacroCell) cell;
@@ -236,4 +255,17 @@ public final class Point implements sim.space.ISpaceMember, ISynopsisString {
    public Point getCoordinates() {
       return this;
    }
+
+   /**
+    * Points created after a simulation is resumed from a checkpoint must not
+    * take the ids of the points restored.
+    */
+   private void readObject(ObjectInputStream in) throws IOException, ClassNotFoundException {
+      in.defaultReadObject();
+      id_gen = Math.max(id_gen, id + 1);
+   }
+
+   private Object readResolve() {
+      return id == NONE.id ? NONE : this;
+   }
 }
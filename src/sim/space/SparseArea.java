@@ -0,0 +1,177 @@
+package sim.space;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import sim.space.cell.MacroCell;
+import sim.space.cell.smallcell.SmallCell;
+
+/**
+ * An area that does not allocate its points upfront.
+ *
+ * Points covered by small cells are created when the small cells are added in
+ * the area, as they are needed anyway for the coverage areas of the small
+ * cells. Any other point is created upon first use, e.g. when a mobile user
+ * moves to it. Thus the memory used depends on the coverage of small cells and
+ * on the points visited rather than on the dimensions of the area, which is
+ * the case for large areas of real mobility traces.
+ *
+ * Since the coverage of a small cell is registered in full when the small cell
+ * is added, a point created later is covered by no small cell that already
+ * exists. Macro cells cover every point, thus they are added to the coverage of
+ * each point created.
+ *
+ * @author Xenofon Vasilakos xvas@aueb.gr
+ */
+public class SparseArea extends Area {
+
+    private static final long serialVersionUID = 1L;
+
+    /**
+     * Points created so far, keyed by y * lengthX + x.
+     */
+    private final Map<Long, Point> _points;
+    private final List<MacroCell> _macros;
+    /**
+     * Number of points covered by at least one small cell, and the sum of the
+     * number of covering small cells over all points.
+     */
+    private long _coveredPoints;
+    private long _scCoverageSum;
+
+    public SparseArea(sim.run.SimulationBaseRunner sim, int lengthY, int lengthX) {
+        super(sim, lengthY, lengthX, false);
+        _points = new HashMap<>();
+        _macros = new ArrayList<>(1);
+    }
+
+    private long keyOf(int x, int y) {
+        return (long) y * lengthX + x;
+    }
+
+    /**
+     * Returns the point at coordinates (x, y), creating it if it is used for
+     * the first time.
+     *
+     * @param x
+     * @param y
+     * @return the point at coordinates (x,y)
+     */
+    @Override
+    public Point getPointAt(int x, int y) {
+        if (!coordinatesWithinArea(x, y)) {
+            throw new ArrayIndexOutOfBoundsException(
+                    "Coordinates (" + x + ", " + y + ") are out of the area: " + toSynopsisString());
+        }
+        Long key = keyOf(x, y);
+        Point point = _points.get(key);
+        if (point == null) {
+            point = new Point(x, y);
+            _points.put(key, point);
+            for (MacroCell nxtMC : _macros) {
+                nxtMC.addCoverage(point);
+                point.addCoverage(nxtMC);
+            }
+        }
+        return point;
+    }
+
+    /**
+     * Points are created upon being covered, which is not thread safe, thus
+     * the coverage of each small cell is computed upon adding it even if
+     * {@link #deferCoverage()} was called.
+     *
+     * @param sc
+     */
+    @Override
+    public void updtCoverageByRadius(SmallCell sc) {
+        Point cellCenter = sc.getCoordinates();
+        double cellRad = sc.getRadius();
+        int rad = (int) cellRad;
+
+        int min_y = Math.max(0, cellCenter.getY() - rad);
+        int max_y = Math.min(lengthY - 1, cellCenter.getY() + rad);
+
+        for (int y = min_y; y <= max_y; y++) {
+            int halfWidth = halfWidthInRadius(y - cellCenter.getY(), cellRad);
+            if (halfWidth < 0) {
+                continue;
+            }
+
+            int min_x = Math.max(0, cellCenter.getX() - halfWidth);
+            int max_x = Math.min(lengthX - 1, cellCenter.getX() + halfWidth);
+            for (int x = min_x; x <= max_x; x++) {
+                Point candidate = getPointAt(x, y);
+                int coveringBefore = candidate.getCoveringSCs().size();
+                candidate.addCoverage(sc);
+                sc.addCoverage(candidate);
+
+                int coveringAfter = candidate.getCoveringSCs().size();
+                _scCoverageSum += coveringAfter - coveringBefore;
+                if (coveringBefore == 0 && coveringAfter > 0) {
+                    _coveredPoints++;
+                }
+            }
+        }
+    }
+
+    /**
+     * Adds the points created so far to the coverage of the macro cell. Points
+     * created afterwards are added upon creation.
+     *
+     * @param mc
+     */
+    @Override
+    public void addMacroCoverage(MacroCell mc) {
+        _macros.add(mc);
+        for (Point nxtPoint : _points.values()) {
+            mc.addCoverage(nxtPoint);
+            nxtPoint.addCoverage(mc);
+        }
+    }
+
+    /**
+     * There is no dense array of points in a sparse area.
+     *
+     * @return null
+     */
+    @Override
+    public Point[][] getPointArray() {
+        return null;
+    }
+
+    /**
+     * @return the points created so far, as the rest of the points are not
+     * covered by any small cell and hold no mobile users.
+     */
+    @Override
+    public Set<Point> getPoints() {
+        return Collections.unmodifiableSet(new HashSet<>(_points.values()));
+    }
+
+    /**
+     * @return the number of points created so far.
+     */
+    public int materializedPoints() {
+        return _points.size();
+    }
+
+    @Override
+    public double overlappingSCsPerPoint() {
+        return coveragePerPoint_SC();
+    }
+
+    @Override
+    public double coveragePerPoint_SC() {
+        return (double) _scCoverageSum / size();
+    }
+
+    @Override
+    public double noCoveragePerPoint_SC() {
+        return (double) (size() - _coveredPoints) / size();
+    }
+}
@@ -22,6 +22,8 @@ import sim.space.util.DistanceComparator;
  */
 public abstract class AbstractCell implements ISimulationMember, ISpaceMember, ISynopsisString {
 
+    private static final long serialVersionUID = 1L;
+
     protected final SimulationBaseRunner _sim;
     /////////////////////////////////////////
     private static int _idGen = 0;
@@ -299,6 +301,13 @@ public abstract class AbstractCell implements ISimulationMember, ISpaceMember, I
         return getCenter().getY();
     }
 
+    /**
+     * @return the area in which this cell is registered.
+     */
+    public Area getArea() {
+        return area;
+    }
+
     /**
      * @return the _radius of range of this cell.
      */
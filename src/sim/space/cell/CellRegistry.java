@@ -12,18 +12,18 @@ import java.io.File;
 import java.io.FileNotFoundException;
 import java.io.FileReader;
 import java.io.IOException;
+import java.io.ObjectInputStream;
 import java.io.PrintStream;
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Collection;
 import java.util.Collections;
-import java.util.HashMap;
 import java.util.Iterator;
 import java.util.List;
 import java.util.Map;
 import java.util.NoSuchElementException;
 import java.util.Objects;
 import java.util.PriorityQueue;
-import java.util.Set;
 import java.util.TreeMap;
 import java.util.logging.Level;
 import sim.ISimulationMember;
@@ -40,6 +40,7 @@ import sim.space.users.mobile.MobileGroupsRegistry;
 import sim.space.users.mobile.MobileUser;
 import utils.CommonFunctions;
 import utilities.Couple;
+import utils.random.RandomStream;
 
 /**
  * A registry of macro cell and small cells
@@ -48,9 +49,11 @@ import utilities.Couple;
  */
 public final class CellRegistry implements ISimulationMember, ISynopsisString {
 
+    private static final long serialVersionUID = 1L;
+
     private final SimulationBaseRunner sim;
     private final Scenario scenario;
-    private final Logger LOG;
+    private transient Logger LOG;
 
     /**
      * key: ID of SC
@@ -60,35 +63,48 @@ public final class CellRegistry implements ISimulationMember, ISynopsisString {
     private final Map<Integer, SmallCell> smallCells;
     private final MacroCell _macroCell;
     /**
-     * Number of Handoffs from a source smaller, mapped to a key that depends on
-     * probabilities policy.
+     * Number of Handoffs from a source small cell and to a destination small
+     * cell, and between pairs of small cells.
      *
-     * Uses a string key which depends on the handoff probabilities computation
-     * policy. If the key is the id of a small cell only, then probabilities
-     * depend only on the location of MUs before they handoff. Alternatively, if
-     * the key depends on both the MUs' group and their cell, then probabilities
-     * are computed per location and group.
-     */
-    private final Map<String, Double> _handoffsOutgoing = new HashMap<>(20, 2);
-    private final Map<String, Double> _handoffsIncoming = new HashMap<>(20, 2);
-    private final Map<Couple<String, String>, Double> _handoffsBetween = new HashMap<>(20, 2);
-    /**
-     * Handover duration from a coming cell (couple.first is the disconnection
-     * cell) to a destination cell (couple.second is the connection cell)
+     * Counts are kept per location, i.e. per small cell ordinal, and per slot
+     * of group, which depends on probabilities policy. If the policy depends
+     * only on the location of MUs before they handoff, then all MUs share one
+     * slot. Alternatively, if the policy depends on both the MUs' group and
+     * their cell, then each group has its own slot; see {@link #grpSlot}.
+     *
+     * Outgoing and incoming handoffs are dense matrices indexed by group slot
+     * and small cell ordinal, whereas handoffs between pairs of cells are
+     * indexed by the keys of {@link #pairKey}.
      */
-    private final Map<Couple<String, String>, Double> interCellHandoverDuration = new HashMap<>(20, 2);
+    private double[][] _handoffsOutgoing;
+    private double[][] _handoffsIncoming;
+    private final LongIndex _handoffsBetweenIdx = new LongIndex();
+    private double[] _handoffsBetween = new double[64];
     /**
-     * The last thirty samples used for computing the stdev
+     * Handover duration from a coming cell (the disconnection cell) to a
+     * destination cell (the connection cell), along with the last thirty
+     * samples used for computing the stdev
      */
-    private final Map<Couple<String, String>, Couple<double[], Integer>> interCellHandoverDurationLastSamples = new HashMap<>(20, 2);
+    private final TransitionDurations interCellHandoverDuration;
     private static final int SAMPLES_SIZE = 30;
 
     /**
-     * Residence duration when coming from another cell (couple.first is the
-     * former cell and couple.second is the residence cell)
+     * Residence duration when coming from another cell (the former cell) to the
+     * residence cell.
      */
-    private final Map<Couple<String, String>, Double> interCellResidenceDuration = new HashMap<>(20, 2);
-    private final Map<Couple<String, String>, Couple<double[], Integer>> interCellResidenceDurationLastSamples = new HashMap<>(20, 2);
+    private final TransitionDurations interCellResidenceDuration;
+    /**
+     * IDs of the small cells in ascending order; the position of an ID is the
+     * ordinal of the small cell.
+     */
+    private final int[] _scIDs;
+    /**
+     * Group IDs per group slot, used only when probabilities are computed per
+     * location and group.
+     */
+    private int[] _grpSlotIDs = new int[0];
+    private final boolean _perGroup;
+    private final boolean _knownMobModel;
     private final String mobModel;
     private final MobileGroupsRegistry muGroupRegistry;
     private final double probJitter;
@@ -117,6 +133,18 @@ public final class CellRegistry implements ISimulationMember, ISynopsisString {
 
         this._macroCell = mc;
 
+        _scIDs = new int[smallCells.size()];
+        int ord = 0;
+        for (Integer nxtID : smallCells.keySet()) {
+            _scIDs[ord++] = nxtID;
+        }
+
+        _knownMobModel = Values.LOCATION.equals(mobModel) || Values.LOCATION__PLUS__GROUP.equals(mobModel);
+        _perGroup = Values.LOCATION__PLUS__GROUP.equals(mobModel);
+        _handoffsOutgoing = new double[_perGroup ? 0 : 1][_scIDs.length];
+        _handoffsIncoming = new double[_perGroup ? 0 : 1][_scIDs.length];
+        interCellHandoverDuration = new TransitionDurations(SAMPLES_SIZE);
+        interCellResidenceDuration = new TransitionDurations(SAMPLES_SIZE);
     }
 
     @Override
@@ -138,12 +166,14 @@ public final class CellRegistry implements ISimulationMember, ISynopsisString {
 
     public void printProbsToCurrentPath() {
         try (PrintStream printer = new PrintStream("./probs.txt")) {
-            Set<Couple<String, String>> betweenCellsKeySet = _handoffsBetween.keySet();
-            Iterator<Couple<String, String>> betweenCells_it = betweenCellsKeySet.iterator();
-            while (betweenCells_it.hasNext()) {
-                Couple<String, String> couple = betweenCells_it.next();
-                printer.println("src: " + couple.getFirst());
-                printer.println("dest: " + couple.getSecond());
+            int n = _scIDs.length;
+            for (int i = 0; i < _handoffsBetweenIdx.size(); i++) {
+                long pair = _handoffsBetweenIdx.keyAt(i);
+                int slot = (int) (pair / n / n);
+                int srcOrd = (int) (pair / n % n);
+                int destOrd = (int) (pair % n);
+                printer.println("src: " + locationID(slot, srcOrd));
+                printer.println("dest: " + locationID(slot, destOrd));
             }
         } catch (FileNotFoundException ex) {
             throw new RuntimeException(ex);
@@ -202,7 +232,7 @@ public final class CellRegistry implements ISimulationMember, ISynopsisString {
         }
 
         int lastPos = coveringSmallerCells.size() - 1;
-        int rndPos = sim.getRandomGenerator().randIntInRange(0, lastPos);
+        int rndPos = sim.getRandomGenerator(RandomStream.MOBILITY).randIntInRange(0, lastPos);
         return coveringSmallerCells.get(rndPos);
     }
 
@@ -231,6 +261,81 @@ public final class CellRegistry implements ISimulationMember, ISynopsisString {
         return this;
     }
 
+    private void checkMobModel() {
+        if (!_knownMobModel) {
+            throw new UnsupportedOperationException("Unknonwn or unsupported model " + mobModel
+                    + " set for parameter " + Space.MOBILITY_MODEL.propertyName());
+        }
+    }
+
+    /**
+     * @param sc
+     * @return the ordinal of the small cell, or a negative value if the small
+     * cell is not in the registry.
+     */
+    private int ordinalOf(SmallCell sc) {
+        return Arrays.binarySearch(_scIDs, sc.getID());
+    }
+
+    /**
+     * grp
+     *
+     * @return the slot of the group in the handoff and duration tables, or -1
+     * if the group has no slot yet. If the probabilities policy does not
+     * depend on groups, all groups share slot 0.
+     */
+    private int grpSlot(UserGroup grp) {
+        checkMobModel();
+        if (!_perGroup) {
+            return 0;
+        }
+        int grpID = grp == null ? - 1 : grp.getId();
+        for (int i = 0; i < _grpSlotIDs.length; i++) {
+            if (_grpSlotIDs[i] == grpID) {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    /**
+     * Like {@link #grpSlot(sim.space.users.UserGroup)}, but a slot is assigned
+     * to the group if it has none yet.
+     */
+    private int grpSlotAssigned(UserGroup grp) {
+        int slot = grpSlot(grp);
+        if (slot < 0) {
+            slot = _grpSlotIDs.length;
+            _grpSlotIDs = Arrays.copyOf(_grpSlotIDs, slot + 1);
+            _grpSlotIDs[slot] = grp == null ? - 1 : grp.getId();
+            _handoffsOutgoing = Arrays.copyOf(_handoffsOutgoing, slot + 1);
+            _handoffsOutgoing[slot] = new double[_scIDs.length];
+            _handoffsIncoming = Arrays.copyOf(_handoffsIncoming, slot + 1);
+            _handoffsIncoming[slot] = new double[_scIDs.length];
+        }
+        return slot;
+    }
+
+    /**
+     * @return the key of a pair of small cells (given by their ordinals) in the
+     * tables of the group slot.
+     */
+    private long pairKey(int slot, int fromOrd, int toOrd) {
+        long n = _scIDs.length;
+        return (slot * n + fromOrd) * n + toOrd;
+    }
+
+    /**
+     * @return the ID of the location of a small cell in a group slot, in the
+     * form used for reporting.
+     */
+    private String locationID(int slot, int ord) {
+        if (!_perGroup) {
+            return String.valueOf(_scIDs[ord]);
+        }
+        return CommonFunctions.combineCellMUGroup(smallCells.get(_scIDs[ord]), _grpSlotIDs[slot]);
+    }
+
     /**
      * Update how much time has a mobile stayed connected to nextSC given that
      * it was handed over to nextSC from prevSC.
@@ -244,45 +349,15 @@ public final class CellRegistry implements ISimulationMember, ISynopsisString {
             return; // can happen at startup
         }
 
-        String comingFromID, residenceID;
-        switch (mobModel) {
-            case Values.LOCATION:
-                comingFromID = comingFrom.getID() + "";
-                residenceID = residenceSC.getID() + "";
-                break;
-
-            case Values.LOCATION__PLUS__GROUP:
-                comingFromID = CommonFunctions.combineCellMUGroup(comingFrom, grp == null ? - 1 : grp.getId());
-                residenceID = CommonFunctions.combineCellMUGroup(residenceSC, grp == null ? - 1 : grp.getId());
-                break;
-
-            default:
-                throw new UnsupportedOperationException("Unknonwn or unsupported model " + mobModel
-                        + " set for parameter " + Space.MOBILITY_MODEL.propertyName());
-        }//switch
-
-        Double historyDuration = interCellResidenceDuration.get(new Couple(comingFromID, residenceID));
-        Couple theCells = new Couple(comingFromID, residenceID);
+        int slot = grpSlotAssigned(grp);
+        long theCells = pairKey(slot, scOrdinal(comingFrom), scOrdinal(residenceSC));
 
         double newWeight = residenceSC.getConnectedMUs().isEmpty() ? 0.3 : 1.0 / (residenceSC.getConnectedMUs().size());
-        if (historyDuration == null) {
-            historyDuration = getSimulation().getScenario().doubleProperty(Space.SC__INIT_DURATION__RESIDENCE);
-
-            double samples[] = new double[SAMPLES_SIZE];
-            interCellResidenceDurationLastSamples.put(theCells, new Couple(samples, 0));
-        } else {
-            // cyclic update of last #SAMPLES_SIZE samples
-            Couple<double[], Integer> samples2Idx = interCellResidenceDurationLastSamples.get(theCells);
-            int idx = (1 + samples2Idx.getSecond()) % SAMPLES_SIZE;
-            samples2Idx.getFirst()[idx] = newDuration;
-            samples2Idx.setSecond(idx);
-        }
 
         residenceSC.updtSmoothedResidenceDuration(newDuration, newWeight);
 
-        double val = newWeight * newDuration + (1 - newWeight) * historyDuration;
-
-        interCellResidenceDuration.put(theCells, val);
+        interCellResidenceDuration.update(theCells, newDuration, newWeight,
+                getSimulation().getCompiledScenario().getSCInitResidenceDuration());
     }
 
     public void updtHandoverTransitionTime(MobileUser mu, SmallCell disconFrom, SmallCell conTo, int newDuration) {
@@ -293,45 +368,26 @@ public final class CellRegistry implements ISimulationMember, ISynopsisString {
             return; // can happen at startup
         }
 
-        String disconFromID, conToID;
-        switch (mobModel) {
-            case Values.LOCATION:
-                disconFromID = disconFrom.getID() + "";
-                conToID = conTo.getID() + "";
-                break;
-
-            case Values.LOCATION__PLUS__GROUP:
-                disconFromID = CommonFunctions.combineCellMUGroup(disconFrom, grp == null ? - 1 : grp.getId());
-                conToID = CommonFunctions.combineCellMUGroup(conTo, grp == null ? - 1 : grp.getId());
-                break;
-
-            default:
-                throw new UnsupportedOperationException("Unknonwn or unsupported model " + mobModel
-                        + " set for parameter " + Space.MOBILITY_MODEL.propertyName());
-        }//switch
-
-        Couple theCells = new Couple(disconFromID, conToID);
-        Double historyDuration = interCellHandoverDuration.get(theCells);
-        if (historyDuration == null) {
-            historyDuration = getSimulation().getScenario().doubleProperty(Space.SC__INIT_DURATION__HANDOVER);
-
-            double samples[] = new double[SAMPLES_SIZE];
-            interCellHandoverDurationLastSamples.put(theCells, new Couple(samples, 0));
-        } else {
-            // cyclic update of last #SAMPLES_SIZE samples
-            Couple<double[], Integer> samples2Idx = interCellHandoverDurationLastSamples.get(theCells);
-            int idx = (1 + samples2Idx.getSecond()) % SAMPLES_SIZE;
-            samples2Idx.getFirst()[idx] = newDuration;
-            samples2Idx.setSecond(idx);
-        }
+        int slot = grpSlotAssigned(grp);
+        long theCells = pairKey(slot, scOrdinal(disconFrom), scOrdinal(conTo));
 
         double newWeight = 0.3;
 
         conTo.updtAvgHandoverDuration(newDuration, newWeight);
 
-        double val = newWeight * newDuration + (1 - newWeight) * historyDuration;
+        interCellHandoverDuration.update(theCells, newDuration, newWeight,
+                getSimulation().getCompiledScenario().getSCInitHandoverDuration());
+    }
 
-        interCellHandoverDuration.put(theCells, val);
+    /**
+     * @return the ordinal of a small cell that must be in the registry.
+     */
+    private int scOrdinal(SmallCell sc) {
+        int ord = ordinalOf(sc);
+        if (ord < 0) {
+            throw new InconsistencyException("Small cell %s is not in the registry", sc.getID());
+        }
+        return ord;
     }
 
     /**
@@ -342,32 +398,23 @@ public final class CellRegistry implements ISimulationMember, ISynopsisString {
      */
     public void updtHandoffProbs(MobileUser mu, SmallCell src, SmallCell dest) {
 
-        UserGroup grp = mu.getUserGroup();
+        int slot = grpSlotAssigned(mu.getUserGroup());
+        int srcOrd = scOrdinal(src);
+        int destOrd = scOrdinal(dest);
+
+        // increase transtion-counting tables //
+        _handoffsOutgoing[slot][srcOrd]++;
+        _handoffsIncoming[slot][destOrd]++;
 
-        String srcID, destID;
-        // increase transtion-counting maps //
-        switch (mobModel) {
-            case Values.LOCATION:
-                srcID = src.getID() + "";
-                destID = dest.getID() + "";
-                break;
-
-            case Values.LOCATION__PLUS__GROUP:
-                srcID = CommonFunctions.combineCellMUGroup(src, grp == null ? - 1 : grp.getId());
-                destID = CommonFunctions.combineCellMUGroup(dest, grp == null ? - 1 : grp.getId());
-                break;
-
-            default:
-                throw new UnsupportedOperationException("Unknonwn or unsupported model " + mobModel
-                        + " set for parameter " + Space.MOBILITY_MODEL.propertyName());
-        }//switch
-        Couple couple = new Couple(srcID, destID);
-        Double outgoing = _handoffsOutgoing.get(srcID);
-        Double incoming = _handoffsIncoming.get(destID);
-        Double between = _handoffsBetween.get(couple);
-        _handoffsOutgoing.put(srcID, outgoing == null ? 1 : outgoing + 1);
-        _handoffsIncoming.put(destID, incoming == null ? 1 : incoming + 1);
-        _handoffsBetween.put(couple, between == null ? 1 : between + 1);
+        long couple = pairKey(slot, srcOrd, destOrd);
+        int entry = _handoffsBetweenIdx.indexOf(couple);
+        if (entry < 0) {
+            entry = _handoffsBetweenIdx.add(couple);
+            if (entry == _handoffsBetween.length) {
+                _handoffsBetween = Arrays.copyOf(_handoffsBetween, entry << 1);
+            }
+        }
+        _handoffsBetween[entry]++;
     }
 
     /**
@@ -376,169 +423,103 @@ public final class CellRegistry implements ISimulationMember, ISynopsisString {
      * @return the handoffs__total__Src_toDestCell
      */
     public double getHandoffsBetweenCells(UserGroup grp, SmallCell src, SmallCell dest) {
+        int slot = grpSlot(grp);
+        int srcOrd = ordinalOf(src);
+        int destOrd = ordinalOf(dest);
+        if (slot < 0 || srcOrd < 0 || destOrd < 0) {
+            return 0;
+        }
 
-        String srcID, destID;
-        // increase transtion-counting maps //
-        switch (mobModel) {
-
-            case Values.LOCATION:
-                srcID = src.getID() + "";
-                destID = dest.getID() + "";
-                break;
-
-            case Values.LOCATION__PLUS__GROUP:
-                srcID = CommonFunctions.combineCellMUGroup(src, grp == null ? - 1 : grp.getId());
-                destID = CommonFunctions.combineCellMUGroup(dest, grp == null ? - 1 : grp.getId());
-                break;
-
-            default:
-                throw new UnsupportedOperationException("Unknonwn or unsupported model " + mobModel
-                        + " for parameter " + Space.MOBILITY_MODEL.propertyName());
-        }//switch
-        Double num = _handoffsBetween.get(new Couple(srcID, destID));
-        if (num == null) {
+        int entry = _handoffsBetweenIdx.indexOf(pairKey(slot, srcOrd, destOrd));
+        if (entry < 0) {
             return 0;
         }
-        return num;
+        return _handoffsBetween[entry];
     }
 
     public Couple<Double, Double> getResidenceDurationBetween(UserGroup grp, SmallCell fromSC, SmallCell residentSC, boolean use95percentile) {
-        String comingFromSCID, residentSCID;
-        // increase transtion-counting maps //
-        switch (mobModel) {
-
-            case Values.LOCATION:
-                comingFromSCID = fromSC.getID() + "";
-                residentSCID = residentSC.getID() + "";
-                break;
-
-            case Values.LOCATION__PLUS__GROUP:
-                comingFromSCID = CommonFunctions.combineCellMUGroup(fromSC, grp == null ? - 1 : grp.getId());
-                residentSCID = CommonFunctions.combineCellMUGroup(residentSC, grp == null ? - 1 : grp.getId());
-                break;
-
-            default:
-                throw new UnsupportedOperationException("Unknonwn or unsupported model " + mobModel
-                        + " for parameter " + Space.MOBILITY_MODEL.propertyName());
-        }//switch
-
-        Couple theCells = new Couple(comingFromSCID, residentSCID);
-
-        Double avg = interCellResidenceDuration.get(theCells);
-
-        if (avg == null) {
-            return new Couple(100.0, 0.0);
-        }
-
-        double percentile95 = 0;
-        if (use95percentile) {
-            // compute stdev first
-            double s = 0;
-            double[] samples = interCellResidenceDurationLastSamples.get(theCells).getFirst();
-            for (double nxtSample : samples) {
-                s += Math.pow(avg - nxtSample, 2);
-            }
-            s = Math.sqrt(s);
-
-            percentile95 = 1.96 * s;
-        }
-
-        return new Couple(avg, percentile95);
+        DurationStats stats = new DurationStats();
+        residenceDurationBetween(grp, fromSC, residentSC, use95percentile, stats);
+        return new Couple(stats.mean(), stats.conf95());
     }
 
     public Couple<Double, Double> getHandoverDurationBetween(UserGroup grp, SmallCell disconSC, SmallCell conToSC, boolean use95percentile) {
+        DurationStats stats = new DurationStats();
+        handoverDurationBetween(grp, disconSC, conToSC, use95percentile, stats);
+        return new Couple(stats.mean(), stats.conf95());
+    }
 
-        String disconSCID, connSCID;
-        // increase transtion-counting maps //
-        switch (mobModel) {
-
-            case Values.LOCATION:
-                disconSCID = disconSC.getID() + "";
-                connSCID = conToSC.getID() + "";
-                break;
-
-            case Values.LOCATION__PLUS__GROUP:
-                disconSCID = CommonFunctions.combineCellMUGroup(disconSC, grp == null ? - 1 : grp.getId());
-                connSCID = CommonFunctions.combineCellMUGroup(conToSC, grp == null ? - 1 : grp.getId());
-                break;
-
-            default:
-                throw new UnsupportedOperationException("Unknonwn or unsupported model " + mobModel
-                        + " for parameter " + Space.MOBILITY_MODEL.propertyName());
-        }//switch
-
-        Couple theCells = new Couple(disconSCID, connSCID);
-        Double avg = interCellHandoverDuration.get(theCells);
+    /**
+     * Same as
+     * {@link #getResidenceDurationBetween(UserGroup, SmallCell, SmallCell, boolean)}
+     * though filling in the holder passed instead of allocating a result.
+     *
+     * @param grp
+     * @param fromSC
+     * @param residentSC
+     * @param use95percentile
+     * @param stats the holder filled in
+     */
+    public void residenceDurationBetween(UserGroup grp, SmallCell fromSC, SmallCell residentSC,
+            boolean use95percentile, DurationStats stats) {
+        durationBetween(interCellResidenceDuration, grp, fromSC, residentSC, use95percentile, stats);
+    }
 
-        if (avg == null) {
-            return new Couple(100.0, 0.0);
+    /**
+     * Same as
+     * {@link #getHandoverDurationBetween(UserGroup, SmallCell, SmallCell, boolean)}
+     * though filling in the holder passed instead of allocating a result.
+     *
+     * @param grp
+     * @param disconSC
+     * @param conToSC
+     * @param use95percentile
+     * @param stats the holder filled in
+     */
+    public void handoverDurationBetween(UserGroup grp, SmallCell disconSC, SmallCell conToSC,
+            boolean use95percentile, DurationStats stats) {
+        durationBetween(interCellHandoverDuration, grp, disconSC, conToSC, use95percentile, stats);
+    }
+
+    private void durationBetween(TransitionDurations durations,
+            UserGroup grp, SmallCell fromSC, SmallCell toSC, boolean use95percentile,
+            DurationStats stats) {
+        int slot = grpSlot(grp);
+        int fromOrd = ordinalOf(fromSC);
+        int toOrd = ordinalOf(toSC);
+        int entry = slot < 0 || fromOrd < 0 || toOrd < 0
+                ? -1 : durations.entryOf(pairKey(slot, fromOrd, toOrd));
+
+        if (entry < 0) {
+            stats.set(100.0, 0.0);
+            return;
         }
 
+        double avg = durations.avg(entry);
         double percentile95 = 0;
         if (use95percentile) {
-            // compute stdev first
-            double s = 0;
-            double[] samples = interCellHandoverDurationLastSamples.get(theCells).getFirst();
-            for (double nxtSample : samples) {
-                s += Math.pow(avg - nxtSample, 2);
-            }
-            s = Math.sqrt(s);
-
-            percentile95 = 1.96 * s;
+            percentile95 = 1.96 * durations.deviation(entry);
         }
 
-        return new Couple(avg, percentile95);
+        stats.set(avg, percentile95);
     }
 
     public double getHandoffsOutgoing(UserGroup grp, SmallCell src) {
-
-        String srcID;
-        // increase transtion-counting maps //
-        switch (mobModel) {
-
-            case Values.LOCATION:
-                srcID = src.getID() + "";
-                break;
-
-            case Values.LOCATION__PLUS__GROUP:
-                srcID = CommonFunctions.combineCellMUGroup(src, grp == null ? - 1 : grp.getId());
-                break;
-
-            default:
-                throw new UnsupportedOperationException("Unknonwn or unsupported model " + mobModel
-                        + " for parameter " + Space.MOBILITY_MODEL.propertyName());
-        }//switch
-        Double num = _handoffsOutgoing.get(srcID);
-        if (num == null) {
+        int slot = grpSlot(grp);
+        int srcOrd = ordinalOf(src);
+        if (slot < 0 || srcOrd < 0) {
             return 0;
         }
-        return num;
+        return _handoffsOutgoing[slot][srcOrd];
     }
 
     public double getHandoffsIncoming(MobileUser mu, SmallCell dest) {
-
-        UserGroup grp = mu.getUserGroup();
-        String destID;
-        // increase transtion-counting maps //
-        switch (mobModel) {
-
-            case Values.LOCATION:
-                destID = dest.getID() + "";
-                break;
-
-            case Values.LOCATION__PLUS__GROUP:
-                destID = CommonFunctions.combineCellMUGroup(dest, grp == null ? - 1 : grp.getId());
-                break;
-
-            default:
-                throw new UnsupportedOperationException("Unknonwn or unsupported model " + mobModel
-                        + " for parameter " + Space.MOBILITY_MODEL.propertyName());
-        }//switch
-        Double num = _handoffsIncoming.get(destID);
-        if (num == null) {
+        int slot = grpSlot(mu.getUserGroup());
+        int destOrd = ordinalOf(dest);
+        if (slot < 0 || destOrd < 0) {
             return 0;
         }
-        return num;
+        return _handoffsIncoming[slot][destOrd];
     }
 
     /**
@@ -562,7 +543,7 @@ public final class CellRegistry implements ISimulationMember, ISynopsisString {
             return 0.0;
         }
 
-        double prob = getSimulation().getRandomGenerator().getGaussian(1.0, probJitter)
+        double prob = getSimulation().getRandomGenerator(RandomStream.JITTER).getGaussian(1.0, probJitter)
                 /*robustness testing: intentional random error*/
                 * handoffsBetweenCells / outgoingHandoffs;
 
@@ -939,6 +920,7 @@ public final class CellRegistry implements ISimulationMember, ISynopsisString {
                         "There are no small cells defined in property {0}",
                         Space.SC__INIT.name());
             }
+            area.deferCoverage();
             if (scsInit.size() == 1) {
 
                 switch (scsInit.get(0).toUpperCase()) {
@@ -965,6 +947,7 @@ public final class CellRegistry implements ISimulationMember, ISynopsisString {
                 Point[] centers = area.getPoints(scsInit);
                 theSCs = initSCs(area, cachingPolicies, centers);
             }
+            area.updtDeferredCoverage();
 
             //discover neighbors sanity check
             if (sim.getCachingStrategies().contains(Values.CACHING__NAIVE__TYPE03)
@@ -990,4 +973,8 @@ public final class CellRegistry implements ISimulationMember, ISynopsisString {
         }
     }
 
+    private void readObject(ObjectInputStream in) throws IOException, ClassNotFoundException {
+        in.defaultReadObject();
+        LOG = CommonFunctions.getLoggerFor(CellRegistry.class, "simID=" + getSimulation().getID());
+    }
 }
@@ -0,0 +1,77 @@
+package sim.space.cell;
+
+import java.io.Serializable;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.Set;
+import sim.content.Chunk;
+
+/**
+ * The chunks changed in a registry of a cell since they were last drained, e.g.
+ * the chunks whose proactive caching demand or whose cached status changed.
+ * A consumer of the registry, such as an eviction queue, brings itself up to
+ * date by revisiting only the chunks changed rather than all the chunks.
+ *
+ * Changes are recorded only after {@link #track()} is called, so that
+ * registries without a consumer do not accumulate changes. Each registry has
+ * at most one consumer, which drains the changes. Clearing the registry as a
+ * whole marks all chunks as changed.
+ *
+ * @author Xenofon Vasilakos xvas@aueb.gr
+ */
+public final class ChangedChunks implements Serializable {
+
+    private static final long serialVersionUID = 1L;
+
+    private final Set<Chunk> _changed;
+    private boolean _tracked;
+    private boolean _all;
+
+    public ChangedChunks() {
+        _changed = new HashSet<>();
+    }
+
+    /**
+     * Starts recording changes. As nothing is known about earlier changes, all
+     * chunks count as changed until the first drain.
+     */
+    public void track() {
+        if (!_tracked) {
+            _tracked = true;
+            _all = true;
+        }
+    }
+
+    public void add(Chunk chunk) {
+        if (_tracked && !_all) {
+            _changed.add(chunk);
+        }
+    }
+
+    public void addAll() {
+        if (_tracked) {
+            _all = true;
+            _changed.clear();
+        }
+    }
+
+    /**
+     * @return true if all chunks count as changed since the last drain, in
+     * which case {@link #changed()} is empty.
+     */
+    public boolean isAll() {
+        return _all;
+    }
+
+    /**
+     * @return an unmodifiable view of the chunks changed since the last drain.
+     */
+    public Set<Chunk> changed() {
+        return Collections.unmodifiableSet(_changed);
+    }
+
+    public void drain() {
+        _all = false;
+        _changed.clear();
+    }
+}
@@ -0,0 +1,35 @@
+package sim.space.cell;
+
+/**
+ * Holds the expected duration of a transition between two small cells and its
+ * 95% confidence bound, as filled in by the {@link CellRegistry}. A holder is
+ * meant to be reused for consecutive lookups instead of allocating a result
+ * per lookup.
+ *
+ * @author Xenofon Vasilakos xvas@aueb.gr
+ */
+public final class DurationStats {
+
+    private double _mean;
+    private double _conf95;
+
+    void set(double mean, double conf95) {
+        _mean = mean;
+        _conf95 = conf95;
+    }
+
+    /**
+     * @return the smoothed duration.
+     */
+    public double mean() {
+        return _mean;
+    }
+
+    /**
+     * @return 1.96 times the deviation of the last samples from the smoothed
+     * duration, or zero if not asked for.
+     */
+    public double conf95() {
+        return _conf95;
+    }
+}
@@ -0,0 +1,121 @@
+package sim.space.cell;
+
+import java.io.Serializable;
+import java.util.Arrays;
+
+/**
+ * Open addressing index of primitive long keys to dense entry numbers, given
+ * in the order keys are added. Entry numbers never change, thus callers keep
+ * the values of each entry in their own primitive arrays indexed by entry
+ * number.
+ *
+ * Neither lookups nor additions of keys allocate, except when the index grows.
+ *
+ * @author Xenofon Vasilakos xvas@aueb.gr
+ */
+final class LongIndex implements Serializable {
+
+    private static final long serialVersionUID = 1L;
+
+    private static final int FREE = -1;
+
+    private long[] _keys;
+    /**
+     * Entry number per hash slot, or FREE.
+     */
+    private int[] _slots;
+    /**
+     * Keys per entry number, in the order added.
+     */
+    private long[] _entries;
+    private int _size;
+    private int _mask;
+
+    LongIndex() {
+        this(64);
+    }
+
+    LongIndex(int expected) {
+        int capacity = Integer.highestOneBit(Math.max(4, expected) * 2 - 1) << 1;
+        _keys = new long[capacity];
+        _slots = new int[capacity];
+        Arrays.fill(_slots, FREE);
+        _mask = capacity - 1;
+        _entries = new long[Math.max(4, expected)];
+    }
+
+    private static int hash(long key) {
+        long h = key * 0x9E3779B97F4A7C15L;
+        return (int) (h ^ (h >>> 32));
+    }
+
+    /**
+     * @param key
+     * @return the entry number of the key, or -1 if the key is not indexed.
+     */
+    int indexOf(long key) {
+        int slot = hash(key) & _mask;
+        while (_slots[slot] != FREE) {
+            if (_keys[slot] == key) {
+                return _slots[slot];
+            }
+            slot = (slot + 1) & _mask;
+        }
+        return -1;
+    }
+
+    /**
+     * Indexes a key which is not indexed yet.
+     *
+     * @param key
+     * @return the entry number of the key, which equals the number of keys
+     * indexed before it.
+     */
+    int add(long key) {
+        if ((_size + 1) * 2 > _slots.length) {
+            rehash(_slots.length << 1);
+        }
+        if (_size == _entries.length) {
+            _entries = Arrays.copyOf(_entries, _size << 1);
+        }
+
+        int entry = _size++;
+        _entries[entry] = key;
+        insert(key, entry);
+        return entry;
+    }
+
+    private void insert(long key, int entry) {
+        int slot = hash(key) & _mask;
+        while (_slots[slot] != FREE) {
+            slot = (slot + 1) & _mask;
+        }
+        _keys[slot] = key;
+        _slots[slot] = entry;
+    }
+
+    private void rehash(int capacity) {
+        _keys = new long[capacity];
+        _slots = new int[capacity];
+        Arrays.fill(_slots, FREE);
+        _mask = capacity - 1;
+        for (int i = 0; i < _size; i++) {
+            insert(_entries[i], i);
+        }
+    }
+
+    /**
+     * @param entry
+     * @return the key of the entry number
+     */
+    long keyAt(int entry) {
+        return _entries[entry];
+    }
+
+    /**
+     * @return the number of keys indexed.
+     */
+    int size() {
+        return _size;
+    }
+}
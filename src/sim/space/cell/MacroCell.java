@@ -13,6 +13,8 @@ import sim.space.util.DistanceComparator;
  */
 public class MacroCell extends AbstractCell {
 
+    private static final long serialVersionUID = 1L;
+
     public MacroCell(SimulationBaseRunner sim, int centerY, int centerX, double radius,
             Area area) throws Exception {
         super(sim, centerY, centerX, radius, area);
@@ -62,10 +64,7 @@ public class MacroCell extends AbstractCell {
     private static final Logger LOG = Logger.getLogger(MacroCell.class.getName());
 
     private void addInCoveredArea(Area area) {
-        _coveredAreaPoints.addAll(area.getPoints());
-        for (Point nxtPoint : getCoverageArea()) {
-            nxtPoint.addCoverage(this);
-        }
+        area.addMacroCoverage(this);
     }
 
 }
@@ -0,0 +1,121 @@
+package sim.space.cell;
+
+import java.io.Serializable;
+import java.util.Arrays;
+
+/**
+ * Smoothed durations of transitions between pairs of small cells, e.g.
+ * residence or handover durations, along with the last samples per pair used
+ * for computing their deviation.
+ *
+ * Pairs are identified by primitive long keys, while averages and samples are
+ * kept in primitive arrays indexed by the entry number of each pair.
+ *
+ * @author Xenofon Vasilakos xvas@aueb.gr
+ */
+final class TransitionDurations implements Serializable {
+
+    private static final long serialVersionUID = 1L;
+
+    private final int _samplesSize;
+    private final LongIndex _index;
+    private double[] _avg;
+    /**
+     * The last samples of the i-th pair are in [i * _samplesSize, (i + 1) *
+     * _samplesSize), updated cyclically.
+     */
+    private double[] _samples;
+    private int[] _lastSampleIdx;
+    /**
+     * Sum and sum of squares of the last samples of each pair, kept along
+     * with the samples so that the deviation takes constant time. Durations
+     * are integers, thus the sums are exact.
+     */
+    private double[] _sums;
+    private double[] _sumsSq;
+
+    TransitionDurations(int samplesSize) {
+        _samplesSize = samplesSize;
+        _index = new LongIndex();
+        _avg = new double[16];
+        _samples = new double[16 * samplesSize];
+        _lastSampleIdx = new int[16];
+        _sums = new double[16];
+        _sumsSq = new double[16];
+    }
+
+    /**
+     * Updates the smoothed duration of the pair, or initializes it to the
+     * initial duration passed if the pair has no history yet. Samples are
+     * recorded only for pairs with history, as the initial duration stands
+     * for the first sample.
+     *
+     * @param pair
+     * @param newDuration
+     * @param newWeight the weight of the new duration in the smoothed one
+     * @param initDuration
+     */
+    void update(long pair, int newDuration, double newWeight, double initDuration) {
+        int entry = _index.indexOf(pair);
+        double historyDuration;
+        if (entry < 0) {
+            entry = _index.add(pair);
+            ensureCapacity(entry + 1);
+            historyDuration = initDuration;
+        } else {
+            // cyclic update of last #_samplesSize samples
+            int idx = (1 + _lastSampleIdx[entry]) % _samplesSize;
+            double replaced = _samples[entry * _samplesSize + idx];
+            _samples[entry * _samplesSize + idx] = newDuration;
+            _lastSampleIdx[entry] = idx;
+            _sums[entry] += newDuration - replaced;
+            _sumsSq[entry] += (double) newDuration * newDuration - replaced * replaced;
+            historyDuration = _avg[entry];
+        }
+
+        _avg[entry] = newWeight * newDuration + (1 - newWeight) * historyDuration;
+    }
+
+    private void ensureCapacity(int entries) {
+        if (entries > _avg.length) {
+            int len = Math.max(entries, _avg.length << 1);
+            _avg = Arrays.copyOf(_avg, len);
+            _samples = Arrays.copyOf(_samples, len * _samplesSize);
+            _lastSampleIdx = Arrays.copyOf(_lastSampleIdx, len);
+            _sums = Arrays.copyOf(_sums, len);
+            _sumsSq = Arrays.copyOf(_sumsSq, len);
+        }
+    }
+
+    /**
+     * @param pair
+     * @return the entry number of the pair, or -1 if the pair has no history.
+     */
+    int entryOf(long pair) {
+        return _index.indexOf(pair);
+    }
+
+    double avg(int entry) {
+        return _avg[entry];
+    }
+
+    /**
+     * @param entry
+     * @return the root of the squared deviations of the last samples from the
+     * smoothed duration, i.e. of the sum over the samples x of (avg - x)^2.
+     * It is computed as n * (avg - mean)^2 + sum over x of (x - mean)^2, with
+     * mean = sum(x) / n, so that no large terms cancel out when the deviation
+     * is small relative to avg. The latter sum is computed as
+     * (n * sum(x^2) - sum(x)^2) / n, exact as long as the integer sums are
+     * exact in doubles, i.e. below 2^53.
+     */
+    double deviation(int entry) {
+        double sum = _sums[entry];
+        double mean = sum / _samplesSize;
+        double diff = _avg[entry] - mean;
+        double s = _samplesSize * diff * diff
+                + (_samplesSize * _sumsSq[entry] - sum * sum) / _samplesSize;
+        // negative only by rounding, once the integer sums exceed 2^53
+        return Math.sqrt(Math.max(0, s));
+    }
+}
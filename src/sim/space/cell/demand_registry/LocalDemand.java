@@ -1,5 +1,6 @@
 package sim.space.cell.demand_registry;
 
+import java.io.Serializable;
 import java.util.Collections;
 import java.util.HashMap;
 import java.util.Map;
@@ -14,49 +15,58 @@ import sim.space.users.CachingUser;
  * Each cell has an object of this class to keep track of information regarding
  * the requests demand by mobile users.
  */
-public class LocalDemand {
+public class LocalDemand implements Serializable {
+
+    private static final long serialVersionUID = 1L;
 
     /**
      * Used for recorded request details by mobiles which got connected to this
      * cell at some point.
      */
-    public class RegistrationInfo {
+    public class RegistrationInfo implements Serializable {
+
+        private static final long serialVersionUID = 1L;
 
         private int _overallNumOfReqs = 0;
         /**
          * Mobiles requesting the content. The number of times a mobile requests
-         * this particular content is mapped to the requesting mobile.
+         * this particular content is mapped to the requesting mobile, as a
+         * single-element counter updated in place.
          */
-        private final Map<User, Integer> _numOfReqsByUser;
+        private final Map<User, int[]> _numOfReqsByUser;
 
         private RegistrationInfo() {
             _numOfReqsByUser = new HashMap<>(535, 1);
         }
 
         public void reset() {
+            _version++;
+            _totalNumOfReqs -= this._overallNumOfReqs;
             this._numOfReqsByUser.clear();
             this._overallNumOfReqs = 0;
         }
 
         private void addCU(User mu) {
-            Integer num = _numOfReqsByUser.get(mu);
+            int[] num = _numOfReqsByUser.get(mu);
             if (num == null) {
-                _numOfReqsByUser.put(mu, 1);
+                _numOfReqsByUser.put(mu, new int[]{1});
             } else {
-                _numOfReqsByUser.put(mu, num + 1);
+                num[0]++;
             }
 
             _overallNumOfReqs++;
+            _totalNumOfReqs++;
         }
 
         private boolean removeUser(User mu) {
-            Integer num = _numOfReqsByUser.remove(mu);
+            int[] num = _numOfReqsByUser.remove(mu);
 
             if (num == null) {
                 return false;
             }
 
-            _overallNumOfReqs -= num;
+            _overallNumOfReqs -= num[0];
+            _totalNumOfReqs -= num[0];
             return true;
         }
 
@@ -70,6 +80,12 @@ public class LocalDemand {
     }
 
     private double _currDemandNumForW;
+    /**
+     * The sum of requests over all registrations, kept up to date upon each
+     * change of a registration.
+     */
+    private long _totalNumOfReqs;
+    private long _version;
 
     /**
      * A map used for mapping details (either from a currently connected or a
@@ -86,8 +102,10 @@ public class LocalDemand {
     }
 
     public void resetCurrDemand() {
+        _version++;
         this._currDemandNumForW = -1.0;
         _demandMap.clear();
+        _totalNumOfReqs = 0;
     }
 
     /**
@@ -115,6 +133,7 @@ public class LocalDemand {
     }
 
     public void registerLclDmdForW(CachingUser cu, double weight) {
+        _version++;
         String trcDocumentID;
         for (DocumentRequest nxt : cu.getRequests()) {
             trcDocumentID = nxt.referredContentDocument().getID();
@@ -131,6 +150,7 @@ public class LocalDemand {
     }
 
     public void deregisterLclDmdForW(CachingUser cu, double weight) {
+        _version++;
         for (DocumentRequest req : cu.getRequests()) {
             LocalDemand.RegistrationInfo reqDetails = _demandMap.get(req.getID());
             if (reqDetails != null) {
@@ -141,18 +161,12 @@ public class LocalDemand {
     }
 
     /**
+     * Smooths the current demand with the total number of registered requests,
+     * which is kept up to date by the registrations themselves.
      */
     private void updtCurrDemandNumForW(double weight) {
         double prevDmd = _currDemandNumForW;
-
-        _currDemandNumForW = 0;
-        for (RegistrationInfo nxt : _demandMap.values()) {
-            for (Integer nxtMUReqsNum : nxt._numOfReqsByUser.values()) {
-                _currDemandNumForW += nxtMUReqsNum;
-            }
-        }
-
-        _currDemandNumForW = weight * _currDemandNumForW + (1.0 - weight) * prevDmd;
+        _currDemandNumForW = weight * _totalNumOfReqs + (1.0 - weight) * prevDmd;
     }
 
     /**
@@ -167,6 +181,14 @@ public class LocalDemand {
         return nfo == null ? 0 : nfo.getOverallNumOfReqs();
     }
 
+    /**
+     * @return the number of mutations of the registry so far, which tells
+     * whether the local demand has changed since an earlier call.
+     */
+    public long version() {
+        return _version;
+    }
+
     public double computeAvgW() {
         return (_demandMap.size() > 0) ? _currDemandNumForW / _demandMap.size() : -1;
     }
@@ -1,5 +1,7 @@
 package sim.space.cell.demand_registry;
 
+import java.io.Serializable;
+import java.util.Collection;
 import java.util.Collections;
 import java.util.HashMap;
 import java.util.Map;
@@ -7,13 +9,16 @@ import java.util.Set;
 import sim.content.Chunk;
 import sim.content.request.DocumentRequest;
 import sim.space.cell.AbstractCell;
+import sim.space.cell.ChangedChunks;
 import sim.space.users.CachingUser;
 
 /**
  * Each cell has an object of this class to keep track of information regarding
  * the requests demand by mobile users.
  */
-public class PCDemand {
+public class PCDemand implements Serializable {
+
+    private static final long serialVersionUID = 1L;
 
     /**
      * @return the _demandMap
@@ -24,13 +29,32 @@ public class PCDemand {
 
     public void clear() {
         _demandMap.clear();
+        _version++;
+        _changes.addAll();
+    }
+
+    /**
+     * @return the chunks whose registration changed, once tracked.
+     */
+    public ChangedChunks changes() {
+        return _changes;
+    }
+
+    /**
+     * @return the number of mutations of the registry so far, which tells
+     * whether anything registered has changed since an earlier call.
+     */
+    public long version() {
+        return _version;
     }
 
     /**
      * Used for recorded request details by mobiles which got connected to this
      * cell at some point.
      */
-    public class RegistrationInfo {
+    public class RegistrationInfo implements Serializable {
+
+        private static final long serialVersionUID = 1L;
 
         /**
          * Maps hand over probabilities to requesting users for particular
@@ -90,11 +114,14 @@ public class PCDemand {
     final AbstractCell _cell;
 
     private long _currDemandNum;
+    private long _version;
+    private final ChangedChunks _changes;
 
     public PCDemand(AbstractCell cell) {
         _currDemandNum = 0;
         _cell = cell;
         _demandMap = new HashMap<>(100);
+        _changes = new ChangedChunks();
     }
 
     public AbstractCell getCell() {
@@ -132,6 +159,8 @@ public class PCDemand {
                 // ignore. can happen
                 continue;
             }
+            _version++;
+            _changes.add(nxtReqChunk);
 
             reqDetails._aggrProb -= probsReq;
             _currDemandNum = _currDemandNum < 2 ? 0 : _currDemandNum - 1;
@@ -164,6 +193,8 @@ public class PCDemand {
      * proactive caching
      */
     public void registerUpdtInfoPC(Chunk chunkRequested, CachingUser cu, double prob) {
+        _version++;
+        _changes.add(chunkRequested);
         RegistrationInfo reqDetails = _demandMap.get(chunkRequested.getID());
 
         if (reqDetails == null) {// if  the first time
@@ -203,4 +234,18 @@ public class PCDemand {
         _currDemandNum++;
     }
 
+    /**
+     * Same as {@link #registerUpdtInfoPC(Chunk, CachingUser, double)} for each
+     * chunk requested, in order.
+     *
+     * @param chunksRequested e.g. a range of predicted chunks
+     * @param cu
+     * @param prob
+     */
+    public void registerUpdtInfoPC(Collection<Chunk> chunksRequested, CachingUser cu, double prob) {
+        for (Chunk nxtChunk : chunksRequested) {
+            registerUpdtInfoPC(nxtChunk, cu, prob);
+        }
+    }
+
 }
@@ -1,6 +1,7 @@
 package sim.space.cell.demand_registry;
 
 import exceptions.InvalidOrUnsupportedException;
+import java.io.Serializable;
 import java.util.HashMap;
 import java.util.Map;
 import sim.content.request.DocumentRequest;
@@ -14,9 +15,13 @@ import traces.dmdtrace.TraceLoader;
  *
  * @author xvas
  */
-public class PopularityInfo {
+public class PopularityInfo implements Serializable {
 
-    public class RegistrationInfo {
+    private static final long serialVersionUID = 1L;
+
+    public class RegistrationInfo implements Serializable {
+
+        private static final long serialVersionUID = 1L;
 
         /**
          * The most recent (the latest) serial number of a particular item
@@ -117,6 +122,7 @@ public class PopularityInfo {
      * been recorded up to now.
      */
     private long _requestSerialGen = 0;
+    private long _version;
 
     private final Map<String, PopularityInfo.RegistrationInfo> _demandMap;
 
@@ -142,6 +148,7 @@ public class PopularityInfo {
     }
 
     public void registerPopInfo(DocumentRequest r) {
+        _version++;
         String rID = r.referredContentDocument().getID();
         RegistrationInfo reqDetails = _demandMap.get(rID);
 
@@ -245,6 +252,14 @@ public class PopularityInfo {
         return ++_requestSerialGen; // first serial is zero as in the list used
     }
 
+    /**
+     * @return the number of registrations so far, which tells whether the
+     * popularity of any item may have changed since an earlier call.
+     */
+    public long version() {
+        return _version;
+    }
+
     /**
      * @return the latest serial number generated.
      */
@@ -0,0 +1,118 @@
+package sim.space.cell.smallcell;
+
+import java.io.Serializable;
+import java.util.HashMap;
+import java.util.Map;
+import sim.content.Chunk;
+import sim.run.SimulationBaseRunner;
+import sim.space.cell.demand_registry.LocalDemand;
+import sim.space.cell.demand_registry.PCDemand;
+import sim.space.cell.demand_registry.PopularityInfo;
+
+/**
+ * The assessments of chunks by a caching policy at a small cell, memoised
+ * within the current round of the simulation so that the same assessment is
+ * computed once, no matter how many times cache decisions, evictions and
+ * eviction orderings ask for it.
+ *
+ * An assessment depends on the proactive caching demand registered at the
+ * cell for the policy and, if the policy uses popularity, on the popularity
+ * information and the local demand of the cell. Each of these registries
+ * counts its mutations, thus an assessment is reused only if none of them has
+ * mutated since it was computed. All assessments are dropped upon a new
+ * round.
+ *
+ * @author Xenofon Vasilakos xvas@aueb.gr
+ */
+public final class AssessmentCache implements Serializable {
+
+    private static final long serialVersionUID = 1L;
+
+    private final SimulationBaseRunner _sim;
+    private final PCDemand _pcDmd;
+    /**
+     * Null unless the assessments depend on popularity.
+     */
+    private final PopularityInfo _popInfo;
+    private final LocalDemand _lclDmd;
+
+    private final Map<Chunk, Entry> _entries;
+    private int _round;
+
+    private static final class Entry implements Serializable {
+
+        private static final long serialVersionUID = 1L;
+
+        private long _stamp;
+        private double _assessment;
+    }
+
+    AssessmentCache(SmallCell sc, PCDemand pcDmd, boolean withPopularity) {
+        _sim = sc.getSimulation();
+        _pcDmd = pcDmd;
+        _popInfo = withPopularity ? sc.getPopInfo() : null;
+        _lclDmd = withPopularity ? sc.getDmdLclForW() : null;
+        _entries = new HashMap<>(128);
+        _round = -1;
+    }
+
+    /**
+     * As versions never decrease, their sum changes if and only if any of them
+     * changes.
+     */
+    private long stamp() {
+        long stamp = _pcDmd.version();
+        if (_popInfo != null) {
+            stamp += _popInfo.version() + _lclDmd.version();
+        }
+        return stamp;
+    }
+
+    /**
+     * @param chunk
+     * @return the assessment of the chunk if memoised and still valid,
+     * otherwise NaN.
+     */
+    public double lookup(Chunk chunk) {
+        int round = _sim.simTime();
+        if (round != _round) {
+            _entries.clear();
+            _round = round;
+            return Double.NaN;
+        }
+
+        Entry entry = _entries.get(chunk);
+        if (entry == null || entry._stamp != stamp()) {
+            return Double.NaN;
+        }
+        return entry._assessment;
+    }
+
+    /**
+     * Memoises the assessment of the chunk, which must have been computed
+     * against the current state of the registries.
+     *
+     * @param chunk
+     * @param assessment
+     * @return the assessment
+     */
+    public double memoise(Chunk chunk, double assessment) {
+        int round = _sim.simTime();
+        if (round != _round) {
+            _entries.clear();
+            _round = round;
+        }
+
+        Entry entry = _entries.get(chunk);
+        if (entry == null) {
+            _entries.put(chunk, entry = new Entry());
+        }
+        entry._stamp = stamp();
+        entry._assessment = assessment;
+        return assessment;
+    }
+
+    public void clear() {
+        _entries.clear();
+    }
+}
@@ -7,6 +7,7 @@ package sim.space.cell.smallcell;
 import caching.base.AbstractCachingModel;
 import caching.interfaces.rplc.IRplcBase;
 import exceptions.InconsistencyException;
+import java.io.Serializable;
 import java.lang.invoke.WrongMethodTypeException;
 import java.util.Collections;
 import java.util.HashMap;
@@ -16,6 +17,7 @@ import java.util.NoSuchElementException;
 import java.util.Set;
 import sim.run.SimulationBaseRunner;
 import sim.content.Chunk;
+import sim.space.cell.ChangedChunks;
 import sim.space.users.CachingUser;
 import sim.space.users.mobile.MobileUser;
 import utils.CommonFunctions;
@@ -26,7 +28,9 @@ import utils.CommonFunctions;
  *
  * @author Xenofon Vasilakos xvas@aueb.gr
  */
-public class BufferBase {
+public class BufferBase implements Serializable {
+
+    private static final long serialVersionUID = 1L;
 
     /**
      * The issue time of the last request encountered.
@@ -50,10 +54,16 @@ public class BufferBase {
 
     /**
      * The mobiles that have cached the item.
+     *
+     * Together with _chunksPerCachingUser, it forms a bidirectional index of
+     * which user has cached which chunk: a user is in the set of a chunk iff
+     * the chunk is in the set of the user. Chunks cached on behalf of no user
+     * are mapped to an empty set.
      */
     protected final Map<Chunk, Set<CachingUser>> _cachingUsersPerChunk;
     protected final Map<CachingUser, Set<Chunk>> _chunksPerCachingUser;
     protected final SimulationBaseRunner _simulation;
+    private final ChangedChunks _changes;
 
     public BufferBase(SimulationBaseRunner sim, SmallCell cell, long capacity) throws InconsistencyException {
         _lastRequestTime = -1;
@@ -64,6 +74,7 @@ public class BufferBase {
         _chunksPerCachingUser = new HashMap<>();
         _capacityInBytes = capacity;
         _used = 0;
+        _changes = new ChangedChunks();
     }
 
     public boolean isCached(Chunk item) {
@@ -165,27 +176,36 @@ public class BufferBase {
         if (mobs.isEmpty() && !(policy instanceof IRplcBase)) {
             _used -= theChunk.sizeInBytes();
             _cachingUsersPerChunk.remove(theChunk);
+            _changes.add(theChunk);
         }
         return Collections.unmodifiableSet(mobs);
     }
 
+    /**
+     * Evicts the chunk regardless of its cachers, which are looked up in the
+     * index of cachers per chunk so that only the actual cachers of the chunk
+     * are visited.
+     *
+     * @param theChunk
+     */
     protected void deallocateForce(Chunk theChunk) {
-        // mobs stays removed
-        Set<CachingUser> cachingUsers = new HashSet(_chunksPerCachingUser.keySet());
-        for (CachingUser nxtCU : cachingUsers) {
-            Set<Chunk> chunksOfNxtCU = null;
-            if ((chunksOfNxtCU = _chunksPerCachingUser.get(nxtCU)) == null) {
-                continue;
-            }
+        Set<CachingUser> cachingUsers = _cachingUsersPerChunk.remove(theChunk);
+        _changes.add(theChunk);
+        if (cachingUsers != null) {
+            for (CachingUser nxtCU : cachingUsers) {
+                Set<Chunk> chunksOfNxtCU;
+                if ((chunksOfNxtCU = _chunksPerCachingUser.get(nxtCU)) == null) {
+                    continue;
+                }
 
-            chunksOfNxtCU.remove(theChunk); // try to remove the item
-            if (chunksOfNxtCU.isEmpty()) {
-                _chunksPerCachingUser.remove(nxtCU);
+                chunksOfNxtCU.remove(theChunk);
+                if (chunksOfNxtCU.isEmpty()) {
+                    _chunksPerCachingUser.remove(nxtCU);
+                }
             }
         }
 
         _used -= theChunk.sizeInBytes();
-        _cachingUsersPerChunk.remove(theChunk);
     }
 
     public boolean isEmpty() {
@@ -216,32 +236,37 @@ public class BufferBase {
     }
 
     /**
-     * An unmodifiable set of mobiles that have cached the item. If null, then
-     * there are no caching mobiles for the item, which is valid when using
-     * replacement policies.
+     * An unmodifiable view of the mobiles that have cached the item. The set
+     * is empty if there are no caching mobiles for the item, which is valid
+     * when using replacement policies.
+     *
+     * Note that the view reflects later changes to the buffer; copy it before
+     * evicting the item or removing its cachers while iterating.
      *
-     * item
+     * @param item
      *
-     * @return the set of mobiles that have cached the item or null if there are
-     * no mobiles currently caching the item.
+     * @return the set of mobiles that have cached the item.
      */
     public Set<CachingUser> getCachers(Chunk item) {
         Set<CachingUser> cachers = _cachingUsersPerChunk.get(item);
         if (cachers == null) {
-            return new HashSet<>();
+            return Collections.emptySet();
         }
-        return new HashSet(cachers);
+        return Collections.unmodifiableSet(cachers);
     }
 
+    /**
+     * @param cu
+     * @return an unmodifiable view of the items cached for the user.
+     */
     Set<Chunk> getCached(CachingUser cu) {
         Set<Chunk> itms = _chunksPerCachingUser.get(cu);
 
         if (itms == null) {
-            return new HashSet<>();
+            return Collections.emptySet();
         }
 
-        return new HashSet<>(itms);
-//      return itms == null ? null : Collections.unmodifiableSet(itms);
+        return Collections.unmodifiableSet(itms);
     }
 
     /**
@@ -257,6 +282,14 @@ public class BufferBase {
         _cachingUsersPerChunk.clear();
         _chunksPerCachingUser.clear();
         _used = 0;
+        _changes.addAll();
+    }
+
+    /**
+     * @return the chunks which were cached or evicted, once tracked.
+     */
+    public ChangedChunks changes() {
+        return _changes;
     }
 
     /**
@@ -347,6 +380,7 @@ public class BufferBase {
         if (cusOfItm == null) {
             cusOfItm = new HashSet();
             _cachingUsersPerChunk.put(chunk, cusOfItm);
+            _changes.add(chunk);
         }
         cusOfItm.add(cu);
 
@@ -383,6 +417,7 @@ public class BufferBase {
         if (cusOfItm == null) {
             cusOfItm = new HashSet();
             _cachingUsersPerChunk.put(chunk, cusOfItm);
+            _changes.add(chunk);
         }
 
         _used += chunk.sizeInBytes();
@@ -492,8 +527,14 @@ public class BufferBase {
 
     }
 
+    /**
+     * Same as {@link #getCachers(sim.content.Chunk)}.
+     *
+     * @param item
+     * @return an unmodifiable view of the mobiles that have cached the item.
+     */
     public Set<CachingUser> cachers(Chunk item) {
-        return _cachingUsersPerChunk.get(item) == null ? new HashSet() : _cachingUsersPerChunk.get(item);
+        return getCachers(item);
     }
 
     /**
@@ -0,0 +1,379 @@
+package sim.space.cell.smallcell;
+
+import caching.base.AbstractCachingModel;
+import caching.base.IEMC;
+import caching.interfaces.rplc.IGainRplc;
+import exceptions.CriticalFailureException;
+import java.io.Serializable;
+import java.util.AbstractQueue;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.ConcurrentModificationException;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.Set;
+import sim.content.Chunk;
+import sim.space.cell.ChangedChunks;
+
+/**
+ * The chunks cached by a small cell for a replacement policy, ordered by their
+ * eviction priority so that the head of the queue is the chunk to evict first.
+ *
+ * Unlike a PriorityQueue of cached chunks ordered by a comparator, the
+ * priority of each chunk is assessed once and kept along with the chunk in an
+ * indexed binary min-heap. Thus a chunk is found, removed or repositioned in
+ * logarithmic time, and {@link #refresh(java.util.Collection)} brings the queue
+ * up to date with the buffer and the current assessments by repositioning
+ * only the chunks whose priority has changed, rather than rebuilding the
+ * whole queue.
+ *
+ * For policies which assess chunks by their proactive caching demand alone,
+ * i.e. {@link IEMC} policies, the priority of a chunk changes only when its
+ * demand registered at the cell changes. The queue then tracks the chunks
+ * whose demand changed and the chunks cached or evicted since the last
+ * refresh, and a refresh re-assesses only those, thus its cost does not grow
+ * with the number of chunks cached. For other policies, a refresh re-assesses
+ * all the chunks cached.
+ *
+ * @author Xenofon Vasilakos xvas@aueb.gr
+ */
+public final class EvictionQueue extends AbstractQueue<Chunk> implements Serializable {
+
+    private static final long serialVersionUID = 1L;
+
+    private final IGainRplc _policy;
+    private final SmallCell _sc;
+
+    private Node[] _heap;
+    private int _size;
+    private final Map<Chunk, Node> _nodes;
+    private int _modCount;
+    /**
+     * Increased upon each refresh to tell apart the chunks no longer cached.
+     */
+    private int _refreshStamp;
+    private final List<Node> _stale;
+
+    /**
+     * Null unless only the changed chunks are revisited upon refresh.
+     */
+    private final ChangedChunks _dmdChanges;
+    private final ChangedChunks _cachedChanges;
+    /**
+     * Chunks taken out of the queue since the last refresh, which may still be
+     * cached.
+     */
+    private final Set<Chunk> _detached;
+
+    private static final class Node implements Serializable {
+
+        private static final long serialVersionUID = 1L;
+
+        private final Chunk _chunk;
+        private double _priority;
+        private int _pos;
+        private int _stamp;
+
+        private Node(Chunk chunk, double priority) {
+            _chunk = chunk;
+            _priority = priority;
+        }
+    }
+
+    EvictionQueue(IGainRplc policy, SmallCell sc, int initCapacity) {
+        _policy = policy;
+        _sc = sc;
+        _heap = new Node[Math.max(16, initCapacity)];
+        _nodes = new HashMap<>(Math.max(16, initCapacity * 4 / 3 + 1));
+        _stale = new ArrayList<>();
+        _detached = new HashSet<>();
+        if (policy instanceof IEMC) {
+            _dmdChanges = sc.getDmdPC((AbstractCachingModel) policy).changes();
+            _cachedChanges = sc.getBuffer((AbstractCachingModel) policy).changes();
+            _dmdChanges.track();
+            _cachedChanges.track();
+        } else {
+            _dmdChanges = null;
+            _cachedChanges = null;
+        }
+    }
+
+    private double priorityOf(Chunk chunk) {
+        try {
+            return _policy.evictionPriority(chunk, _sc);
+        } catch (Throwable ex) {
+            throw new CriticalFailureException(ex);
+        }
+    }
+
+    /**
+     * Makes the queue hold exactly the cached chunks passed, each positioned by
+     * its current eviction priority. Chunks polled out of the queue without
+     * being evicted are added back.
+     *
+     * @param cachedChunks the chunks currently cached
+     */
+    public void refresh(Collection<Chunk> cachedChunks) {
+        if (_dmdChanges == null || _dmdChanges.isAll() || _cachedChanges.isAll()) {
+            refreshAll(cachedChunks);
+        } else {
+            refreshChanged(cachedChunks);
+        }
+        _detached.clear();
+        if (_dmdChanges != null) {
+            _dmdChanges.drain();
+            _cachedChanges.drain();
+        }
+    }
+
+    /**
+     * Adds back the detached chunks still cached, adds the newly cached chunks,
+     * removes the evicted ones and repositions the chunks whose demand changed.
+     */
+    private void refreshChanged(Collection<Chunk> cachedChunks) {
+        updtMembership(_detached, cachedChunks);
+        updtMembership(_cachedChanges.changed(), cachedChunks);
+        for (Chunk nxtChunk : _dmdChanges.changed()) {
+            Node node = _nodes.get(nxtChunk);
+            if (node != null) {
+                reposition(node, priorityOf(nxtChunk));
+            }
+        }
+    }
+
+    private void updtMembership(Set<Chunk> chunks, Collection<Chunk> cachedChunks) {
+        for (Chunk nxtChunk : chunks) {
+            Node node = _nodes.get(nxtChunk);
+            if (cachedChunks.contains(nxtChunk)) {
+                if (node == null) {
+                    insert(nxtChunk);
+                }
+            } else if (node != null) {
+                removeNode(node);
+            }
+        }
+    }
+
+    private void refreshAll(Collection<Chunk> cachedChunks) {
+        int stamp = ++_refreshStamp;
+        for (Chunk nxtChunk : cachedChunks) {
+            Node node = _nodes.get(nxtChunk);
+            if (node == null) {
+                node = insert(nxtChunk);
+            } else {
+                reposition(node, priorityOf(nxtChunk));
+            }
+            node._stamp = stamp;
+        }
+
+        if (_nodes.size() > cachedChunks.size()) {
+            for (int i = 0; i < _size; i++) {
+                if (_heap[i]._stamp != stamp) {
+                    _stale.add(_heap[i]);
+                }
+            }
+            for (Node nxtStale : _stale) {
+                removeNode(nxtStale);
+            }
+            _stale.clear();
+        }
+    }
+
+    private Node insert(Chunk chunk) {
+        Node node = new Node(chunk, priorityOf(chunk));
+        node._stamp = _refreshStamp;
+        if (_size == _heap.length) {
+            _heap = Arrays.copyOf(_heap, _size << 1);
+        }
+        _nodes.put(chunk, node);
+        node._pos = _size;
+        _heap[_size++] = node;
+        siftUp(node._pos);
+        _modCount++;
+        return node;
+    }
+
+    private void reposition(Node node, double priority) {
+        if (priority == node._priority) {
+            return;
+        }
+        double old = node._priority;
+        node._priority = priority;
+        if (priority < old) {
+            siftUp(node._pos);
+        } else {
+            siftDown(node._pos);
+        }
+        _modCount++;
+    }
+
+    private void removeNode(Node node) {
+        _nodes.remove(node._chunk);
+        int pos = node._pos;
+        Node last = _heap[--_size];
+        _heap[_size] = null;
+        if (pos != _size) {
+            _heap[pos] = last;
+            last._pos = pos;
+            siftDown(pos);
+            if (_heap[pos] == last) {
+                siftUp(pos);
+            }
+        }
+        _modCount++;
+    }
+
+    private void siftUp(int pos) {
+        Node node = _heap[pos];
+        while (pos > 0) {
+            int parent = (pos - 1) >>> 1;
+            Node p = _heap[parent];
+            if (p._priority <= node._priority) {
+                break;
+            }
+            _heap[pos] = p;
+            p._pos = pos;
+            pos = parent;
+        }
+        _heap[pos] = node;
+        node._pos = pos;
+    }
+
+    private void siftDown(int pos) {
+        Node node = _heap[pos];
+        int half = _size >>> 1;
+        while (pos < half) {
+            int child = 2 * pos + 1;
+            int right = child + 1;
+            if (right < _size && _heap[right]._priority < _heap[child]._priority) {
+                child = right;
+            }
+            if (node._priority <= _heap[child]._priority) {
+                break;
+            }
+            _heap[pos] = _heap[child];
+            _heap[pos]._pos = pos;
+            pos = child;
+        }
+        _heap[pos] = node;
+        node._pos = pos;
+    }
+
+    /**
+     * Adds the chunk, or repositions it by its current eviction priority if it
+     * is already in the queue.
+     *
+     * @param chunk
+     * @return true
+     */
+    @Override
+    public boolean offer(Chunk chunk) {
+        if (chunk == null) {
+            throw new NullPointerException();
+        }
+        Node node = _nodes.get(chunk);
+        if (node == null) {
+            insert(chunk);
+        } else {
+            reposition(node, priorityOf(chunk));
+        }
+        return true;
+    }
+
+    @Override
+    public Chunk poll() {
+        if (_size == 0) {
+            return null;
+        }
+        Node head = _heap[0];
+        removeNode(head);
+        _detached.add(head._chunk);
+        return head._chunk;
+    }
+
+    @Override
+    public Chunk peek() {
+        return _size == 0 ? null : _heap[0]._chunk;
+    }
+
+    @Override
+    public boolean remove(Object o) {
+        Node node = _nodes.get(o);
+        if (node == null) {
+            return false;
+        }
+        removeNode(node);
+        _detached.add(node._chunk);
+        return true;
+    }
+
+    @Override
+    public boolean removeAll(Collection<?> c) {
+        boolean modified = false;
+        for (Object nxt : c) {
+            modified |= remove(nxt);
+        }
+        return modified;
+    }
+
+    @Override
+    public boolean contains(Object o) {
+        return _nodes.containsKey(o);
+    }
+
+    @Override
+    public void clear() {
+        Arrays.fill(_heap, 0, _size, null);
+        _size = 0;
+        _nodes.clear();
+        _detached.clear();
+        if (_cachedChanges != null) {
+            _cachedChanges.addAll();
+        }
+        _modCount++;
+    }
+
+    @Override
+    public int size() {
+        return _size;
+    }
+
+    /**
+     * @return an iterator over the chunks in no particular order, which does
+     * not support removals.
+     */
+    @Override
+    public Iterator<Chunk> iterator() {
+        return new Iterator<Chunk>() {
+            private int _nxt = 0;
+            private final int _expectedModCount = _modCount;
+
+            @Override
+            public boolean hasNext() {
+                return _nxt < _size;
+            }
+
+            @Override
+            public Chunk next() {
+                if (_expectedModCount != _modCount) {
+                    throw new ConcurrentModificationException();
+                }
+                if (!hasNext()) {
+                    throw new NoSuchElementException();
+                }
+                return _heap[_nxt++]._chunk;
+            }
+
+            @Override
+            public void remove() {
+                throw new UnsupportedOperationException(
+                        "Remove chunks through the queue, not through its iterator.");
+            }
+        };
+    }
+}
@@ -71,4 +71,15 @@ public interface ITimeBuffer {
 
     public SortedMap<Integer, Set<Chunk>> getLRUMapping();
 
+    /**
+     * @return the cached requests from the least to the most recently
+     * accessed.
+     */
+    public Iterable<Chunk> inAccessOrder();
+
+    /**
+     * @return the cached requests from the least to the most recently cached.
+     */
+    public Iterable<Chunk> inCacheOrder();
+
 }
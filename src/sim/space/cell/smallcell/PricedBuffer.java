@@ -25,6 +25,8 @@ import utils.CommonFunctions;
  */
 public class PricedBuffer extends BufferBase {
 
+    private static final long serialVersionUID = 1L;
+
     /**
      * The price of this buffer, as defined by the dynamic or fixed pricing
      * scheme in use.
@@ -1,6 +1,5 @@
 package sim.space.cell.smallcell;
 
-import static app.properties.Caching.CACHING__RPLC__MINGAIN__SUM__HEURISTIC__TIME__DYNAMIC__READJUSTMENT_PERIOD;
 import app.properties.Space;
 import app.properties.valid.Values;
 import caching.MaxPop;
@@ -11,6 +10,7 @@ import caching.base.AbstractPricing;
 import caching.base.IPop;
 import caching.interfaces.rplc.IGainNoRplc;
 import caching.interfaces.rplc.IGainRplc;
+import caching.interfaces.rplc.ILRURplc;
 import caching.rplc.mingain.priced.tuned_timened.EMPC_R_Tunned_a;
 import caching.rplc.mingain.priced.tuned_timened.EMPC_R_Tunned_b;
 import caching.rplc.mingain.priced.tuned_timened.EMPC_R_Tunned_c1;
@@ -19,16 +19,16 @@ import exceptions.CriticalFailureException;
 import exceptions.InconsistencyException;
 import exceptions.InvalidOrUnsupportedException;
 import exceptions.WrongOrImproperArgumentException;
+import java.io.Serializable;
 import java.lang.reflect.InvocationTargetException;
 import java.util.Collection;
 import java.util.Collections;
-import java.util.Comparator;
 import java.util.HashMap;
 import java.util.HashSet;
 import java.util.Iterator;
 import java.util.Map;
-import java.util.PriorityQueue;
 import java.util.Set;
+import sim.CompiledScenario;
 import sim.Scenario;
 import sim.run.SimulationBaseRunner;
 import sim.space.Area;
@@ -46,6 +46,7 @@ import statistics.StatisticException;
 import statistics.handlers.iterative.sc.cmpt5.UnonymousCompute5;
 import traces.dmdtrace.TraceWorkloadRecord;
 import static utils.CommonFunctions.PHI;
+import utils.random.RandomStream;
 
 /**
  *
@@ -53,6 +54,8 @@ import static utils.CommonFunctions.PHI;
  */
 public class SmallCell extends AbstractCell {
 
+    private static final long serialVersionUID = 1L;
+
     /**
      * NONE is a special type of small _cell _used only to denote that no small
      * _cell exists. do not invoke methods for it always returns null or -1;
@@ -69,16 +72,11 @@ public class SmallCell extends AbstractCell {
 
         super(id, sim, center.getY(), center.getX(), radius, area);
 
-        _empcLCnoRplcInterval = new EPCLCnoRplcState(0, sim.getScenario().
-                intProperty(app.properties.Caching.CACHING__RPLC__MINGAIN__SUM__HEURISTIC__TIME__DYNAMIC_MAX_BOUND));
-        _smoothedHandoverDuration = sim.getScenario().doubleProperty(Space.SC__INIT_DURATION__HANDOVER);
-        _smoothedResidenceDuration = sim.getScenario().doubleProperty(Space.SC__INIT_DURATION__RESIDENCE);
-
-        String neighborhoodType = sim.getScenario().stringProperty(app.properties.Space.SC__NEIGHBORHOOD, false);
-        _selfNeighborsAllowed
-                = sim.getScenario().isTrue(Space.SC__NEIGHBORHOOD__ALLOW_SELF)
-                || neighborhoodType.equalsIgnoreCase(Values.ALL_PLUS_SELF)
-                || neighborhoodType.equalsIgnoreCase(Values.TRACE);
+        CompiledScenario compiled = sim.getCompiledScenario();
+        _empcLCnoRplcInterval = new EPCLCnoRplcState(0, compiled.getRplcDynamicMaxBound());
+        _smoothedHandoverDuration = compiled.getSCInitHandoverDuration();
+        _smoothedResidenceDuration = compiled.getSCInitResidenceDuration();
+        _selfNeighborsAllowed = compiled.isSCSelfNeighborsAllowed();
 
         _smoothedHandoversCount = 0;
 
@@ -87,6 +85,7 @@ public class SmallCell extends AbstractCell {
 
         _buffersMap = new HashMap<>(5);
         _orderedCachedByGainMap = new HashMap<>(170);
+        _assessmentsMap = new HashMap<>(5);
         fillMaps(cachingPolicys, sim, capacity);
 
         area.addSC(this);
@@ -156,16 +155,11 @@ public class SmallCell extends AbstractCell {
             throws InvalidOrUnsupportedException {
         super(sim, centerY, centerX, radius, area);
 
-        _empcLCnoRplcInterval = new EPCLCnoRplcState(0, sim.getScenario().
-                intProperty(app.properties.Caching.CACHING__RPLC__MINGAIN__SUM__HEURISTIC__TIME__DYNAMIC_MAX_BOUND));
-        _smoothedHandoverDuration = sim.getScenario().doubleProperty(Space.SC__INIT_DURATION__HANDOVER);
-        _smoothedResidenceDuration = sim.getScenario().doubleProperty(Space.SC__INIT_DURATION__RESIDENCE);
-
-        String neighborhoodType = sim.getScenario().stringProperty(app.properties.Space.SC__NEIGHBORHOOD, false);
-        _selfNeighborsAllowed
-                = sim.getScenario().isTrue(Space.SC__NEIGHBORHOOD__ALLOW_SELF)
-                || neighborhoodType.equalsIgnoreCase(Values.ALL_PLUS_SELF)
-                || neighborhoodType.equalsIgnoreCase(Values.TRACE);
+        CompiledScenario compiled = sim.getCompiledScenario();
+        _empcLCnoRplcInterval = new EPCLCnoRplcState(0, compiled.getRplcDynamicMaxBound());
+        _smoothedHandoverDuration = compiled.getSCInitHandoverDuration();
+        _smoothedResidenceDuration = compiled.getSCInitResidenceDuration();
+        _selfNeighborsAllowed = compiled.isSCSelfNeighborsAllowed();
 
         _smoothedHandoversCount = 0;
         _proactCachingDmd = new HashMap();
@@ -174,6 +168,7 @@ public class SmallCell extends AbstractCell {
 
         _buffersMap = new HashMap<>(5);
         _orderedCachedByGainMap = new HashMap<>(170);
+        _assessmentsMap = new HashMap<>(5);
         fillMaps(cachingPolicies, sim, capacity);
 
         area.addSC(this);
@@ -214,20 +209,7 @@ public class SmallCell extends AbstractCell {
      * @return a randomly chosen point or null if the area is empty of points.
      */
     public Point randomPointInCoverage() {
-        int size = getCoverageArea().size();
-        if (size == 0) {
-            return null;
-        }
-        int rnd = _sim.getRandomGenerator().randIntInRange(0, size - 1);
-        int i = 0;
-        for (Point nxt_point : getCoverageArea()) {
-            if (i == rnd) {
-                return nxt_point;
-            }
-            i++;
-        }
-
-        throw new RuntimeException("Wrong random number generated: " + rnd); // if reached up to here and not returned..
+        return getArea().randomPointInCoverage(this);
     }
 
     @Override
@@ -454,7 +436,7 @@ public class SmallCell extends AbstractCell {
          */
         if (model instanceof IGainRplc) {
 
-            PriorityQueue<Chunk> cachedOrderByGain
+            EvictionQueue cachedOrderByGain
                     = targetSC.getCachedChunksOrderedByGain((IGainRplc) model);
 
             Set<Chunk> rplcd = new HashSet();
@@ -474,16 +456,29 @@ public class SmallCell extends AbstractCell {
             return;
         }
 
-//TODO recheck implementation of these policies            /*
-//          * Perform caching for types stemming from ILRURplc
-//             */
-//            if (nxtCachingPolicy instanceof ILRURplc) {
-//                Set<Item> rplcedNUm = 
-//                ((ILRURplc) policy).cacheDecision(cu, targetSC);
-//
-//
-//                continue;
-//            }
+        /**
+         * *************************************************
+         * Perform caching for types stemming from ILRURplc
+         */
+        if (model instanceof ILRURplc) {
+
+            Set<Chunk> rplcd = new HashSet();
+            ((ILRURplc) model).
+                    cacheDecision(getSimulation(), cacheRequestor, predictedChunks,
+                            this, targetSC, rplcd);
+
+            if (!rplcd.isEmpty()) {
+                _sim.getStatsHandle().updtSCCmpt5(
+                        rplcd.size(),
+                        new UnonymousCompute5(
+                                model, UnonymousCompute5.WellKnownTitle.ITMS_RPLCD
+                        )
+                );
+            }
+
+            return;
+        }
+
         // for any other type of caching policy ..
         throw new exceptions.InvalidOrUnsupportedException(model.toString());
 
@@ -711,6 +706,28 @@ public class SmallCell extends AbstractCell {
         return _proactCachingDmd.get(policy);
     }
 
+    /**
+     * The memoised assessments of chunks by the policy. Popularity of type
+     * {@link Values#POP__TYPE02} is updated upon each computation, thus
+     * assessments that depend on it are not memoised.
+     *
+     * @param policy
+     * @param withPopularity whether the assessments of the policy depend on
+     * popularity and local demand
+     * @return the memoised assessments, or null if they can not be memoised.
+     */
+    public AssessmentCache assessments(AbstractCachingModel policy, boolean withPopularity) {
+        if (withPopularity && Values.POP__TYPE02.equals(_computePopularityType)) {
+            return null;
+        }
+        AssessmentCache assessments = _assessmentsMap.get(policy);
+        if (assessments == null) {
+            assessments = new AssessmentCache(this, getDmdPC(policy), withPopularity);
+            _assessmentsMap.put(policy, assessments);
+        }
+        return assessments;
+    }
+
     public final void clearDmdPC(AbstractCachingModel policy) {
         _proactCachingDmd.get(policy).clear();
     }
@@ -756,6 +773,16 @@ public class SmallCell extends AbstractCell {
         return _buffersMap.get(cachingPolicy);
     }
 
+    /**
+     * @param cachingPolicy
+     * @return the buffer of the policy if it keeps the time of accesses to
+     * its chunks, otherwise null.
+     */
+    public ITimeBuffer timeBuffer(AbstractCachingModel cachingPolicy) {
+        BufferBase buffer = _buffersMap.get(cachingPolicy);
+        return buffer instanceof ITimeBuffer ? (ITimeBuffer) buffer : null;
+    }
+
     public void clearBuffer(AbstractCachingModel cachingPolicy) {
         _buffersMap.get(cachingPolicy).clear();
     }
@@ -769,29 +796,29 @@ public class SmallCell extends AbstractCell {
         return (PricedBuffer) _buffersMap.get(cachingPolicy);
     }
 
-    public PriorityQueue<Chunk> getCachedChunksOrderedByGain(IGainRplc policy) {
+    public EvictionQueue getCachedChunksOrderedByGain(IGainRplc policy) {
         return _orderedCachedByGainMap.get(policy);
     }
 
     /**
      * Periodic use of this method is necessary to refresh the ordering in the
-     * ordered priority queues of orderedCachedByGainMap, as gains assessment
-     * per chunk change, thus the priority ordering must be updated too.
+     * eviction queues of orderedCachedByGainMap, as gains assessment per chunk
+     * change, thus the priority ordering must be updated too. Only chunks with
+     * a changed assessment are repositioned in the queue; for
+     * {@link caching.base.IEMC} policies, only the chunks whose demand changed
+     * are re-assessed.
      *
      * @param policy
      */
     public void updtCachedChunksOrderedByGain(IGainRplc policy) {
         Set<Chunk> cachedChunks = getBuffer((AbstractCachingModel) policy).cachedChunksUnmodifiable();
 
-        Comparator<Chunk> priorityComparator = policy.evictionPriorityComparator(this);
-        PriorityQueue<Chunk> orderedCached = _orderedCachedByGainMap.get(policy);
+        EvictionQueue orderedCached = _orderedCachedByGainMap.get(policy);
         if (orderedCached == null) {
-            orderedCached = new PriorityQueue<>(cachedChunks.size() + 1, priorityComparator);
-        } else {
-            orderedCached.clear();
+            orderedCached = new EvictionQueue(policy, this, cachedChunks.size() + 1);
+            _orderedCachedByGainMap.put(policy, orderedCached);
         }
-        orderedCached.addAll(cachedChunks);
-        _orderedCachedByGainMap.put(policy, orderedCached);
+        orderedCached.refresh(cachedChunks);
     }
 
     public boolean checkExistsFor(AbstractCachingModel cachingPolicy) {
@@ -870,13 +897,13 @@ public class SmallCell extends AbstractCell {
 
     public void initLclDmdStationary() throws InconsistencyException, InvalidOrUnsupportedException {
         _dmdTrcStationaryReqsRateLoadedPerSC
-                = getSimulation().getScenario().intProperty(Space.SC__DMD__TRACE__STATIONARY_REQUESTS__RATE);
+                = getSimulation().getCompiledScenario().getStationaryReqsRate();
         _dmdTrcStationaryReqsRateLoadedPerSCStdv
-                = getSimulation().getScenario().intProperty(Space.SC__DMD__TRACE__STATIONARY_REQUESTS__STDEV);
+                = getSimulation().getCompiledScenario().getStationaryReqsStdev();
 
         _loadStationaryReqsNum
                 = // so that not all cells get syncrhonised on loading new requests.
-                (int) getSimulation().getRandomGenerator().getGaussian(_dmdTrcStationaryReqsRateLoadedPerSC, _dmdTrcStationaryReqsRateLoadedPerSCStdv);
+                (int) getSimulation().getRandomGenerator(RandomStream.WORKLOAD).getGaussian(_dmdTrcStationaryReqsRateLoadedPerSC, _dmdTrcStationaryReqsRateLoadedPerSCStdv);
 
         if (_loadStationaryReqsNum <= 0) {
             _loadStationaryReqsNum = _dmdTrcStationaryReqsRateLoadedPerSC;
@@ -942,7 +969,11 @@ public class SmallCell extends AbstractCell {
      * mapped to the caching policy _used.
      */
     private final Map<AbstractCachingModel, BufferBase> _buffersMap;
-    private final Map<IGainRplc, PriorityQueue<Chunk>> _orderedCachedByGainMap;
+    private final Map<IGainRplc, EvictionQueue> _orderedCachedByGainMap;
+    /**
+     * Memoised assessments of chunks per caching policy.
+     */
+    private final Map<AbstractCachingModel, AssessmentCache> _assessmentsMap;
 
     /**
      * Other small cells in range of the current small _cell.
@@ -974,7 +1005,9 @@ public class SmallCell extends AbstractCell {
      * Useful state for a dynamic interval where no replacements take place
      * during tryCacheRecentFromBH decisions with EPC-LC
      */
-    public final class EPCLCnoRplcState {
+    public final class EPCLCnoRplcState implements Serializable {
+
+        private static final long serialVersionUID = 1L;
 
         /**
          * @return The performance difference between a and b which indicates
@@ -1095,8 +1128,7 @@ public class SmallCell extends AbstractCell {
          * @return the _readjustmenyPeriod
          */
         public int getReadjustmenyPeriod() {
-            Scenario scenario = SmallCell.this.getSimulation().getScenario();
-            return scenario.intProperty(CACHING__RPLC__MINGAIN__SUM__HEURISTIC__TIME__DYNAMIC__READJUSTMENT_PERIOD);
+            return SmallCell.this.getSimulation().getCompiledScenario().getRplcReadjustmentPeriod();
         }
 
     }
@@ -0,0 +1,392 @@
+package sim.space.cell.smallcell;
+
+import caching.base.AbstractCachingModel;
+import java.io.IOException;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+import java.io.Serializable;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.Set;
+import java.util.SortedMap;
+import java.util.TreeMap;
+import sim.content.Chunk;
+import sim.run.SimulationBaseRunner;
+import sim.space.users.CachingUser;
+import sim.space.users.mobile.MobileUser;
+import utilities.Couple;
+
+/**
+ * Buffer type that keeps its cached chunks ordered by the time they were last
+ * accessed and by the time they were cached, for least recently used (LRU)
+ * and least recently cached (LRC) replacement policies.
+ *
+ * Each ordering is a doubly linked list of the cached chunks, indexed by
+ * chunk, in which the least recent chunk is at the head. As the simulation
+ * time never decreases, a chunk accessed or cached is appended to the tail,
+ * so that caching, accessing or evicting a chunk takes constant time, and
+ * chunks sharing the same time are adjacent in the list.
+ *
+ * @author Xenofon Vasilakos xvas@aueb.gr
+ */
+public class TimeBuffer extends BufferBase implements ITimeBuffer {
+
+    private static final long serialVersionUID = 1L;
+
+    private final TimeOrder _accessOrder;
+    private final TimeOrder _cacheOrder;
+
+    public TimeBuffer(SimulationBaseRunner sim, SmallCell cell, long capacity) {
+        super(sim, cell, capacity);
+        _accessOrder = new TimeOrder();
+        _cacheOrder = new TimeOrder();
+    }
+
+    private void cached(Chunk chunk) {
+        int time = _simulation.simTime();
+        _cacheOrder.append(chunk, time);
+        _accessOrder.append(chunk, time);
+    }
+
+    private void evicted(Chunk chunk) {
+        _cacheOrder.remove(chunk);
+        _accessOrder.remove(chunk);
+    }
+
+    @Override
+    BufferAllocationStatus allocateAttempt(CachingUser cu, Chunk chunk, SmallCell sc) {
+        BufferAllocationStatus result = super.allocateAttempt(cu, chunk, sc);
+        if (result == BufferAllocationStatus.Success) {
+            cached(chunk);
+        }
+        return result;
+    }
+
+    @Override
+    BufferAllocationStatus initCacheAttempt(Chunk chunk, SmallCell sc) {
+        BufferAllocationStatus result = super.initCacheAttempt(chunk, sc);
+        if (result == BufferAllocationStatus.Success) {
+            cached(chunk);
+        }
+        return result;
+    }
+
+    @Override
+    public Set<CachingUser> deallocateTry(Chunk theChunk, MobileUser cu,
+            AbstractCachingModel policy, SmallCell sc) {
+        Set<CachingUser> stillCaching = super.deallocateTry(theChunk, cu, policy, sc);
+        if (!isCached(theChunk)) {
+            evicted(theChunk);
+        }
+        return stillCaching;
+    }
+
+    @Override
+    protected void deallocateForce(Chunk theChunk) {
+        super.deallocateForce(theChunk);
+        evicted(theChunk);
+    }
+
+    @Override
+    public void clear() {
+        super.clear();
+        _accessOrder.clear();
+        _cacheOrder.clear();
+    }
+
+    /**
+     * Deallocates the chunk on behalf of the mobile user, or regardless of its
+     * cachers if the user is null.
+     *
+     * @param request
+     * @param mu
+     * @param cachingMthd
+     * @param sc
+     * @return the users still caching the chunk.
+     * @throws UnsupportedOperationException if the user is neither null nor a
+     * mobile user.
+     */
+    @Override
+    public Set<CachingUser> deallocate(Chunk request, CachingUser mu,
+            AbstractCachingModel cachingMthd, SmallCell sc) throws UnsupportedOperationException {
+        if (mu == null) {
+            deallocateForce(request);
+            return Collections.emptySet();
+        }
+        if (!(mu instanceof MobileUser)) {
+            throw new UnsupportedOperationException(
+                    "Deallocation is supported only on behalf of mobile users.");
+        }
+        return deallocateTry(request, (MobileUser) mu, cachingMthd, sc);
+    }
+
+    @Override
+    public Set<Chunk> LRUAccessed() {
+        return LRUAccessed(0);
+    }
+
+    @Override
+    public Set<Chunk> LRUAccessed(int next) {
+        Couple<Integer, Set<Chunk>> group = _accessOrder.group(next);
+        return group == null ? Collections.<Chunk>emptySet() : group.getSecond();
+    }
+
+    @Override
+    public Set<Chunk> LRUCached() {
+        Couple<Integer, Set<Chunk>> group = _cacheOrder.group(0);
+        return group == null ? Collections.<Chunk>emptySet() : group.getSecond();
+    }
+
+    @Override
+    public int cachedTime(Chunk request) {
+        return _cacheOrder.timeOf(request);
+    }
+
+    @Override
+    public int mostRecentAccess(Chunk request) {
+        return _accessOrder.timeOf(request);
+    }
+
+    @Override
+    public boolean updtAccessTime(Chunk request) {
+        return _accessOrder.moveToTail(request, _simulation.simTime());
+    }
+
+    @Override
+    public Couple<Integer, Set<Chunk>> getLeastRecentlyAccessed() {
+        return _accessOrder.group(0);
+    }
+
+    @Override
+    public Couple<Integer, Set<Chunk>> getLeastRecentlyCached() {
+        return _cacheOrder.group(0);
+    }
+
+    @Override
+    public Couple<Integer, Set<Chunk>> getMostRecentlyAccessed() {
+        return _accessOrder.lastGroup();
+    }
+
+    @Override
+    public Couple<Integer, Set<Chunk>> getMostRecentlyCached() {
+        return _cacheOrder.lastGroup();
+    }
+
+    @Override
+    public Iterable<Chunk> inAccessOrder() {
+        return _accessOrder;
+    }
+
+    @Override
+    public Iterable<Chunk> inCacheOrder() {
+        return _cacheOrder;
+    }
+
+    /**
+     * Note that the mapping is built upon each call by traversing all cached
+     * chunks; use {@link #inAccessOrder()} for the eviction path.
+     *
+     * @return the cached chunks per last access time.
+     */
+    @Override
+    public SortedMap<Integer, Set<Chunk>> getLRUMapping() {
+        SortedMap<Integer, Set<Chunk>> mapping = new TreeMap<>();
+        for (Node nxt = _accessOrder._head; nxt != null; nxt = nxt._next) {
+            Set<Chunk> chunks = mapping.get(nxt._time);
+            if (chunks == null) {
+                mapping.put(nxt._time, chunks = new HashSet<>());
+            }
+            chunks.add(nxt._chunk);
+        }
+        return mapping;
+    }
+
+    private static final class Node implements Serializable {
+
+        private static final long serialVersionUID = 1L;
+
+        private final Chunk _chunk;
+        private int _time;
+        private Node _prev;
+        private Node _next;
+
+        private Node(Chunk chunk, int time) {
+            _chunk = chunk;
+            _time = time;
+        }
+    }
+
+    /**
+     * Chunks in non decreasing order of time, least recent first.
+     *
+     * Serialized as the sequence of its chunks and times, as the default
+     * serialization of the linked nodes recurses as deep as the list is long.
+     */
+    private static final class TimeOrder implements Iterable<Chunk>, Serializable {
+
+        private static final long serialVersionUID = 1L;
+
+        private transient Map<Chunk, Node> _nodes = new HashMap<>();
+        private transient Node _head;
+        private transient Node _tail;
+
+        private void writeObject(ObjectOutputStream out) throws IOException {
+            out.defaultWriteObject();
+            out.writeInt(_nodes.size());
+            for (Node nxt = _head; nxt != null; nxt = nxt._next) {
+                out.writeObject(nxt._chunk);
+                out.writeInt(nxt._time);
+            }
+        }
+
+        private void readObject(ObjectInputStream in) throws IOException, ClassNotFoundException {
+            in.defaultReadObject();
+            _nodes = new HashMap<>();
+            for (int i = in.readInt(); i > 0; i--) {
+                Chunk chunk = (Chunk) in.readObject();
+                append(chunk, in.readInt());
+            }
+        }
+
+        private void append(Chunk chunk, int time) {
+            Node node = _nodes.get(chunk);
+            if (node != null) {
+                unlink(node);
+                node._time = time;
+            } else {
+                node = new Node(chunk, time);
+                _nodes.put(chunk, node);
+            }
+            link(node);
+        }
+
+        private boolean moveToTail(Chunk chunk, int time) {
+            Node node = _nodes.get(chunk);
+            if (node == null) {
+                return false;
+            }
+            node._time = time;
+            if (node != _tail) {
+                unlink(node);
+                link(node);
+            }
+            return true;
+        }
+
+        private void remove(Chunk chunk) {
+            Node node = _nodes.remove(chunk);
+            if (node != null) {
+                unlink(node);
+            }
+        }
+
+        private void clear() {
+            _nodes.clear();
+            _head = _tail = null;
+        }
+
+        private void link(Node node) {
+            node._prev = _tail;
+            node._next = null;
+            if (_tail == null) {
+                _head = node;
+            } else {
+                _tail._next = node;
+            }
+            _tail = node;
+        }
+
+        private void unlink(Node node) {
+            if (node._prev == null) {
+                _head = node._next;
+            } else {
+                node._prev._next = node._next;
+            }
+            if (node._next == null) {
+                _tail = node._prev;
+            } else {
+                node._next._prev = node._prev;
+            }
+            node._prev = node._next = null;
+        }
+
+        private int timeOf(Chunk chunk) {
+            Node node = _nodes.get(chunk);
+            if (node == null) {
+                throw new NoSuchElementException("Chunk not cached: " + chunk.toSynopsisString());
+            }
+            return node._time;
+        }
+
+        /**
+         * @param next zero for the least recent group of chunks, one for the
+         * next one and so forth.
+         * @return the time and the chunks of the group, or null if there are
+         * not that many groups.
+         */
+        private Couple<Integer, Set<Chunk>> group(int next) {
+            Node first = _head;
+            for (int i = 0; i < next && first != null; i++) {
+                int time = first._time;
+                while (first != null && first._time == time) {
+                    first = first._next;
+                }
+            }
+            if (first == null) {
+                return null;
+            }
+            Set<Chunk> chunks = new HashSet<>();
+            for (Node nxt = first; nxt != null && nxt._time == first._time; nxt = nxt._next) {
+                chunks.add(nxt._chunk);
+            }
+            return new Couple<>(first._time, chunks);
+        }
+
+        private Couple<Integer, Set<Chunk>> lastGroup() {
+            if (_tail == null) {
+                return null;
+            }
+            Set<Chunk> chunks = new HashSet<>();
+            for (Node nxt = _tail; nxt != null && nxt._time == _tail._time; nxt = nxt._prev) {
+                chunks.add(nxt._chunk);
+            }
+            return new Couple<>(_tail._time, chunks);
+        }
+
+        /**
+         * @return an iterator from the least to the most recent chunk, which
+         * does not support removals.
+         */
+        @Override
+        public Iterator<Chunk> iterator() {
+            return new Iterator<Chunk>() {
+                private Node _nxt = _head;
+
+                @Override
+                public boolean hasNext() {
+                    return _nxt != null;
+                }
+
+                @Override
+                public Chunk next() {
+                    if (_nxt == null) {
+                        throw new NoSuchElementException();
+                    }
+                    Chunk chunk = _nxt._chunk;
+                    _nxt = _nxt._next;
+                    return chunk;
+                }
+
+                @Override
+                public void remove() {
+                    throw new UnsupportedOperationException(
+                            "Evict chunks through the buffer, not through its ordering.");
+                }
+            };
+        }
+    }
+}
@@ -23,6 +23,8 @@ import sim.space.cell.smallcell.SmallCell;
  */
 public abstract class CachingUser extends User {
 
+    private static final long serialVersionUID = 1L;
+
     private final Collection<AbstractCachingModel> _cachingPolicies;
     private SmallCell _lastSCForCacheDecisions;
     private final Map<AbstractCachingModel, List<Chunk>> _mostRecentlyConsumedMC;
@@ -21,6 +21,8 @@ import sim.space.cell.smallcell.SmallCell;
  */
 public class StationaryUser extends CachingUser {
 
+    private static final long serialVersionUID = 1L;
+
     public StationaryUser(String id, SimulationBaseRunner sim,
             Collection<AbstractCachingModel> cachingPolicies) throws InvalidOrUnsupportedException {
 
@@ -6,6 +6,9 @@
 package sim.space.users;
 
 import exceptions.InconsistencyException;
+import java.io.IOException;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
 import java.util.ArrayList;
 import java.util.Collection;
 import java.util.Collections;
@@ -27,6 +30,8 @@ import sim.space.cell.smallcell.SmallCell;
  */
 public abstract class User implements ISimulationMember, ISpaceMember, ISynopsisString {
 
+    private static final long serialVersionUID = 1L;
+
     private final SimulationBaseRunner<?> _simulation;
     private final List<DocumentRequest> _requests;
     private final List<Chunk> _requestsInChunks;
@@ -35,8 +40,12 @@ public abstract class User implements ISimulationMember, ISpaceMember, ISynopsis
     private UserGroup _userGroup;
     protected int _lastTimeReqsUpdt;
     protected final String _id;
-    protected MacroCell _currConnectedMC;
-    protected SmallCell _currentlyConnectedSC;
+    /**
+     * Serialized after the id, as the cells refer back to their users in hash
+     * based collections.
+     */
+    protected transient MacroCell _currConnectedMC;
+    protected transient SmallCell _currentlyConnectedSC;
     protected int _connectedSinceSC;
 
     protected User(String id, SimulationBaseRunner<?> sim) {
@@ -86,6 +95,18 @@ public abstract class User implements ISimulationMember, ISpaceMember, ISynopsis
         return _id.hashCode();
     }
 
+    private void writeObject(ObjectOutputStream out) throws IOException {
+        out.defaultWriteObject();
+        out.writeObject(_currConnectedMC);
+        out.writeObject(_currentlyConnectedSC);
+    }
+
+    private void readObject(ObjectInputStream in) throws IOException, ClassNotFoundException {
+        in.defaultReadObject();
+        _currConnectedMC = (MacroCell) in.readObject();
+        _currentlyConnectedSC = (SmallCell) in.readObject();
+    }
+
     @Override
     public final SimulationBaseRunner<?> getSimulation() {
         return _simulation;
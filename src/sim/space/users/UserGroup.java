@@ -12,6 +12,8 @@ import sim.space.cell.CellRegistry;
  */
 public class UserGroup implements Comparable<UserGroup>, ISimulationMember {
 
+    private static final long serialVersionUID = 1L;
+
     protected final SimulationBaseRunner _simulation;
     protected final int id;
     protected final int size;
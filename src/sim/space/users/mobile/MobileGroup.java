@@ -1,6 +1,7 @@
 package sim.space.users.mobile;
 
 import sim.run.SimulationBaseRunner;
+import utils.random.RandomStream;
 
 /**
  *
@@ -8,6 +9,8 @@ import sim.run.SimulationBaseRunner;
  */
 public class MobileGroup extends sim.space.users.UserGroup {
 
+    private static final long serialVersionUID = 1L;
+
     private final String _howToResetPos;
     private final int _residenceDelayInSC;
     private final int _handoverDelayInSC;
@@ -107,7 +110,7 @@ public class MobileGroup extends sim.space.users.UserGroup {
     }
 
     public double gaussianVelocity() {
-        return _simulation.getRandomGenerator().getGaussian(_velocityMean, _velocityStdev);
+        return _simulation.getRandomGenerator(RandomStream.MOBILITY).getGaussian(_velocityMean, _velocityStdev);
     }
 
     /**
@@ -25,6 +25,8 @@ import utils.CommonFunctions;
  */
 public class MobileGroupsRegistry implements ISimulationMember, ISynopsisString {
 
+    private static final long serialVersionUID = 1L;
+
     private final SimulationBaseRunner simulation;
     private final SortedMap<Integer, MobileGroup> groups;
     private final List<Integer> sizeGrp;
@@ -1,6 +1,5 @@
 package sim.space.users.mobile;
 
-import app.properties.Space;
 import app.properties.valid.Values;
 import caching.MaxPop;
 import caching.Utils;
@@ -19,11 +18,13 @@ import java.util.Map;
 import java.util.logging.Logger;
 import sim.Scenario;
 import sim.content.Chunk;
+import sim.content.ChunkRange;
 import sim.space.Area;
 import sim.content.request.DocumentRequest;
 import sim.space.Point;
 import sim.space.cell.CellRegistry;
 import sim.space.cell.CellUtilities;
+import sim.space.cell.DurationStats;
 import sim.space.connectivity.ConnectionStatusUpdate;
 import static sim.space.connectivity.ConnectionStatusUpdate.GOT_DISCONNECTED;
 import static sim.space.connectivity.ConnectionStatusUpdate.REMAINS_DISCONNECTED_WAS_AT_SOME_POINT_CONNECTED;
@@ -37,6 +38,7 @@ import static sim.space.connectivity.ConnectionStatusUpdate.REMAINS_CONNECTED_TO
 import sim.space.users.CachingUser;
 import utilities.Couple;
 import utils.DebugTool;
+import utils.random.RandomStream;
 
 /**
  *
@@ -44,6 +46,8 @@ import utils.DebugTool;
  */
 public class MobileUser extends CachingUser {
 
+    private static final long serialVersionUID = 1L;
+
     private static final Logger LOG = Logger.getLogger(MobileUser.class.getCanonicalName());
 
     public static final MobileUser DUMMY_MU = new MobileUser("DUMMY_MU");
@@ -147,7 +151,7 @@ public class MobileUser extends CachingUser {
                 builder.__simulation,
                 builder._cachingPolicies
         );
-        this._softUser = Boolean.parseBoolean(getSimulation().getScenario().stringProperty(Space.MU__ISSOFT, false));
+        this._softUser = getSimulation().getCompiledScenario().isSoftUsers();
 
         this._lastTimeReqsUpdt = -1;
 
@@ -195,7 +199,7 @@ public class MobileUser extends CachingUser {
             _maxProbDirectionAtInitState = this._maxProbDirection = -1;
         }
 
-        _mobAccuracy = getSimulation().getScenario().doubleProperty(Space.MU__MOBILITYACCURACY);
+        _mobAccuracy = getSimulation().getCompiledScenario().getMUMobilityAccuracy();
 
         _connectedSinceSC = _lastHandoffTime = _lastHandoverDuration = -1;
         _lastResetStatusTime = simTime();
@@ -316,6 +320,10 @@ public class MobileUser extends CachingUser {
     public void cacheDescisionsPerformRegisterPC(SmallCell hostingSC) throws IOException, Throwable {
         setLastSCForCacheDecisions(hostingSC);
 
+        CellRegistry cellRegistry = getSimulation().getCellRegistry();
+        DurationStats residenceStats = new DurationStats();
+        DurationStats handoverStats = new DurationStats();
+
         /* take cache descisions for every caching candidate cell*/
         for (SmallCell targetSC : hostingSC.neighbors()) {
 
@@ -331,15 +339,14 @@ public class MobileUser extends CachingUser {
 //                    throw new InconsistencyException("zero probability even though cells are neighbors..");
 //                }
 //            }
-            CellRegistry cellRegistry = getSimulation().getCellRegistry();
-            Couple<Double, Double> residenceStats = cellRegistry.getResidenceDurationBetween(this.getUserGroup(), hostingSC, targetSC, true);
+            cellRegistry.residenceDurationBetween(this.getUserGroup(), hostingSC, targetSC, true, residenceStats);
 
-            Double expectedResidenceDuration = residenceStats.getFirst();
-            Double conf95ResidenceDur = residenceStats.getSecond();
+            double expectedResidenceDuration = residenceStats.mean();
+            double conf95ResidenceDur = residenceStats.conf95();
 
-            Couple<Double, Double> handoverStats = cellRegistry.getHandoverDurationBetween(getUserGroup(), hostingSC, targetSC, true);
-            Double expectedHandoffDuration = handoverStats.getFirst();
-            Double conf95HandoverDur = handoverStats.getSecond();
+            cellRegistry.handoverDurationBetween(getUserGroup(), hostingSC, targetSC, true, handoverStats);
+            double expectedHandoffDuration = handoverStats.mean();
+            double conf95HandoverDur = handoverStats.conf95();
 
             cacheDescisionsPerformRegisterPC(targetSC,
                     expectedResidenceDuration, conf95ResidenceDur,
@@ -545,16 +552,16 @@ public class MobileUser extends CachingUser {
                 newPoint = _startCoordinates;
                 break;
             case Values.RANDOM:
-                int randX = getSimulation().getRandomGenerator().randIntInRange(0, _area.getLengthX() - 1);
-                int randY = getSimulation().getRandomGenerator().randIntInRange(0, _area.getLengthY() - 1);
+                int randX = getSimulation().getRandomGenerator(RandomStream.MOBILITY).randIntInRange(0, _area.getLengthX() - 1);
+                int randY = getSimulation().getRandomGenerator(RandomStream.MOBILITY).randIntInRange(0, _area.getLengthY() - 1);
                 _startCoordinates = newPoint = _area.getPointAt(randX, randY);
                 break;
             case Values.RANDOM_X:
-                randX = getSimulation().getRandomGenerator().randIntInRange(0, _area.getLengthX() - 1);
+                randX = getSimulation().getRandomGenerator(RandomStream.MOBILITY).randIntInRange(0, _area.getLengthX() - 1);
                 _startCoordinates = newPoint = _area.getPointAt(randX, _startCoordinates.getY());
                 break;
             case Values.RANDOM_Y:
-                randY = getSimulation().getRandomGenerator().randIntInRange(0, _area.getLengthY() - 1);
+                randY = getSimulation().getRandomGenerator(RandomStream.MOBILITY).randIntInRange(0, _area.getLengthY() - 1);
                 _startCoordinates = newPoint = _area.getPointAt(_startCoordinates.getX(), randY);
                 break;
             default:
@@ -737,7 +744,7 @@ public class MobileUser extends CachingUser {
          */ Couple<Point, Boolean> newPointLoopedCouple = null;
 
         int pos = -1;
-        double rand = getSimulation().getRandomGenerator().randProbability();
+        double rand = getSimulation().getRandomGenerator(RandomStream.MOBILITY).randProbability();
         double sum = 0;
 
         switch (_muTransitionDecisions) {
@@ -1006,11 +1013,6 @@ public class MobileUser extends CachingUser {
             }
 
 //////////// take oracle cache decisions            
-            Couple<Double, Double> residenceDuration = getSimulation().getCellRegistry().getResidenceDurationBetween(getUserGroup(),
-                    _previouslyConnectedSC,
-                    _currentlyConnectedSC, true
-            );
-
 //            long chunkSizeInBytes = getSim().chunkSizeInBytes();
 //            double sliceSC = (double) getSim().getRateSCWlessInBytes() / getRequests().size();          
 //            double howManyChunks = Math.round(sliceSC / chunkSizeInBytes);
@@ -1036,7 +1038,7 @@ public class MobileUser extends CachingUser {
      */
     public void updtMoveDirectionClockwise() {
         int pos = -1;
-        double rand = getSimulation().getRandomGenerator().randProbability();
+        double rand = getSimulation().getRandomGenerator(RandomStream.MOBILITY).randProbability();
         double sum = 0;
 
         while (pos < _probsTransition.length) {
@@ -1160,6 +1162,19 @@ public class MobileUser extends CachingUser {
         int scRateSliceBytes = Math.round(getSimulation().getRateSCWlessInBytes() / slice);
         int bhRateSliceBytes = Math.round(getSimulation().getRateBHInBytes() / slice);
 
+///////////////////////predict once per request the chunks window shared by all policies
+        List<DocumentRequest> requests = new ArrayList<>(getRequests());
+        List<DocumentRequest.ChunkWindow> windows = new ArrayList<>(requests.size());
+        for (DocumentRequest nxtReq : requests) {
+            windows.add(nxtReq.predictWindow(
+                    isSoftUser(),
+                    expectedHandoffDuration, conf95HandoffDur,
+                    expectedResidenceDuration, conf95ResidenceDur, mcRateSliceBytes,
+                    bhRateSliceBytes,
+                    scRateSliceBytes
+            ));
+        }
+
 ///////////////////////select chunks and 
 ///////////////////////update popularity info for requests
         for (AbstractCachingModel model : getCachingPolicies()) {
@@ -1170,40 +1185,11 @@ public class MobileUser extends CachingUser {
                 continue;
             }
 
-            List<Chunk> predictedChunks = new ArrayList();
-            List<Chunk> predictedChunksNaive = new ArrayList();
-            for (DocumentRequest nxtReq : getRequests()) {
-// update popularity info for requests
-                //targetSC.getPopInfo().registerPopInfo(nxtReq);
+            for (int i = 0; i < requests.size(); i++) {
 // select chunks
-                predictedChunks.addAll(
-                        nxtReq.predictChunks2Request(
-                                model, handoverProb, isSoftUser(),
-                                expectedHandoffDuration, conf95HandoffDur,
-                                expectedResidenceDuration, conf95ResidenceDur, mcRateSliceBytes,
-                                bhRateSliceBytes,
-                                scRateSliceBytes
-                        )
-                );
-                predictedChunksNaive.addAll(
-                        nxtReq.predictChunks2Request(
-                                model, handoverProb, isSoftUser(),
-                                getSimulation().getRandomGenerator().
-                                randDoubleInRange(0, expectedHandoffDuration),
-                                0,
-                                getSimulation().getRandomGenerator().
-                                randDoubleInRange(0, expectedResidenceDuration),
-                                0,
-                                mcRateSliceBytes,
-                                bhRateSliceBytes,
-                                scRateSliceBytes)
-                );
-
-                
-
-                for (Chunk nxtChunk : predictedChunks) {
-                    targetSC.getDmdPC(model).registerUpdtInfoPC(nxtChunk, this, handoverProb);
-                }
+                ChunkRange predictedChunks
+                        = requests.get(i).predictChunks2Request(model, windows.get(i));
+                targetSC.getDmdPC(model).registerUpdtInfoPC(predictedChunks, this, handoverProb);
 
 ///////////////////////take cache decisions    
                 targetSC.cacheDecisions(model, this, targetSC,
@@ -16,6 +16,8 @@ import utilities.Couple;
  */
 public class TraceMU extends MobileUser {
 
+    private static final long serialVersionUID = 1L;
+
     private static final Logger LOG = Logger.getLogger(TraceMU.class.getCanonicalName());
 
     private double dX;
@@ -0,0 +1,81 @@
+package sim.space.util;
+
+import app.properties.Simulation;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+import sim.Scenario;
+import sim.space.cell.smallcell.SmallCell;
+
+/**
+ * Runs a setup task once per small cell, in parallel when the scenario allows
+ * for more than one setup thread.
+ *
+ * Tasks run in parallel must mutate only the state of the small cell they are
+ * applied to; state shared by the small cells, e.g. the points of the area,
+ * must be updated sequentially afterwards in the order of the small cells.
+ *
+ * @author Xenofon Vasilakos xvas@aueb.gr
+ */
+public final class CellTasks {
+
+    /**
+     * Fewer small cells are handled sequentially, as the cost of starting the
+     * threads outweighs the gain.
+     */
+    private static final int MIN_PARALLEL_SCS = 32;
+
+    /**
+     * A setup task applied to each small cell.
+     */
+    public interface Task {
+
+        void apply(SmallCell sc);
+    }
+
+    private CellTasks() {
+    }
+
+    /**
+     * Applies the task to each small cell. Any exception thrown by the task is
+     * rethrown.
+     *
+     * @param scenario
+     * @param scs
+     * @param task
+     */
+    public static void forEach(Scenario scenario, List<SmallCell> scs, final Task task) {
+        int threads = scenario.intProperty(Simulation.Parallel.SETUP_THREADS);
+        if (threads == 0) {
+            threads = Runtime.getRuntime().availableProcessors();
+        }
+        if (threads <= 1 || scs.size() < MIN_PARALLEL_SCS) {
+            for (SmallCell nxtSC : scs) {
+                task.apply(nxtSC);
+            }
+            return;
+        }
+
+        final List<RecursiveAction> perSC = new ArrayList<>(scs.size());
+        for (final SmallCell nxtSC : scs) {
+            perSC.add(new RecursiveAction() {
+                @Override
+                protected void compute() {
+                    task.apply(nxtSC);
+                }
+            });
+        }
+        ForkJoinPool pool = new ForkJoinPool(threads);
+        try {
+            pool.invoke(new RecursiveAction() {
+                @Override
+                protected void compute() {
+                    invokeAll(perSC);
+                }
+            });
+        } finally {
+            pool.shutdown();
+        }
+    }
+}
@@ -5,6 +5,7 @@
  */
 package sim.space.util;
 
+import java.io.Serializable;
 import sim.space.ISpaceMember;
 import java.util.Comparator;
 
@@ -12,7 +13,9 @@ import java.util.Comparator;
  *
  * @author Xenofon Vasilakos xvas@aueb.gr
  */
-public class DistanceComparator implements Comparator<ISpaceMember> {
+public class DistanceComparator implements Comparator<ISpaceMember>, Serializable {
+
+    private static final long serialVersionUID = 1L;
 
    /**
     * The reference space member from which Euclidian distances are computed.
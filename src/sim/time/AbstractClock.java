@@ -2,6 +2,8 @@ package sim.time;
 
 import static app.properties.Simulation.Clock.INIT_TIME;
 import exceptions.InconsistencyException;
+import java.io.IOException;
+import java.io.ObjectInputStream;
 import java.util.logging.Logger;
 import sim.ISimulationMember;
 import sim.Scenario;
@@ -13,6 +15,8 @@ import sim.space.cell.CellRegistry;
  */
 public abstract class AbstractClock implements ISimulationMember, Comparable<AbstractClock> {
 
+    private static final long serialVersionUID = 1L;
+
     /**
      * this is the simTime since the class was loaded, i.e., from the beginning
      * of the whole simulation batch
@@ -27,7 +31,7 @@ public abstract class AbstractClock implements ISimulationMember, Comparable<Abs
     protected SimulationBaseRunner simulation;
     protected Scenario setup;
     private long lastPeriodicLoging;
-    protected Logger _logger;
+    protected transient Logger _logger;
 
     public AbstractClock(SimulationBaseRunner sim) {
         this.lastPeriodicLoging = System.currentTimeMillis();
@@ -167,4 +171,8 @@ public abstract class AbstractClock implements ISimulationMember, Comparable<Abs
         return this.getClass().getCanonicalName().compareTo(t.getClass().getCanonicalName());
     }
 
+    private void readObject(ObjectInputStream in) throws IOException, ClassNotFoundException {
+        in.defaultReadObject();
+        _logger = Logger.getLogger(getClass().getCanonicalName());
+    }
 }
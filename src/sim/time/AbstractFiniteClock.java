@@ -13,6 +13,8 @@ import sim.run.SimulationBaseRunner;
  */
 public abstract class AbstractFiniteClock extends SimpleClock {
 
+    private static final long serialVersionUID = 1L;
+
     /**
      * Percentage of simulations batch progress with two decimals.
      *
@@ -11,6 +11,8 @@ import java.util.logging.Logger;
  */
 public class FiniteRequestsClock extends AbstractFiniteClock {
 
+    private static final long serialVersionUID = 1L;
+
     private int _reqsThreshold;
 
     public FiniteRequestsClock(sim.run.SimulationBaseRunner sim) {
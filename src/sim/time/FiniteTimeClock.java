@@ -12,6 +12,8 @@ import java.util.logging.Logger;
  */
 public class FiniteTimeClock extends AbstractFiniteClock {
 
+    private static final long serialVersionUID = 1L;
+
     private int _timeThreshold;
 
     public FiniteTimeClock(sim.run.SimulationBaseRunner sim) {
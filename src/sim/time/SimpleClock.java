@@ -12,6 +12,8 @@ import utils.CommonFunctions;
  */
 public class SimpleClock extends AbstractClock {
 
+    private static final long serialVersionUID = 1L;
+
     protected static String LOG_SEPARATOR = "* * * * * * * * *\n";
 
     protected int gcPeriod;
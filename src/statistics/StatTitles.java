@@ -0,0 +1,81 @@
+package statistics;
+
+import java.io.Serializable;
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Interns the titles of the statistics recorded into a dense space of integer
+ * ids, in the order the titles are registered, so that the values recorded
+ * for a statistic are looked up by array index rather than by title.
+ *
+ * Titles are registered once, when the statistics handlers are loaded. Ids are
+ * never reused nor reassigned, thus an id is valid for as long as the
+ * registry.
+ *
+ * @author Xenofon Vasilakos xvas@aueb.gr
+ */
+public final class StatTitles implements Serializable {
+
+    private static final long serialVersionUID = 1L;
+
+    private final Map<String, Integer> _ids = new HashMap<>();
+    private final List<String> _titles = new ArrayList<>();
+    /**
+     * Ids of the titles for which the values recorded are kept, e.g. for
+     * percentiles.
+     */
+    private final BitSet _keepingSamples = new BitSet();
+
+    /**
+     * @param title
+     * @return the id of the title, which is registered if not already.
+     */
+    public int register(String title) {
+        Integer id = _ids.get(title);
+        if (id == null) {
+            id = _titles.size();
+            _ids.put(title, id);
+            _titles.add(title);
+        }
+        return id;
+    }
+
+    /**
+     * Marks the title to keep the values recorded for it rather than only
+     * aggregating them.
+     *
+     * @param id
+     */
+    public void keepSamples(int id) {
+        _keepingSamples.set(id);
+    }
+
+    /**
+     * @param title
+     * @return the id of the title, or -1 if not registered.
+     */
+    public int id(String title) {
+        Integer id = _ids.get(title);
+        return id == null ? -1 : id;
+    }
+
+    public String title(int id) {
+        return _titles.get(id);
+    }
+
+    public boolean keepsSamples(int id) {
+        return _keepingSamples.get(id);
+    }
+
+    /**
+     * @return the number of titles registered, i.e. one more than the
+     * greatest id.
+     */
+    public int size() {
+        return _titles.size();
+    }
+}
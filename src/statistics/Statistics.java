@@ -2,6 +2,8 @@ package statistics;
 
 import app.properties.StatsProperty;
 import exceptions.InvalidOrUnsupportedException;
+import java.io.IOException;
+import java.io.ObjectInputStream;
 import java.util.ArrayList;
 import java.util.Collection;
 import java.util.Collections;
@@ -45,16 +47,33 @@ import utilities.Couple;
  */
 public class Statistics implements ISimulationMember {
 
+    private static final long serialVersionUID = 1L;
+
     public static final int DEFAULT_ROUND_DECIMAL = 6;
 
     private final SortedMap<Integer, StatsToValuesMapping> _stats2TimeMapping;
+    /**
+     * The titles in lexicographical order, which is the order of the results
+     * printed.
+     */
     private final Set<String> _statisticsTitles;
+    /**
+     * The ids of the titles, including which titles keep the values recorded,
+     * e.g. for percentiles; values of other statistics are only aggregated.
+     */
+    private final StatTitles _titles;
     private final int _roundDecimal;
+    /**
+     * The most recent time values were recorded for and its record, as values
+     * are recorded for the same time throughout a round.
+     */
+    private transient int _recentTime;
+    private transient StatsToValuesMapping _recentRecs;
 
     private final SimulationBaseRunner _sim;
     private boolean _transientTitlesWerePrint;
     private boolean _transientAggrTitlesWerePrint;
-    private final Logger _logger;
+    private transient Logger _logger;
 
     public enum ConfidenceInterval {
 
@@ -188,19 +207,29 @@ public class Statistics implements ISimulationMember {
 
         if (simulation != null) {
             _roundDecimal = simulation.getScenario().intProperty(StatsProperty.STATS__ROUNDING_DECIMAL);
-            _logger = Logger.getLogger(Statistics.class.getCanonicalName() + ":Sim_" + simID());
         } else {
             _roundDecimal = DEFAULT_ROUND_DECIMAL;
-            _logger = Logger.getLogger(Statistics.class.getCanonicalName() + ":Sim_null");
         }
+        _logger = logger();
 
         _transientTitlesWerePrint = false;
         _transientAggrTitlesWerePrint = false;
         _statisticsTitles = new TreeSet<>();
+        _titles = new StatTitles();
         _stats2TimeMapping = new TreeMap();
 
     }
 
+    private Logger logger() {
+        return Logger.getLogger(Statistics.class.getCanonicalName() + ":Sim_"
+                + (_sim != null ? String.valueOf(simID()) : "null"));
+    }
+
+    private void readObject(ObjectInputStream in) throws IOException, ClassNotFoundException {
+        in.defaultReadObject();
+        _logger = logger();
+    }
+
     /**
      * Checks if this statistic is recorded; if not, then it throws an
      * StatisticException
@@ -267,8 +296,36 @@ public class Statistics implements ISimulationMember {
         return Collections.unmodifiableSortedSet((SortedSet<Integer>) _stats2TimeMapping.keySet());
     }
 
-    public synchronized void addTitle(String statTitle) {
+    /**
+     * @param statTitle
+     * @return the id of the title, by which values are recorded without
+     * looking up the title.
+     */
+    public synchronized int addTitle(String statTitle) {
         _statisticsTitles.add(statTitle);
+        return _titles.register(statTitle);
+    }
+
+    /**
+     * Adds the statistic title and keeps the values recorded for it, so that
+     * percentiles can be computed before the state of each time is finalized.
+     * Values of other titles are only aggregated.
+     *
+     * @param statTitle
+     * @return the id of the title.
+     */
+    public synchronized int addTitleKeepingSamples(String statTitle) {
+        int id = addTitle(statTitle);
+        _titles.keepSamples(id);
+        return id;
+    }
+
+    /**
+     * @param statTitle
+     * @return the id of the title, or -1 if the title is not added.
+     */
+    public synchronized int titleID(String statTitle) {
+        return _titles.id(statTitle);
     }
 
     public synchronized String resultsAggregated(
@@ -344,7 +401,8 @@ public class Statistics implements ISimulationMember {
     }
 
     public synchronized void addValuesForTime(int time, String statTitle, double... value) throws StatisticException {
-        if (!_statisticsTitles.contains(statTitle)) {
+        int titleID = _titles.id(statTitle);
+        if (titleID < 0) {
 //            StringBuilder msg = new StringBuilder();
 //            msg.append("No such statistic title declared: \"")
 //                    .append(statTitle)
@@ -353,15 +411,35 @@ public class Statistics implements ISimulationMember {
 //            throw new StatisticException(msg.toString());
             return;
         }
+        addValuesForTime(time, titleID, value);
+    }
+
+    /**
+     * Records the values for the statistic with the title id, as returned upon
+     * adding the title.
+     *
+     * @param time
+     * @param titleID ignored if negative, i.e. if the title is not added.
+     * @param value
+     * @throws StatisticException
+     */
+    public synchronized void addValuesForTime(int time, int titleID, double... value) throws StatisticException {
+        if (titleID < 0) {
+            return;
+        }
 
         // ensure record exists in map
         StatsToValuesMapping titles_values;
-        if ((titles_values = _stats2TimeMapping.get(time)) == null) {
-            titles_values = new StatsToValuesMapping();
+        if (_recentRecs != null && _recentTime == time) {
+            titles_values = _recentRecs;
+        } else if ((titles_values = _stats2TimeMapping.get(time)) == null) {
+            titles_values = new StatsToValuesMapping(_titles);
             _stats2TimeMapping.put(time, titles_values);
         }
+        _recentTime = time;
+        _recentRecs = titles_values;
         // in any case addValuesForTime for statTitle, and if first simTime added, ensure recorded in knwon names ..
-        titles_values.update(statTitle, _roundDecimal, value);
+        titles_values.update(titleID, _roundDecimal, value);
     }
 
     public synchronized void addValuesForTime(int time, StatsToValuesMapping titlesValues) throws StatisticException {
@@ -375,6 +453,7 @@ public class Statistics implements ISimulationMember {
             return;
         }
 
+        _recentRecs = null;
         if (null != (_stats2TimeMapping.put(time, titlesValues))) {
             StringBuilder sb = new StringBuilder();
             sb.append("A record allready exists for time ")
@@ -1,8 +1,9 @@
 package statistics;
 
+import java.io.Serializable;
+import java.util.Arrays;
 import java.util.Collection;
 import java.util.Collections;
-import java.util.Iterator;
 import java.util.Map;
 import java.util.Set;
 import java.util.TreeMap;
@@ -11,33 +12,56 @@ import statistics.Statistics.ConfidenceInterval;
 /**
  * Keeps track of different statistic titles (categories) by mapping recorded values to statistics titles.
  * Values of a given statistic are recorded in an Values instance, which is mapped to the title of the
- * statistic. Note that statistics and their corresponding values are kept in lexicographical order according
- * to statistics titles.
+ * statistic. Note that statistics and their corresponding values are reported in lexicographical order
+ * according to statistics titles.
+ *
+ * Titles are interned in a {@link StatTitles} registry, which may be shared by many instances, and the
+ * Values instances are kept in an array indexed by the id of their title; thus recording a value for a title
+ * id is an array index update.
  *
  * @author xvas
  */
-public class StatsToValuesMapping {
+public class StatsToValuesMapping implements Serializable {
+
+    private static final long serialVersionUID = 1L;
 
    /**
-    * key: Statistic title
+    * index: Statistic title id
     *
-    * value: Values aggregated
+    * value: Values aggregated, or null if no value is recorded for the title
     */
-   private final Map<String, Values> statTitle2Values = new TreeMap<>();
+   private Values[] statID2Values;
+   private final StatTitles titles;
    private ConfidenceInterval confidence_interval;
 
    /**
-    * Uses default confidence interval with 95% confidence.
+    * Uses default confidence interval with 95% confidence and a registry of titles of its own.
     */
    public StatsToValuesMapping() {
-      confidence_interval = ConfidenceInterval.Percentile_95;
+      this(new StatTitles());
+   }
+
+   /**
+    * Uses default confidence interval with 95% confidence.
+    *
+    * @param _titles the registry of the titles of statistics, which also defines the titles for which the
+    * values recorded are kept rather than only aggregated, e.g. for percentiles.
+    */
+   public StatsToValuesMapping(StatTitles _titles) {
+      this(_titles, ConfidenceInterval.Percentile_95);
    }
 
    /**
     * @param _confidence_interval The confidence interval percentile to use.
     */
    public StatsToValuesMapping(ConfidenceInterval _confidence_interval) {
+      this(new StatTitles(), _confidence_interval);
+   }
+
+   private StatsToValuesMapping(StatTitles _titles, ConfidenceInterval _confidence_interval) {
+      titles = _titles;
       confidence_interval = _confidence_interval;
+      statID2Values = new Values[Math.max(titles.size(), 8)];
    }
 
    /**
@@ -57,15 +81,35 @@ public class StatsToValuesMapping {
      * @throws statistics.StatisticException
     */
    public boolean update(String statName, int roundDecismal, double... value) throws StatisticException {
+      return update(titles.register(statName), roundDecismal, value);
+   }
+
+   /**
+    *
+    * @param statID the id of the title of the statistic in the registry of titles
+    * @param roundDecismal
+    * @param value
+    * @return true if recorded this statistic for the first time, otherwise false
+    * @throws statistics.StatisticException
+    */
+   public boolean update(int statID, int roundDecismal, double... value) throws StatisticException {
+      if (statID >= statID2Values.length) {
+         statID2Values = Arrays.copyOf(statID2Values, Math.max(statID + 1, 2 * statID2Values.length));
+      }
       Values aggr;
-      if ((aggr = statTitle2Values.get(statName)) == null) {
-         statTitle2Values.put(statName, new Values(roundDecismal, value));
+      if ((aggr = statID2Values[statID]) == null) {
+         statID2Values[statID] = new Values(roundDecismal, titles.keepsSamples(statID), value);
          return true;
       }
       aggr.updt(value);
       return false;
    }
 
+   private Values valuesFor(String statName) {
+      int id = titles.id(statName);
+      return id < 0 || id >= statID2Values.length ? null : statID2Values[id];
+   }
+
    /**
     *
     * @param statName The title of the statistic
@@ -74,7 +118,7 @@ public class StatsToValuesMapping {
     * recorded.
     */
    public Values aggregatesFor(String statName) {
-      return statTitle2Values.get(statName);
+      return valuesFor(statName);
    }
 
    /**
@@ -86,7 +130,7 @@ public class StatsToValuesMapping {
     */
    public double mean(String statName) throws StatisticException {
       Values aggr;
-      if ((aggr = statTitle2Values.get(statName)) == null) {
+      if ((aggr = valuesFor(statName)) == null) {
          throw new StatisticException(statName + " is not recorded");
       }
 
@@ -102,7 +146,7 @@ public class StatsToValuesMapping {
     */
    public double sum(String statName) throws StatisticException {
       Values aggr;
-      if ((aggr = statTitle2Values.get(statName)) == null) {
+      if ((aggr = valuesFor(statName)) == null) {
          throw new StatisticException(statName + " is not recorded");
       }
 
@@ -118,7 +162,7 @@ public class StatsToValuesMapping {
     */
    public double variance(String statName) throws StatisticException {
       Values aggr;
-      if ((aggr = statTitle2Values.get(statName)) == null) {
+      if ((aggr = valuesFor(statName)) == null) {
          throw new StatisticException(statName + " is not recorded");
       }
 
@@ -127,7 +171,7 @@ public class StatsToValuesMapping {
 
    public double stddev(String statName) throws StatisticException {
       Values aggr;
-      if ((aggr = statTitle2Values.get(statName)) == null) {
+      if ((aggr = valuesFor(statName)) == null) {
          throw new StatisticException(statName + " is not recorded");
       }
 
@@ -138,7 +182,13 @@ public class StatsToValuesMapping {
     * @return the mapping between statistics titles and mapped Values instances as an unmodifiable map.
     */
    public Map<String, Values> names2aggregatesMapping() {
-      return Collections.unmodifiableMap(statTitle2Values);
+      Map<String, Values> mapping = new TreeMap<>();
+      for (int id = 0; id < statID2Values.length; id++) {
+         if (statID2Values[id] != null) {
+            mapping.put(titles.title(id), statID2Values[id]);
+         }
+      }
+      return Collections.unmodifiableMap(mapping);
    }
 
    /**
@@ -164,7 +214,7 @@ public class StatsToValuesMapping {
 
       //<editor-fold defaultstate="collapsed" desc="apppend the names and category of allowed stat">
       if (includeTitles) {
-         for (String statName : statTitle2Values.keySet()) {
+         for (String statName : getTitles()) {
             if (mean) {
                csvBuilder.append(statName).append("").append(',');
             }
@@ -184,7 +234,7 @@ public class StatsToValuesMapping {
 //</editor-fold>
       //<editor-fold defaultstate="collapsed" desc="append the values">
       for (String statName : statsTitles) {
-         Values nxtValue = statTitle2Values.get(statName);
+         Values nxtValue = valuesFor(statName);
          if (nxtValue == null) {
             nxtValue = Values.DUMMY; // in case the are no stats for this 
          }
@@ -237,16 +287,18 @@ public class StatsToValuesMapping {
      * @throws statistics.StatisticException
     */
    public void finalizeState() throws StatisticException {
-      for (Map.Entry<String, Values> entry : statTitle2Values.entrySet()) {
-         Values nxt_aggregatedValues = entry.getValue();
-         if (nxt_aggregatedValues != Values.DUMMY) {
+      for (Values nxt_aggregatedValues : statID2Values) {
+         if (nxt_aggregatedValues != null && nxt_aggregatedValues != Values.DUMMY) {
             nxt_aggregatedValues.finalizeState(getConfidenceInterval_z());
          }
       }
    }
 
+   /**
+    * @return the titles of the statistics recorded, in lexicographical order.
+    */
    public Set<String> getTitles() {
-      return this.statTitle2Values.keySet();
+      return names2aggregatesMapping().keySet();
    }
 
    /**
@@ -263,22 +315,22 @@ public class StatsToValuesMapping {
     * @param statisticsTitles
     */
    void ensureTitles(Set<String> statisticsTitles) {
-      Set<String> knownTitles = statTitle2Values.keySet();
-
-      for (Iterator<String> statitle_it = statisticsTitles.iterator(); statitle_it.hasNext();) {
-         String nxtStatTitle = statitle_it.next();
-         if (!knownTitles.contains(nxtStatTitle)) {
-            statTitle2Values.put(nxtStatTitle, Values.DUMMY);
+      for (String nxtStatTitle : statisticsTitles) {
+         int id = titles.register(nxtStatTitle);
+         if (id >= statID2Values.length) {
+            statID2Values = Arrays.copyOf(statID2Values, Math.max(id + 1, titles.size()));
+         }
+         if (statID2Values[id] == null) {
+            statID2Values[id] = Values.DUMMY;
          }
       }
-
    }
 
     
     public Set<String> getStatTitles() {
-        return Collections.unmodifiableSet(statTitle2Values.keySet());
+        return getTitles();
     }
     public boolean containsStatTitle(String t) {
-        return statTitle2Values.keySet().contains(t);
+        return valuesFor(t) != null;
     }
 }
@@ -1,26 +1,47 @@
 package statistics;
 
 import exceptions.InconsistencyException;
-import java.util.ArrayList;
-import java.util.Collections;
+import java.io.Serializable;
+import java.util.AbstractList;
+import java.util.Arrays;
 import java.util.List;
-import javax.management.RuntimeErrorException;
-import utils.CommonFunctions;
+import java.util.RandomAccess;
 
 /**
  * Keeps track of a series of values for a statistic category. Aggregate values
  * that can be computed include, are: Summary, Variance, Standard Deviation,
- * Mean, Confidence Intervals for mean
+ * Mean, Confidence Intervals for mean, Minimum and Maximum.
+ *
+ * Values are aggregated online (Welford's method), thus the memory used does
+ * not depend on the number of values recorded. The values themselves are kept
+ * only if requested upon construction, for statistics that need percentiles.
  *
  * @author xvas
  */
-public class Values {
+public class Values implements Serializable {
+
+    private static final long serialVersionUID = 1L;
 
     public final static Values DUMMY = new Values(-1);
     /**
-     * The values aggregated
+     * Number of values aggregated
      */
-    private List<Double> values;
+    private int count;
+    /**
+     * Running mean of the values aggregated
+     */
+    private double runningMean;
+    /**
+     * Running sum of squared differences from the running mean
+     */
+    private double m2;
+    private double min;
+    private double max;
+    /**
+     * The values aggregated in the order recorded, or null if values are not
+     * kept. Only the first count values are valid.
+     */
+    private double[] samples;
     /**
      * Summary of the values aggregated
      */
@@ -40,9 +61,25 @@ public class Values {
      * the output overhead in text format.
      */
     public Values(int _roundDecimal) {
+        this(_roundDecimal, false);
+    }
+
+    /**
+     *
+     * @param _roundDecimal The precision decimal after which aggregated values
+     * are cut. The Higher it is, the greater the precision but also the greater
+     * the output overhead in text format.
+     * @param keepSamples whether to keep the values recorded, which is
+     * required for {@link #percentile(double)} and {@link #values()}.
+     */
+    public Values(int _roundDecimal, boolean keepSamples) {
         this.roundDecimal = _roundDecimal;
         this.sum = 0;
-        values = new ArrayList<>();
+        this.min = Double.POSITIVE_INFINITY;
+        this.max = Double.NEGATIVE_INFINITY;
+        if (keepSamples) {
+            samples = new double[16];
+        }
         finalizedBean = new FinalizationBean();
     }
 
@@ -63,7 +100,18 @@ public class Values {
         updt(values);
     }
 
-
+    /**
+     *
+     * @param _roundDecimal The precision decimal after which aggregated values
+     * are cut. The Higher it is, the greater the precision but also the greater
+     * the output overhead in text format.
+     * @param keepSamples whether to keep the values recorded
+     * @param values the initial values added.
+     */
+    public Values(int _roundDecimal, boolean keepSamples, double... values) {
+        this(_roundDecimal, keepSamples);
+        updt(values);
+    }
 
     private double round(double val) {
         if (roundDecimal < 0) {
@@ -74,13 +122,14 @@ public class Values {
         return ((int) (val * rounder) / rounder);
     }
 
+    /**
+     * Squared differences of values from the rounded mean returned by
+     * {@link #mean()}, derived from the squared differences from the exact
+     * running mean.
+     */
     private double sumSqredfDiffsValuesMean() throws StatisticException {
-        double mean = mean();//updated mean
-        double sqrOfDiffsFromMean = 0.0;
-        for (double nxt_val : this.values) {
-            sqrOfDiffsFromMean += Math.pow(nxt_val - mean, 2);
-        }
-        return sqrOfDiffsFromMean;
+        double diff = runningMean - mean();
+        return m2 + count * diff * diff;
     }
 
     public void updt(double... updValues) {
@@ -91,7 +140,22 @@ public class Values {
             if (Double.isNaN(nxt)) {
                 continue;
             }
-            this.values.add(nxt);
+            if (samples != null) {
+                if (count == samples.length) {
+                    samples = Arrays.copyOf(samples, count << 1);
+                }
+                samples[count] = nxt;
+            }
+            count++;
+            double delta = nxt - runningMean;
+            runningMean += delta / count;
+            m2 += delta * (nxt - runningMean);
+            if (nxt < min) {
+                min = nxt;
+            }
+            if (nxt > max) {
+                max = nxt;
+            }
             sum += nxt;
         }
     }
@@ -115,7 +179,7 @@ public class Values {
             return finalizedBean.getMean();
         }
 
-        double mean = sum / values.size();
+        double mean = sum / count;
         return round(mean);
     }
 
@@ -127,7 +191,7 @@ public class Values {
         if (isStatusFinalized()) {
             return finalizedBean.getVariance();
         }
-        double variance = values.isEmpty() ? 0 : sumSqredfDiffsValuesMean() / (values.size() - 1);
+        double variance = count == 0 ? 0 : sumSqredfDiffsValuesMean() / (count - 1);
         return round(variance);
     }
 
@@ -140,7 +204,7 @@ public class Values {
         if (isStatusFinalized()) {
             return finalizedBean.getStddev();
         }
-        double stddev = values.isEmpty() ? 0 : Math.sqrt(variance());
+        double stddev = count == 0 ? 0 : Math.sqrt(variance());
         return round(stddev);
     }
 
@@ -154,7 +218,7 @@ public class Values {
         if (isStatusFinalized()) {
             return finalizedBean.getAbsConfInterval();
         }
-        return round(z * stddev() / Math.sqrt(values.size()));
+        return round(z * stddev() / Math.sqrt(count));
     }
 
     /**
@@ -173,7 +237,7 @@ public class Values {
         } else {
             mean = mean();
             stddev = stddev();
-            valuesNum = values.size();
+            valuesNum = count;
         }
         double low = mean - z * stddev / Math.sqrt(valuesNum);
         return round(low);
@@ -195,20 +259,110 @@ public class Values {
         } else {
             mean = mean();
             stddev = stddev();
-            valuesNum = values.size();
+            valuesNum = count;
         }
         double hi = mean + z * stddev / Math.sqrt(valuesNum);
         return round(hi);
     }
 
+    /**
+     * @return the number of values recorded.
+     */
+    public int count() {
+        return count;
+    }
+
+    /**
+     * @return the minimum of values recorded, or NaN if no values are
+     * recorded.
+     */
+    public double min() {
+        return count == 0 ? Double.NaN : round(min);
+    }
+
+    /**
+     * @return the maximum of values recorded, or NaN if no values are
+     * recorded.
+     */
+    public double max() {
+        return count == 0 ? Double.NaN : round(max);
+    }
+
+    /**
+     * @return true if the values recorded are kept, which is required for
+     * percentiles.
+     */
+    public boolean keepsSamples() {
+        return samples != null;
+    }
+
+    /**
+     * Computes a percentile of the values recorded by linear interpolation
+     * between the closest ranks.
+     *
+     * @param p the percentile in [0, 100]
+     * @return the percentile, or NaN if no values are recorded.
+     * @throws statistics.StatisticException if values are not kept, either
+     * because they were not requested upon construction or because the state
+     * is finalized.
+     */
+    public double percentile(double p) throws StatisticException {
+        if (samples == null) {
+            throw new StatisticException("Percentiles require keeping the values recorded, "
+                    + "which is not the case for this instance or its state is finalized.");
+        }
+        if (p < 0 || p > 100) {
+            throw new StatisticException("Percentile out of range [0, 100]: " + p);
+        }
+        if (count == 0) {
+            return Double.NaN;
+        }
+        double[] sorted = Arrays.copyOf(samples, count);
+        Arrays.sort(sorted);
+        double rank = p / 100 * (count - 1);
+        int lo = (int) rank;
+        int hi = Math.min(lo + 1, count - 1);
+        return round(sorted[lo] + (rank - lo) * (sorted[hi] - sorted[lo]));
+    }
+
     /**
      * Returns the list of recorded values. The order of values is defined by
      * the order they have been recoded.
      *
      * @return The list of recorded values.
+     * @throws InconsistencyException if values are not kept, either because
+     * they were not requested upon construction or because the state is
+     * finalized.
      */
     public List<Double> values() {
-        return Collections.unmodifiableList(values);
+        if (samples == null) {
+            throw new InconsistencyException("Values recorded are not kept.");
+        }
+        return new SamplesView(samples, count);
+    }
+
+    private static final class SamplesView extends AbstractList<Double> implements RandomAccess {
+
+        private final double[] _samples;
+        private final int _size;
+
+        private SamplesView(double[] samples, int size) {
+            _samples = samples;
+            _size = size;
+        }
+
+        @Override
+        public Double get(int index) {
+            if (index < 0 || index >= _size) {
+                throw new IndexOutOfBoundsException("Index: " + index + ", Size: " + _size);
+            }
+            return _samples[index];
+        }
+
+        @Override
+        public int size() {
+            return _size;
+        }
     }
 
     /**
@@ -227,15 +381,16 @@ public class Values {
      */
     public void finalizeState(double z) throws StatisticException {
         finalizedBean.finalizeStatus(z);
-        values = null;
+        samples = null;
     }
 
     public boolean isStatusFinalized() {
         return finalizedBean.isStatusFinalized();
-//      return values == null;
     }
 
-    private class FinalizationBean {
+    private class FinalizationBean implements Serializable {
+
+        private static final long serialVersionUID = 1L;
 
         private boolean finalized;
         private double absConfInterval;
@@ -260,7 +415,7 @@ public class Values {
             mean = Values.this.mean();
             variance = Values.this.variance();
             stddev = Values.this.stddev();
-            valuesNum = Values.this.values.size();
+            valuesNum = Values.this.count;
 
             finalized = true; // must be the lat instuction of this method.. otherwise inconsistent status.. 
         }
@@ -8,7 +8,11 @@ import caching.base.AbstractCachingModel;
  */
 public abstract class AbstractPerformanceStat<USER_TYPE, CELL_TYPE, REQUEST_TYPE> extends BaseHandler implements statistics.handlers.ICompute {
 
+    private static final long serialVersionUID = 1L;
+
     private final AbstractCachingModel _cachingPolicy;
+    private int _muTitleID = -1;
+    private int _suTitleID = -1;
 
     public AbstractPerformanceStat(AbstractCachingModel cachingMethod) {
         super();
@@ -26,6 +30,24 @@ public abstract class AbstractPerformanceStat<USER_TYPE, CELL_TYPE, REQUEST_TYPE
         return getClass().getSimpleName() + "<" + str + ">" + "(" + getCachingModel().nickName() + ")";
     }
 
+    /**
+     * @param mobile
+     * @return the id of the title for mobile users, i.e. title("MU"), or for
+     * stationary users, i.e. title("SU").
+     */
+    public int titleID(boolean mobile) {
+        return mobile ? _muTitleID : _suTitleID;
+    }
+
+    /**
+     * @param muTitleID the id of title("MU")
+     * @param suTitleID the id of title("SU")
+     */
+    public void setTitleIDs(int muTitleID, int suTitleID) {
+        _muTitleID = muTitleID;
+        _suTitleID = suTitleID;
+    }
+
     /**
      * @return the _cachingPolicy
      */
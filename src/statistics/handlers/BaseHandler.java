@@ -1,5 +1,6 @@
 package statistics.handlers;
 
+import java.io.Serializable;
 import sim.space.cell.AbstractCell;
 import sim.space.cell.smallcell.SmallCell;
 import statistics.StatisticException;
@@ -8,10 +9,30 @@ import statistics.StatisticException;
  *
  * @author Xenofon Vasilakos xvas@aueb.gr
  */
-public abstract class BaseHandler implements Comparable<BaseHandler> {
+public abstract class BaseHandler implements Comparable<BaseHandler>, Serializable {
+
+    private static final long serialVersionUID = 1L;
+
+    private int _titleID = -1;
 
     abstract public String title();
 
+    /**
+     * @return the id of the title in the statistics of the simulation, or -1
+     * if the title is not added to the statistics.
+     */
+    public final int titleID() {
+        return _titleID;
+    }
+
+    /**
+     * @param titleID the id returned upon adding the title to the statistics
+     * of the simulation.
+     */
+    public final void setTitleID(int titleID) {
+        _titleID = titleID;
+    }
+
     @Override
     public boolean equals(Object other) {
         if (!(other instanceof BaseHandler)) {
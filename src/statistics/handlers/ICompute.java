@@ -8,4 +8,10 @@ package statistics.handlers;
  */
 public interface ICompute {
       public String title();
+
+      /**
+       * @return the id of the title in the statistics of the simulation, or -1 if the title is not added to
+       * the statistics.
+       */
+      public int titleID();
 }
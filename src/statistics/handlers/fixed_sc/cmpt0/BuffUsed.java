@@ -10,6 +10,8 @@ import statistics.handlers.ICompute0;
  */
 public class BuffUsed extends statistics.handlers.iterative.sc.cmpt4.BuffUsed implements ICompute0{
 
+    private static final long serialVersionUID = 1L;
+
     private final SmallCell _monitorSC;
     
     public BuffUsed(AbstractCachingModel cachingMethodUsed,  SmallCell monitorSC) {
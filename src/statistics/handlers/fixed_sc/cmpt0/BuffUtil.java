@@ -10,6 +10,8 @@ import statistics.handlers.ICompute0;
  */
 public class BuffUtil extends statistics.handlers.iterative.sc.cmpt4.BuffUtil implements ICompute0{
 
+    private static final long serialVersionUID = 1L;
+
     private final SmallCell _monitorSC;
     
     public BuffUtil(AbstractCachingModel cachingMethodUsed,  SmallCell monitorSC) {
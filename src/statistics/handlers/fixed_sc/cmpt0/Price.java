@@ -10,6 +10,8 @@ import statistics.handlers.ICompute0;
  */
 public class Price extends statistics.handlers.iterative.sc.cmpt4.Price implements ICompute0{
 
+    private static final long serialVersionUID = 1L;
+
     private final SmallCell _monitorSC;
     
     public Price(AbstractCachingModel cachingMethodUsed,  SmallCell monitorSC) {
@@ -12,6 +12,8 @@ public class HandoverCount extends
         statistics.handlers.iterative.sc.cmpt4.no_model.HandoverCount 
         implements ICompute0 {
 
+    private static final long serialVersionUID = 1L;
+
     private final SmallCell _monitorSC;
     
     public HandoverCount(SmallCell monitorSC) {
@@ -12,6 +12,8 @@ public class HandoverDuration extends
         statistics.handlers.iterative.sc.cmpt4.no_model.HandoverDuration 
         implements ICompute0 {
 
+    private static final long serialVersionUID = 1L;
+
     private final SmallCell _monitorSC;
     
     public HandoverDuration(SmallCell monitorSC) {
@@ -12,6 +12,8 @@ public class NeighborsCount extends
         statistics.handlers.iterative.sc.cmpt4.no_model.NeighborsCount 
         implements ICompute0 {
 
+    private static final long serialVersionUID = 1L;
+
     private final SmallCell _monitorSC;
     
     public NeighborsCount(SmallCell monitorSC) {
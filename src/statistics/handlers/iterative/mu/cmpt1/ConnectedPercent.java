@@ -12,6 +12,8 @@ import statistics.handlers.IComputePercent;
  */
 public class ConnectedPercent extends BaseHandler implements IComputePercent {
 
+    private static final long serialVersionUID = 1L;
+
    public ConnectedPercent() {
       super();
    }
@@ -12,6 +12,8 @@ import statistics.handlers.IComputePercent;
  */
 public class HandedoverPercent extends BaseHandler implements IComputePercent{
 
+    private static final long serialVersionUID = 1L;
+
    public static final String STATS__HANDLERS_package = HandedoverPercent.class.getPackage().getName();
 
 
@@ -11,6 +11,8 @@ import statistics.handlers.IComputePercent;
  */
 public class MovedPercent extends BaseHandler implements IComputePercent {
 
+    private static final long serialVersionUID = 1L;
+
    public MovedPercent() {
       super();
    }
@@ -11,6 +11,8 @@ import statistics.handlers.IComputePercent;
  * @author Xenofon Vasilakos xvas@aueb.gr
  */
 public class ResetPercent extends BaseHandler implements IComputePercent {
+    private static final long serialVersionUID = 1L;
+
    public ResetPercent() {
       super();
    }
@@ -11,6 +11,8 @@ import statistics.handlers.IComputePercent;
  * @author Xenofon Vasilakos xvas@aueb.gr
  */
 public class StartedPercent extends BaseHandler implements IComputePercent {
+    private static final long serialVersionUID = 1L;
+
       public static final String STATS__HANDLERS_package = StartedPercent.class.getPackage().getName();
 
 
@@ -8,6 +8,8 @@ import sim.space.cell.smallcell.SmallCell;
  */
 public class BuffUsed extends ComputeAllPoliciesImpl {
 
+    private static final long serialVersionUID = 1L;
+
    public BuffUsed(AbstractCachingModel cachingMethodUsed) {
       super(cachingMethodUsed);
    }
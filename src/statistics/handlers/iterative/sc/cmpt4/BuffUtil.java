@@ -13,6 +13,8 @@ import statistics.StatisticException;
  */
 public class BuffUtil extends ComputeAllPoliciesImpl {
 
+    private static final long serialVersionUID = 1L;
+
     public BuffUtil(AbstractCachingModel cachingMethodUsed) {
         super(cachingMethodUsed);
     }
@@ -9,6 +9,8 @@ import statistics.handlers.ICompute4;
  * @author Xenofon Vasilakos xvas@aueb.gr
  */
 public abstract class ComputeAllPoliciesImpl extends BaseHandler implements ICompute4<SmallCell>{
+    private static final long serialVersionUID = 1L;
+
    private final AbstractCachingModel _cachingMethod;
 
    public ComputeAllPoliciesImpl(AbstractCachingModel cachingMethod) {
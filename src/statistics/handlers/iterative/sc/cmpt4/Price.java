@@ -13,6 +13,8 @@ import statistics.StatisticException;
  */
 public class Price extends ComputeAllPoliciesImpl {
 
+    private static final long serialVersionUID = 1L;
+
    public Price(AbstractCachingModel cachingMethodUsed) {
       super(cachingMethodUsed);
    }
@@ -9,6 +9,8 @@ import statistics.handlers.ICompute4;
  */
 public class HandoverDuration extends BaseHandler implements ICompute4<SmallCell> {
 
+    private static final long serialVersionUID = 1L;
+
 
     /**
      * @param cell
@@ -13,6 +13,8 @@ import statistics.handlers.ICompute4;
  */
 public class ResidenceDuration extends BaseHandler implements ICompute4<SmallCell> {
 
+    private static final long serialVersionUID = 1L;
+
     /**
      * @param cell
      * @return
@@ -10,6 +10,8 @@ import statistics.handlers.ICompute5_6;
  */
 public class UnonymousCompute5 extends BaseHandler implements ICompute5_6 {
 
+    private static final long serialVersionUID = 1L;
+
     private final AbstractCachingModel _cachingMethod;
     private final WellKnownTitle _title;
 
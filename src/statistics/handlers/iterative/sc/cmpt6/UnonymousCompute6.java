@@ -1,5 +1,6 @@
 package statistics.handlers.iterative.sc.cmpt6;
 
+import java.io.Serializable;
 import statistics.handlers.BaseHandler;
 import statistics.handlers.ICompute5_6;
 
@@ -9,7 +10,11 @@ import statistics.handlers.ICompute5_6;
  */
 public class UnonymousCompute6 extends BaseHandler implements ICompute5_6 {
 
-    public static class WellKnownTitle {
+    private static final long serialVersionUID = 1L;
+
+    public static class WellKnownTitle implements Serializable {
+
+        private static final long serialVersionUID = 1L;
 
         public static final WellKnownTitle GOLDEN_RATIO_A = new WellKnownTitle("a",
                 "Keeps track of \"a\" in golden ratio procedure for finding optimal time"
@@ -148,6 +153,15 @@ public class UnonymousCompute6 extends BaseHandler implements ICompute5_6 {
                 EVICTNUM1 = new WellKnownTitle("EVICTNUM1", "."),
                 EVICTNUM2 = new WellKnownTitle("EVICTNUM2", ".");
 
+        /**
+         * Titles recorded by the simulation runners in each round.
+         */
+        public static final WellKnownTitle CLEARED_REQS = new WellKnownTitle("ClearedReqs"),
+                NEW_REQS = new WellKnownTitle("NewReqs"),
+                NEW_ADDED_REQS = new WellKnownTitle("newAddedReqs"),
+                NEW_ADDED_REQS_FIRST_TIME = new WellKnownTitle("newAddedReqs[firstTime]"),
+                N_HANDOVERS = new WellKnownTitle("n_Handovers");
+
         public static final WellKnownTitle[] titleArrRPLC_T_GAIN = {
             G_RPLC_T_0_1,
             G_RPLC_T_1_2,
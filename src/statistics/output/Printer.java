@@ -4,10 +4,13 @@ import app.properties.Registry;
 import app.properties.StatsProperty;
 import exceptions.InvalidOrUnsupportedException;
 import exceptions.NotIntiliazedException;
+import java.io.BufferedOutputStream;
 import java.io.File;
+import java.io.FileOutputStream;
 import java.io.FileNotFoundException;
 import java.io.IOException;
 import java.io.PrintStream;
+import java.io.RandomAccessFile;
 import java.text.DecimalFormat;
 import java.text.SimpleDateFormat;
 import java.util.Calendar;
@@ -29,7 +32,15 @@ import utilities.Couple;
  */
 public class Printer implements ISimulationMember {
 
-    private final PrintStream printer;
+    private static final long serialVersionUID = 1L;
+
+    /**
+     * Output is written in blocks of this size, or upon {@link #flush()}.
+     */
+    private static final int OUTPUT_BUFFER_SIZE = 1 << 16;
+
+    private transient PrintStream printer;
+    private final File _outputFile;
     private final sim.run.SimulationBaseRunner _sim;
 
     /**
@@ -83,7 +94,8 @@ public class Printer implements ISimulationMember {
         outputFile.createNewFile();
         //</editor-fold>
 
-        printer = new PrintStream(outputFile);
+        _outputFile = outputFile;
+        printer = new PrintStream(new BufferedOutputStream(new FileOutputStream(outputFile), OUTPUT_BUFFER_SIZE), false);
         //@TODO printSimSetupDetails(simSetupBeans, setup);
        // printer.append('\n');
         //@TODO take care in future printSimRepeatDetails(repeatitionDetails(simulation, setup));
@@ -374,10 +386,38 @@ public class Printer implements ISimulationMember {
         printer.println(formattedString);
     }
 
+    public synchronized void flush() {
+        this.printer.flush();
+    }
+
     public synchronized void close() {
         this.printer.close();
     }
 
+    /**
+     * @return the length of the output file after flushing the output written
+     * so far.
+     */
+    public synchronized long length() {
+        this.printer.flush();
+        return _outputFile.length();
+    }
+
+    /**
+     * Reopens the output file of a deserialized printer for appending, after
+     * truncating it to the length given, so that any output written after
+     * that length was recorded is discarded.
+     *
+     * @param length
+     * @throws IOException
+     */
+    public synchronized void reopen(long length) throws IOException {
+        try (RandomAccessFile raf = new RandomAccessFile(_outputFile, "rw")) {
+            raf.setLength(length);
+        }
+        printer = new PrintStream(new BufferedOutputStream(new FileOutputStream(_outputFile, true), OUTPUT_BUFFER_SIZE), false);
+    }
+
     public synchronized void close(String lastPrintMsg, Object... msgArg) {
         print(lastPrintMsg, msgArg);
         this.printer.close();
@@ -0,0 +1,208 @@
+package statistics.output;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CountDownLatch;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * Writes the results of all simulations of the process from a single
+ * background thread, which owns the output of every {@link Printer} written
+ * through it.
+ *
+ * Writes are queued in a bounded queue and performed in the order submitted,
+ * thus in order per printer. Simulation threads block when the queue is full
+ * so that they cannot run far ahead of the output. After
+ * {@link #shutdown()}, writes are performed by the submitting thread.
+ *
+ * @author Xenofon Vasilakos xvas@aueb.gr
+ */
+public final class ResultsWriter {
+
+    private static final Logger LOG = Logger.getLogger(ResultsWriter.class.getName());
+
+    private static final int QUEUE_CAPACITY = 1024;
+    /**
+     * Maximum number of writes taken from the queue at once.
+     */
+    private static final int BATCH_SIZE = 64;
+
+    private static ResultsWriter _instance;
+
+    private final BlockingQueue<Runnable> _queue;
+    private final Thread _writer;
+    private boolean _stopped;
+
+    private static final Runnable STOP = new Runnable() {
+        @Override
+        public void run() {
+        }
+    };
+
+    private ResultsWriter() {
+        _queue = new ArrayBlockingQueue<>(QUEUE_CAPACITY);
+        _writer = new Thread(new Runnable() {
+            @Override
+            public void run() {
+                writeLoop();
+            }
+        }, "results-writer");
+        _writer.setDaemon(true);
+        _writer.start();
+    }
+
+    /**
+     * @return the writer of the process, started upon first use.
+     */
+    public static synchronized ResultsWriter instance() {
+        if (_instance == null) {
+            _instance = new ResultsWriter();
+        }
+        return _instance;
+    }
+
+    private void writeLoop() {
+        List<Runnable> batch = new ArrayList<>(BATCH_SIZE);
+        while (true) {
+            try {
+                batch.add(_queue.take());
+            } catch (InterruptedException ex) {
+                continue; // only a STOP ends the loop so that no write is lost
+            }
+            _queue.drainTo(batch, BATCH_SIZE - 1);
+            for (Runnable nxt : batch) {
+                if (nxt == STOP) {
+                    return;
+                }
+                runSafely(nxt);
+            }
+            batch.clear();
+        }
+    }
+
+    private static void runSafely(Runnable task) {
+        try {
+            task.run();
+        } catch (RuntimeException ex) {
+            LOG.log(Level.SEVERE, "Failed to write results.", ex);
+        }
+    }
+
+    /**
+     * Queues a task that writes results, e.g. one that renders results and
+     * prints them. Blocks while the queue is full.
+     *
+     * @param task
+     */
+    public synchronized void execute(Runnable task) {
+        if (_stopped) {
+            runSafely(task);
+            return;
+        }
+        boolean interrupted = false;
+        while (true) {
+            try {
+                _queue.put(task);
+                break;
+            } catch (InterruptedException ex) {
+                interrupted = true;
+            }
+        }
+        if (interrupted) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    public void print(final Printer printer, final String text) {
+        execute(new Runnable() {
+            @Override
+            public void run() {
+                printer.print(text);
+            }
+        });
+    }
+
+    public void flush(final Printer printer) {
+        execute(new Runnable() {
+            @Override
+            public void run() {
+                printer.flush();
+            }
+        });
+    }
+
+    public void close(final Printer printer) {
+        execute(new Runnable() {
+            @Override
+            public void run() {
+                printer.close();
+            }
+        });
+    }
+
+    /**
+     * Waits until every write submitted before the call is performed. The wait
+     * is not cut short by interrupts, as results would be lost otherwise; the
+     * interrupt status is restored before returning.
+     */
+    public void awaitWritten() {
+        final CountDownLatch written = new CountDownLatch(1);
+        execute(new Runnable() {
+            @Override
+            public void run() {
+                written.countDown();
+            }
+        });
+
+        boolean interrupted = false;
+        while (written.getCount() > 0) {
+            try {
+                written.await();
+            } catch (InterruptedException ex) {
+                interrupted = true;
+            }
+        }
+        if (interrupted) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    /**
+     * Performs the writes queued and stops the writer thread. Any write
+     * submitted afterwards is performed by the submitting thread.
+     */
+    public static void shutdown() {
+        ResultsWriter writer;
+        synchronized (ResultsWriter.class) {
+            writer = _instance;
+        }
+        if (writer == null) {
+            return;
+        }
+        writer.stop();
+    }
+
+    private void stop() {
+        synchronized (this) {
+            if (_stopped) {
+                return;
+            }
+            execute(STOP);
+            _stopped = true;
+        }
+        boolean interrupted = false;
+        while (_writer.isAlive()) {
+            try {
+                _writer.join();
+            } catch (InterruptedException ex) {
+                interrupted = true;
+            }
+        }
+        if (interrupted) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
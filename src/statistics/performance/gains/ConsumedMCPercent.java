@@ -17,6 +17,8 @@ import statistics.handlers.AbstractPerformanceStat;
  */
 public class ConsumedMCPercent extends AbstractPerformanceStat<CachingUser, SmallCell, DocumentRequest> {
 
+    private static final long serialVersionUID = 1L;
+
     public ConsumedMCPercent(AbstractCachingModel cachingMethod) {
         super(cachingMethod);
     }
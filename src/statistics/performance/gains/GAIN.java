@@ -13,6 +13,8 @@ import statistics.handlers.AbstractPerformanceStat;
  */
 public class GAIN extends AbstractPerformanceStat<CachingUser, SmallCell, DocumentRequest> {
 
+    private static final long serialVersionUID = 1L;
+
     private GAIN_Hit ghit;
     private GAIN_BH gbh;
 
@@ -12,6 +12,8 @@ import statistics.handlers.AbstractPerformanceStat;
  */
 public class GAINPercent extends AbstractPerformanceStat<CachingUser, SmallCell, DocumentRequest> {
 
+    private static final long serialVersionUID = 1L;
+
     private GAINPercent_Hit ghit;
     private GAINPercent_BH gbh;
 
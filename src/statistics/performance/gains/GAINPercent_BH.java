@@ -14,6 +14,8 @@ import statistics.handlers.AbstractPerformanceStat;
  */
 public class GAINPercent_BH extends AbstractPerformanceStat<CachingUser, SmallCell, DocumentRequest> {
 
+    private static final long serialVersionUID = 1L;
+
     public GAINPercent_BH(AbstractCachingModel cachingMethod) {
         super(cachingMethod);
     }
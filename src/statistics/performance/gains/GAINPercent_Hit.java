@@ -14,6 +14,8 @@ import statistics.handlers.AbstractPerformanceStat;
  */
 public class GAINPercent_Hit extends AbstractPerformanceStat<CachingUser, SmallCell, DocumentRequest> {
 
+    private static final long serialVersionUID = 1L;
+
     public GAINPercent_Hit(AbstractCachingModel cachingMethod) {
         super(cachingMethod);
     }
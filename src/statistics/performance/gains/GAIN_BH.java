@@ -16,6 +16,8 @@ import statistics.handlers.AbstractPerformanceStat;
  */
 public class GAIN_BH extends AbstractPerformanceStat<CachingUser, SmallCell, DocumentRequest> {
 
+    private static final long serialVersionUID = 1L;
+
     public GAIN_BH(AbstractCachingModel cachingMethod) {
         super(cachingMethod);
     }
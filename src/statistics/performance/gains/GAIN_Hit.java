@@ -15,6 +15,8 @@ import statistics.handlers.AbstractPerformanceStat;
  */
 public class GAIN_Hit extends AbstractPerformanceStat<CachingUser, SmallCell, DocumentRequest>  {
 
+    private static final long serialVersionUID = 1L;
+
     public GAIN_Hit(AbstractCachingModel cachingMethod) {
         super(cachingMethod);
     }
@@ -15,6 +15,8 @@ import statistics.handlers.AbstractPerformanceStat;
  */
 public class HITPercent extends AbstractPerformanceStat<CachingUser, SmallCell, DocumentRequest> {
 
+    private static final long serialVersionUID = 1L;
+
     public HITPercent(AbstractCachingModel cachingMethod) {
         super(cachingMethod);
     }
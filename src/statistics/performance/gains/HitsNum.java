@@ -15,6 +15,8 @@ import statistics.handlers.AbstractPerformanceStat;
  */
 public class HitsNum extends AbstractPerformanceStat<CachingUser, SmallCell, DocumentRequest> {
 
+    private static final long serialVersionUID = 1L;
+
     public HitsNum(AbstractCachingModel cachingMethod) {
         super(cachingMethod);
     }
@@ -13,6 +13,8 @@ import statistics.handlers.AbstractPerformanceStat;
  */
 public class TimeToConsume extends AbstractPerformanceStat<CachingUser, SmallCell, DocumentRequest> {
 
+    private static final long serialVersionUID = 1L;
+
     public TimeToConsume(AbstractCachingModel cachingMethod) {
         super(cachingMethod);
     }
@@ -15,6 +15,8 @@ import statistics.handlers.AbstractPerformanceStat;
  */
 public class BHNum extends AbstractPerformanceStat<CachingUser, SmallCell, DocumentRequest> {
 
+    private static final long serialVersionUID = 1L;
+
     public BHNum(AbstractCachingModel cachingMethod) {
         super(cachingMethod);
     }
@@ -16,6 +16,8 @@ import statistics.handlers.AbstractPerformanceStat;
  */
 public class MCNumAfterDiconnFromSC extends AbstractPerformanceStat<CachingUser, SmallCell, DocumentRequest> {
 
+    private static final long serialVersionUID = 1L;
+
     public MCNumAfterDiconnFromSC(AbstractCachingModel cachingMethod) {
         super(cachingMethod);
     }
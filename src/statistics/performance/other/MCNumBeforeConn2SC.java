@@ -16,6 +16,8 @@ import statistics.handlers.AbstractPerformanceStat;
  */
 public class MCNumBeforeConn2SC extends AbstractPerformanceStat<CachingUser, SmallCell, DocumentRequest> {
 
+    private static final long serialVersionUID = 1L;
+
     public MCNumBeforeConn2SC(AbstractCachingModel cachingMethod) {
         super(cachingMethod);
     }
@@ -16,6 +16,8 @@ import statistics.handlers.AbstractPerformanceStat;
  */
 public class MCNumWhileConn2SC extends AbstractPerformanceStat<CachingUser, SmallCell, DocumentRequest> {
 
+    private static final long serialVersionUID = 1L;
+
     public MCNumWhileConn2SC(AbstractCachingModel cachingMethod) {
         super(cachingMethod);
     }
@@ -0,0 +1,390 @@
+package traces.dmdtrace;
+
+import exceptions.CriticalFailureException;
+import exceptions.InconsistencyException;
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.BufferedReader;
+import java.io.Closeable;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.FileReader;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.Set;
+import java.util.StringTokenizer;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * Compact binary form of a workload trace file.
+ *
+ * A binary workload is a sibling of the text workload it was converted from,
+ * named after it with the {@link #SUFFIX} extension. It starts with a header
+ * holding the number of records declared by the meta info of the text
+ * workload and the table of distinct document IDs (already in the form used as
+ * keys by {@link TraceLoader#getDocuments()}), followed by fixed-width records of
+ * request time, document index in the table and size in bytes. Records are
+ * streamed through memory mapped windows of the file, thus without parsing or
+ * allocating anything per record.
+ *
+ * Use {@link #main(java.lang.String[])} once per text workload to produce its
+ * binary sibling. {@link TraceLoader} picks up the binary sibling by itself
+ * whenever it is up to date, otherwise it falls back to the text workload.
+ *
+ * @author Xenofon Vasilakos xvas@aueb.gr
+ */
+public final class BinaryWorkload {
+
+    public static final String SUFFIX = ".wbin";
+
+    private static final int MAGIC = 0x45504D57; // "EPMW"
+    private static final int VERSION = 2;
+
+    /**
+     * Time as a double, document index as an int and size in bytes as a long.
+     */
+    static final int RECORD_BYTES = 8 + 4 + 8;
+
+    /**
+     * Number of records per memory mapped window; keeps each mapping well
+     * below the 2GB limit of a single MappedByteBuffer.
+     */
+    private static final int WINDOW_RECORDS = 1 << 22;
+
+    private static final Logger LOG = Logger.getLogger(BinaryWorkload.class.getName());
+
+    /**
+     * @param wrkLoadFile the text workload file
+     * @return the binary sibling of the text workload file, which may not
+     * exist.
+     */
+    public static File siblingOf(File wrkLoadFile) {
+        return new File(wrkLoadFile.getParentFile(), wrkLoadFile.getName() + SUFFIX);
+    }
+
+    /**
+     * @param wrkLoadFile the text workload file
+     * @return true iff the binary sibling exists, is not older than the text
+     * workload file and is of the current version of the format.
+     */
+    public static boolean hasUpToDateSibling(File wrkLoadFile) {
+        File bin = siblingOf(wrkLoadFile);
+        if (!bin.isFile() || bin.lastModified() < wrkLoadFile.lastModified()) {
+            return false;
+        }
+        try (DataInputStream in = new DataInputStream(new FileInputStream(bin))) {
+            if (in.readInt() == MAGIC && in.readInt() == VERSION) {
+                return true;
+            }
+        } catch (IOException ex) {
+            LOG.log(Level.WARNING, "Unreadable binary workload \"{0}\": {1}",
+                    new Object[]{bin, ex.getMessage()});
+            return false;
+        }
+        LOG.log(Level.WARNING, "Binary workload \"{0}\" is of an older version and"
+                + " is ignored; convert \"{1}\" again to use it.", new Object[]{bin, wrkLoadFile});
+        return false;
+    }
+
+    /**
+     * Converts a text workload file to its binary sibling. Meta info lines are
+     * not carried over, except for the number of records declared in the meta
+     * info heading the text workload, which bounds the random initial position
+     * in the workload the same way for both forms. Erroneous records are
+     * skipped, the same way they are ignored when loading from the text
+     * workload.
+     *
+     * @param wrkLoadFile the text workload file
+     * @return the binary sibling written
+     * @throws IOException
+     */
+    public static File convert(File wrkLoadFile) throws IOException {
+        File txt = wrkLoadFile.getCanonicalFile();
+
+        Map<String, Integer> idx = new HashMap<>();
+        List<String> ids = new ArrayList<>();
+        File recsTmp = File.createTempFile("wbin_" + txt.getName(), ".recs", txt.getParentFile());
+        recsTmp.deleteOnExit();
+
+        long recsNum = 0;
+        int declaredRecsNum = -1;
+        boolean inMetaInfo = true;
+        try (BufferedReader br = new BufferedReader(new FileReader(txt));
+                DataOutputStream recsOut = new DataOutputStream(
+                        new BufferedOutputStream(new FileOutputStream(recsTmp), 1 << 16))) {
+            String nxtLine;
+            while ((nxtLine = br.readLine()) != null) {
+                if (nxtLine.startsWith(TraceLoader.META_INFO_CHAR)) {
+                    if (inMetaInfo) {
+                        StringTokenizer toks = new StringTokenizer(nxtLine, "=");
+                        if (toks.countTokens() >= 2 && toks.nextToken().equals(TraceLoader.RECS_NUM)) {
+                            declaredRecsNum = Integer.parseInt(
+                                    new StringTokenizer(toks.nextToken(), ",\r\n\t").nextToken());
+                        }
+                    }
+                    continue;
+                }
+                if (nxtLine.trim().isEmpty()) {
+                    continue;
+                }
+                inMetaInfo = false;
+                try {
+                    StringTokenizer toks = new StringTokenizer(nxtLine, ", \t\r\n");
+                    double time = Double.parseDouble(toks.nextToken());
+                    String theID = TraceLoader.createID(toks.nextToken(), txt);
+                    long size = toks.hasMoreTokens() ? Long.parseLong(toks.nextToken()) : -1;
+
+                    Integer docIdx = idx.get(theID);
+                    if (docIdx == null) {
+                        docIdx = ids.size();
+                        idx.put(theID, docIdx);
+                        ids.add(theID);
+                    }
+
+                    recsOut.writeDouble(time);
+                    recsOut.writeInt(docIdx);
+                    recsOut.writeLong(size);
+                    recsNum++;
+                } catch (NumberFormatException | NoSuchElementException e) {
+                    LOG.log(Level.WARNING, "Erroneous record from workload ignored: {0}", nxtLine);
+                }
+            }
+        }
+
+        File bin = siblingOf(txt);
+        try (DataOutputStream out = new DataOutputStream(
+                new BufferedOutputStream(new FileOutputStream(bin), 1 << 16));
+                DataInputStream recsIn = new DataInputStream(
+                        new BufferedInputStream(new FileInputStream(recsTmp), 1 << 16))) {
+            out.writeInt(MAGIC);
+            out.writeInt(VERSION);
+            out.writeInt(declaredRecsNum);
+            out.writeInt(ids.size());
+            for (String nxtID : ids) {
+                out.writeUTF(nxtID);
+            }
+            out.writeLong(recsNum);
+
+            byte[] buff = new byte[1 << 16];
+            int read;
+            while ((read = recsIn.read(buff)) != -1) {
+                out.write(buff, 0, read);
+            }
+        } finally {
+            recsTmp.delete();
+        }
+
+        LOG.log(Level.INFO, "Converted {0} records of {1} distinct documents from \"{2}\" to \"{3}\"",
+                new Object[]{recsNum, ids.size(), txt, bin});
+        return bin;
+    }
+
+    /**
+     * Converts each text workload file passed as an argument to its binary
+     * sibling.
+     *
+     * @param args paths to text workload files
+     * @throws IOException
+     */
+    public static void main(String[] args) throws IOException {
+        if (args.length == 0) {
+            System.err.println("Usage: " + BinaryWorkload.class.getName() + " <workload file>...");
+            System.exit(1);
+        }
+        for (String nxtPath : args) {
+            convert(new File(nxtPath));
+        }
+    }
+
+    /**
+     * Streams the records of a binary workload. After each call to
+     * {@link #next()}, the fields of the current record are accessible through
+     * {@link #time()}, {@link #documentID()} and {@link #size()}.
+     */
+    public static final class Reader implements Closeable {
+
+        private final File _file;
+        private final RandomAccessFile _raf;
+        private final FileChannel _channel;
+        private final long _recsStart;
+        private final long _recsNum;
+        private final int _declaredRecsNum;
+        /**
+         * The document IDs per document index. Unknown IDs are null; their
+         * original form is kept in _rawIDs for reporting.
+         */
+        private final String[] _ids;
+        private final String[] _rawIDs;
+
+        private MappedByteBuffer _window;
+        private long _nxtRec;
+
+        private double _time;
+        private int _docIdx;
+        private long _size;
+
+        /**
+         * @param binFile the binary workload file
+         * @param knownIDs the IDs of the loaded documents. Records referring to
+         * other documents fail with an InconsistencyException when read.
+         * @throws IOException
+         */
+        public Reader(File binFile, Set<String> knownIDs) throws IOException {
+            _file = binFile;
+
+            long headerBytes;
+            try (DataInputStream in = new DataInputStream(
+                    new BufferedInputStream(new FileInputStream(binFile), 1 << 16))) {
+                if (in.readInt() != MAGIC) {
+                    throw new IOException("Not a binary workload file: \"" + binFile + "\"");
+                }
+                int version = in.readInt();
+                if (version != VERSION) {
+                    throw new IOException("Unsupported binary workload version " + version
+                            + " in file \"" + binFile + "\"");
+                }
+
+                _declaredRecsNum = in.readInt();
+                int idsNum = in.readInt();
+                _ids = new String[idsNum];
+                _rawIDs = new String[idsNum];
+                headerBytes = 4 * 4;
+                for (int i = 0; i < idsNum; i++) {
+                    String nxtID = in.readUTF();
+                    _rawIDs[i] = nxtID;
+                    _ids[i] = knownIDs.contains(nxtID) ? nxtID : null;
+                    headerBytes += 2 + modifiedUTF8Length(nxtID);
+                }
+                _recsNum = in.readLong();
+                headerBytes += 8;
+            }
+            _recsStart = headerBytes;
+
+            _raf = new RandomAccessFile(binFile, "r");
+            _channel = _raf.getChannel();
+            if (_channel.size() != _recsStart + _recsNum * RECORD_BYTES) {
+                close();
+                throw new IOException("Truncated or corrupt binary workload file: \"" + binFile + "\"");
+            }
+        }
+
+        private static int modifiedUTF8Length(String str) {
+            int len = 0;
+            for (int i = 0; i < str.length(); i++) {
+                char c = str.charAt(i);
+                len += (c >= 0x0001 && c <= 0x007F) ? 1 : (c > 0x07FF ? 3 : 2);
+            }
+            return len;
+        }
+
+        /**
+         * @return the number of records in the binary workload.
+         */
+        public long recordsNum() {
+            return _recsNum;
+        }
+
+        /**
+         * @return the number of records declared by the meta info of the text
+         * workload, or -1 if it declares none.
+         */
+        public int declaredRecordsNum() {
+            return _declaredRecsNum;
+        }
+
+        public boolean hasNext() {
+            return _nxtRec < _recsNum;
+        }
+
+        /**
+         * @return the number of records read or skipped so far.
+         */
+        public long position() {
+            return _nxtRec;
+        }
+
+        /**
+         * Skips up to n records.
+         *
+         * @param n
+         */
+        public void skip(long n) {
+            _nxtRec = Math.min(_recsNum, _nxtRec + Math.max(0, n));
+            _window = null;
+        }
+
+        /**
+         * Advances to the next record.
+         *
+         * @throws IOException
+         */
+        public void next() throws IOException {
+            if (!hasNext()) {
+                throw new NoSuchElementException("No more records in \"" + _file + "\"");
+            }
+            if (_window == null || !_window.hasRemaining()) {
+                long recs = Math.min(WINDOW_RECORDS, _recsNum - _nxtRec);
+                _window = _channel.map(FileChannel.MapMode.READ_ONLY,
+                        _recsStart + _nxtRec * RECORD_BYTES, recs * RECORD_BYTES);
+            }
+            _time = _window.getDouble();
+            _docIdx = _window.getInt();
+            _size = _window.getLong();
+            _nxtRec++;
+        }
+
+        /**
+         * @return the request time of the current record.
+         */
+        public double time() {
+            return _time;
+        }
+
+        /**
+         * @return the size in bytes of the current record, or -1 if the text
+         * workload did not specify one.
+         */
+        public long size() {
+            return _size;
+        }
+
+        /**
+         * @return the ID of the document referred by the current record.
+         */
+        public String documentID() {
+            String theID = _ids[_docIdx];
+            if (theID == null) {
+                throw new InconsistencyException(
+                        "Content ID \"%s\" loaded from binary workload file %s"
+                        + " but is not present in the loaded documents",
+                        _rawIDs[_docIdx], _file);
+            }
+            return theID;
+        }
+
+        @Override
+        public void close() {
+            _window = null;
+            try {
+                _raf.close();
+            } catch (IOException ex) {
+                throw new CriticalFailureException(ex);
+            }
+        }
+    }
+
+    private BinaryWorkload() {
+        super();
+    }
+}
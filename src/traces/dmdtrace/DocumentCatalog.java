@@ -0,0 +1,299 @@
+package traces.dmdtrace;
+
+import exceptions.CriticalFailureException;
+import java.io.BufferedReader;
+import java.io.File;
+import java.io.FileReader;
+import java.io.IOException;
+import java.io.Serializable;
+import java.util.AbstractMap;
+import java.util.AbstractSet;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.Set;
+import java.util.StringTokenizer;
+import java.util.TreeMap;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+import sim.content.ContentDocument;
+import sim.run.SimulationBaseRunner;
+
+/**
+ * Immutable catalog of the documents described by a documents file of a trace.
+ *
+ * The catalog is built once per documents file and then shared read-only
+ * between all simulations using the file, thus it is safe to read without
+ * any locking once published. Documents are held in an array in ascending
+ * order of their IDs, with lookups by ID done through binary search.
+ *
+ * @author Xenofon Vasilakos xvas@aueb.gr
+ */
+public final class DocumentCatalog {
+
+    private final File _docFile;
+    private final long _overrideSize;
+    private final long _chunkSizeInBytes;
+
+    private final String[] _ids;
+    private final ContentDocument[] _documents;
+
+    private final long _totalRequests;
+    private final long _sumSize;
+    private final long _maxSize;
+    private final long _minSize;
+
+    private final Map<String, ContentDocument> _documentsView;
+
+    private DocumentCatalog(File docFile, long overrideSize, long chunkSizeInBytes,
+            String[] ids, ContentDocument[] documents) {
+        _docFile = docFile;
+        _overrideSize = overrideSize;
+        _chunkSizeInBytes = chunkSizeInBytes;
+
+        _ids = ids;
+        _documents = documents;
+
+        long totalRequests = 0, sumSize = 0;
+        long maxSize = Long.MIN_VALUE, minSize = Long.MAX_VALUE;
+        for (ContentDocument doc : documents) {
+            totalRequests += doc.getTotalNumberOfRequests();
+            sumSize += doc.sizeInBytes();
+            maxSize = Math.max(maxSize, doc.sizeInBytes());
+            minSize = Math.min(minSize, doc.sizeInBytes());
+        }
+        _totalRequests = totalRequests;
+        _sumSize = sumSize;
+        _maxSize = maxSize;
+        _minSize = minSize;
+
+        _documentsView = new DocumentsView();
+    }
+
+    /**
+     * Parses the documents file and creates the content documents of the
+     * catalog. Content documents are created in the order they appear in the
+     * file, and are bound to the simulation that builds the catalog.
+     *
+     * @param docFile the documents file of the trace
+     * @param overrideSize if non-negative, it overrides the size of every
+     * document
+     * @param sim the simulation building the catalog
+     * @return the catalog
+     */
+    public static DocumentCatalog build(File docFile, long overrideSize, SimulationBaseRunner sim) {
+        Logger logger = Logger.getLogger(DocumentCatalog.class.getCanonicalName());
+        logger.log(Level.INFO,
+                "\n Loading documents from trace {0} for simulation {1}",
+                new Object[]{docFile, sim.getID()});
+
+        int n = 0;
+        String[] ids = new String[1024];
+        long[] sizes = new long[1024];
+        int[] requests = new int[1024];
+        int[] appTypes = new int[1024];
+
+        try (BufferedReader br = new BufferedReader(new FileReader(docFile))) {
+            String nxtLine;
+            StringTokenizer toks;
+            while ((nxtLine = br.readLine()) != null) {
+                toks = new StringTokenizer(nxtLine, ", \t\r\n");
+                String idInTrace = toks.nextToken();
+                String theID = "UNDEFINED";
+                try {
+                    theID = TraceLoader.createID(idInTrace, docFile);
+                } catch (NumberFormatException nfe) {
+                    logger.log(
+                            Level.WARNING,
+                            "An exception was caght: {2}"
+                            + "line with problem is: {0}\n\t found in file {1}",
+                            new Object[]{
+                                nxtLine,
+                                docFile,
+                                nfe.getMessage()
+                            }
+                    );
+                }
+
+                if (n == ids.length) {
+                    int len = n << 1;
+                    ids = Arrays.copyOf(ids, len);
+                    sizes = Arrays.copyOf(sizes, len);
+                    requests = Arrays.copyOf(requests, len);
+                    appTypes = Arrays.copyOf(appTypes, len);
+                }
+
+                ids[n] = theID;
+                requests[n] = Integer.parseInt(toks.nextToken());
+                long sizeInBytes = (long) Double.parseDouble(toks.nextToken());
+                sizes[n] = overrideSize < 0 ? sizeInBytes : overrideSize;
+                appTypes[n] = Integer.parseInt(toks.nextToken());
+                n++;
+            }
+        } catch (IOException ex) {
+            throw new CriticalFailureException(ex);
+        }
+
+        // documents are created in file order, keeping random draws for costs in the same order
+        ContentDocument[] docsInFileOrder = new ContentDocument[n];
+        Integer[] order = new Integer[n];
+        for (int i = 0; i < n; i++) {
+            docsInFileOrder[i] = new ContentDocument(ids[i], sim, sizes[i], requests[i], appTypes[i]);
+            order[i] = i;
+            if ((i + 1) % 500 == 0) {
+                logger.log(Level.INFO, "\n Totally loaded documents from trace {0}.", i + 1);
+            }
+        }
+
+        final String[] unsortedIDs = ids;
+        Arrays.sort(order, new Comparator<Integer>() {
+            @Override
+            public int compare(Integer t1, Integer t2) {
+                int result = unsortedIDs[t1].compareTo(unsortedIDs[t2]);
+                return result == 0 ? t1 - t2 : result;
+            }
+        });
+
+        int unique = 0;
+        String[] sIDs = new String[n];
+        ContentDocument[] sDocs = new ContentDocument[n];
+        for (int i = 0; i < n; i++) {
+            int idx = order[i];
+            if (unique > 0 && sIDs[unique - 1].equals(ids[idx])) {
+                logger.log(Level.WARNING,
+                        "Document is already considered: {0}", docsInFileOrder[idx].toSynopsisString());
+                continue;
+            }
+            sIDs[unique] = ids[idx];
+            sDocs[unique] = docsInFileOrder[idx];
+            unique++;
+        }
+
+        return new DocumentCatalog(docFile, overrideSize, sim.chunkSizeInBytes(),
+                Arrays.copyOf(sIDs, unique), Arrays.copyOf(sDocs, unique));
+    }
+
+    /**
+     * @param id the document ID
+     * @return the index of the document in the catalog, or a negative value
+     * if there is no such document.
+     */
+    private int indexOf(String id) {
+        return Arrays.binarySearch(_ids, id);
+    }
+
+    /**
+     * @return the number of documents in the catalog.
+     */
+    public int size() {
+        return _ids.length;
+    }
+
+    /**
+     * @return an unmodifiable map view of the documents of the catalog mapped
+     * to their IDs, iterated in ascending order of ID.
+     */
+    public Map<String, ContentDocument> documents() {
+        return _documentsView;
+    }
+
+    public File docFile() {
+        return _docFile;
+    }
+
+    public long overrideSize() {
+        return _overrideSize;
+    }
+
+    public long chunkSizeInBytes() {
+        return _chunkSizeInBytes;
+    }
+
+    public long totalRequests() {
+        return _totalRequests;
+    }
+
+    public long sumSize() {
+        return _sumSize;
+    }
+
+    public long maxSize() {
+        return _maxSize;
+    }
+
+    public long minSize() {
+        return _minSize;
+    }
+
+    /**
+     * Read-only map view over the arrays of the catalog.
+     */
+    private final class DocumentsView extends AbstractMap<String, ContentDocument> implements Serializable {
+
+        private static final long serialVersionUID = 1L;
+
+        private final Set<Map.Entry<String, ContentDocument>> _entrySet
+                = new AbstractSet<Map.Entry<String, ContentDocument>>() {
+            @Override
+            public Iterator<Map.Entry<String, ContentDocument>> iterator() {
+                return new Iterator<Map.Entry<String, ContentDocument>>() {
+                    private int _nxt = 0;
+
+                    @Override
+                    public boolean hasNext() {
+                        return _nxt < _ids.length;
+                    }
+
+                    @Override
+                    public Map.Entry<String, ContentDocument> next() {
+                        if (!hasNext()) {
+                            throw new NoSuchElementException();
+                        }
+                        int idx = _nxt++;
+                        return new AbstractMap.SimpleImmutableEntry<>(_ids[idx], _documents[idx]);
+                    }
+                };
+            }
+
+            @Override
+            public int size() {
+                return _ids.length;
+            }
+        };
+
+        @Override
+        public Set<Map.Entry<String, ContentDocument>> entrySet() {
+            return _entrySet;
+        }
+
+        @Override
+        public int size() {
+            return _ids.length;
+        }
+
+        @Override
+        public boolean containsKey(Object key) {
+            return key instanceof String && indexOf((String) key) >= 0;
+        }
+
+        @Override
+        public ContentDocument get(Object key) {
+            if (!(key instanceof String)) {
+                return null;
+            }
+            int idx = indexOf((String) key);
+            return idx < 0 ? null : _documents[idx];
+        }
+
+        /**
+         * The view is serialized as a copy of its mappings, without the
+         * catalog.
+         */
+        private Object writeReplace() {
+            return Collections.unmodifiableMap(new TreeMap<>(this));
+        }
+    }
+}
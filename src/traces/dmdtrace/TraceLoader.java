@@ -1,14 +1,14 @@
 package traces.dmdtrace;
 
 import app.SimulatorApp;
-import exceptions.CriticalFailureException;
 import exceptions.InconsistencyException;
 import exceptions.WrongOrImproperArgumentException;
-import java.io.BufferedReader;
 import java.io.File;
 import java.io.FileNotFoundException;
 import java.io.FileReader;
 import java.io.IOException;
+import java.io.ObjectOutputStream;
+import java.io.Serializable;
 import java.util.ArrayList;
 import java.util.Collection;
 import java.util.Collections;
@@ -17,7 +17,6 @@ import java.util.HashSet;
 import java.util.Iterator;
 import java.util.List;
 import java.util.Map;
-import java.util.NoSuchElementException;
 import java.util.Scanner;
 import java.util.Set;
 import java.util.SortedMap;
@@ -28,11 +27,13 @@ import java.util.TreeMap;
 import java.util.TreeSet;
 import java.util.logging.Level;
 import java.util.logging.Logger;
+import java.util.regex.Pattern;
 import sim.run.SimulationBaseRunner;
 import sim.content.ContentDocument;
 import sim.space.cell.CellRegistry;
 import sim.time.NormalSimulationEndException;
 import utilities.CommonFunctions;
+import utils.random.RandomStream;
 
 /**
  * Class for loading from a trace file.
@@ -41,10 +42,23 @@ import utilities.CommonFunctions;
  */
 public class TraceLoader implements sim.ISimulationMember {
 
+    private static final long serialVersionUID = 1L;
+
     private final List<File> _wldTraceFiles = new ArrayList<>();
     private int _traceIdx; //indexes which trace (docs path and workload paths combination) is being used now
     private final int _howManyTraces;
-    private Scanner _wrkLoadScnr;
+    private transient Scanner _wrkLoadScnr;
+    /**
+     * Used instead of _wrkLoadScnr while streaming from the binary sibling of
+     * the current workload file; null otherwise.
+     */
+    private transient BinaryWorkload.Reader _wrkLoadBin;
+    private boolean _wrkLoadBinary;
+    /**
+     * The lines, or the binary records, of the current workload file read so
+     * far, for reopening it at the same position after a resume.
+     */
+    private long _wrkLoadPos;
     private final int _wrkLoadLimit;
 
     private final List<File> _docTraceFiles = new ArrayList<>();
@@ -56,12 +70,16 @@ public class TraceLoader implements sim.ISimulationMember {
     private long _maxItemSize = Long.MIN_VALUE;
     private long _minItemSize = Long.MAX_VALUE;
     /////
-    private static final String META_INFO_CHAR = "$"; // used in the beggining of each workload file, for lines with meta info
-// used in the beggining of each workload file, for lines with meta info
+    static final String META_INFO_CHAR = "$"; // used in the beggining of each workload file, for lines with meta info
+    private static final Pattern META_INFO_TOKEN = Pattern.compile(Pattern.quote(META_INFO_CHAR) + "\\S*");
     /**
      * The number of records in the workload.
      */
-    private static final String RECS_NUM = META_INFO_CHAR + "RECS_NUM";
+    static final String RECS_NUM = META_INFO_CHAR + "RECS_NUM";
+    /**
+     * The number of records assumed for a workload not declaring it.
+     */
+    private static final int DEFAULT_RECS_NUM = 500;
 
     private int _wrkloadSize;
     private int _recsLoaded;
@@ -90,18 +108,7 @@ public class TraceLoader implements sim.ISimulationMember {
 
         _documents = new TreeMap();
 
-        Comparator<ContentDocument> maxPopComparator = new Comparator<ContentDocument>() {
-            @Override
-            public int compare(ContentDocument t1, ContentDocument t2) {
-                // compares based on popularity
-                int result = t2.getTotalNumberOfRequests() - t1.getTotalNumberOfRequests(); // t2 - t1 => max priority queue
-//                return result == 0 ? (int) (t2.getID() - t1.getID()) // persistent choice between runs
-//                        : result;
-                return result == 0
-                        ? _sim.getRandomGenerator().randDoubleInRange(0, 1) > 0.5 ? 1 : -1 // random choice based on seed in this simulation run
-                        : result;
-            }
-        };
+        Comparator<ContentDocument> maxPopComparator = new MaxPopComparator(sim.getScenario().seed());
 
         _maxPopInfo = new TreeSet<>(maxPopComparator);
         _topMaxPopInfo = new TreeSet<>(maxPopComparator);
@@ -112,7 +119,7 @@ public class TraceLoader implements sim.ISimulationMember {
             File docFile = new File(nxtDocsPth).getCanonicalFile();
             _docTraceFiles.add(docFile);
             loadFromDocs(sim, docFile,
-                    utils.CommonFunctions.parseSizeToBytes(overideSize), _traceIdx);
+                    utils.CommonFunctions.parseSizeToBytes(overideSize));
             _traceIdx++;
             _traceIdx %= _howManyTraces;
         }
@@ -121,258 +128,43 @@ public class TraceLoader implements sim.ISimulationMember {
             _wldTraceFiles.add(new File(nxtWrkPth).getCanonicalFile());
         }
         //init the first workload stream
-        _wrkLoadScnr = initWld(new FileReader(_wldTraceFiles.get(_traceIdx = 0)));
+        initWld(_wldTraceFiles.get(_traceIdx = 0));
         _wrkLoadLimit = wrkLoadLimit;
     }
 
     /**
-     * Loads all documents.
+     * Loads all documents from the shared catalog of the documents file. The
+     * catalog is built by the first simulation that needs it and is read
+     * without locking afterwards.
      *
-     * rdrDoc the reader for the document file. should the steam be closed after
-     * reading the contents of the file.
+     * @see app.CachedTraceDocuments
      */
-    private void loadFromDocs(SimulationBaseRunner sim, File docFile, long overrideSize, int traceIdx) {
-        int totallyLoaded = 0;
-
-        SimulatorApp.CROSS_SIM_TRC_DOCS.acquireWriteLock();
-
-        Map<String, ContentDocument> crossSimDocs
-                = SimulatorApp.CROSS_SIM_TRC_DOCS.getDocumentsOfTrace(docFile, this);
-
-        if (crossSimDocs != null) {/*
-             * if the documents of this file have been preloaded in the past
-             */
-            List<Long> meta = SimulatorApp.CROSS_SIM_TRC_DOCS.getDocumentsMeta(docFile);
+    private void loadFromDocs(SimulationBaseRunner sim, File docFile, long overrideSize) {
+        DocumentCatalog catalog = SimulatorApp.CROSS_SIM_TRC_DOCS.catalogOf(docFile, overrideSize, sim);
 
-            long overrid = meta.get(0);
-            if (overrid != overrideSize) {
-                throw new RuntimeException("Do not use multiple parameter values "
-                        + "for overriding trace documents default size. It can mess up things..");
+        _overrideSizes = overrideSize;
+        _totalReqNum += catalog.totalRequests();
+        _sumSize += catalog.sumSize();
+        _maxItemSize = Math.max(_maxItemSize, catalog.maxSize());
+        _minItemSize = Math.min(_minItemSize, catalog.minSize());
 
-//                // if the scenario setup has a different overide_size parameter
-//                SimulatorApp.CROSS_SIM_TRC_DOCS.removeDocumentsOfTrace(docFile);
-//                totallyLoaded = loadFromDocs_(docFile, overrideSize, traceIdx, sim);
-            } else {
-                _overrideSizes = meta.get(0);
-                _totalReqNum = meta.get(1);
-                _maxItemSize = meta.get(2);
-                _sumSize = meta.get(3);
-                _minItemSize = meta.get(4);
-
-                _documents = Collections.unmodifiableMap(crossSimDocs);
-                _maxPopInfo.addAll(_documents.values());
-            }
+        if (_documents.isEmpty()) {
+            _documents = catalog.documents();
         } else {
-            // if first time loading these documents
-            totallyLoaded = loadFromDocs_(docFile, overrideSize, traceIdx, sim);
+            // more than one documents file in use
+            Map<String, ContentDocument> allDocs = new TreeMap(_documents);
+            allDocs.putAll(catalog.documents());
+            _documents = Collections.unmodifiableMap(allDocs);
         }
-
-        SimulatorApp.CROSS_SIM_TRC_DOCS.releaseWriteLock();
+        _maxPopInfo.addAll(catalog.documents().values());
 
         arangeCDNCached();
-        sim.setLoadedDocumentsNum(totallyLoaded);
+        sim.setLoadedDocumentsNum(_documents.size());
         sim.setMaxWorklaodRequestsNum(_totalReqNum);
     }
-//    private void loadFromDocs(SimulationBaseRunner sim, File docFile, long overrideSize, int traceIdx) {
-//        int totallyLoaded = 0;
-//
-//        java.util.logging.Logger.getLogger(getClass().getCanonicalName()).
-//                log(Level.INFO, "\n Loading documents from trace..");
-//
-//        try (BufferedReader br = new BufferedReader(new FileReader(docFile))) {
-//            _overrideSizes = overrideSize;
-//
-//            String nxtLine;
-//            StringTokenizer toks;
-//            while ((nxtLine = br.readLine()) != null) {
-//                toks = new StringTokenizer(nxtLine, ", \t\r\n");
-//                String idInTrace = toks.nextToken();
-//                long theID = -1;
-//                try {
-//                    theID = createID(idInTrace, _docTraceFiles.get(traceIdx));
-//                } catch (NumberFormatException nfe) {
-//                    Logger.getLogger(TraceLoader.class.getName()).log(
-//                            Level.WARNING,
-//                            "An exception was caght: {2}"
-//                            + "line with problem is: {0}\n\t found in file {1}",
-//                            new Object[]{
-//                                nxtLine,
-//                                docFile,
-//                                nfe.getMessage()
-//                            }
-//                    );
-//                }
-//
-//                int reqNum = Integer.parseInt(toks.nextToken());
-//
-//                _totalReqNum += reqNum;
-//
-//                long sizeInBytes = (long) Double.parseDouble(toks.nextToken());
-//                sizeInBytes = _overrideSizes < 0 ? sizeInBytes : _overrideSizes;
-//                _sumSize += sizeInBytes;
-//
-//                _maxItemSize = _maxItemSize < sizeInBytes ? sizeInBytes : _maxItemSize;
-//                _minItemSize = _minItemSize > sizeInBytes ? sizeInBytes : _minItemSize;
-//
-//                int appType = Integer.parseInt(toks.nextToken());
-//
-//                ContentDocument nxtTrcDocument;
-//                if (!SimulatorApp.CROSS_SIM_TRC_DOCS.contains(theID)) {
-//                    nxtTrcDocument
-//                            = new ContentDocument(theID, sim, sizeInBytes, reqNum, appType);
-//                    SimulatorApp.CROSS_SIM_TRC_DOCS.addDocument(theID, nxtTrcDocument, this);
-//                } else {
-//                    nxtTrcDocument = SimulatorApp.CROSS_SIM_TRC_DOCS.getDocument(theID, this);
-//                }
-//
-//                _documents.put(nxtTrcDocument.getID(), nxtTrcDocument);
-//                //<editor-fold defaultstate="collapsed" desc="logging">
-//                java.util.logging.Logger.getLogger(getClass().getCanonicalName()).
-//                        log(Level.FINE, "\n Last document loaded id={0} (id in trace file {1})."
-//                                + " The size of the described content is {2}MB"
-//                                + " and it was split into {3} chunks:",
-//                                new Object[]{
-//                                    nxtTrcDocument.getID(),
-//                                    idInTrace,
-//                                    nxtTrcDocument.sizeInMBs(),
-//                                    nxtTrcDocument.totalNumberOfChunks()
-//                                }
-//                        );
-//                if (++totallyLoaded % 500 == 0) {
-//                    java.util.logging.Logger.getLogger(getClass().getCanonicalName()).
-//                            log(Level.INFO, "\n Totally loaded documents from trace {4}. Last document loaded id={0} (id in trace file {1})."
-//                                    + " The size of the described content is {2}MB"
-//                                    + " and it was split into {3} chunks:",
-//                                    new Object[]{
-//                                        nxtTrcDocument.getID(),
-//                                        idInTrace,
-//                                        nxtTrcDocument.sizeInMBs(),
-//                                        nxtTrcDocument.totalNumberOfChunks(),
-//                                        totallyLoaded
-//                                    }
-//                            );
-//                }
-//                //</editor-fold>
-//                _maxPopInfo.add(nxtTrcDocument);
-//            }
-//        } catch (IOException ex) {
-//            throw new CriticalFailureException(ex);
-//        }
-//
-//        arangeCDNCached();
-//
-//        sim.setLoadedDocumentsNum(totallyLoaded);
-//        sim.setMaxWorklaodRequestsNum(_totalReqNum);
-//    }
-
-    protected int loadFromDocs_(File docFile, long overrideSize, int traceIdx,
-            SimulationBaseRunner sim) throws CriticalFailureException, NumberFormatException {
-
-        int totallyLoaded = 0;
-
-        java.util.logging.Logger.getLogger(getClass().getCanonicalName()).
-                log(Level.INFO,
-                        "\n Loading documents from trace for simulation {0}",
-                        simID());
-        try (BufferedReader br = new BufferedReader(new FileReader(docFile))) {
-            _overrideSizes = overrideSize;
-
-            String nxtLine;
-            StringTokenizer toks;
-            while ((nxtLine = br.readLine()) != null) {
-                toks = new StringTokenizer(nxtLine, ", \t\r\n");
-                String idInTrace = toks.nextToken();
-                String theID = "UNDEFINED";
-                try {
-                    theID = createID(idInTrace, _docTraceFiles.get(traceIdx));
-                } catch (NumberFormatException nfe) {
-                    Logger.getLogger(TraceLoader.class.getName()).log(
-                            Level.WARNING,
-                            "An exception was caght: {2}"
-                            + "line with problem is: {0}\n\t found in file {1}",
-                            new Object[]{
-                                nxtLine,
-                                docFile,
-                                nfe.getMessage()
-                            }
-                    );
-                }
-
-                int reqNum = Integer.parseInt(toks.nextToken());
-
-                _totalReqNum += reqNum;
-
-                long sizeInBytes = (long) Double.parseDouble(toks.nextToken());
-                sizeInBytes = _overrideSizes < 0 ? sizeInBytes : _overrideSizes;
-                _sumSize += sizeInBytes;
-
-                _maxItemSize = _maxItemSize < sizeInBytes ? sizeInBytes : _maxItemSize;
-                _minItemSize = _minItemSize > sizeInBytes ? sizeInBytes : _minItemSize;
-
-                int appType = Integer.parseInt(toks.nextToken());
-
-                ContentDocument nxtTrcDocument;
-                if (!SimulatorApp.CROSS_SIM_TRC_DOCS.contains(docFile, theID)) {
-                    nxtTrcDocument
-                            = new ContentDocument(theID, sim, sizeInBytes, reqNum, appType);
-                    SimulatorApp.CROSS_SIM_TRC_DOCS.addDocument(docFile, theID, nxtTrcDocument, this);
-                } else {
-                    nxtTrcDocument = SimulatorApp.CROSS_SIM_TRC_DOCS.getDocument(docFile, theID, this);
-                }
-
-                _documents.put(nxtTrcDocument.getID(), nxtTrcDocument);
-                //<editor-fold defaultstate="collapsed" desc="logging">
-                java.util.logging.Logger.getLogger(getClass().getCanonicalName()).
-                        log(Level.FINE, "\n Last document loaded id={0} (id in trace file {1})."
-                                + " The size of the described content is {2}MB"
-                                + " and it was split into {3} chunks:",
-                                new Object[]{
-                                    nxtTrcDocument.getID(),
-                                    idInTrace,
-                                    nxtTrcDocument.sizeInMBs(),
-                                    nxtTrcDocument.totalNumberOfChunks()
-                                }
-                        );
-                if (++totallyLoaded % 500 == 0) {
-                    java.util.logging.Logger.getLogger(getClass().getCanonicalName()).
-                            log(Level.INFO, "\n Totally loaded documents from trace {4}. Last document loaded id={0} (id in trace file {1})."
-                                    + " The size of the described content is {2}MB"
-                                    + " and it was split into {3} chunks:",
-                                    new Object[]{
-                                        nxtTrcDocument.getID(),
-                                        idInTrace,
-                                        nxtTrcDocument.sizeInMBs(),
-                                        nxtTrcDocument.totalNumberOfChunks(),
-                                        totallyLoaded
-                                    }
-                            );
-                }
-                //</editor-fold>
-                _maxPopInfo.add(nxtTrcDocument);
-            }
-        } catch (IOException ex) {
-            throw new CriticalFailureException(ex);
-        }
-
-        List<Long> meta = SimulatorApp.CROSS_SIM_TRC_DOCS.getDocumentsMeta(docFile);
-        if (meta == null) {
-            meta = new ArrayList<>();
-            SimulatorApp.CROSS_SIM_TRC_DOCS.addDocumentsMeta(docFile, meta);
-
-        }
-        meta.clear();
-        meta.add(0, _overrideSizes);
-        meta.add(1, _totalReqNum);
-        meta.add(2, _maxItemSize);
-        meta.add(3, _sumSize);
-        meta.add(4, _minItemSize);
-
-        return totallyLoaded;
-    }
 
     private void arangeCDNCached() {
-        double _topMaxPopPercent4CDN = _sim.getScenario().doubleProperty(
-                app.properties.Space.MU__DMD__TRACE__DOCS__CDN_SERVED);
+        double _topMaxPopPercent4CDN = _sim.getCompiledScenario().getCDNServed();
         long cdnCachedNum = Math.round(_topMaxPopPercent4CDN * _documents.size());
 
         // keep only the top X most popular in _topMaxPopInfo
@@ -408,14 +200,71 @@ public class TraceLoader implements sim.ISimulationMember {
         return Collections.unmodifiableSet(_CDNCachedIDs);
     }
 
-    private Scanner initWld(FileReader fileReader) throws IOException {
+    /**
+     * Opens the workload file for streaming its records, using its binary
+     * sibling if there is an up to date one.
+     *
+     * @see BinaryWorkload
+     */
+    private void initWld(File wldFile) throws IOException {
+        _wrkLoadPos = 0;
+        if (BinaryWorkload.hasUpToDateSibling(wldFile)) {
+            _wrkLoadScnr = null;
+            _wrkLoadBinary = true;
+            _wrkLoadBin = new BinaryWorkload.Reader(
+                    BinaryWorkload.siblingOf(wldFile), _documents.keySet());
+            _wrkloadSize += _wrkLoadBin.recordsNum();
+
+            if (_randInitInTrace) {
+                int declared = _wrkLoadBin.declaredRecordsNum();
+                _wrkLoadBin.skip(randInitSkip(wldFile, declared < 0 ? DEFAULT_RECS_NUM : declared));
+            }
+            return;
+        }
+
+        _wrkLoadBin = null;
+        _wrkLoadBinary = false;
+        _wrkLoadScnr = initWld(new FileReader(wldFile), wldFile);
+    }
+
+    /**
+     * Reopens the current workload file of a loader restored from a
+     * checkpoint, at the position it was read up to.
+     *
+     * @throws IOException
+     */
+    public void reopen() throws IOException {
+        File wldFile = _wldTraceFiles.get(_traceIdx);
+        if (_wrkLoadBinary) {
+            _wrkLoadBin = new BinaryWorkload.Reader(
+                    BinaryWorkload.siblingOf(wldFile), _documents.keySet());
+            _wrkLoadBin.skip(_wrkLoadPos);
+            return;
+        }
+
+        _wrkLoadScnr = new Scanner(new FileReader(wldFile));
+        for (long i = 0; i < _wrkLoadPos && _wrkLoadScnr.hasNextLine(); i++) {
+            _wrkLoadScnr.nextLine();
+        }
+    }
+
+    private void writeObject(ObjectOutputStream out) throws IOException {
+        if (_wrkLoadBinary) {
+            _wrkLoadPos = _wrkLoadBin.position();
+        }
+        out.defaultWriteObject();
+    }
+
+    private Scanner initWld(FileReader fileReader, File wldFile) throws IOException {
         Scanner scnr = new Scanner(fileReader);
 
         String nxtLine;
         StringTokenizer toks;
 
-        int recordsInTrace = 500;
-        while ((nxtLine = scnr.nextLine()).startsWith(META_INFO_CHAR)) {
+        int recordsInTrace = DEFAULT_RECS_NUM;
+        while (scnr.hasNext(META_INFO_TOKEN)) {
+            nxtLine = scnr.nextLine();
+            _wrkLoadPos++;
             toks = new StringTokenizer(nxtLine, "=");
             if (toks.countTokens() > 2) {
                 Logger.getLogger(getClass().getCanonicalName()).log(
@@ -435,16 +284,71 @@ public class TraceLoader implements sim.ISimulationMember {
         }
 
         if (_randInitInTrace) {
-            int randInitPos = getSimulation().getScenario().getRandomGenerator()
-                    .randIntInRange(1, recordsInTrace - 20); // /-20; empirical; because some lines are alrady read..
-            while (--randInitPos > 0 && scnr.hasNextLine()) {
+            for (int skip = randInitSkip(wldFile, recordsInTrace);
+                    skip > 0 && scnr.hasNextLine(); skip--) {
                 scnr.nextLine();//skip
+                _wrkLoadPos++;
             }
         }
 
         return scnr;
     }
 
+    /**
+     * Draws the number of records to skip for starting from a random position
+     * in a workload. The position is drawn up to 20 records before the number
+     * of records declared by the meta info of the workload, which is the same
+     * for its text and binary forms.
+     *
+     * @param wldFile the workload file
+     * @param recordsInTrace the declared number of records
+     * @return the number of records to skip, zero if the workload is too short
+     * for a random initial position.
+     */
+    private int randInitSkip(File wldFile, int recordsInTrace) {
+        if (recordsInTrace <= 21) {
+            Logger.getLogger(getClass().getCanonicalName()).log(Level.WARNING,
+                    "Workload {0} declares {1} records, too few for starting from a random"
+                    + " position; starting from its first record.",
+                    new Object[]{wldFile, recordsInTrace});
+            return 0;
+        }
+        // -20; empirical; because some lines are alrady read..
+        return getSimulation().getScenario().getRandomGenerator(RandomStream.WORKLOAD)
+                .randIntInRange(1, recordsInTrace - 20) - 1;
+    }
+
+    /**
+     * Compares documents based on popularity, in descending order.
+     */
+    private static final class MaxPopComparator implements Comparator<ContentDocument>, Serializable {
+
+        private static final long serialVersionUID = 1L;
+
+        private final long _tieSeed;
+
+        private MaxPopComparator(long tieSeed) {
+            _tieSeed = tieSeed;
+        }
+
+        @Override
+        public int compare(ContentDocument t1, ContentDocument t2) {
+            // compares based on popularity
+            int result = t2.getTotalNumberOfRequests() - t1.getTotalNumberOfRequests(); // t2 - t1 => max priority queue
+//                return result == 0 ? (int) (t2.getID() - t1.getID()) // persistent choice between runs
+//                        : result;
+            if (result != 0) {
+                return result;
+            }
+            // random choice based on seed in this simulation run, yet
+            // the same for the same pair, as the order must be consistent
+            result = Long.compare(
+                    RandomStream.mix(_tieSeed ^ t1.getID().hashCode()),
+                    RandomStream.mix(_tieSeed ^ t2.getID().hashCode()));
+            return result != 0 ? result : t1.getID().compareTo(t2.getID());
+        }
+    }
+
     public String workLoadPaths() throws IOException {
         StringBuilder sb = new StringBuilder();
         for (File wkrLdPath : _wldTraceFiles) {
@@ -483,7 +387,7 @@ public class TraceLoader implements sim.ISimulationMember {
         return getSimulation().getCellRegistry();
     }
 
-    private static String createID(String idInTraceStr, File traceFile) {
+    static String createID(String idInTraceStr, File traceFile) {
 
         // do not use the whole canonical path because the doc files are in a 
         // different path than the corresponding workload files
@@ -544,110 +448,104 @@ public class TraceLoader implements sim.ISimulationMember {
 
         SortedMap<Double, TraceWorkloadRecord> wrkTMP = new TreeMap();
 
-        int toLoad = recordLines;
-        if (toLoad > 0) {
-            if (_wrkLoadLimit > 0 && _recsLoaded >= _wrkLoadLimit) {
-                throw new NormalSimulationEndException("Workload loading limit reached: "
-                        + _wrkLoadLimit
-                );
-            }
-            if (!_wrkLoadScnr.hasNextLine()) {
-                while (!_wrkLoadScnr.hasNextLine()) {
-                    wrkloadScannerReload();
-                }
-                wrkloadScannerReload();
-            }
-        }
-
-        String nxtLine;
-
-        try {
-            nxtLine = _wrkLoadScnr.nextLine();
-        } catch (NoSuchElementException e) {
-            throw new IOException(
-                    "The file at path \"" + _wldTraceFiles.get(_traceIdx) + "\""
-                    + " appears to be empty, or there was an attempt to"
-                    + " read from a random point in file starting at the end of the file.",
-                    e
+        if (_wrkLoadLimit > 0 && _recsLoaded >= _wrkLoadLimit) {
+            throw new NormalSimulationEndException("Workload loading limit reached: "
+                    + _wrkLoadLimit
             );
         }
+        while (!hasNextWrkloadRecord()) {
+            wrkloadScannerReload();
+        }
 
+        int toLoad = recordLines;
         while (toLoad-- > 0) {
-            StringTokenizer toks;
-            try {
-                toks = new StringTokenizer(nxtLine, ", \t\r\n");
-
-                double theTime;
-                if (_shuffleReqTimes) {
-                    theTime = getSimulation().getRandomGenerator().
-                            randDoubleInRange(0.0, 100000/*this is big enough*/);
-                    toks.nextToken();
-                } else {
-                    theTime = Double.parseDouble(toks.nextToken());
-                    // if there is another loaded at same time, 
-                    // jitter it a bit; otherwise it will replace 
-                    // the other request in the loaded requests!
-                    double jitter = getSimulation().getRandomGenerator().randDoubleInRange(0.1, 0.8);
-                    while (wrkTMP.containsKey(theTime)) {
-                        theTime = theTime + jitter;
-//                        jitter = getSim().getRandomGenerator().randDoubleInRange(0.1, 1);
-                    }
-                }
-                String theID = createID(//name of docs and corresponding workload files must coinside
-                        toks.nextToken(), _wldTraceFiles.get(_traceIdx)
-                );
-
-                if (!_documents.containsKey(theID)) {
+            if (_wrkLoadBin != null) {
+                _wrkLoadBin.next();
+                long theSizeInBytes = _overrideSizes < 0 ? _wrkLoadBin.size() : _overrideSizes;
+                if (theSizeInBytes < 0) {
                     throw new InconsistencyException(
-                            "Content ID " + "\"" + theID + "\"" + " loaded from workload file "
-                            + _wldTraceFiles.get(_traceIdx) + " but is not present in "
-                            + "the loaded documents: "
-                            + CommonFunctions.toString(_documents.keySet())
-                    );
-
+                            "No size for content ID \"%s\" in binary workload of file %s",
+                            _wrkLoadBin.documentID(), _wldTraceFiles.get(_traceIdx));
                 }
+                addWorkloadRecord(wrkTMP, _wrkLoadBin.time(), _wrkLoadBin.documentID(), theSizeInBytes);
+            } else {
+                String nxtLine = _wrkLoadScnr.nextLine();
+                _wrkLoadPos++;
+                try {
+                    StringTokenizer toks = new StringTokenizer(nxtLine, ", \t\r\n");
 
-                long theSizeInBytes = _overrideSizes < 0 ? Long.parseLong(toks.nextToken()) : _overrideSizes;
-
-                TraceWorkloadRecord rec = new TraceWorkloadRecord(getSimulation(), theSizeInBytes, theID, theTime);
+                    // parsing the time is pointless if it is going to be shuffled
+                    String timeTok = toks.nextToken();
+                    double theTime = _shuffleReqTimes ? 0 : Double.parseDouble(timeTok);
 
-                wrkTMP.put(rec.getTime(), rec);
-                _recsLoaded++;
+                    String theID = createID(//name of docs and corresponding workload files must coinside
+                            toks.nextToken(), _wldTraceFiles.get(_traceIdx)
+                    );
 
-                if (_wrkLoadLimit > 0 && _recsLoaded >= _wrkLoadLimit) {
-                    return wrkTMP;
-                }
+                    if (!_documents.containsKey(theID)) {
+                        throw new InconsistencyException(
+                                "Content ID " + "\"" + theID + "\"" + " loaded from workload file "
+                                + _wldTraceFiles.get(_traceIdx) + " but is not present in "
+                                + "the loaded documents: "
+                                + CommonFunctions.toString(_documents.keySet())
+                        );
 
-                if (!_wrkLoadScnr.hasNextLine()) {
-                    while (!_wrkLoadScnr.hasNextLine()) {
-                        wrkloadScannerReload();
                     }
-                    nxtLine = _wrkLoadScnr.nextLine();
-                }
 
-            } catch (NumberFormatException e) {
-                Logger.getLogger(getClass().getCanonicalName()).log(Level.WARNING,
-                        "Erroneous record from workload ignored: {0}", nxtLine);
+                    long theSizeInBytes = _overrideSizes < 0 ? Long.parseLong(toks.nextToken()) : _overrideSizes;
 
-                if (_wrkLoadLimit > 0 && _recsLoaded >= _wrkLoadLimit) {
-                    return wrkTMP;
+                    addWorkloadRecord(wrkTMP, theTime, theID, theSizeInBytes);
+                } catch (NumberFormatException e) {
+                    Logger.getLogger(getClass().getCanonicalName()).log(Level.WARNING,
+                            "Erroneous record from workload ignored: {0}", nxtLine);
                 }
+            }
 
-                if (!_wrkLoadScnr.hasNextLine()) {
-                    while (!_wrkLoadScnr.hasNextLine()) {
-                        wrkloadScannerReload();
-                    }
-                    nxtLine = _wrkLoadScnr.nextLine();
-                }
+            if (_wrkLoadLimit > 0 && _recsLoaded >= _wrkLoadLimit) {
+                return wrkTMP;
             }
 
+            while (!hasNextWrkloadRecord()) {
+                wrkloadScannerReload();
+            }
         }//while
 
         return wrkTMP;
     }
 
+    /**
+     * Adds a record loaded from the workload, after shuffling or jittering its
+     * time of request as needed.
+     */
+    private void addWorkloadRecord(SortedMap<Double, TraceWorkloadRecord> wrkTMP,
+            double traceTime, String theID, long theSizeInBytes) {
+        double theTime;
+        if (_shuffleReqTimes) {
+            theTime = getSimulation().getRandomGenerator(RandomStream.WORKLOAD).
+                    randDoubleInRange(0.0, 100000/*this is big enough*/);
+        } else {
+            theTime = traceTime;
+            // if there is another loaded at same time, 
+            // jitter it a bit; otherwise it will replace 
+            // the other request in the loaded requests!
+            double jitter = getSimulation().getRandomGenerator(RandomStream.WORKLOAD).randDoubleInRange(0.1, 0.8);
+            while (wrkTMP.containsKey(theTime)) {
+                theTime = theTime + jitter;
+            }
+        }
+
+        TraceWorkloadRecord rec = new TraceWorkloadRecord(getSimulation(), theSizeInBytes, theID, theTime);
+
+        wrkTMP.put(rec.getTime(), rec);
+        _recsLoaded++;
+    }
+
+    private boolean hasNextWrkloadRecord() {
+        return _wrkLoadBin != null ? _wrkLoadBin.hasNext() : _wrkLoadScnr.hasNextLine();
+    }
+
     private void wrkloadScannerReload() throws IOException {
-        _wrkLoadScnr.close();
+        close();
 
         int prev = _traceIdx++;
         _traceIdx %= _howManyTraces;// cyclic loadFromWorkload of traces
@@ -660,7 +558,7 @@ public class TraceLoader implements sim.ISimulationMember {
                     Level.INFO,
                     "Reopenning (looping) the same workload file: \"{0}\"", _wldTraceFiles.get(_traceIdx));
         }
-        _wrkLoadScnr = initWld(new FileReader(_wldTraceFiles.get(_traceIdx)));
+        initWld(_wldTraceFiles.get(_traceIdx));
     }
 
     /**
@@ -754,7 +652,11 @@ public class TraceLoader implements sim.ISimulationMember {
     }
 
     public void close() {
-        _wrkLoadScnr.close();
+        if (_wrkLoadBin != null) {
+            _wrkLoadBin.close();
+        } else {
+            _wrkLoadScnr.close();
+        }
     }
 
 }
@@ -15,6 +15,8 @@ import sim.content.ContentDocument;
  */
 public class TraceWorkloadRecord extends AbstractContent {
 
+    private static final long serialVersionUID = 1L;
+
     private double _time;
 
     public TraceWorkloadRecord(SimulationBaseRunner sim, long size, String id, double time) {
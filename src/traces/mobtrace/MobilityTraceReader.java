@@ -0,0 +1,700 @@
+package traces.mobtrace;
+
+import java.io.Closeable;
+import java.io.File;
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.io.RandomAccessFile;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * Streams the records of a mobility trace, i.e. of a text file with one record
+ * per line made of the trace time, the ID of the mobile user and a fixed
+ * number of numeric values, e.g. coordinates and speed.
+ *
+ * Leading lines starting with {@link #META_INFO_CHAR} hold meta info, of which
+ * "#SEP=" defines the single character separating the fields (a space by
+ * default). Other meta info lines and empty lines are skipped wherever they
+ * appear.
+ *
+ * The file is parsed straight from memory mapped windows, without a regular
+ * expression or a String per field. The IDs of mobile users are interned to
+ * ints in the order they first appear in the trace, so that a String is
+ * created once per mobile user rather than once per record. Records are
+ * parsed in blocks of primitive arrays, by default on a read-ahead thread
+ * which keeps a few blocks ahead of the simulation.
+ *
+ * After each call to {@link #next()}, the fields of the current record are
+ * accessible through {@link #time()}, {@link #mu()}, {@link #id()} and
+ * {@link #value(int)}.
+ *
+ * @author Xenofon Vasilakos xvas@aueb.gr
+ */
+public final class MobilityTraceReader implements Closeable {
+
+    public static final String META_INFO_CHAR = "#";
+
+    /**
+     * Size of each memory mapped window; keeps each mapping well below the 2GB
+     * limit of a single MappedByteBuffer.
+     */
+    private static final int WINDOW_BYTES = 1 << 26;
+    private static final int BLOCK_RECORDS = 1 << 13;
+    /**
+     * Number of blocks the read-ahead thread may parse ahead of the reader.
+     */
+    private static final int BLOCKS_AHEAD = 4;
+
+    private static final Logger LOG = Logger.getLogger(MobilityTraceReader.class.getName());
+
+    private final File _file;
+    private final int _valuesNum;
+    private final Parser _parser;
+    private final Thread _readAhead;
+    private final BlockingQueue<Block> _filled;
+    private final BlockingQueue<Block> _free;
+
+    /**
+     * The IDs of mobile users per interned int, as far as the blocks taken so
+     * far; the parser keeps its own table, thus nothing is shared with the
+     * read-ahead thread other than the blocks passed through the queues.
+     */
+    private final List<String> _ids;
+    private Block _block;
+    private int _idx;
+    private long _position;
+
+    /**
+     * @param traceFile the mobility trace file
+     * @param valuesNum the number of numeric values following the ID of the
+     * mobile user in each record. Any further fields are ignored.
+     * @param readAhead whether to parse on a read-ahead thread
+     * @throws IOException
+     */
+    public MobilityTraceReader(File traceFile, int valuesNum, boolean readAhead) throws IOException {
+        _file = traceFile;
+        _valuesNum = valuesNum;
+        _parser = new Parser(traceFile, valuesNum);
+        _ids = new ArrayList<>();
+        _idx = -1;
+
+        if (!readAhead) {
+            _readAhead = null;
+            _filled = null;
+            _free = null;
+            return;
+        }
+
+        _filled = new ArrayBlockingQueue<>(BLOCKS_AHEAD);
+        _free = new ArrayBlockingQueue<>(BLOCKS_AHEAD);
+        for (int i = 0; i < BLOCKS_AHEAD; i++) {
+            _free.add(new Block(valuesNum));
+        }
+        _readAhead = new Thread(new Runnable() {
+            @Override
+            public void run() {
+                readAheadLoop();
+            }
+        }, "mobility-trace-read-ahead:" + traceFile.getName());
+        _readAhead.setDaemon(true);
+        _readAhead.start();
+    }
+
+    private void readAheadLoop() {
+        try {
+            Block nxt;
+            do {
+                nxt = _free.take();
+                _parser.fill(nxt);
+                _filled.put(nxt);
+            } while (!nxt._last);
+        } catch (InterruptedException ex) {
+            // closed
+        } finally {
+            _parser.close();
+        }
+    }
+
+    /**
+     * @return the separator of the fields of the records.
+     */
+    public char separator() {
+        return (char) _parser._sep;
+    }
+
+    /**
+     * Advances to the next record.
+     *
+     * @return false if the trace has no more records.
+     * @throws IOException if the trace cannot be read or a record is
+     * malformed.
+     */
+    public boolean next() throws IOException {
+        while (_block == null || _idx + 1 >= _block._size) {
+            if (_block != null && _block._last) {
+                _idx = _block._size;
+                return false;
+            }
+            takeBlock();
+        }
+        _idx++;
+        _position++;
+        return true;
+    }
+
+    private void takeBlock() throws IOException {
+        Block block;
+        if (_readAhead == null) {
+            block = _block == null ? new Block(_valuesNum) : _block;
+            _parser.fill(block);
+        } else {
+            if (_block != null) {
+                _free.add(_block);
+            }
+            try {
+                block = _filled.take();
+            } catch (InterruptedException ex) {
+                Thread.currentThread().interrupt();
+                throw new InterruptedIOException("Interrupted while reading \"" + _file + "\"");
+            }
+        }
+
+        _block = block;
+        _idx = -1;
+        _ids.addAll(block._newIDs);
+        if (block._failure != null) {
+            block._size = 0;
+            throw block._failure;
+        }
+    }
+
+    /**
+     * Skips up to n records, leaving the last one skipped as the current
+     * record.
+     *
+     * @param n
+     * @return the number of records skipped.
+     * @throws IOException
+     */
+    public long skip(long n) throws IOException {
+        long skipped = 0;
+        while (skipped < n && next()) {
+            skipped++;
+        }
+        return skipped;
+    }
+
+    /**
+     * @return the number of records read or skipped so far.
+     */
+    public long position() {
+        return _position;
+    }
+
+    private void checkCurrent() {
+        if (_block == null || _idx < 0 || _idx >= _block._size) {
+            throw new IllegalStateException("No current record in \"" + _file + "\"");
+        }
+    }
+
+    /**
+     * @return the trace time of the current record.
+     */
+    public int time() {
+        checkCurrent();
+        return _block._times[_idx];
+    }
+
+    /**
+     * @return the interned ID of the mobile user of the current record.
+     */
+    public int mu() {
+        checkCurrent();
+        return _block._mus[_idx];
+    }
+
+    /**
+     * @return the ID of the mobile user of the current record.
+     */
+    public String id() {
+        return _ids.get(mu());
+    }
+
+    /**
+     * @param mu an interned ID of a mobile user
+     * @return the ID of the mobile user.
+     */
+    public String id(int mu) {
+        return _ids.get(mu);
+    }
+
+    /**
+     * @return the IDs of the mobile users of the records read so far, indexed
+     * by their interned IDs.
+     */
+    public List<String> ids() {
+        return Collections.unmodifiableList(_ids);
+    }
+
+    /**
+     * @param column in [0, valuesNum)
+     * @return the numeric value of the current record in the column, counting
+     * from the first field after the ID of the mobile user.
+     */
+    public double value(int column) {
+        checkCurrent();
+        if (column < 0 || column >= _valuesNum) {
+            throw new IndexOutOfBoundsException("Column " + column + " of " + _valuesNum);
+        }
+        return _block._values[_idx * _valuesNum + column];
+    }
+
+    @Override
+    public void close() {
+        if (_readAhead != null) {
+            _readAhead.interrupt();
+        } else {
+            _parser.close();
+        }
+        _block = null;
+    }
+
+    /**
+     * A block of records in columns of primitive arrays.
+     */
+    private static final class Block {
+
+        private final int[] _times = new int[BLOCK_RECORDS];
+        private final int[] _mus = new int[BLOCK_RECORDS];
+        private final double[] _values;
+        /**
+         * The IDs interned by the parser while filling the block.
+         */
+        private final List<String> _newIDs = new ArrayList<>();
+        private int _size;
+        private boolean _last;
+        private IOException _failure;
+
+        private Block(int valuesNum) {
+            _values = new double[BLOCK_RECORDS * valuesNum];
+        }
+    }
+
+    /**
+     * Parses records from memory mapped windows of the trace file. Used by a
+     * single thread at a time.
+     */
+    private static final class Parser {
+
+        private final File _file;
+        private final int _valuesNum;
+        private final RandomAccessFile _raf;
+        private final FileChannel _channel;
+        private final long _fileSize;
+        private final IDTable _ids = new IDTable();
+
+        private byte _sep = ' ';
+        private MappedByteBuffer _window;
+        private long _windowStart;
+        private int _pos;
+        private long _lineNum;
+        private boolean _ended;
+
+        private Parser(File file, int valuesNum) throws IOException {
+            _file = file;
+            _valuesNum = valuesNum;
+            _raf = new RandomAccessFile(file, "r");
+            _channel = _raf.getChannel();
+            _fileSize = _channel.size();
+            try {
+                map(0);
+                readMetaInfo();
+            } catch (IOException | RuntimeException ex) {
+                close();
+                throw ex;
+            }
+        }
+
+        private void map(long start) throws IOException {
+            _windowStart = start;
+            _window = _channel.map(FileChannel.MapMode.READ_ONLY,
+                    start, Math.min(WINDOW_BYTES, _fileSize - start));
+            _pos = 0;
+        }
+
+        /**
+         * @return the end of the line starting at the current position,
+         * remapping the window so that the whole line is in it, or -1 if
+         * there are no more lines.
+         */
+        private int lineEnd() throws IOException {
+            while (true) {
+                int limit = _window.limit();
+                for (int i = _pos; i < limit; i++) {
+                    if (_window.get(i) == '\n') {
+                        return i;
+                    }
+                }
+                long lineStart = _windowStart + _pos;
+                if (_windowStart + limit >= _fileSize) {
+                    return _pos < limit ? limit : -1;
+                }
+                if (_pos == 0) {
+                    throw new IOException("Line " + (_lineNum + 1) + " of \"" + _file
+                            + "\" is longer than " + WINDOW_BYTES + " bytes");
+                }
+                map(lineStart);
+            }
+        }
+
+        private void readMetaInfo() throws IOException {
+            int end;
+            while ((end = lineEnd()) != -1) {
+                if (_window.get(_pos) != META_INFO_CHAR.charAt(0)) {
+                    return;
+                }
+                String line = new String(bytes(_pos, trimEnd(_pos, end)), StandardCharsets.UTF_8);
+                if (line.toUpperCase().startsWith("#SEP=")) {
+                    String sep = line.substring(5);
+                    if (sep.length() != 1 || sep.charAt(0) > 0x7F) {
+                        throw new IOException("Unsupported separator \"" + sep + "\" in \"" + _file
+                                + "\"; only single ASCII character separators are supported");
+                    }
+                    _sep = (byte) sep.charAt(0);
+                    LOG.log(Level.INFO, "Mobility trace \"{0}\" uses separator=\"{1}\"",
+                            new Object[]{_file, sep});
+                }
+                _pos = end + 1;
+                _lineNum++;
+            }
+        }
+
+        private byte[] bytes(int from, int to) {
+            byte[] bytes = new byte[to - from];
+            for (int i = from; i < to; i++) {
+                bytes[i - from] = _window.get(i);
+            }
+            return bytes;
+        }
+
+        private int trimEnd(int from, int to) {
+            while (to > from && _window.get(to - 1) == '\r') {
+                to--;
+            }
+            return to;
+        }
+
+        /**
+         * Fills the block with the next records. Failures are recorded in the
+         * block as its last one.
+         */
+        private void fill(Block block) {
+            block._size = 0;
+            block._newIDs.clear();
+            block._failure = null;
+            block._last = _ended;
+            try {
+                while (!block._last && block._size < BLOCK_RECORDS) {
+                    int end = lineEnd();
+                    if (end == -1) {
+                        _ended = block._last = true;
+                        break;
+                    }
+                    _lineNum++;
+                    int lineEnd = trimEnd(_pos, end);
+                    if (lineEnd > _pos && _window.get(_pos) != META_INFO_CHAR.charAt(0)) {
+                        parseRecord(block, _pos, lineEnd);
+                    }
+                    _pos = end + 1;
+                }
+            } catch (IOException | RuntimeException ex) {
+                block._failure = ex instanceof IOException ? (IOException) ex
+                        : new IOException("Cannot read \"" + _file + "\"", ex);
+                _ended = block._last = true;
+            }
+        }
+
+        private void parseRecord(Block block, int from, int to) throws IOException {
+            int rec = block._size;
+
+            int end = fieldEnd(from, to);
+            block._times[rec] = parseInt(from, end);
+
+            from = fieldStart(end, to);
+            end = fieldEnd(from, to);
+            if (from == end) {
+                throw malformed("no mobile user ID");
+            }
+            block._mus[rec] = _ids.intern(_window, from, end, block._newIDs);
+
+            int valuesAt = rec * _valuesNum;
+            for (int i = 0; i < _valuesNum; i++) {
+                from = fieldStart(end, to);
+                end = fieldEnd(from, to);
+                if (from == end) {
+                    throw malformed("expected " + _valuesNum + " values after the mobile user ID");
+                }
+                block._values[valuesAt + i] = parseDouble(from, end);
+            }
+
+            block._size++;
+        }
+
+        private int fieldEnd(int from, int to) {
+            while (from < to && _window.get(from) != _sep) {
+                from++;
+            }
+            return from;
+        }
+
+        /**
+         * Consecutive separators count as one.
+         */
+        private int fieldStart(int from, int to) {
+            while (from < to && _window.get(from) == _sep) {
+                from++;
+            }
+            return from;
+        }
+
+        private int parseInt(int from, int to) throws IOException {
+            boolean negative = false;
+            int i = from;
+            if (i < to && (_window.get(i) == '-' || _window.get(i) == '+')) {
+                negative = _window.get(i) == '-';
+                i++;
+            }
+            if (i == to) {
+                throw malformed("no trace time");
+            }
+            long value = 0;
+            for (; i < to; i++) {
+                int digit = _window.get(i) - '0';
+                if (digit < 0 || digit > 9) {
+                    throw malformed("trace time is not an integer");
+                }
+                value = value * 10 + digit;
+                if (value > (long) Integer.MAX_VALUE + 1) {
+                    throw malformed("trace time out of range");
+                }
+            }
+            value = negative ? -value : value;
+            if (value > Integer.MAX_VALUE) {
+                throw malformed("trace time out of range");
+            }
+            return (int) value;
+        }
+
+        /**
+         * Decimals of up to 15 significant digits and exponents up to 22, i.e.
+         * all but exotic values, are exact as a double mantissa divided or
+         * multiplied by an exact power of ten, which gives the same correctly
+         * rounded result as {@link Double#parseDouble(java.lang.String)}. Any
+         * other value is parsed by the latter.
+         */
+        private double parseDouble(int from, int to) throws IOException {
+            int i = from;
+            boolean negative = false;
+            if (_window.get(i) == '-' || _window.get(i) == '+') {
+                negative = _window.get(i) == '-';
+                i++;
+            }
+
+            long mantissa = 0;
+            int digits = 0;
+            int scale = 0;
+            boolean anyDigit = false;
+            boolean point = false;
+            for (; i < to; i++) {
+                byte b = _window.get(i);
+                if (b >= '0' && b <= '9') {
+                    anyDigit = true;
+                    if (mantissa == 0 && b == '0') {
+                        if (point) {
+                            scale--;
+                        }
+                        continue; // leading zeros are not significant
+                    }
+                    if (++digits > 15) {
+                        return parseDoubleSlow(from, to);
+                    }
+                    mantissa = mantissa * 10 + (b - '0');
+                    if (point) {
+                        scale--;
+                    }
+                } else if (b == '.' && !point) {
+                    point = true;
+                } else {
+                    break;
+                }
+            }
+            if (!anyDigit) {
+                return parseDoubleSlow(from, to);
+            }
+            if (i < to) {
+                byte b = _window.get(i);
+                if (b != 'e' && b != 'E') {
+                    return parseDoubleSlow(from, to);
+                }
+                i++;
+                boolean negExp = false;
+                if (i < to && (_window.get(i) == '-' || _window.get(i) == '+')) {
+                    negExp = _window.get(i) == '-';
+                    i++;
+                }
+                if (i == to) {
+                    return parseDoubleSlow(from, to);
+                }
+                int exp = 0;
+                for (; i < to; i++) {
+                    int digit = _window.get(i) - '0';
+                    if (digit < 0 || digit > 9 || exp > 1000) {
+                        return parseDoubleSlow(from, to);
+                    }
+                    exp = exp * 10 + digit;
+                }
+                scale += negExp ? -exp : exp;
+            }
+
+            double value;
+            if (mantissa == 0) {
+                value = 0.0;
+            } else if (scale >= 0 && digits + scale <= 15) { // the product is exact
+                value = mantissa * POWERS_OF_TEN[scale];
+            } else if (scale < 0 && scale >= -22) {
+                value = mantissa / POWERS_OF_TEN[-scale];
+            } else {
+                return parseDoubleSlow(from, to);
+            }
+            return negative ? -value : value;
+        }
+
+        private static final double[] POWERS_OF_TEN = {
+            1e0, 1e1, 1e2, 1e3, 1e4, 1e5, 1e6, 1e7, 1e8, 1e9, 1e10, 1e11,
+            1e12, 1e13, 1e14, 1e15, 1e16, 1e17, 1e18, 1e19, 1e20, 1e21, 1e22
+        };
+
+        private double parseDoubleSlow(int from, int to) throws IOException {
+            String str = new String(bytes(from, to), StandardCharsets.US_ASCII);
+            try {
+                return Double.parseDouble(str);
+            } catch (NumberFormatException ex) {
+                throw malformed("\"" + str + "\" is not a number");
+            }
+        }
+
+        private IOException malformed(String reason) {
+            return new IOException("Malformed record at line " + _lineNum
+                    + " of \"" + _file + "\": " + reason);
+        }
+
+        private void close() {
+            _window = null;
+            try {
+                _raf.close();
+            } catch (IOException ex) {
+                LOG.log(Level.WARNING, "Cannot close \"" + _file + "\"", ex);
+            }
+        }
+    }
+
+    /**
+     * Interns the IDs of mobile users by their bytes, without creating a
+     * String unless an ID is new.
+     */
+    private static final class IDTable {
+
+        private byte[] _bytes = new byte[1 << 12];
+        private int _bytesLen;
+        /**
+         * The bytes of ID i are in [_ends[i - 1], _ends[i]).
+         */
+        private int[] _ends = new int[64];
+        private int[] _hashes = new int[64];
+        private int _size;
+        /**
+         * Open addressing table of interned IDs plus one; zero for empty.
+         */
+        private int[] _slots = new int[128];
+
+        private int intern(MappedByteBuffer buf, int from, int to, List<String> newIDs) {
+            int hash = 0x811C9DC5;
+            for (int i = from; i < to; i++) {
+                hash = (hash ^ buf.get(i)) * 0x01000193;
+            }
+
+            int mask = _slots.length - 1;
+            for (int slot = hash & mask;; slot = (slot + 1) & mask) {
+                int id = _slots[slot] - 1;
+                if (id < 0) {
+                    id = add(buf, from, to, hash);
+                    _slots[slot] = id + 1;
+                    if (_size * 2 > _slots.length) {
+                        rehash();
+                    }
+                    newIDs.add(new String(_bytes, start(id), to - from, StandardCharsets.UTF_8));
+                    return id;
+                }
+                if (_hashes[id] == hash && equal(id, buf, from, to)) {
+                    return id;
+                }
+            }
+        }
+
+        private int start(int id) {
+            return id == 0 ? 0 : _ends[id - 1];
+        }
+
+        private boolean equal(int id, MappedByteBuffer buf, int from, int to) {
+            int start = start(id);
+            if (_ends[id] - start != to - from) {
+                return false;
+            }
+            for (int i = from; i < to; i++) {
+                if (_bytes[start++] != buf.get(i)) {
+                    return false;
+                }
+            }
+            return true;
+        }
+
+        private int add(MappedByteBuffer buf, int from, int to, int hash) {
+            int len = to - from;
+            while (_bytesLen + len > _bytes.length) {
+                _bytes = Arrays.copyOf(_bytes, _bytes.length * 2);
+            }
+            for (int i = from; i < to; i++) {
+                _bytes[_bytesLen++] = buf.get(i);
+            }
+            if (_size == _ends.length) {
+                _ends = Arrays.copyOf(_ends, _size * 2);
+                _hashes = Arrays.copyOf(_hashes, _size * 2);
+            }
+            _ends[_size] = _bytesLen;
+            _hashes[_size] = hash;
+            return _size++;
+        }
+
+        private void rehash() {
+            _slots = new int[_slots.length * 2];
+            int mask = _slots.length - 1;
+            for (int id = 0; id < _size; id++) {
+                int slot = _hashes[id] & mask;
+                while (_slots[slot] != 0) {
+                    slot = (slot + 1) & mask;
+                }
+                _slots[slot] = id + 1;
+            }
+        }
+    }
+}
@@ -1,5 +1,6 @@
 package utils.random;
 
+import java.io.Serializable;
 import java.util.Random;
 import java.util.logging.Level;
 import java.util.logging.Logger;
@@ -8,7 +9,9 @@ import java.util.logging.Logger;
  *
  * @author Xenofon Vasilakos xvas@aueb.gr
  */
-public final class RandomGenerator {
+public final class RandomGenerator implements Serializable {
+
+    private static final long serialVersionUID = 1L;
 
    private static MersenneTwisterFast mersenneTwisterRndGen;
    private static java.util.Random javaUtilRndGen;
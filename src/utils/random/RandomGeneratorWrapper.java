@@ -1,25 +1,44 @@
 package utils.random;
 
+import java.io.Serializable;
+import java.util.List;
+
 /**
- * Wraps the the MersenneTwister random numbers generator.
+ * Wraps the MersenneTwisterFast random numbers generator, which is not
+ * synchronized. Thus each generator must be confined to the thread of the
+ * simulation using it.
  *
  * @author Xenofon Vasilakos xvas@aueb.gr
  */
-public final class RandomGeneratorWrapper {
+public final class RandomGeneratorWrapper implements Serializable {
+
+    private static final long serialVersionUID = 1L;
 
-    private final MersenneTwister mersenneTwister;
+    private final MersenneTwisterFast mersenneTwister;
     private final int seed;
 
     /**
      * @return the mersenneTwister
      */
-    public MersenneTwister getMersenneTwister() {
+    public MersenneTwisterFast getMersenneTwister() {
         return mersenneTwister;
     }
 
     public RandomGeneratorWrapper(int seed) {
         this.seed = seed;
-        mersenneTwister = new MersenneTwister(seed);
+        mersenneTwister = new MersenneTwisterFast(seed);
+    }
+
+    /**
+     * A generator for one of the independent streams of random numbers derived
+     * from the seed.
+     *
+     * @param seed
+     * @param stream
+     */
+    public RandomGeneratorWrapper(int seed, RandomStream stream) {
+        this.seed = seed;
+        mersenneTwister = new MersenneTwisterFast(stream.seedKey(seed));
     }
 
     public double getGaussian(double mean, double stdev) {
@@ -56,6 +75,22 @@ public final class RandomGeneratorWrapper {
         return randDoubleInRange(0.0, 1.0);
     }
 
+    /**
+     * Randomly permutes the list in the same way as
+     * java.util.Collections#shuffle(java.util.List, java.util.Random).
+     *
+     * @param list
+     */
+    public void shuffle(List<?> list) {
+        for (int i = list.size(); i > 1; i--) {
+            swap(list, i - 1, mersenneTwister.nextInt(i));
+        }
+    }
+
+    private static <T> void swap(List<T> list, int i, int j) {
+        list.set(i, list.set(j, list.get(i)));
+    }
+
     /**
      * @return the seed
      */
@@ -0,0 +1,55 @@
+package utils.random;
+
+/**
+ * The independent streams of random numbers of a simulation, one per
+ * subsystem drawing random numbers. Each stream is seeded by both the seed of
+ * the scenario and the stream, thus the random numbers drawn by a subsystem do
+ * not depend on how many numbers other subsystems draw, while results remain
+ * reproducible per seed.
+ *
+ * @author Xenofon Vasilakos xvas@aueb.gr
+ */
+public enum RandomStream {
+
+    /**
+     * Anything not covered by the other streams, e.g. the topology of cells
+     * and the placement of users in the area.
+     */
+    GENERAL,
+    /**
+     * Movement of mobile users and their connections to small cells.
+     */
+    MOBILITY,
+    /**
+     * Loading of requests and content from the traces.
+     */
+    WORKLOAD,
+    /**
+     * Intentional random errors, e.g. for testing robustness to imprecise
+     * handover probabilities.
+     */
+    JITTER;
+
+    /**
+     * Mixes the bits of a value by the finalizer of the SplitMix64 generator,
+     * so that close values give unrelated results.
+     *
+     * @param value
+     * @return the mixed value
+     */
+    public static long mix(long value) {
+        long z = value + 0x9E3779B97F4A7C15L;
+        z = (z ^ (z >>> 30)) * 0xBF58476D1CE4E5B9L;
+        z = (z ^ (z >>> 27)) * 0x94D049BB133111EBL;
+        return z ^ (z >>> 31);
+    }
+
+    /**
+     * @param seed the seed of the scenario
+     * @return the key for seeding the generator of this stream.
+     */
+    int[] seedKey(int seed) {
+        long mixed = mix(((long) seed << 8) | ordinal());
+        return new int[]{(int) mixed, (int) (mixed >>> 32), seed, ordinal()};
+    }
+}